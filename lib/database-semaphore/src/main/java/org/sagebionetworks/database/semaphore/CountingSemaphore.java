@@ -1,5 +1,6 @@
 package org.sagebionetworks.database.semaphore;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -49,6 +50,19 @@ public interface CountingSemaphore {
 	 */
 	public void refreshLockTimeout(String key, String token, long timeoutSec);
 
+	/**
+	 * Refresh the expiration of many locks that are currently being held with a
+	 * single database call.
+	 * 
+	 * @param tokens     The lock tokens issued from
+	 *                   {@link #attemptToAcquireLock(String, long, int, String)}
+	 * @param timeoutSec The new life of each lock in seconds.
+	 * @return The number of locks that were refreshed. A result that is less than
+	 *         the number of distinct tokens indicates that at least one of the
+	 *         locks has already expired.
+	 */
+	public int refreshLockTimeouts(List<String> tokens, long timeoutSec);
+
 	/**
 	 * Release a lock using the token that was issued when the lock was acquired.
 	 * 
@@ -6,6 +6,7 @@ import static org.sagebionetworks.database.semaphore.Sql.COL_TABLE_SEM_LOCK_TOKE
 import static org.sagebionetworks.database.semaphore.Sql.TABLE_SEMAPHORE_LOCK;
 
 import java.sql.ResultSet;
+import java.util.List;
 import java.util.Optional;
 
 import javax.sql.DataSource;
@@ -55,12 +56,16 @@ public class CountingSemaphoreImpl implements CountingSemaphore {
 
 	private static final String CALL_REFRESH_SEMAPHORE_LOCK = "CALL refreshSemaphoreLock(?, ?)";
 
+	private static final String CALL_REFRESH_SEMAPHORE_LOCKS = "CALL refreshSemaphoreLocks(?, ?)";
+
 	private static final String CALL_RELEASE_SEMAPHORE_LOCK = "CALL releaseSemaphoreLock(?)";
 
 	private static final String CALL_ATTEMPT_TO_ACQUIRE_SEMAPHORE_LOCK = "CALL attemptToAcquireSemaphoreLock(?, ?, ?, ?)";
 
 	private static final String REFRESH_SEMAPHORE_LOCK = "refreshSemaphoreLock";
 
+	private static final String REFRESH_SEMAPHORE_LOCKS = "refreshSemaphoreLocks";
+
 	private static final String RELEASE_SEMAPHORE_LOCK = "releaseSemaphoreLock";
 
 	private static final String ATTEMPT_TO_ACQUIRE_SEMAPHORE_LOCK = "attemptToAcquireSemaphoreLock";
@@ -111,6 +116,7 @@ public class CountingSemaphoreImpl implements CountingSemaphore {
 		createProcedureIfDoesNotExist(ATTEMPT_TO_ACQUIRE_SEMAPHORE_LOCK);
 		createProcedureIfDoesNotExist(RELEASE_SEMAPHORE_LOCK);
 		createProcedureIfDoesNotExist(REFRESH_SEMAPHORE_LOCK);
+		createProcedureIfDoesNotExist(REFRESH_SEMAPHORE_LOCKS);
 		createProcedureIfDoesNotExist(GARBAGE_COLLECTION);
 	}
 
@@ -136,6 +142,29 @@ public class CountingSemaphoreImpl implements CountingSemaphore {
 	@Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Throwable.class, propagation = Propagation.REQUIRES_NEW)
 	public Optional<String> attemptToAcquireLock(final String key, final long timeoutSec,
 			final int maxLockCount, final String inputContext) {
+		validateAcquireArguments(key, timeoutSec, maxLockCount, inputContext);
+		try {
+			return jdbcTemplate.queryForObject(CALL_ATTEMPT_TO_ACQUIRE_SEMAPHORE_LOCK, (ResultSet rs, int rowNum) -> {
+				return Optional.ofNullable(rs.getString("TOKEN"));
+			}, key, timeoutSec, maxLockCount, inputContext);
+		} catch (TransientDataAccessException e) {
+			log.warn("Failed to acquire lock on key {}: {}", key, e.getMessage(), e);
+			return Optional.empty();
+		}
+
+	}
+
+	/**
+	 * Validate the arguments of
+	 * {@link #attemptToAcquireLock(String, long, int, String)}.
+	 * 
+	 * @param key
+	 * @param timeoutSec
+	 * @param maxLockCount
+	 * @param inputContext
+	 */
+	static void validateAcquireArguments(final String key, final long timeoutSec, final int maxLockCount,
+			final String inputContext) {
 		if (key == null) {
 			throw new IllegalArgumentException("Key cannot be null");
 		}
@@ -151,15 +180,6 @@ public class CountingSemaphoreImpl implements CountingSemaphore {
 		if (inputContext.length() > MAX_CONTEXT_CHARS) {
 			throw new IllegalArgumentException("Context length cannot be more than: "+MAX_CONTEXT_CHARS);
 		}
-		try {
-			return jdbcTemplate.queryForObject(CALL_ATTEMPT_TO_ACQUIRE_SEMAPHORE_LOCK, (ResultSet rs, int rowNum) -> {
-				return Optional.ofNullable(rs.getString("TOKEN"));
-			}, key, timeoutSec, maxLockCount, inputContext);
-		} catch (TransientDataAccessException e) {
-			log.warn("Failed to acquire lock on key {}: {}", key, e.getMessage(), e);
-			return Optional.empty();
-		}
-
 	}
 
 	@Override
@@ -201,6 +221,23 @@ public class CountingSemaphoreImpl implements CountingSemaphore {
 		Utils.validateResults(key, token, result);
 	}
 
+	@Override
+	@Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Throwable.class, propagation = Propagation.REQUIRES_NEW)
+	public int refreshLockTimeouts(final List<String> tokens, final long timeoutSec) {
+		if (tokens == null) {
+			throw new IllegalArgumentException("Tokens cannot be null.");
+		}
+		if (timeoutSec < 1) {
+			throw new IllegalArgumentException(
+					"TimeoutSec cannot be less then one.");
+		}
+		if (tokens.isEmpty()) {
+			return 0;
+		}
+		return jdbcTemplate.queryForObject(CALL_REFRESH_SEMAPHORE_LOCKS,
+				Integer.class, Utils.toJsonArray(tokens), timeoutSec);
+	}
+
 	@Override
 	public Optional<String> getFirstUnexpiredLockContext(final String key) {
 		try {
@@ -0,0 +1,311 @@
+package org.sagebionetworks.database.semaphore;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * A {@link CountingSemaphore} that sits in front of the database semaphore and
+ * tracks the locks that are currently held by this JVM. The database remains the
+ * only authority for issuing locks, but some calls can be answered or combined
+ * locally:
+ * </p>
+ * <ul>
+ * <li>An attempt to acquire a lock on a key for which this JVM already holds
+ * maxLockCount unexpired locks cannot succeed, so it is rejected without a
+ * database call.</li>
+ * <li>Refresh calls that arrive while another refresh is in flight are queued
+ * and sent to the database together with a single call.</li>
+ * </ul>
+ * <p>
+ * A locally tracked lock expires at the time the acquire started plus its
+ * timeout, which is never later than its expiration in the database, so a lock
+ * that is no longer held will at worst delay a local acquire until its local
+ * expiration.
+ * </p>
+ * <p>
+ * This class is thread-safe and can be used as a singleton.
+ * </p>
+ */
+public class LocalAdmissionCountingSemaphore implements CountingSemaphore {
+
+	/**
+	 * The maximum number of refresh requests sent to the database with a single
+	 * call.
+	 */
+	public static final int MAX_REFRESH_BATCH_SIZE = 100;
+
+	/**
+	 * How long a waiting refresh sleeps before checking if it should send the next
+	 * batch itself.
+	 */
+	static final long REFRESH_WAIT_MS = 10L;
+
+	private final CountingSemaphore delegate;
+	private final Clock clock;
+	/*
+	 * The expiration time of each token held by this JVM by key. The inner maps are
+	 * not synchronized, so all access to an inner map must occur within a compute
+	 * of its key. A key is removed as soon as it has no tokens.
+	 */
+	private final ConcurrentMap<String, Map<String, Long>> heldTokens;
+	private final ConcurrentLinkedQueue<RefreshRequest> pendingRefreshes;
+	private final AtomicBoolean refreshInProgress;
+	private final AtomicInteger localRejectionCount;
+
+	/**
+	 *
+	 * @param delegate The database semaphore.
+	 */
+	public LocalAdmissionCountingSemaphore(CountingSemaphore delegate) {
+		this(delegate, Clock.systemUTC());
+	}
+
+	LocalAdmissionCountingSemaphore(CountingSemaphore delegate, Clock clock) {
+		if (delegate == null) {
+			throw new IllegalArgumentException("Delegate cannot be null");
+		}
+		if (clock == null) {
+			throw new IllegalArgumentException("Clock cannot be null");
+		}
+		this.delegate = delegate;
+		this.clock = clock;
+		this.heldTokens = new ConcurrentHashMap<>();
+		this.pendingRefreshes = new ConcurrentLinkedQueue<>();
+		this.refreshInProgress = new AtomicBoolean(false);
+		this.localRejectionCount = new AtomicInteger(0);
+	}
+
+	@Override
+	public Optional<String> attemptToAcquireLock(String key, long timeoutSec, int maxLockCount, String context) {
+		CountingSemaphoreImpl.validateAcquireArguments(key, timeoutSec, maxLockCount, context);
+		long now = clock.millis();
+		if (countHeldTokens(key, now) >= maxLockCount) {
+			localRejectionCount.incrementAndGet();
+			return Optional.empty();
+		}
+		Optional<String> token = delegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		token.ifPresent(t -> putHeldToken(key, t, now + timeoutSec * 1000));
+		return token;
+	}
+
+	@Override
+	public void refreshLockTimeout(String key, String token, long timeoutSec) {
+		if (key == null) {
+			throw new IllegalArgumentException("Key cannot be null");
+		}
+		if (token == null) {
+			throw new IllegalArgumentException("Token cannot be null.");
+		}
+		if (timeoutSec < 1) {
+			throw new IllegalArgumentException("TimeoutSec cannot be less then one.");
+		}
+		long now = clock.millis();
+		RefreshRequest request = enqueueRefresh(key, token, timeoutSec);
+		boolean interrupted = false;
+		while (!request.result.isDone()) {
+			if (refreshInProgress.compareAndSet(false, true)) {
+				try {
+					flushRefreshes();
+				} finally {
+					refreshInProgress.set(false);
+				}
+			} else {
+				try {
+					request.result.get(REFRESH_WAIT_MS, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					// the request is already queued so wait for its result.
+					interrupted = true;
+				} catch (ExecutionException | TimeoutException e) {
+					// handled below
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			request.result.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof LockReleaseFailedException) {
+				removeHeldToken(key, token);
+			}
+			// the result is only ever completed with a runtime exception.
+			throw (RuntimeException) e.getCause();
+		}
+		putHeldToken(key, token, now + timeoutSec * 1000);
+	}
+
+	/**
+	 * Add a refresh request to the queue of pending refreshes.
+	 *
+	 * @param key
+	 * @param token
+	 * @param timeoutSec
+	 * @return
+	 */
+	RefreshRequest enqueueRefresh(String key, String token, long timeoutSec) {
+		RefreshRequest request = new RefreshRequest(key, token, timeoutSec);
+		pendingRefreshes.add(request);
+		return request;
+	}
+
+	/**
+	 * Send up to {@link #MAX_REFRESH_BATCH_SIZE} pending refresh requests to the
+	 * database. Requests with the same timeout are sent with a single call. If any
+	 * lock of such a call has expired, each request of the call is sent again on
+	 * its own to determine which lock failed.
+	 */
+	void flushRefreshes() {
+		Map<Long, List<RefreshRequest>> byTimeout = new HashMap<>();
+		RefreshRequest next;
+		int count = 0;
+		while (count < MAX_REFRESH_BATCH_SIZE && (next = pendingRefreshes.poll()) != null) {
+			byTimeout.computeIfAbsent(next.timeoutSec, k -> new ArrayList<>()).add(next);
+			count++;
+		}
+		byTimeout.forEach((timeoutSec, requests) -> {
+			if (requests.size() > 1) {
+				Set<String> tokens = new LinkedHashSet<>();
+				requests.forEach(r -> tokens.add(r.token));
+				try {
+					if (delegate.refreshLockTimeouts(new ArrayList<>(tokens), timeoutSec) == tokens.size()) {
+						requests.forEach(r -> r.result.complete(null));
+						return;
+					}
+				} catch (RuntimeException e) {
+					requests.forEach(r -> r.result.completeExceptionally(e));
+					return;
+				}
+			}
+			requests.forEach(this::refreshSingle);
+		});
+	}
+
+	private void refreshSingle(RefreshRequest request) {
+		try {
+			delegate.refreshLockTimeout(request.key, request.token, request.timeoutSec);
+			request.result.complete(null);
+		} catch (RuntimeException e) {
+			request.result.completeExceptionally(e);
+		}
+	}
+
+	@Override
+	public int refreshLockTimeouts(List<String> tokens, long timeoutSec) {
+		return delegate.refreshLockTimeouts(tokens, timeoutSec);
+	}
+
+	@Override
+	public void releaseLock(String key, String token) {
+		try {
+			delegate.releaseLock(key, token);
+		} finally {
+			if (key != null && token != null) {
+				removeHeldToken(key, token);
+			}
+		}
+	}
+
+	@Override
+	public void releaseAllLocks() {
+		heldTokens.clear();
+		delegate.releaseAllLocks();
+	}
+
+	@Override
+	public Optional<String> getFirstUnexpiredLockContext(String key) {
+		return delegate.getFirstUnexpiredLockContext(key);
+	}
+
+	@Override
+	public void runGarbageCollection() {
+		delegate.runGarbageCollection();
+	}
+
+	@Override
+	public long getLockRowCount() {
+		return delegate.getLockRowCount();
+	}
+
+	/**
+	 * Count the unexpired tokens held by this JVM for the given key. Expired
+	 * tokens are removed.
+	 *
+	 * @param key
+	 * @param now
+	 * @return
+	 */
+	int countHeldTokens(String key, long now) {
+		AtomicInteger count = new AtomicInteger(0);
+		heldTokens.computeIfPresent(key, (k, tokens) -> {
+			tokens.values().removeIf(expiresOn -> expiresOn <= now);
+			count.set(tokens.size());
+			return tokens.isEmpty() ? null : tokens;
+		});
+		return count.get();
+	}
+
+	private void putHeldToken(String key, String token, long expiresOn) {
+		heldTokens.compute(key, (k, tokens) -> {
+			if (tokens == null) {
+				tokens = new HashMap<>();
+			}
+			tokens.put(token, expiresOn);
+			return tokens;
+		});
+	}
+
+	private void removeHeldToken(String key, String token) {
+		heldTokens.computeIfPresent(key, (k, tokens) -> {
+			tokens.remove(token);
+			return tokens.isEmpty() ? null : tokens;
+		});
+	}
+
+	/**
+	 * @return The number of acquire attempts that were rejected without a database
+	 *         call.
+	 */
+	public int getLocalRejectionCount() {
+		return localRejectionCount.get();
+	}
+
+	/**
+	 * A single refresh call waiting to be sent to the database.
+	 */
+	static class RefreshRequest {
+
+		private final String key;
+		private final String token;
+		private final long timeoutSec;
+		private final CompletableFuture<Void> result;
+
+		RefreshRequest(String key, String token, long timeoutSec) {
+			this.key = key;
+			this.token = token;
+			this.timeoutSec = timeoutSec;
+			this.result = new CompletableFuture<>();
+		}
+
+		CompletableFuture<Void> getResult() {
+			return result;
+		}
+	}
+}
@@ -3,6 +3,7 @@ package org.sagebionetworks.database.semaphore;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
+import java.util.List;
 
 import org.apache.commons.io.IOUtils;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -70,6 +71,36 @@ public class Utils {
 		}
 	}
 
+	/**
+	 * Write the given strings as a JSON array of strings.
+	 * 
+	 * @param values
+	 * @return
+	 */
+	public static String toJsonArray(List<String> values) {
+		StringBuilder builder = new StringBuilder("[");
+		for (String value : values) {
+			if (value == null) {
+				throw new IllegalArgumentException("Values cannot contain null");
+			}
+			if (builder.length() > 1) {
+				builder.append(",");
+			}
+			builder.append('"');
+			for (char c : value.toCharArray()) {
+				if (c == '"' || c == '\\') {
+					builder.append('\\').append(c);
+				} else if (c < 0x20) {
+					builder.append(String.format("\\u%04x", (int) c));
+				} else {
+					builder.append(c);
+				}
+			}
+			builder.append('"');
+		}
+		return builder.append("]").toString();
+	}
+
 	/**
 	 * Create a READ_COMMITED transaction template.
 	 * 
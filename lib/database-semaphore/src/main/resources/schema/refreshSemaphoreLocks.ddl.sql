@@ -0,0 +1,23 @@
+/*
+ * Attempt to refresh many existing locks with a single call.
+ * 
+ * The tokens are passed as a JSON array of strings. The result is the number of locks that
+ * were refreshed, so a result that is less than the number of distinct tokens indicates that
+ * at least one of the locks has already expired.
+ * 
+ * This procedure manages it own transactions to guarantee that a slow-down from a caller
+ * cannot extend the duration of its exclusive locks.  Therefore, it must be called from
+ * a new database session (i.e. using Propagation.REQUIRES_NEW) to prevent the auto commit
+ * of any existing transaction managed by the caller.  
+ */
+CREATE PROCEDURE refreshSemaphoreLocks(IN tokensIn JSON, IN timeoutSec INT(4))
+    MODIFIES SQL DATA
+    SQL SECURITY INVOKER
+BEGIN
+    START TRANSACTION;
+	UPDATE SEMAPHORE_LOCK L JOIN JSON_TABLE(tokensIn, '$[*]' COLUMNS (
+			TOKEN VARCHAR(256) CHARACTER SET latin1 COLLATE latin1_bin PATH '$')) T ON (L.TOKEN = T.TOKEN)
+		SET L.EXPIRES_ON = (CURRENT_TIMESTAMP + INTERVAL timeoutSec SECOND);
+	SELECT ROW_COUNT() AS RESULT;
+	COMMIT;
+END;
\ No newline at end of file
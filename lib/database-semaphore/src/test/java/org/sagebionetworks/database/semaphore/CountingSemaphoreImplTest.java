@@ -214,6 +214,46 @@ public class CountingSemaphoreImplTest {
 		});
 	}
 
+	@Test
+	public void testRefreshLockTimeouts() throws InterruptedException {
+		int maxLockCount = 2;
+		long timeoutSec = 2;
+		Optional<String> token1 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		assertTrue(token1.isPresent());
+		Optional<String> token2 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		assertTrue(token2.isPresent());
+		// We should be able to refresh both locks with a single call.
+		for (int i = 0; i < timeoutSec + 1; i++) {
+			// call under test
+			assertEquals(2, semaphore.refreshLockTimeouts(Arrays.asList(token1.get(), token2.get()), timeoutSec));
+			Thread.sleep(1000);
+		}
+		// Both locks should still be held even though we have now exceeded to original
+		// timeout.
+		semaphore.releaseLock(key, token1.get());
+		semaphore.releaseLock(key, token2.get());
+	}
+
+	@Test
+	public void testRefreshLockTimeoutsWithExpiredLock() throws InterruptedException {
+		int maxLockCount = 2;
+		long timeoutSec = 10;
+		Optional<String> token1 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		assertTrue(token1.isPresent());
+		Optional<String> token2 = semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		assertTrue(token2.isPresent());
+		semaphore.releaseLock(key, token2.get());
+		// call under test
+		assertEquals(1, semaphore.refreshLockTimeouts(Arrays.asList(token1.get(), token2.get(), "unknown\"token"), timeoutSec));
+		semaphore.releaseLock(key, token1.get());
+	}
+
+	@Test
+	public void testRefreshLockTimeoutsWithEmptyTokens() {
+		// call under test
+		assertEquals(0, semaphore.refreshLockTimeouts(Collections.emptyList(), 10));
+	}
+
 	@Test
 	public void testReleaseLockAfterReleaseAllLocks() {
 		int maxLockCount = 1;
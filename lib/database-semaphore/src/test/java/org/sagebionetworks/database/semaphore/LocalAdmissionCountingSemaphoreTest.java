@@ -0,0 +1,283 @@
+package org.sagebionetworks.database.semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class LocalAdmissionCountingSemaphoreTest {
+
+	@Mock
+	private CountingSemaphore mockDelegate;
+	@Mock
+	private Clock mockClock;
+
+	private LocalAdmissionCountingSemaphore semaphore;
+
+	private String key;
+	private long timeoutSec;
+	private int maxLockCount;
+	private String context;
+
+	@BeforeEach
+	public void before() {
+		semaphore = new LocalAdmissionCountingSemaphore(mockDelegate, mockClock);
+		key = "someKey";
+		timeoutSec = 10;
+		maxLockCount = 2;
+		context = "some context";
+	}
+
+	@Test
+	public void testAttemptToAcquireLock() {
+		when(mockClock.millis()).thenReturn(1000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"));
+		// call under test
+		assertEquals(Optional.of("one"), semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context));
+		assertEquals(1, semaphore.countHeldTokens(key, 1000L));
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithNoLockIssued() {
+		when(mockClock.millis()).thenReturn(1000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.empty());
+		// call under test
+		assertEquals(Optional.empty(), semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context));
+		assertEquals(0, semaphore.countHeldTokens(key, 1000L));
+		assertEquals(0, semaphore.getLocalRejectionCount());
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithAllLocksHeldLocally() {
+		when(mockClock.millis()).thenReturn(1000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"),
+				Optional.of("two"));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		// call under test
+		assertEquals(Optional.empty(), semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context));
+		// the last attempt must not reach the database.
+		verify(mockDelegate, times(2)).attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		assertEquals(1, semaphore.getLocalRejectionCount());
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithExpiredLocalLock() {
+		maxLockCount = 1;
+		when(mockClock.millis()).thenReturn(1000L, 1000L + timeoutSec * 1000);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"),
+				Optional.of("two"));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		// call under test
+		assertEquals(Optional.of("two"), semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context));
+		verify(mockDelegate, times(2)).attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		assertEquals(1, semaphore.countHeldTokens(key, 1000L + timeoutSec * 1000));
+	}
+
+	@Test
+	public void testAttemptToAcquireLockAfterRelease() {
+		maxLockCount = 1;
+		when(mockClock.millis()).thenReturn(1000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"),
+				Optional.of("two"));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		semaphore.releaseLock(key, "one");
+		// call under test
+		assertEquals(Optional.of("two"), semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context));
+		verify(mockDelegate).releaseLock(key, "one");
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithInvalidArguments() {
+		maxLockCount = 0;
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context);
+		}).getMessage();
+		assertEquals("MaxLockCount cannot be less then one.", message);
+		verifyNoMoreInteractions(mockDelegate);
+	}
+
+	@Test
+	public void testReleaseLockWithFailure() {
+		maxLockCount = 1;
+		when(mockClock.millis()).thenReturn(1000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		LockReleaseFailedException exception = new LockReleaseFailedException("expired");
+		doThrow(exception).when(mockDelegate).releaseLock(key, "one");
+		assertSame(exception, assertThrows(LockReleaseFailedException.class, () -> {
+			// call under test
+			semaphore.releaseLock(key, "one");
+		}));
+		// the token is no longer held either way.
+		assertEquals(0, semaphore.countHeldTokens(key, 1000L));
+	}
+
+	@Test
+	public void testReleaseAllLocks() {
+		when(mockClock.millis()).thenReturn(1000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		// call under test
+		semaphore.releaseAllLocks();
+		assertEquals(0, semaphore.countHeldTokens(key, 1000L));
+		verify(mockDelegate).releaseAllLocks();
+	}
+
+	@Test
+	public void testRefreshLockTimeout() {
+		when(mockClock.millis()).thenReturn(1000L, 5000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		// call under test
+		semaphore.refreshLockTimeout(key, "one", timeoutSec);
+		// a single refresh is sent on its own.
+		verify(mockDelegate).refreshLockTimeout(key, "one", timeoutSec);
+		verify(mockDelegate, never()).refreshLockTimeouts(any(), anyLong());
+		// the local expiration is extended.
+		assertEquals(1, semaphore.countHeldTokens(key, 1000L + timeoutSec * 1000));
+	}
+
+	@Test
+	public void testRefreshLockTimeoutWithExpiredLock() {
+		when(mockClock.millis()).thenReturn(1000L);
+		when(mockDelegate.attemptToAcquireLock(key, timeoutSec, maxLockCount, context)).thenReturn(Optional.of("one"));
+		assertTrue(semaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, context).isPresent());
+		LockReleaseFailedException exception = new LockReleaseFailedException("expired");
+		doThrow(exception).when(mockDelegate).refreshLockTimeout(key, "one", timeoutSec);
+		assertSame(exception, assertThrows(LockReleaseFailedException.class, () -> {
+			// call under test
+			semaphore.refreshLockTimeout(key, "one", timeoutSec);
+		}));
+		assertEquals(0, semaphore.countHeldTokens(key, 1000L));
+	}
+
+	@Test
+	public void testRefreshLockTimeoutWithNullToken() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			semaphore.refreshLockTimeout(key, null, timeoutSec);
+		}).getMessage();
+		assertEquals("Token cannot be null.", message);
+	}
+
+	@Test
+	public void testFlushRefreshes() {
+		when(mockDelegate.refreshLockTimeouts(any(), anyLong())).thenReturn(2);
+		LocalAdmissionCountingSemaphore.RefreshRequest one = semaphore.enqueueRefresh(key, "one", timeoutSec);
+		LocalAdmissionCountingSemaphore.RefreshRequest two = semaphore.enqueueRefresh("otherKey", "two", timeoutSec);
+		// call under test
+		semaphore.flushRefreshes();
+		assertTrue(one.getResult().isDone());
+		assertFalse(one.getResult().isCompletedExceptionally());
+		assertTrue(two.getResult().isDone());
+		assertFalse(two.getResult().isCompletedExceptionally());
+		verify(mockDelegate).refreshLockTimeouts(Arrays.asList("one", "two"), timeoutSec);
+		verify(mockDelegate, never()).refreshLockTimeout(anyString(), anyString(), anyLong());
+	}
+
+	@Test
+	public void testFlushRefreshesWithDifferentTimeouts() {
+		LocalAdmissionCountingSemaphore.RefreshRequest one = semaphore.enqueueRefresh(key, "one", timeoutSec);
+		LocalAdmissionCountingSemaphore.RefreshRequest two = semaphore.enqueueRefresh(key, "two", timeoutSec + 1);
+		// call under test
+		semaphore.flushRefreshes();
+		assertTrue(one.getResult().isDone());
+		assertTrue(two.getResult().isDone());
+		verify(mockDelegate).refreshLockTimeout(key, "one", timeoutSec);
+		verify(mockDelegate).refreshLockTimeout(key, "two", timeoutSec + 1);
+		verify(mockDelegate, never()).refreshLockTimeouts(any(), anyLong());
+	}
+
+	@Test
+	public void testFlushRefreshesWithExpiredLock() {
+		// only one of the two locks was refreshed.
+		when(mockDelegate.refreshLockTimeouts(any(), anyLong())).thenReturn(1);
+		LockReleaseFailedException exception = new LockReleaseFailedException("expired");
+		doThrow(exception).when(mockDelegate).refreshLockTimeout(key, "two", timeoutSec);
+		LocalAdmissionCountingSemaphore.RefreshRequest one = semaphore.enqueueRefresh(key, "one", timeoutSec);
+		LocalAdmissionCountingSemaphore.RefreshRequest two = semaphore.enqueueRefresh(key, "two", timeoutSec);
+		// call under test
+		semaphore.flushRefreshes();
+		assertFalse(one.getResult().isCompletedExceptionally());
+		assertTrue(two.getResult().isCompletedExceptionally());
+		verify(mockDelegate).refreshLockTimeouts(Arrays.asList("one", "two"), timeoutSec);
+		verify(mockDelegate).refreshLockTimeout(key, "one", timeoutSec);
+		verify(mockDelegate).refreshLockTimeout(key, "two", timeoutSec);
+	}
+
+	@Test
+	public void testFlushRefreshesWithDuplicateToken() {
+		when(mockDelegate.refreshLockTimeouts(any(), anyLong())).thenReturn(1);
+		LocalAdmissionCountingSemaphore.RefreshRequest one = semaphore.enqueueRefresh(key, "one", timeoutSec);
+		LocalAdmissionCountingSemaphore.RefreshRequest again = semaphore.enqueueRefresh(key, "one", timeoutSec);
+		// call under test
+		semaphore.flushRefreshes();
+		assertFalse(one.getResult().isCompletedExceptionally());
+		assertFalse(again.getResult().isCompletedExceptionally());
+		verify(mockDelegate).refreshLockTimeouts(Arrays.asList("one"), timeoutSec);
+		verify(mockDelegate, never()).refreshLockTimeout(anyString(), anyString(), anyLong());
+	}
+
+	@Test
+	public void testFlushRefreshesWithBatchFailure() {
+		IllegalStateException exception = new IllegalStateException("nope");
+		when(mockDelegate.refreshLockTimeouts(any(), anyLong())).thenThrow(exception);
+		LocalAdmissionCountingSemaphore.RefreshRequest one = semaphore.enqueueRefresh(key, "one", timeoutSec);
+		LocalAdmissionCountingSemaphore.RefreshRequest two = semaphore.enqueueRefresh(key, "two", timeoutSec);
+		// call under test
+		semaphore.flushRefreshes();
+		assertTrue(one.getResult().isCompletedExceptionally());
+		assertTrue(two.getResult().isCompletedExceptionally());
+	}
+
+	@Test
+	public void testFlushRefreshesWithMaxBatchSize() {
+		when(mockDelegate.refreshLockTimeouts(any(), anyLong()))
+				.thenReturn(LocalAdmissionCountingSemaphore.MAX_REFRESH_BATCH_SIZE);
+		for (int i = 0; i < LocalAdmissionCountingSemaphore.MAX_REFRESH_BATCH_SIZE; i++) {
+			semaphore.enqueueRefresh(key, "token" + i, timeoutSec);
+		}
+		LocalAdmissionCountingSemaphore.RefreshRequest last = semaphore.enqueueRefresh(key, "last", timeoutSec);
+		// call under test
+		semaphore.flushRefreshes();
+		// the last request must wait for the next batch.
+		assertFalse(last.getResult().isDone());
+		verify(mockDelegate).refreshLockTimeouts(any(), anyLong());
+		// call under test
+		semaphore.flushRefreshes();
+		assertTrue(last.getResult().isDone());
+		verify(mockDelegate).refreshLockTimeout(key, "last", timeoutSec);
+	}
+
+	@Test
+	public void testGetFirstUnexpiredLockContext() {
+		when(mockDelegate.getFirstUnexpiredLockContext(key)).thenReturn(Optional.of(context));
+		// call under test
+		assertEquals(Optional.of(context), semaphore.getFirstUnexpiredLockContext(key));
+		verify(mockDelegate, never()).attemptToAcquireLock(anyString(), anyLong(), anyInt(), anyString());
+	}
+}
@@ -1,5 +1,7 @@
 package org.sagebionetworks.ids;
 
+import java.util.List;
+
 /**
  * 
  * @author jmhill
@@ -13,6 +15,17 @@ public interface IdGenerator {
 	 */
 	public Long generateNewId(IdType type);
 	
+	/**
+	 * Generate a block of new IDs. Up to {@link IdGeneratorImpl#MAX_IDS_PER_CALL}
+	 * IDs are generated with a single call to the ID database. The IDs are unique
+	 * and in ascending order but are not guaranteed to be contiguous.
+	 * 
+	 * @param type
+	 * @param count The number of IDs to generate.
+	 * @return
+	 */
+	public List<Long> generateNewIds(IdType type, int count);
+	
 	/**
 	 * Ensure that the given ID is reserved.  If the ID is not already reserved then, 
 	 * this method will reserve it and all values below it.
@@ -3,6 +3,8 @@ package org.sagebionetworks.ids;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.sql.DataSource;
 
@@ -38,6 +40,11 @@ public class IdGeneratorImpl implements IdGenerator, InitializingBean{
 	// Get the current max.
 	public static final String MAX_ID = "SELECT MAX(ID) FROM %1$S";
 	
+	/**
+	 * The maximum number of IDs generated with a single call to the ID database.
+	 */
+	public static final int MAX_IDS_PER_CALL = 1000;
+	
 	@Autowired
 	JdbcTemplate idGeneratorJdbcTemplate;
 
@@ -53,6 +60,29 @@ public class IdGeneratorImpl implements IdGenerator, InitializingBean{
 		return idGeneratorJdbcTemplate.queryForObject("CALL generateNewId(?)", Long.class, type.name());
 	}
 	
+	/**
+	 * Note: This is a call to a separate database and does not participate in the
+	 * caller's transaction. Do not add transaction annotations to this method.
+	 */
+	@Override
+	public List<Long> generateNewIds(IdType type, int count) {
+		if (type == null) {
+			throw new IllegalArgumentException("Type cannot be null");
+		}
+		if (count < 1) {
+			throw new IllegalArgumentException("Count must be greater than zero");
+		}
+		List<Long> results = new ArrayList<>(count);
+		while (results.size() < count) {
+			int callCount = Math.min(count - results.size(), MAX_IDS_PER_CALL);
+			String newIds = idGeneratorJdbcTemplate.queryForObject("CALL generateNewIds(?,?)", String.class, type.name(), callCount);
+			for (String id : newIds.split(",")) {
+				results.add(Long.parseLong(id));
+			}
+		}
+		return results;
+	}
+	
 	/**
 	 * Note: This is a call to a separate database and does not participate in the
 	 * caller's transaction. Do not add transaction annotations to this method.
@@ -93,6 +123,7 @@ public class IdGeneratorImpl implements IdGenerator, InitializingBean{
 		if(!con.getAutoCommit()) throw new RuntimeException("The connections from this datasources should be set to auto-commit");
 		
 		createStoredProcedure("generateNewId.ddl.sql");
+		createStoredProcedure("generateNewIds.ddl.sql");
 		createStoredProcedure("reserveId.ddl.sql");
 		
 		// Make sure we have a table for each type
@@ -0,0 +1,29 @@
+CREATE PROCEDURE generateNewIds(IN typeName VARCHAR(256), IN idCount INT)
+    MODIFIES SQL DATA
+    SQL SECURITY INVOKER
+BEGIN
+	DECLARE i INT DEFAULT 0;
+	DECLARE newIds TEXT DEFAULT NULL;
+	
+	SET SESSION TRANSACTION ISOLATION LEVEL READ COMMITTED;
+ 
+ 	/*
+ 	Issues a block of IDs with a single call from the client. Each ID is still
+ 	issued with its own AUTO_INCREMENT insert, so the IDs are unique and ascending
+ 	but are only contiguous when no other connection is issuing IDs of the same type
+ 	at the same time. Like generateNewId, the insert and LAST_INSERT_ID() must use
+ 	the same connection, which is guaranteed by the stored procedure. The IDs are
+ 	returned as a comma separated list.
+ 	*/
+	SET @sql_text:=CONCAT('INSERT INTO ',typeName,' (CREATED_ON) VALUES (NOW())');
+	PREPARE stmt from @sql_text;
+	WHILE i < idCount DO
+		EXECUTE stmt;
+		SET newIds = CONCAT_WS(',', newIds, LAST_INSERT_ID());
+		SET i = i + 1;
+	END WHILE;
+    DEALLOCATE PREPARE stmt;
+	
+	SELECT newIds as NEW_IDS;
+	
+END
\ No newline at end of file
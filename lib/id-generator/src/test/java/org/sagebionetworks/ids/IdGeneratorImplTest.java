@@ -2,9 +2,11 @@ package org.sagebionetworks.ids;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -36,6 +38,51 @@ public class IdGeneratorImplTest {
 		}
 	}
 	
+	@Test
+	public void testGenerateNewIds() {
+		Long start = idGenerator.generateNewId(IdType.ENTITY_ID);
+		// call under test
+		List<Long> ids = idGenerator.generateNewIds(IdType.ENTITY_ID, 5);
+		assertEquals(5, ids.size());
+		assertEquals(5, new HashSet<>(ids).size());
+		long previous = start;
+		for (Long id : ids) {
+			assertTrue(id > previous, "IDs must be in ascending order");
+			previous = id;
+		}
+		// The next ID must be larger than the block.
+		Long next = idGenerator.generateNewId(IdType.ENTITY_ID);
+		assertTrue(next > ids.get(4));
+	}
+	
+	@Test
+	public void testGenerateNewIdsAfterReserveId() {
+		Long id = idGenerator.generateNewId(IdType.ENTITY_ID);
+		Long reserved = id + 10;
+		idGenerator.reserveId(reserved, IdType.ENTITY_ID);
+		// call under test
+		List<Long> ids = idGenerator.generateNewIds(IdType.ENTITY_ID, 2);
+		assertEquals(List.of(reserved + 1, reserved + 2), ids);
+	}
+	
+	@Test
+	public void testGenerateNewIdsWithMoreThanMaxPerCall() {
+		int count = IdGeneratorImpl.MAX_IDS_PER_CALL + 1;
+		// call under test
+		List<Long> ids = idGenerator.generateNewIds(IdType.ENTITY_ID, count);
+		assertEquals(count, ids.size());
+		assertEquals(count, new HashSet<>(ids).size());
+	}
+	
+	@Test
+	public void testGenerateNewIdsWithZeroCount() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			idGenerator.generateNewIds(IdType.ENTITY_ID, 0);
+		}).getMessage();
+		assertEquals("Count must be greater than zero", message);
+	}
+	
 	@Test
 	public void testReserveId(){
 		// Start with the current ID.
@@ -12,6 +12,7 @@ import org.sagebionetworks.evaluation.model.SubmissionStatusEnum;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.web.NotFoundException;
 
@@ -228,4 +229,33 @@ public interface SubmissionDAO {
 	 */
 	public List<IdAndChecksum> getIdAndChecksumsPage(Long salt, Set<Long> parentIds, Long limit,
 			Long offset);
+
+	/**
+	 * Get a single page of IdAndChecksums for the submissions of the given
+	 * evaluations with an ID in the given range.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param minId     Inclusive
+	 * @param maxId     Exclusive
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	public List<IdAndChecksum> getIdAndChecksumsPage(Long salt, Set<Long> parentIds, Long minId, Long maxId,
+			Long limit, Long offset);
+
+	/**
+	 * Get the aggregated checksum of each range of IDs for the submissions of the
+	 * given evaluations. The checksum of a range is the sum of the checksums of
+	 * each ID in the range, as provided by
+	 * {@link #getIdAndChecksumsPage(Long, Set, Long, Long)}. Ranges without any
+	 * submissions are not included.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param rangeSize The number of IDs covered by each range.
+	 * @return The checksum of each range ordered by the range index.
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksums(Long salt, Set<Long> parentIds, Long rangeSize);
 }
\ No newline at end of file
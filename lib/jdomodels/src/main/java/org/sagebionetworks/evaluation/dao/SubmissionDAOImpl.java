@@ -70,6 +70,7 @@ import org.sagebionetworks.ids.IdType;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
 import org.sagebionetworks.repo.model.DatastoreException;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2Utils;
@@ -97,6 +98,12 @@ public class SubmissionDAOImpl implements SubmissionDAO {
 	public static final String GET_ID_AND_CHECKSUM_FOR_CHILDREN = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/evaluation/GetIdAndChecksumParentId.sql");
 
+	public static final String GET_ID_AND_CHECKSUM_FOR_CHILDREN_RANGE = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/evaluation/GetIdAndChecksumParentIdRange.sql");
+
+	public static final String GET_ID_RANGE_CHECKSUM_FOR_CHILDREN = DDLUtilsImpl
+			.loadSQLFromClasspath("sql/evaluation/GetIdRangeChecksumParentId.sql");
+
 	@Autowired
 	private DBOBasicDao basicDao;
 
@@ -895,4 +902,47 @@ public class SubmissionDAOImpl implements SubmissionDAO {
 		});
 	}
 
+	@Override
+	public List<IdAndChecksum> getIdAndChecksumsPage(Long salt, Set<Long> parentIds, Long minId, Long maxId,
+			Long limit, Long offset) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		ValidateArgument.required(limit, "limit");
+		ValidateArgument.required(offset, "offset");
+		if(parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("evaluationIds", parentIds);
+		params.addValue("minId", minId);
+		params.addValue("maxId", maxId);
+		params.addValue("limit", limit);
+		params.addValue("offset", offset);
+		return namedJdbcTemplate.query(GET_ID_AND_CHECKSUM_FOR_CHILDREN_RANGE, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksums(Long salt, Set<Long> parentIds, Long rangeSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(rangeSize, "rangeSize");
+		ValidateArgument.requirement(rangeSize > 0, "rangeSize must be greater than zero.");
+		if(parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("evaluationIds", parentIds);
+		params.addValue("rangeSize", rangeSize);
+		return namedJdbcTemplate.query(GET_ID_RANGE_CHECKSUM_FOR_CHILDREN, params, (ResultSet rs, int rowNum) -> {
+			return new IdRangeChecksum().withRangeIndex(rs.getLong("RANGE_INDEX")).withCount(rs.getLong("ID_COUNT"))
+					.withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+
 }
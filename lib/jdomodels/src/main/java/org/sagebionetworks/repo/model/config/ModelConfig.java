@@ -8,6 +8,7 @@ import org.apache.commons.dbcp2.BasicDataSource;
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.database.semaphore.CountingSemaphore;
 import org.sagebionetworks.database.semaphore.CountingSemaphoreImpl;
+import org.sagebionetworks.database.semaphore.LocalAdmissionCountingSemaphore;
 import org.sagebionetworks.repo.model.dbo.migration.MigratableTableDAO;
 import org.sagebionetworks.repo.model.dbo.migration.MigrationTypeProvider;
 import org.sagebionetworks.repo.model.dbo.migration.MigrationTypeProviderImpl;
@@ -116,11 +117,25 @@ public class ModelConfig {
 		return new TransactionTemplate(txManager, txDefinition);
 	}
 	
+	/**
+	 * The database semaphore. Most callers should use the
+	 * {@link #countingSemaphore(DataSource)} that is in front of it.
+	 * 
+	 * @param dataSourcePool
+	 * @return
+	 */
 	@Bean
-	public CountingSemaphore countingSemaphore(DataSource dataSourcePool) {
+	public CountingSemaphore databaseCountingSemaphore(DataSource dataSourcePool) {
 		return new CountingSemaphoreImpl(dataSourcePool);
 	}
 	
+	@Bean
+	@Primary
+	public CountingSemaphore countingSemaphore(DataSource dataSourcePool) {
+		// The database semaphore bean is used so its transactions and throttle still apply.
+		return new LocalAdmissionCountingSemaphore(databaseCountingSemaphore(dataSourcePool));
+	}
+	
 	@Bean
 	public MigrationTypeProvider createMigrationTypeProvider(MigratableTableDAO migratableTableDao) {
 		return new MigrationTypeProviderImpl(migratableTableDao.getAllMigratableTypes());
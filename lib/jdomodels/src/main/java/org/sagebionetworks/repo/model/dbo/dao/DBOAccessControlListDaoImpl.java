@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -300,11 +301,16 @@ public class DBOAccessControlListDaoImpl implements AccessControlListDAO {
 	private void populateResourceAccess(long dboId,
 			Set<ResourceAccess> resourceAccess) throws DatastoreException,
 			NotFoundException {
+		if (resourceAccess.isEmpty()) {
+			return;
+		}
+		// Issue the IDs for all of the resource access with a single call.
+		Iterator<Long> newIds = idGenerator.generateNewIds(IdType.ACL_RES_ACC_ID, resourceAccess.size()).iterator();
 		// Now create each Resource Access
 		for (ResourceAccess ra : resourceAccess) {
 			DBOResourceAccess dboRa = new DBOResourceAccess();
 			// assign an id
-			dboRa.setId(idGenerator.generateNewId(IdType.ACL_RES_ACC_ID));
+			dboRa.setId(newIds.next());
 			dboRa.setOwner(dboId);
 			if (ra.getPrincipalId() == null) {
 				throw new IllegalArgumentException(
@@ -58,6 +58,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -66,6 +67,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -84,6 +86,7 @@ import org.sagebionetworks.repo.model.FileSummary;
 import org.sagebionetworks.repo.model.HierarchyInfo;
 import org.sagebionetworks.repo.model.IdAndAlias;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.InvalidModelException;
 import org.sagebionetworks.repo.model.LimitExceededException;
 import org.sagebionetworks.repo.model.NameConflictException;
@@ -148,6 +151,8 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 
 /**
@@ -175,6 +180,18 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	public static final String SQL_SELECT_ID_AND_CHECKSUM_OBJECTT_ID = String.format(SQL_SELECT_ID_AND_CHCKSUM_TEMPLATE,
 			"N.ID IN (:objectIds)");
 	
+	public static final String SQL_SELECT_ID_AND_CHECKSUM_PARENT_ID_RANGE = String.format(SQL_SELECT_ID_AND_CHCKSUM_TEMPLATE,
+			"N.PARENT_ID IN (:parentIds) AND N.NODE_TYPE IN (:subTypes) AND N.ID >= :minId AND N.ID < :maxId");
+	
+	public static final String SQL_SELECT_ID_RANGE_CHECKSUM_TEMPLATE = "SELECT ID DIV :rangeSize AS RANGE_INDEX,"
+			+ " COUNT(ID) AS ID_COUNT, SUM(CHECK_SUM) AS CHECK_SUM FROM (%s) T GROUP BY RANGE_INDEX ORDER BY RANGE_INDEX ASC";
+	
+	public static final String SQL_SELECT_ID_RANGE_CHECKSUM_PARENT_ID = String.format(SQL_SELECT_ID_RANGE_CHECKSUM_TEMPLATE,
+			SQL_SELECT_ID_AND_CHECKSUM_PARENT_ID);
+	
+	public static final String SQL_SELECT_ID_RANGE_CHECKSUM_OBJECTT_ID = String.format(SQL_SELECT_ID_RANGE_CHECKSUM_TEMPLATE,
+			SQL_SELECT_ID_AND_CHECKSUM_OBJECTT_ID);
+	
 	public static final String SQL_GET_ALL_CONTAINER_IDS = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/GetAllContainerIds.sql");
 	
@@ -333,6 +350,10 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND N."
 			+ COL_NODE_CURRENT_REV + " = R." + COL_REVISION_NUMBER + " AND N." + COL_NODE_ID + "= ?";
 	
+	private static final String SQL_SELECT_CURRENT_NODES = SQL_SELECT_WITHOUT_ANNOTATIONS + " FROM " + TABLE_NODE
+			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND N."
+			+ COL_NODE_CURRENT_REV + " = R." + COL_REVISION_NUMBER + " AND N." + COL_NODE_ID + " IN (:" + BIND_NODE_IDS + ")";
+	
 	private static final String SQL_SELECT_NODE_VERSION = SQL_SELECT_WITHOUT_ANNOTATIONS + " FROM " + TABLE_NODE
 			+ " N, " + TABLE_REVISION + " R WHERE N." + COL_NODE_ID + "= R." + COL_REVISION_OWNER_NODE + " AND R."
 			+ COL_REVISION_NUMBER + " = ? AND N." + COL_NODE_ID + "= ?";
@@ -364,6 +385,7 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 
 	private static final String SELECT_ANNOTATIONS_ONLY_FROM_AND_WHERE_CLAUSE_PREFIX = " FROM  "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" = :"+COL_NODE_ID +" AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + "=";
 	private static final String SELECT_USER_ANNOTATIONS_ONLY_PREFIX = "SELECT N."+COL_NODE_ID+", N."+COL_NODE_ETAG+", R."+COL_REVISION_USER_ANNOS_JSON+" FROM  "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" = ? AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + " = ";
+	private static final String SELECT_CURRENT_USER_ANNOTATIONS = "SELECT N."+COL_NODE_ID+", N."+COL_NODE_ETAG+", R."+COL_REVISION_USER_ANNOS_JSON+" FROM  "+TABLE_NODE+" N, "+TABLE_REVISION+" R WHERE N."+COL_NODE_ID+" IN (:"+BIND_NODE_IDS+") AND R."+COL_REVISION_OWNER_NODE+" = N."+COL_NODE_ID+" AND R."+COL_REVISION_NUMBER + " = N." + COL_NODE_CURRENT_REV;
 	private static final String CANNOT_FIND_A_NODE_WITH_ID = "Cannot find a node with id: ";
 	private static final String CANNOT_FIND_A_NODE_WITH_ID_AND_VERSION = "Cannot find a node with id %s and version %d";
 	private static final String GET_CURRENT_REV_NUMBER_SQL = "SELECT "+COL_NODE_CURRENT_REV+" FROM "+TABLE_NODE+" WHERE "+COL_NODE_ID+" = ?";
@@ -457,6 +479,11 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		return new FileSummary(checksum, size, count);
 	};
 
+	private static final RowMapper<IdRangeChecksum> ID_RANGE_CHECKSUM_ROW_MAPPER = (rs, rowNum) -> {
+		return new IdRangeChecksum().withRangeIndex(rs.getLong("RANGE_INDEX")).withCount(rs.getLong("ID_COUNT"))
+				.withChecksum(rs.getLong("CHECK_SUM"));
+	};
+
 	// Track the trash folder.
 	public static final Long TRASH_FOLDER_ID = Long.parseLong(StackConfigurationSingleton.singleton().getTrashFolderEntityId());
 	
@@ -481,18 +508,34 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		return header;
 	};
 	
-	private static final RowMapper<NameIdType> NAME_ID_TYPE_ROWMAPPER = (ResultSet rs, int rowNum) -> {
-		NameIdType header = new NameIdType();
-		Long entityId = rs.getLong(COL_NODE_ID);
-		header.withId(KeyFactory.keyToString(entityId));
-		EntityType type = EntityType.valueOf(rs.getString(COL_NODE_TYPE));
-		header.withType(EntityTypeUtils.getEntityTypeClassName(type));
-		header.withName(rs.getString(COL_NODE_NAME));
-		return header;
+	private static final RowMapper<Node> NODE_MAPPER = new NodeMapper();
+	
+	private static final RowMapper<PathNode> PATH_NODE_MAPPER = (ResultSet rs, int rowNum) -> {
+		PathNode node = new PathNode();
+		node.id = rs.getLong(COL_NODE_ID);
+		node.name = rs.getString(COL_NODE_NAME);
+		node.type = EntityType.valueOf(rs.getString(COL_NODE_TYPE));
+		node.parentId = rs.getLong(COL_NODE_PARENT_ID);
+		if (rs.wasNull()) {
+			node.parentId = null;
+		}
+		return node;
 	};
 
+	private static final String SQL_SELECT_PATH_NODES = "SELECT " + COL_NODE_ID + ", " + COL_NODE_NAME + ", " + COL_NODE_TYPE + ", "
+			+ COL_NODE_PARENT_ID + " FROM " + TABLE_NODE + " WHERE " + COL_NODE_ID + " IN (:ids)";
 
-	private static final RowMapper<Node> NODE_MAPPER = new NodeMapper();
+	/**
+	 * The maximum number of entity paths held in memory.
+	 */
+	public static final long MAX_CACHED_PATHS = 100_000L;
+	
+	/*
+	 * The IDs of the path of each node from the root to the node. A cached path is
+	 * only used after each node on the path was re-read and found to still point
+	 * at the previous node, so the cache never needs to be invalidated.
+	 */
+	private final Cache<Long, long[]> pathCache = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_PATHS).build();
 	
 	// This is better suited for JDBC query.
 	@Autowired
@@ -675,6 +718,15 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 	
+	@Override
+	public List<Node> getNodes(List<Long> ids) {
+		ValidateArgument.required(ids, "ids");
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return namedParameterJdbcTemplate.query(SQL_SELECT_CURRENT_NODES, new MapSqlParameterSource(BIND_NODE_IDS, ids), NODE_MAPPER);
+	}
+	
 	@Override
 	public Node getNodeForVersion(String id, Long versionNumber){
 		if(id == null) throw new IllegalArgumentException("Id cannot be null");
@@ -1030,6 +1082,18 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 
+	@Override
+	public Map<Long, Annotations> getUserAnnotationsForNodes(List<Long> ids) {
+		ValidateArgument.required(ids, "ids");
+		Map<Long, Annotations> results = new HashMap<>(ids.size());
+		if (ids.isEmpty()) {
+			return results;
+		}
+		namedParameterJdbcTemplate.query(SELECT_CURRENT_USER_ANNOTATIONS, new MapSqlParameterSource(BIND_NODE_IDS, ids), ANNOTATIONS_V2_ROW_MAPPER)
+				.forEach(annotations -> results.put(KeyFactory.stringToKey(annotations.getId()), annotations));
+		return results;
+	}
+
 	@Override
 	public Annotations getUserAnnotationsForVersion(final String id, Long versionNumber){
 		ValidateArgument.requiredNotEmpty(id, "id");
@@ -1300,22 +1364,188 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 	
 	@Override
 	public List<Long> getEntityPathIds(String nodeId) {
-		String selectColumns = COL_NODE_ID;
-		String sql = String.format(PATH_QUERY_TEMPLATE, selectColumns);
-		List<Long> path = jdbcTemplate.queryForList(sql, Long.class, KeyFactory.stringToKey(nodeId));
-		validatePath(nodeId, path);
-		return path;
+		List<PathNode> path = getPathNodes(nodeId);
+		List<Long> pathIds = new ArrayList<>(path.size());
+		for (PathNode node : path) {
+			pathIds.add(node.id);
+		}
+		return pathIds;
 	}
 	
 	@Override
 	public List<NameIdType> getEntityPath(String nodeId) throws DatastoreException, NotFoundException {
-		String selectColumns = COL_NODE_ID+","+COL_NODE_NAME+","+COL_NODE_TYPE;
+		return toNameIdTypes(getPathNodes(nodeId));
+	}
+	
+	@Override
+	public Map<Long, List<NameIdType>> getEntityPaths(List<Long> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		Map<Long, List<NameIdType>> results = new HashMap<>(nodeIds.size());
+		getPathNodes(nodeIds).forEach((id, path) -> results.put(id, toNameIdTypes(path)));
+		return results;
+	}
+	
+	private static List<NameIdType> toNameIdTypes(List<PathNode> path) {
+		List<NameIdType> results = new ArrayList<>(path.size());
+		for (PathNode node : path) {
+			results.add(new NameIdType().withId(KeyFactory.keyToString(node.id)).withName(node.name)
+					.withType(EntityTypeUtils.getEntityTypeClassName(node.type)));
+		}
+		return results;
+	}
+	
+	/**
+	 * Get the nodes of the path from the root to the given node. The cached path
+	 * of the node is used when it still matches the current hierarchy, otherwise
+	 * the path is loaded with the recursive query and cached.
+	 * 
+	 * @param nodeId
+	 * @return
+	 */
+	List<PathNode> getPathNodes(String nodeId) {
+		Long id = KeyFactory.stringToKey(nodeId);
+		long[] cachedIds = pathCache.getIfPresent(id);
+		if (cachedIds != null) {
+			Optional<List<PathNode>> cached = getPathNodesIfCurrent(cachedIds);
+			if (cached.isPresent()) {
+				return cached.get();
+			}
+			pathCache.invalidate(id);
+		}
+		String selectColumns = COL_NODE_ID + "," + COL_NODE_NAME + "," + COL_NODE_TYPE + "," + COL_NODE_PARENT_ID;
 		String sql = String.format(PATH_QUERY_TEMPLATE, selectColumns);
-		List<NameIdType> path = jdbcTemplate.query(sql, NAME_ID_TYPE_ROWMAPPER, KeyFactory.stringToKey(nodeId));
+		List<PathNode> path = jdbcTemplate.query(sql, PATH_NODE_MAPPER, id);
 		validatePath(nodeId, path);
+		// Only complete paths that start at a node without a parent can be validated later.
+		if (path.get(0).parentId == null) {
+			pathCache.put(id, path.stream().mapToLong(node -> node.id).toArray());
+		}
 		return path;
 	}
 	
+	/**
+	 * Read each node of the given path with a single non-recursive query.
+	 * 
+	 * @param pathIds The IDs of a path from the root to a node.
+	 * @return The nodes of the path if the first node still has no parent and each
+	 *         other node is still a child of the node before it, otherwise empty.
+	 */
+	Optional<List<PathNode>> getPathNodesIfCurrent(long[] pathIds) {
+		Map<Long, PathNode> nodes = new HashMap<>(pathIds.length);
+		loadPathNodes(Arrays.stream(pathIds).boxed().collect(Collectors.toSet()), nodes);
+		return getPathNodesIfCurrent(pathIds, nodes);
+	}
+	
+	/**
+	 * @param pathIds The IDs of a path from the root to a node.
+	 * @param nodes   The current nodes by ID.
+	 * @return The nodes of the path if the first node still has no parent and each
+	 *         other node is still a child of the node before it, otherwise empty.
+	 */
+	private static Optional<List<PathNode>> getPathNodesIfCurrent(long[] pathIds, Map<Long, PathNode> nodes) {
+		List<PathNode> path = new ArrayList<>(pathIds.length);
+		Long expectedParentId = null;
+		for (long id : pathIds) {
+			PathNode node = nodes.get(id);
+			if (node == null || !Objects.equals(expectedParentId, node.parentId)) {
+				return Optional.empty();
+			}
+			path.add(node);
+			expectedParentId = node.id;
+		}
+		return Optional.of(path);
+	}
+	
+	/**
+	 * Get the nodes of the path from the root to each of the given nodes. All the
+	 * cached paths are validated with a single query. The remaining paths are
+	 * loaded one level at a time, with a single query per level for all of the
+	 * nodes, so the number of queries depends on the depth of the hierarchy rather
+	 * than the number of nodes.
+	 * 
+	 * @param nodeIds
+	 * @return The path of each node that exists by the node's ID.
+	 */
+	Map<Long, List<PathNode>> getPathNodes(List<Long> nodeIds) {
+		Map<Long, List<PathNode>> paths = new HashMap<>(nodeIds.size());
+		Map<Long, PathNode> loaded = new HashMap<>();
+		Map<Long, long[]> cachedPaths = pathCache.getAllPresent(nodeIds);
+		if (!cachedPaths.isEmpty()) {
+			Set<Long> cachedIds = new HashSet<>();
+			cachedPaths.values().forEach(pathIds -> Arrays.stream(pathIds).forEach(cachedIds::add));
+			loadPathNodes(cachedIds, loaded);
+			cachedPaths.forEach((id, pathIds) -> {
+				Optional<List<PathNode>> cached = getPathNodesIfCurrent(pathIds, loaded);
+				if (cached.isPresent()) {
+					paths.put(id, cached.get());
+				} else {
+					pathCache.invalidate(id);
+				}
+			});
+		}
+		List<Long> unresolved = nodeIds.stream().filter(id -> !paths.containsKey(id)).distinct().collect(Collectors.toList());
+		// IDs that were queried but do not exist
+		Set<Long> missing = new HashSet<>();
+		for (int level = 0; level < NodeConstants.MAX_PATH_DEPTH_PLUS_ONE; level++) {
+			Set<Long> toLoad = new HashSet<>();
+			for (Long id : unresolved) {
+				// Follow the loaded parents up to the first node that is not yet loaded
+				Long next = id;
+				for (int depth = 0; next != null && loaded.containsKey(next) && depth < NodeConstants.MAX_PATH_DEPTH_PLUS_ONE; depth++) {
+					next = loaded.get(next).parentId;
+				}
+				if (next != null && !loaded.containsKey(next) && !missing.contains(next)) {
+					toLoad.add(next);
+				}
+			}
+			if (toLoad.isEmpty()) {
+				break;
+			}
+			loadPathNodes(toLoad, loaded);
+			toLoad.stream().filter(id -> !loaded.containsKey(id)).forEach(missing::add);
+		}
+		for (Long id : nodeIds) {
+			if (paths.containsKey(id) || !loaded.containsKey(id)) {
+				continue;
+			}
+			LinkedList<PathNode> path = new LinkedList<>();
+			PathNode current = loaded.get(id);
+			while (current != null && path.size() < NodeConstants.MAX_PATH_DEPTH_PLUS_ONE) {
+				path.addFirst(current);
+				current = current.parentId == null ? null : loaded.get(current.parentId);
+			}
+			validatePath(KeyFactory.keyToString(id), path);
+			// Only complete paths that start at a node without a parent can be validated later.
+			if (path.getFirst().parentId == null) {
+				pathCache.put(id, path.stream().mapToLong(node -> node.id).toArray());
+			}
+			paths.put(id, path);
+		}
+		return paths;
+	}
+	
+	/**
+	 * Load the nodes with the given IDs with a single non-recursive query and add
+	 * them to the given map. IDs that do not exist are ignored.
+	 * 
+	 * @param ids
+	 * @param loaded
+	 */
+	private void loadPathNodes(Set<Long> ids, Map<Long, PathNode> loaded) {
+		namedParameterJdbcTemplate.query(SQL_SELECT_PATH_NODES, new MapSqlParameterSource("ids", ids), PATH_NODE_MAPPER)
+				.forEach(node -> loaded.put(node.id, node));
+	}
+	
+	/**
+	 * A single node of an entity path.
+	 */
+	static class PathNode {
+		Long id;
+		String name;
+		EntityType type;
+		Long parentId;
+	}
+	
 	/**
 	 * Validate the provide path result is valid.
 	 * @param nodeId
@@ -2066,6 +2296,22 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 		}
 	}
 
+	@Override
+	public Map<Long, Long> getBenefactors(List<Long> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		Map<Long, Long> results = new HashMap<>(nodeIds.size());
+		if (nodeIds.isEmpty()) {
+			return results;
+		}
+		namedParameterJdbcTemplate.query(SQL_SELECT_BENEFACTORS, new MapSqlParameterSource(BIND_NODE_IDS, nodeIds), (ResultSet rs) -> {
+			long benefactorId = rs.getLong(BENEFACTOR_ALIAS);
+			if (!rs.wasNull()) {
+				results.put(rs.getLong(COL_NODE_ID), benefactorId);
+			}
+		});
+		return results;
+	}
+	
 	@Override
 	public Set<Long> getAvailableNodes(List<Long> nodeIds) {
 		ValidateArgument.required(nodeIds, "nodeIds");
@@ -2278,6 +2524,81 @@ public class NodeDAOImpl implements NodeDAO, InitializingBean {
 			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
 		});
 	}
+
+	@Override
+	public List<IdAndChecksum> getIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long minId, Long maxId) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(subTypes, "subTypes");
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		if(subTypes.isEmpty()) {
+			throw new IllegalArgumentException("Must provide at least one sub-type");
+		}
+		if(parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		String sql = SQL_SELECT_ID_AND_CHECKSUM_PARENT_ID_RANGE;
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("parentIds", parentIds);
+		params.addValue("subTypes", subTypes.stream().map(t->t.name()).collect(Collectors.toList()));
+		params.addValue("minId", minId);
+		params.addValue("maxId", maxId);
+		params.addValue("trashId", TRASH_FOLDER_ID);
+		params.addValue("depth", NodeConstants.MAX_PATH_DEPTH);
+		return namedParameterJdbcTemplate.query(sql, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long rangeSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(parentIds, "parentIds");
+		ValidateArgument.required(subTypes, "subTypes");
+		ValidateArgument.required(rangeSize, "rangeSize");
+		ValidateArgument.requirement(rangeSize > 0, "rangeSize must be greater than zero.");
+		if(subTypes.isEmpty()) {
+			throw new IllegalArgumentException("Must provide at least one sub-type");
+		}
+		if(parentIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		String sql = SQL_SELECT_ID_RANGE_CHECKSUM_PARENT_ID;
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("parentIds", parentIds);
+		params.addValue("subTypes", subTypes.stream().map(t->t.name()).collect(Collectors.toList()));
+		params.addValue("rangeSize", rangeSize);
+		params.addValue("trashId", TRASH_FOLDER_ID);
+		params.addValue("depth", NodeConstants.MAX_PATH_DEPTH);
+		return namedParameterJdbcTemplate.query(sql, params, ID_RANGE_CHECKSUM_ROW_MAPPER);
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForObjects(Long salt, Set<Long> objectIds, Long rangeSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(objectIds, "objectIds");
+		ValidateArgument.required(rangeSize, "rangeSize");
+		ValidateArgument.requirement(rangeSize > 0, "rangeSize must be greater than zero.");
+		if(objectIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		String sql = SQL_SELECT_ID_RANGE_CHECKSUM_OBJECTT_ID;
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("salt", salt);
+		params.addValue("objectIds", objectIds);
+		params.addValue("rangeSize", rangeSize);
+		params.addValue("trashId", TRASH_FOLDER_ID);
+		params.addValue("depth", NodeConstants.MAX_PATH_DEPTH);
+		return namedParameterJdbcTemplate.query(sql, params, ID_RANGE_CHECKSUM_ROW_MAPPER);
+	}
 	
 	@Override
 	public boolean isSearchEnabled(Long nodeId, Long versionNumber) {
@@ -0,0 +1,173 @@
+package org.sagebionetworks.repo.model.dbo.dao.table;
+
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_CHECKPOINT_BUCKET;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_CHECKPOINT_CHANGE_NUMBER;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_CHECKPOINT_CREATED_ON;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_CHECKPOINT_KEY;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_CHECKPOINT_SCHEMA;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_CHECKPOINT_SEARCH_ENABLED;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.COL_TABLE_CHECKPOINT_TABLE_ID;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.DDL_TABLE_CHECKPOINT;
+import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.TABLE_TABLE_CHECKPOINT;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.dbo.DatabaseObject;
+import org.sagebionetworks.repo.model.dbo.FieldColumn;
+import org.sagebionetworks.repo.model.dbo.TableMapping;
+
+/**
+ * A dynamic (no migration) record of a checkpoint of a table index stored in
+ * S3. Checkpoints are created by a worker and can be re-created at any time.
+ *
+ */
+public class DBOTableCheckpoint implements DatabaseObject<DBOTableCheckpoint> {
+
+	private static final FieldColumn[] FIELDS = new FieldColumn[] {
+			new FieldColumn("tableId", COL_TABLE_CHECKPOINT_TABLE_ID, true),
+			new FieldColumn("changeNumber", COL_TABLE_CHECKPOINT_CHANGE_NUMBER, true),
+			new FieldColumn("createdOn", COL_TABLE_CHECKPOINT_CREATED_ON),
+			new FieldColumn("bucket", COL_TABLE_CHECKPOINT_BUCKET),
+			new FieldColumn("key", COL_TABLE_CHECKPOINT_KEY),
+			new FieldColumn("schemaIds", COL_TABLE_CHECKPOINT_SCHEMA),
+			new FieldColumn("searchEnabled", COL_TABLE_CHECKPOINT_SEARCH_ENABLED), };
+
+	private static final TableMapping<DBOTableCheckpoint> TABLE_MAPPING = new TableMapping<DBOTableCheckpoint>() {
+
+		@Override
+		public DBOTableCheckpoint mapRow(ResultSet rs, int rowNum) throws SQLException {
+			DBOTableCheckpoint dbo = new DBOTableCheckpoint();
+			dbo.setTableId(rs.getLong(COL_TABLE_CHECKPOINT_TABLE_ID));
+			dbo.setChangeNumber(rs.getLong(COL_TABLE_CHECKPOINT_CHANGE_NUMBER));
+			dbo.setCreatedOn(rs.getTimestamp(COL_TABLE_CHECKPOINT_CREATED_ON));
+			dbo.setBucket(rs.getString(COL_TABLE_CHECKPOINT_BUCKET));
+			dbo.setKey(rs.getString(COL_TABLE_CHECKPOINT_KEY));
+			dbo.setSchemaIds(rs.getString(COL_TABLE_CHECKPOINT_SCHEMA));
+			dbo.setSearchEnabled(rs.getBoolean(COL_TABLE_CHECKPOINT_SEARCH_ENABLED));
+			return dbo;
+		}
+
+		@Override
+		public String getTableName() {
+			return TABLE_TABLE_CHECKPOINT;
+		}
+
+		@Override
+		public FieldColumn[] getFieldColumns() {
+			return FIELDS;
+		}
+
+		@Override
+		public String getDDLFileName() {
+			return DDL_TABLE_CHECKPOINT;
+		}
+
+		@Override
+		public Class<? extends DBOTableCheckpoint> getDBOClass() {
+			return DBOTableCheckpoint.class;
+		}
+	};
+
+	Long tableId;
+	Long changeNumber;
+	Timestamp createdOn;
+	String bucket;
+	String key;
+	String schemaIds;
+	Boolean searchEnabled;
+
+	@Override
+	public TableMapping<DBOTableCheckpoint> getTableMapping() {
+		return TABLE_MAPPING;
+	}
+
+	public Long getTableId() {
+		return tableId;
+	}
+
+	public void setTableId(Long tableId) {
+		this.tableId = tableId;
+	}
+
+	public Long getChangeNumber() {
+		return changeNumber;
+	}
+
+	public void setChangeNumber(Long changeNumber) {
+		this.changeNumber = changeNumber;
+	}
+
+	public Timestamp getCreatedOn() {
+		return createdOn;
+	}
+
+	public void setCreatedOn(Timestamp createdOn) {
+		this.createdOn = createdOn;
+	}
+
+	public String getBucket() {
+		return bucket;
+	}
+
+	public void setBucket(String bucket) {
+		this.bucket = bucket;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	/**
+	 * @return The comma separated IDs of the columns of the index at the checkpoint
+	 */
+	public String getSchemaIds() {
+		return schemaIds;
+	}
+
+	public void setSchemaIds(String schemaIds) {
+		this.schemaIds = schemaIds;
+	}
+
+	public Boolean getSearchEnabled() {
+		return searchEnabled;
+	}
+
+	public void setSearchEnabled(Boolean searchEnabled) {
+		this.searchEnabled = searchEnabled;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(bucket, changeNumber, createdOn, key, schemaIds, searchEnabled, tableId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof DBOTableCheckpoint)) {
+			return false;
+		}
+		DBOTableCheckpoint other = (DBOTableCheckpoint) obj;
+		return Objects.equals(bucket, other.bucket) && Objects.equals(changeNumber, other.changeNumber)
+				&& Objects.equals(createdOn, other.createdOn) && Objects.equals(key, other.key)
+				&& Objects.equals(schemaIds, other.schemaIds) && Objects.equals(searchEnabled, other.searchEnabled)
+				&& Objects.equals(tableId, other.tableId);
+	}
+
+	@Override
+	public String toString() {
+		return "DBOTableCheckpoint [tableId=" + tableId + ", changeNumber=" + changeNumber + ", createdOn=" + createdOn
+				+ ", bucket=" + bucket + ", key=" + key + ", schemaIds=" + schemaIds + ", searchEnabled="
+				+ searchEnabled + "]";
+	}
+
+}
@@ -0,0 +1,98 @@
+package org.sagebionetworks.repo.model.dbo.dao.table;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Data transfer object for a checkpoint of a table index. A checkpoint is a
+ * copy of the index data stored in S3 after the change with the given change
+ * number was applied, along with the schema and search flag of the index at
+ * that point.
+ *
+ */
+public class TableCheckpoint {
+
+	Long tableId;
+	Long changeNumber;
+	String bucket;
+	String key;
+	List<String> schema;
+	Boolean searchEnabled;
+	Date createdOn;
+
+	public Long getTableId() {
+		return tableId;
+	}
+	public TableCheckpoint withTableId(Long tableId) {
+		this.tableId = tableId;
+		return this;
+	}
+	public Long getChangeNumber() {
+		return changeNumber;
+	}
+	public TableCheckpoint withChangeNumber(Long changeNumber) {
+		this.changeNumber = changeNumber;
+		return this;
+	}
+	public String getBucket() {
+		return bucket;
+	}
+	public TableCheckpoint withBucket(String bucket) {
+		this.bucket = bucket;
+		return this;
+	}
+	public String getKey() {
+		return key;
+	}
+	public TableCheckpoint withKey(String key) {
+		this.key = key;
+		return this;
+	}
+	public List<String> getSchema() {
+		return schema;
+	}
+	public TableCheckpoint withSchema(List<String> schema) {
+		this.schema = schema;
+		return this;
+	}
+	public Boolean getSearchEnabled() {
+		return searchEnabled;
+	}
+	public TableCheckpoint withSearchEnabled(Boolean searchEnabled) {
+		this.searchEnabled = searchEnabled;
+		return this;
+	}
+	public Date getCreatedOn() {
+		return createdOn;
+	}
+	public TableCheckpoint withCreatedOn(Date createdOn) {
+		this.createdOn = createdOn;
+		return this;
+	}
+	@Override
+	public int hashCode() {
+		return Objects.hash(bucket, changeNumber, createdOn, key, schema, searchEnabled, tableId);
+	}
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		TableCheckpoint other = (TableCheckpoint) obj;
+		return Objects.equals(bucket, other.bucket) && Objects.equals(changeNumber, other.changeNumber)
+				&& Objects.equals(createdOn, other.createdOn) && Objects.equals(key, other.key)
+				&& Objects.equals(schema, other.schema) && Objects.equals(searchEnabled, other.searchEnabled)
+				&& Objects.equals(tableId, other.tableId);
+	}
+	@Override
+	public String toString() {
+		return "TableCheckpoint [tableId=" + tableId + ", changeNumber=" + changeNumber + ", bucket=" + bucket
+				+ ", key=" + key + ", schema=" + schema + ", searchEnabled=" + searchEnabled + ", createdOn="
+				+ createdOn + "]";
+	}
+
+}
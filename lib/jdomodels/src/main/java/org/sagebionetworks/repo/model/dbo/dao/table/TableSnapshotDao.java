@@ -1,5 +1,7 @@
 package org.sagebionetworks.repo.model.dbo.dao.table;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
@@ -41,5 +43,42 @@ public interface TableSnapshotDao {
 	 * @return The most recent snapshot for the table with the given id and version, a previous snapshot might be returned
 	 */
 	Optional<TableSnapshot> getMostRecentTableSnapshot(IdAndVersion idAndVersion);
+	
+	/**
+	 * Create a record of a checkpoint of a table index stored in S3.
+	 * 
+	 * @param checkpoint
+	 * @return
+	 */
+	TableCheckpoint createCheckpoint(TableCheckpoint checkpoint);
+	
+	/**
+	 * @param tableId
+	 * @param maxChangeNumber
+	 * @return The checkpoint with the highest change number that is less than or
+	 *         equal to the given change number for the table with the given id
+	 */
+	Optional<TableCheckpoint> getMostRecentCheckpoint(long tableId, long maxChangeNumber);
+	
+	/**
+	 * @param tableId
+	 * @param replacedBefore
+	 * @return The checkpoints of the table with the given id that were replaced by
+	 *         a newer checkpoint created before the given date
+	 */
+	List<TableCheckpoint> getCheckpointsReplacedBefore(long tableId, Date replacedBefore);
+	
+	/**
+	 * Delete the record of the checkpoint of the given table at the given change number.
+	 * 
+	 * @param tableId
+	 * @param changeNumber
+	 */
+	void deleteCheckpoint(long tableId, long changeNumber);
+	
+	/**
+	 * Truncate all checkpoints.
+	 */
+	void truncateAllCheckpoints();
 
 }
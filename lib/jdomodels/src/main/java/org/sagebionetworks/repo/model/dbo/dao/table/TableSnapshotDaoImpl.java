@@ -7,9 +7,11 @@ import static org.sagebionetworks.repo.model.query.jdo.SqlConstants.*;
 
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.sagebionetworks.ids.IdGenerator;
 import org.sagebionetworks.ids.IdType;
@@ -36,6 +38,9 @@ public class TableSnapshotDaoImpl implements TableSnapshotDao {
 	JdbcTemplate jdbcTemplate;
 
 	private static RowMapper<DBOTableSnapshot> MAPPER = new DBOTableSnapshot().getTableMapping();
+	private static RowMapper<DBOTableCheckpoint> CHECKPOINT_MAPPER = new DBOTableCheckpoint().getTableMapping();
+	
+	private static final String SCHEMA_DELIMITER = ",";
 
 	@WriteTransaction
 	@Override
@@ -153,5 +158,77 @@ public class TableSnapshotDaoImpl implements TableSnapshotDao {
 			return Optional.empty();
 		}
 	}
+	
+	@WriteTransaction
+	@Override
+	public TableCheckpoint createCheckpoint(TableCheckpoint checkpoint) {
+		ValidateArgument.required(checkpoint, "checkpoint");
+		ValidateArgument.required(checkpoint.getTableId(), "checkpoint.tableId");
+		ValidateArgument.required(checkpoint.getChangeNumber(), "checkpoint.changeNumber");
+		ValidateArgument.required(checkpoint.getCreatedOn(), "checkpoint.createdOn");
+		ValidateArgument.required(checkpoint.getBucket(), "checkpoint.bucket");
+		ValidateArgument.required(checkpoint.getKey(), "checkpoint.key");
+		ValidateArgument.required(checkpoint.getSchema(), "checkpoint.schema");
+		ValidateArgument.required(checkpoint.getSearchEnabled(), "checkpoint.searchEnabled");
+		return translate(basicDao.createNew(translate(checkpoint)));
+	}
+	
+	@Override
+	public Optional<TableCheckpoint> getMostRecentCheckpoint(long tableId, long maxChangeNumber) {
+		try {
+			TableCheckpoint checkpoint = translate(jdbcTemplate.queryForObject("SELECT * FROM " + TABLE_TABLE_CHECKPOINT
+					+ " WHERE " + COL_TABLE_CHECKPOINT_TABLE_ID + " = ? AND " + COL_TABLE_CHECKPOINT_CHANGE_NUMBER
+					+ " <= ? ORDER BY " + COL_TABLE_CHECKPOINT_CHANGE_NUMBER + " DESC LIMIT 1", CHECKPOINT_MAPPER, tableId,
+					maxChangeNumber));
+			return Optional.of(checkpoint);
+		} catch (EmptyResultDataAccessException e) {
+			return Optional.empty();
+		}
+	}
+	
+	@Override
+	public List<TableCheckpoint> getCheckpointsReplacedBefore(long tableId, Date replacedBefore) {
+		ValidateArgument.required(replacedBefore, "replacedBefore");
+		String sql = "SELECT C.* FROM " + TABLE_TABLE_CHECKPOINT + " C WHERE C." + COL_TABLE_CHECKPOINT_TABLE_ID + " = ?"
+				+ " AND EXISTS (SELECT 1 FROM " + TABLE_TABLE_CHECKPOINT + " N WHERE N." + COL_TABLE_CHECKPOINT_TABLE_ID + " = C." + COL_TABLE_CHECKPOINT_TABLE_ID
+				+ " AND N." + COL_TABLE_CHECKPOINT_CHANGE_NUMBER + " > C." + COL_TABLE_CHECKPOINT_CHANGE_NUMBER
+				+ " AND N." + COL_TABLE_CHECKPOINT_CREATED_ON + " < ?)"
+				+ " ORDER BY C." + COL_TABLE_CHECKPOINT_CHANGE_NUMBER;
+		return jdbcTemplate.query(sql, CHECKPOINT_MAPPER, tableId, new Timestamp(replacedBefore.getTime())).stream()
+				.map(TableSnapshotDaoImpl::translate).collect(Collectors.toList());
+	}
+	
+	@WriteTransaction
+	@Override
+	public void deleteCheckpoint(long tableId, long changeNumber) {
+		jdbcTemplate.update("DELETE FROM " + TABLE_TABLE_CHECKPOINT + " WHERE " + COL_TABLE_CHECKPOINT_TABLE_ID
+				+ " = ? AND " + COL_TABLE_CHECKPOINT_CHANGE_NUMBER + " = ?", tableId, changeNumber);
+	}
+	
+	@WriteTransaction
+	@Override
+	public void truncateAllCheckpoints() {
+		jdbcTemplate.update("DELETE FROM " + TABLE_TABLE_CHECKPOINT);
+	}
+	
+	static DBOTableCheckpoint translate(TableCheckpoint dto) {
+		DBOTableCheckpoint dbo = new DBOTableCheckpoint();
+		dbo.setTableId(dto.getTableId());
+		dbo.setChangeNumber(dto.getChangeNumber());
+		dbo.setCreatedOn(new Timestamp(dto.getCreatedOn().getTime()));
+		dbo.setBucket(dto.getBucket());
+		dbo.setKey(dto.getKey());
+		dbo.setSchemaIds(String.join(SCHEMA_DELIMITER, dto.getSchema()));
+		dbo.setSearchEnabled(dto.getSearchEnabled());
+		return dbo;
+	}
+	
+	static TableCheckpoint translate(DBOTableCheckpoint in) {
+		List<String> schema = in.getSchemaIds().isEmpty() ? new ArrayList<>()
+				: Arrays.stream(in.getSchemaIds().split(SCHEMA_DELIMITER)).collect(Collectors.toList());
+		return new TableCheckpoint().withTableId(in.getTableId()).withChangeNumber(in.getChangeNumber())
+				.withCreatedOn(new Date(in.getCreatedOn().getTime())).withBucket(in.getBucket()).withKey(in.getKey())
+				.withSchema(schema).withSearchEnabled(in.getSearchEnabled());
+	}
 
 }
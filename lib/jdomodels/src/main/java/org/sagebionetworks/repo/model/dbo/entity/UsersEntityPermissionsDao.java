@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.common.cache.CacheStats;
+
 public interface UsersEntityPermissionsDao {
 
 	/**
@@ -25,4 +27,21 @@ public interface UsersEntityPermissionsDao {
 	 */
 	Map<Long, UserEntityPermissionsState> getEntityPermissionsAsMap(Set<Long> usersPrincipalIds, List<Long> entityIds);
 
+	/**
+	 * @return The statistics of the cache of paths from entities to their
+	 *         benefactors.
+	 */
+	CacheStats getBenefactorPathCacheStats();
+
+	/**
+	 * @return The statistics of the cache of permissions granted by each version
+	 *         of an ACL.
+	 */
+	CacheStats getAclPermissionsCacheStats();
+
+	/**
+	 * Clear all cached paths and permissions.
+	 */
+	void clearCache();
+
 }
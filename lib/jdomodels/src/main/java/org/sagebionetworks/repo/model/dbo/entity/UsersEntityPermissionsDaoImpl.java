@@ -4,10 +4,14 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.sagebionetworks.repo.model.DataType;
 import org.sagebionetworks.repo.model.EntityType;
@@ -21,15 +25,53 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Resolving the benefactor of an entity requires a recursive walk up the
+ * hierarchy. To avoid this walk on every call, the path from each entity to its
+ * benefactor and the permissions granted by each version of an ACL are cached.
+ * <p>
+ * Cached paths are never trusted blindly: each node of a cached path is
+ * re-read with a single non-recursive query and the path is only used if the
+ * hierarchy still leads to the same benefactor. The permissions are keyed by
+ * the ACL's etag, which changes with every update of the ACL. Entities with a
+ * missing or outdated path fall back to the recursive query.
+ *
+ */
 @Repository
 public class UsersEntityPermissionsDaoImpl implements UsersEntityPermissionsDao {
 
 	public static final String GET_ENTITY_PERMISSION_SQL = DDLUtilsImpl
 			.loadSQLFromClasspath("sql/GetEntityPermissions.sql");
 
+	public static final String GET_PATH_NODES_SQL = "SELECT N.ID, N.PARENT_ID, N.NODE_TYPE, N.CREATED_BY,"
+			+ " A.ID AS ACL_ID, A.ETAG AS ACL_ETAG, DT.DATA_TYPE"
+			+ " FROM NODE N LEFT JOIN ACL A ON (N.ID = A.OWNER_ID AND A.OWNER_TYPE = 'ENTITY')"
+			+ " LEFT JOIN DATA_TYPE DT ON (N.ID = DT.OBJECT_ID AND DT.OBJECT_TYPE = 'ENTITY')"
+			+ " WHERE N.ID IN (:nodeIds)";
+
+	/**
+	 * The maximum number of entity to benefactor paths held in memory.
+	 */
+	public static final long MAX_BENEFACTOR_PATHS = 100_000L;
+	/**
+	 * The maximum number of ACL permissions held in memory. Each entry is for a
+	 * single version of an ACL and a single set of principals.
+	 */
+	public static final long MAX_ACL_PERMISSIONS = 50_000L;
+
 	@Autowired
 	private NamedParameterJdbcTemplate namedJdbcTemplate;
 
+	private final Cache<Long, List<Long>> benefactorPaths = CacheBuilder.newBuilder()
+			.maximumSize(MAX_BENEFACTOR_PATHS).recordStats().build();
+
+	private final Cache<AclPermissionsKey, AclPermissions> aclPermissions = CacheBuilder.newBuilder()
+			.maximumSize(MAX_ACL_PERMISSIONS).recordStats().build();
+
 	@Override
 	public Map<Long, UserEntityPermissionsState> getEntityPermissionsAsMap(Set<Long> userGroups, List<Long> entityIds) {
 		ValidateArgument.required(userGroups, "userGroups");
@@ -44,6 +86,119 @@ public class UsersEntityPermissionsDaoImpl implements UsersEntityPermissionsDao
 		for (Long entityId : entityIds) {
 			results.put(entityId, new UserEntityPermissionsState(entityId));
 		}
+		Set<Long> groups = Set.copyOf(userGroups);
+		List<Long> unresolved = resolveFromCache(groups, results);
+		if (!unresolved.isEmpty()) {
+			loadPermissions(groups, unresolved, results);
+		}
+		return results;
+	}
+
+	/**
+	 * Attempt to resolve the permissions of each entity using the cached paths and
+	 * ACL permissions.
+	 *
+	 * @param userGroups
+	 * @param results
+	 * @return The IDs of the entities that could not be resolved from the cache.
+	 */
+	List<Long> resolveFromCache(Set<Long> userGroups, Map<Long, UserEntityPermissionsState> results) {
+		Map<Long, List<Long>> paths = benefactorPaths.getAllPresent(results.keySet());
+		if (paths.isEmpty()) {
+			return new ArrayList<>(results.keySet());
+		}
+		Set<Long> nodeIds = paths.values().stream().flatMap(List::stream)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		Map<Long, PathNode> nodes = getPathNodes(nodeIds);
+		List<Long> unresolved = new ArrayList<>();
+		for (UserEntityPermissionsState state : results.values()) {
+			List<Long> path = paths.get(state.getEntityId());
+			PathNode benefactor = path == null ? null : getBenefactorIfPathIsCurrent(path, nodes);
+			AclPermissions permissions = benefactor == null ? null
+					: aclPermissions.getIfPresent(new AclPermissionsKey(benefactor.aclId, benefactor.aclEtag, userGroups));
+			if (permissions == null) {
+				unresolved.add(state.getEntityId());
+				continue;
+			}
+			PathNode entity = nodes.get(state.getEntityId());
+			state.withDoesEntityExist(true);
+			state.withBenefactorId(benefactor.id);
+			state.withEntityType(entity.entityType);
+			state.withEntityParentId(entity.parentId);
+			state.withEntityCreatedBy(entity.createdBy);
+			if (entity.dataType != null) {
+				state.withDataType(entity.dataType);
+			}
+			permissions.applyTo(state);
+		}
+		return unresolved;
+	}
+
+	/**
+	 * A path is current if each node of the path still exists, each node before
+	 * the last is still a child of the next node and does not have an ACL, and the
+	 * last node still has an ACL.
+	 *
+	 * @param path  The IDs of the nodes from the entity to its benefactor.
+	 * @param nodes The current state of each node.
+	 * @return The benefactor node if the path is current, else null.
+	 */
+	static PathNode getBenefactorIfPathIsCurrent(List<Long> path, Map<Long, PathNode> nodes) {
+		int last = path.size() - 1;
+		for (int i = 0; i < last; i++) {
+			PathNode node = nodes.get(path.get(i));
+			if (node == null || node.aclId != null || !path.get(i + 1).equals(node.parentId)) {
+				return null;
+			}
+		}
+		PathNode benefactor = nodes.get(path.get(last));
+		if (benefactor == null || benefactor.aclId == null) {
+			return null;
+		}
+		return benefactor;
+	}
+
+	/**
+	 * Read the current state of each of the given nodes with a single
+	 * non-recursive query.
+	 *
+	 * @param nodeIds
+	 * @return
+	 */
+	Map<Long, PathNode> getPathNodes(Set<Long> nodeIds) {
+		Map<Long, PathNode> nodes = new HashMap<>(nodeIds.size());
+		namedJdbcTemplate.query(GET_PATH_NODES_SQL, new MapSqlParameterSource("nodeIds", nodeIds), (ResultSet rs) -> {
+			PathNode node = new PathNode();
+			node.id = rs.getLong("ID");
+			node.parentId = rs.getLong("PARENT_ID");
+			if (rs.wasNull()) {
+				node.parentId = null;
+			}
+			node.entityType = EntityType.valueOf(rs.getString("NODE_TYPE"));
+			node.createdBy = rs.getLong("CREATED_BY");
+			node.aclId = rs.getLong("ACL_ID");
+			if (rs.wasNull()) {
+				node.aclId = null;
+			}
+			node.aclEtag = rs.getString("ACL_ETAG");
+			String dataType = rs.getString("DATA_TYPE");
+			if (dataType != null) {
+				node.dataType = DataType.valueOf(dataType);
+			}
+			nodes.put(node.id, node);
+		});
+		return nodes;
+	}
+
+	/**
+	 * Load the permissions of the given entities with the recursive query and
+	 * cache the resulting paths and ACL permissions.
+	 *
+	 * @param userGroups
+	 * @param entityIds
+	 * @param results
+	 */
+	void loadPermissions(Set<Long> userGroups, List<Long> entityIds, Map<Long, UserEntityPermissionsState> results) {
 		MapSqlParameterSource params = new MapSqlParameterSource();
 		params.addValue("usersGroups", userGroups);
 		params.addValue("entityIds", entityIds);
@@ -53,7 +208,8 @@ public class UsersEntityPermissionsDaoImpl implements UsersEntityPermissionsDao
 
 			@Override
 			public void processRow(ResultSet rs) throws SQLException {
-				UserEntityPermissionsState permission = results.get(rs.getLong("ENTITY_ID"));
+				Long entityId = rs.getLong("ENTITY_ID");
+				UserEntityPermissionsState permission = results.get(entityId);
 				permission.withDoesEntityExist(true);
 				permission.withBenefactorId(rs.getLong("BENEFACTOR_ID"));
 				permission.withEntityType(EntityType.valueOf(rs.getString("ENTITY_TYPE")));
@@ -66,18 +222,29 @@ public class UsersEntityPermissionsDaoImpl implements UsersEntityPermissionsDao
 				if (dataType != null) {
 					permission.withDataType(DataType.valueOf(dataType));
 				}
-				permission.withHasChangePermissions(rs.getLong("CHANGE_PERMISSIONS_COUNT") > 0);
-				permission.withHasChangeSettings(rs.getLong("CHANGE_SETTINGS_COUNT") > 0);
-				permission.withHasCreate(rs.getLong("CREATE_COUNT") > 0);
-				permission.withHasUpdate(rs.getLong("UPDATE_COUNT") > 0);
-				permission.withHasDelete(rs.getLong("DELETE_COUNT") > 0);
-				permission.withHasDownload(rs.getLong("DOWNLOAD_COUNT") > 0);
-				permission.withHasRead(rs.getLong("READ_COUNT") > 0);
-				permission.withHasModerate(rs.getLong("MODERATE_COUNT") > 0);
-				permission.withHasPublicRead(rs.getLong("PUBLIC_READ_COUNT") > 0);
+				AclPermissions permissions = new AclPermissions(rs);
+				permissions.applyTo(permission);
+
+				benefactorPaths.put(entityId, parsePath(rs.getString("BENEFACTOR_PATH")));
+				aclPermissions.put(new AclPermissionsKey(rs.getLong("ACL_ID"), rs.getString("ACL_ETAG"), userGroups),
+						permissions);
 			}
 		});
-		return results;
+	}
+
+	/**
+	 * Parse the comma separated list of node IDs.
+	 *
+	 * @param path
+	 * @return
+	 */
+	static List<Long> parsePath(String path) {
+		String[] split = path.split(",");
+		List<Long> ids = new ArrayList<>(split.length);
+		for (String id : split) {
+			ids.add(Long.parseLong(id));
+		}
+		return Collections.unmodifiableList(ids);
 	}
 
 	@Override
@@ -85,4 +252,107 @@ public class UsersEntityPermissionsDaoImpl implements UsersEntityPermissionsDao
 		return new ArrayList<UserEntityPermissionsState>(getEntityPermissionsAsMap(usersPrincipalIds, entityIds).values());
 	}
 
+	@Override
+	public CacheStats getBenefactorPathCacheStats() {
+		return benefactorPaths.stats();
+	}
+
+	@Override
+	public CacheStats getAclPermissionsCacheStats() {
+		return aclPermissions.stats();
+	}
+
+	@Override
+	public void clearCache() {
+		benefactorPaths.invalidateAll();
+		aclPermissions.invalidateAll();
+	}
+
+	/**
+	 * The current state of a single node read from the database.
+	 */
+	static class PathNode {
+		Long id;
+		Long parentId;
+		EntityType entityType;
+		Long createdBy;
+		Long aclId;
+		String aclEtag;
+		DataType dataType;
+	}
+
+	/**
+	 * Identifies a single version of an ACL for a single set of principals.
+	 */
+	static class AclPermissionsKey {
+
+		private final Long aclId;
+		private final String aclEtag;
+		private final Set<Long> userGroups;
+
+		AclPermissionsKey(Long aclId, String aclEtag, Set<Long> userGroups) {
+			this.aclId = aclId;
+			this.aclEtag = aclEtag;
+			this.userGroups = userGroups;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(aclEtag, aclId, userGroups);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof AclPermissionsKey)) {
+				return false;
+			}
+			AclPermissionsKey other = (AclPermissionsKey) obj;
+			return Objects.equals(aclEtag, other.aclEtag) && Objects.equals(aclId, other.aclId)
+					&& Objects.equals(userGroups, other.userGroups);
+		}
+	}
+
+	/**
+	 * The permissions an ACL grants to a set of principals.
+	 */
+	static class AclPermissions {
+
+		private final boolean hasChangePermissions;
+		private final boolean hasChangeSettings;
+		private final boolean hasCreate;
+		private final boolean hasUpdate;
+		private final boolean hasDelete;
+		private final boolean hasDownload;
+		private final boolean hasRead;
+		private final boolean hasModerate;
+		private final boolean hasPublicRead;
+
+		AclPermissions(ResultSet rs) throws SQLException {
+			this.hasChangePermissions = rs.getLong("CHANGE_PERMISSIONS_COUNT") > 0;
+			this.hasChangeSettings = rs.getLong("CHANGE_SETTINGS_COUNT") > 0;
+			this.hasCreate = rs.getLong("CREATE_COUNT") > 0;
+			this.hasUpdate = rs.getLong("UPDATE_COUNT") > 0;
+			this.hasDelete = rs.getLong("DELETE_COUNT") > 0;
+			this.hasDownload = rs.getLong("DOWNLOAD_COUNT") > 0;
+			this.hasRead = rs.getLong("READ_COUNT") > 0;
+			this.hasModerate = rs.getLong("MODERATE_COUNT") > 0;
+			this.hasPublicRead = rs.getLong("PUBLIC_READ_COUNT") > 0;
+		}
+
+		void applyTo(UserEntityPermissionsState state) {
+			state.withHasChangePermissions(hasChangePermissions);
+			state.withHasChangeSettings(hasChangeSettings);
+			state.withHasCreate(hasCreate);
+			state.withHasUpdate(hasUpdate);
+			state.withHasDelete(hasDelete);
+			state.withHasDownload(hasDownload);
+			state.withHasRead(hasRead);
+			state.withHasModerate(hasModerate);
+			state.withHasPublicRead(hasPublicRead);
+		}
+	}
+
 }
@@ -4,7 +4,7 @@ import org.sagebionetworks.util.ValidateArgument;
 
 public enum MigrationFileType {
 
-	JSON, XML;
+	JSON, XML, JSONL;
 
 	public static MigrationFileType fromFileName(String fileName) {
 		ValidateArgument.required(fileName, "fileName");
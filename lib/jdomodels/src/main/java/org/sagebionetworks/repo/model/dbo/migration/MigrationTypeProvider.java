@@ -2,6 +2,7 @@ package org.sagebionetworks.repo.model.dbo.migration;
 
 import java.io.InputStream;
 import java.io.Writer;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,9 +24,27 @@ public interface MigrationTypeProvider {
 	 */
 	MigratableDatabaseObject getObjectForType(MigrationType type);
 
-	void writeObjects(List<?> backupObjects, Writer writer);
-
 	<B> Optional<List<B>> readObjects(Class<? extends B> clazz, BackupAliasType backupAliasType, InputStream input,
 			MigrationFileType fileType);
 
+	/**
+	 * Write a single backup object as one line of JSON (JSON Lines). Nothing is
+	 * written for an object that contains no data.
+	 * 
+	 * @param backupObject
+	 * @param writer
+	 * @return True if the object was written.
+	 */
+	boolean writeObject(Object backupObject, Writer writer);
+
+	/**
+	 * Lazily read the backup objects of a JSON Lines input, one line at a time.
+	 * Note: The caller is responsible for closing the passed stream.
+	 * 
+	 * @param clazz
+	 * @param input
+	 * @return
+	 */
+	<B> Iterator<B> readObjectStream(Class<? extends B> clazz, InputStream input);
+
 }
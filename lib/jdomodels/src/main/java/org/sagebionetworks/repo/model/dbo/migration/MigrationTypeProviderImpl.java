@@ -1,13 +1,18 @@
 package org.sagebionetworks.repo.model.dbo.migration;
 
+import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import org.apache.commons.io.IOUtils;
@@ -42,37 +47,6 @@ public class MigrationTypeProviderImpl implements MigrationTypeProvider {
 		return objectMap.get(type);
 	}
 
-	@Override
-	public void writeObjects(List<?> backupObjects, Writer writer) {
-		/*
-		 * Note we write each object to JSON separately to reduce memory spikes (see:
-		 * https://sagebionetworks.jira.com/browse/PLFM-8540 ). Also, we do not write
-		 * anything if the provided list is empty or contains no actual data.
-		 */
-		try {
-			if (!backupObjects.isEmpty()) {
-				boolean hasData = false;
-				for (Object o : backupObjects) {
-					Optional<JSONObject> option = JavaJSONUtil.writeToJSON(o);
-					if (option.isPresent()) {
-						if (!hasData) {
-							writer.append("[\n");
-						} else {
-							writer.append(",\n");
-						}
-						writer.append(option.get().toString(2));
-						hasData = true;
-					}
-				}
-				if (hasData) {
-					writer.append("]\n");
-				}
-			}
-		} catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-	}
-
 	@Override
 	public <B> Optional<List<B>> readObjects(Class<? extends B> clazz, BackupAliasType backupAliasType,
 			InputStream input, MigrationFileType fileType) {
@@ -81,11 +55,68 @@ public class MigrationTypeProviderImpl implements MigrationTypeProvider {
 			return readXML(clazz, backupAliasType, input);
 		case JSON:
 			return readJSON(clazz, backupAliasType, input);
+		case JSONL:
+			List<B> backupObjects = new ArrayList<>();
+			readObjectStream(clazz, input).forEachRemaining(backupObjects::add);
+			return Optional.of(backupObjects);
 		default:
 			throw new IllegalStateException("Unknown type: " + fileType);
 		}
 	}
 
+	@Override
+	public boolean writeObject(Object backupObject, Writer writer) {
+		Optional<JSONObject> option = JavaJSONUtil.writeToJSON(backupObject);
+		if (option.isEmpty()) {
+			return false;
+		}
+		try {
+			// JSONObject.toString() escapes any line breaks within values.
+			writer.append(option.get().toString()).append('\n');
+			return true;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Override
+	public <B> Iterator<B> readObjectStream(Class<? extends B> clazz, InputStream input) {
+		// The reader is not closed, as that would close the passed stream.
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		return new Iterator<B>() {
+
+			String nextLine = null;
+
+			@Override
+			public boolean hasNext() {
+				try {
+					while (nextLine == null) {
+						String line = reader.readLine();
+						if (line == null) {
+							return false;
+						}
+						if (!line.isBlank()) {
+							nextLine = line;
+						}
+					}
+					return true;
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+
+			@Override
+			public B next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				JSONObject object = new JSONObject(nextLine);
+				nextLine = null;
+				return JavaJSONUtil.readFromJSON(clazz, object);
+			}
+		};
+	}
+
 	<B> Optional<List<B>> readJSON(Class<? extends B> clazz, BackupAliasType backupAliasType, InputStream input) {
 		try {
 			return Optional.of(
@@ -30,8 +30,11 @@ import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -122,6 +125,11 @@ public class V2DBOWikiPageDaoImpl implements V2WikiPageDao {
 	private static final String SQL_DELETE_USING_ID_AND_ROOT = "DELETE FROM "+V2_TABLE_WIKI_PAGE+" WHERE "+V2_COL_WIKI_ID+" = ? AND "+V2_COL_WIKI_ROOT_ID+" = ?";
 	private static final String WIKI_HEADER_SELECT = V2_COL_WIKI_ID+", "+V2_COL_WIKI_TITLE+", "+V2_COL_WIKI_PARENT_ID;
 	private static final String SQL_SELECT_CHILDREN_HEADERS = "SELECT "+WIKI_HEADER_SELECT+" FROM "+V2_TABLE_WIKI_PAGE+" WHERE "+V2_COL_WIKI_ROOT_ID+" = ? ORDER BY "+V2_COL_WIKI_PARENT_ID+", "+V2_COL_WIKI_TITLE+" LIMIT ? OFFSET ?";
+	private static final String SQL_SELECT_CURRENT_PAGES_FOR_OWNERS = "SELECT O."+V2_COL_WIKI_ONWERS_OWNER_ID+", P."+V2_COL_WIKI_ID+", P."+V2_COL_WIKI_TITLE+", P."+V2_COL_WIKI_PARENT_ID+", M."+V2_COL_WIKI_MARKDOWN_FILE_HANDLE_ID
+			+" FROM "+V2_TABLE_WIKI_OWNERS+" O JOIN "+V2_TABLE_WIKI_PAGE+" P ON (P."+V2_COL_WIKI_ROOT_ID+" = O."+V2_COL_WIKI_ONWERS_ROOT_WIKI_ID+")"
+			+" JOIN "+V2_TABLE_WIKI_MARKDOWN+" M ON (M."+V2_COL_WIKI_MARKDOWN_ID+" = P."+V2_COL_WIKI_ID+" AND M."+V2_COL_WIKI_MARKDOWN_VERSION_NUM+" = P."+V2_COL_WIKI_MARKDOWN_VERSION+")"
+			+" WHERE O."+V2_COL_WIKI_ONWERS_OWNER_ID+" IN (:ownerIds) AND O."+V2_COL_WIKI_ONWERS_OBJECT_TYPE+" = :ownerType"
+			+" ORDER BY O."+V2_COL_WIKI_ONWERS_OWNER_ID+", P."+V2_COL_WIKI_PARENT_ID+", P."+V2_COL_WIKI_TITLE;
 	private static final String SQL_LOCK_FOR_UPDATE = "SELECT "+V2_COL_WIKI_ETAG+" FROM "+V2_TABLE_WIKI_PAGE+" WHERE "+V2_COL_WIKI_ID+" = ? FOR UPDATE";
 	private static final String SQL_LOCK_OWNERS_FOR_UPDATE = "SELECT "+V2_COL_WIKI_OWNERS_ETAG+" FROM "+V2_TABLE_WIKI_OWNERS+" WHERE "+V2_COL_WIKI_ONWERS_ROOT_WIKI_ID+" = ? FOR UPDATE";
 	private static final String SQL_COUNT_ALL_WIKIPAGES = "SELECT COUNT(*) FROM "+V2_TABLE_WIKI_PAGE;
@@ -521,7 +529,31 @@ public class V2DBOWikiPageDaoImpl implements V2WikiPageDao {
 	@Override
 	public String getMarkdown(WikiPageKey key, Long version) throws IOException, NotFoundException {
 		V2WikiPage wiki = get(key, version);
-		S3FileHandle markdownHandle = (S3FileHandle) fileMetadataDao.get(wiki.getMarkdownFileHandleId());
+		return readMarkdown((S3FileHandle) fileMetadataDao.get(wiki.getMarkdownFileHandleId()));
+	}
+	
+	@Override
+	public Map<String, String> getMarkdownByFileHandleId(List<String> markdownFileHandleIds) throws IOException {
+		ValidateArgument.required(markdownFileHandleIds, "markdownFileHandleIds");
+		if (markdownFileHandleIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, FileHandle> handles = fileMetadataDao.getAllFileHandlesBatch(markdownFileHandleIds);
+		Map<String, String> results = new HashMap<>(handles.size());
+		for (FileHandle handle : handles.values()) {
+			results.put(handle.getId(), readMarkdown((S3FileHandle) handle));
+		}
+		return results;
+	}
+	
+	/**
+	 * Download the markdown stored in the given file handle.
+	 * 
+	 * @param markdownHandle
+	 * @return
+	 * @throws IOException
+	 */
+	private String readMarkdown(S3FileHandle markdownHandle) throws IOException {
 		S3Object s3Object = s3Client.getObject(markdownHandle.getBucketName(), markdownHandle.getKey());
 		String contentType = s3Object.getObjectMetadata().getContentType();
 		Charset charset = ContentTypeUtil.getCharsetFromContentTypeString(contentType);
@@ -661,6 +693,31 @@ public class V2DBOWikiPageDaoImpl implements V2WikiPageDao {
 		}
 	}
 
+	@Override
+	public Map<Long, List<V2WikiPage>> getCurrentPagesForOwners(List<Long> ownerIds, ObjectType ownerType, long limit) {
+		ValidateArgument.required(ownerIds, "ownerIds");
+		ValidateArgument.required(ownerType, "ownerType");
+		if (ownerIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		params.addValue("ownerIds", ownerIds);
+		params.addValue("ownerType", ownerType.name());
+		Map<Long, List<V2WikiPage>> results = new LinkedHashMap<>();
+		namedTemplate.query(SQL_SELECT_CURRENT_PAGES_FOR_OWNERS, params, (ResultSet rs) -> {
+			List<V2WikiPage> pages = results.computeIfAbsent(rs.getLong(V2_COL_WIKI_ONWERS_OWNER_ID), k -> new ArrayList<>());
+			if (pages.size() < limit) {
+				V2WikiPage page = new V2WikiPage();
+				page.setId(""+rs.getLong(V2_COL_WIKI_ID));
+				page.setTitle(rs.getString(V2_COL_WIKI_TITLE));
+				page.setParentWikiId(rs.getString(V2_COL_WIKI_PARENT_ID));
+				page.setMarkdownFileHandleId(""+rs.getLong(V2_COL_WIKI_MARKDOWN_FILE_HANDLE_ID));
+				pages.add(page);
+			}
+		});
+		return results;
+	}
+	
 	@Override
 	public List<V2WikiHeader> getHeaderTree(String ownerId, ObjectType ownerType, Long limit, Long offset)
 			throws DatastoreException, NotFoundException {
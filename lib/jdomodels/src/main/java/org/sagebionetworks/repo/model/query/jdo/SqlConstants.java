@@ -578,6 +578,17 @@ public class SqlConstants {
 	public static final String COL_TABLE_SNAPSHOT_BUCKET		= "BUCKET_NAME";
 	public static final String COL_TABLE_SNAPSHOT_KEY			= "KEY";
 	public static final String DDL_TABLE_SNAPSHOT 				= "schema/TableSnapshot-ddl.sql";
+	
+	// Metadata about the checkpoints of table indices (not migrated).
+	public static final String TABLE_TABLE_CHECKPOINT 				= "TABLE_CHECKPOINT";
+	public static final String COL_TABLE_CHECKPOINT_TABLE_ID		= "TABLE_ID";
+	public static final String COL_TABLE_CHECKPOINT_CHANGE_NUMBER	= "CHANGE_NUMBER";
+	public static final String COL_TABLE_CHECKPOINT_CREATED_ON		= "CREATED_ON";
+	public static final String COL_TABLE_CHECKPOINT_BUCKET			= "BUCKET_NAME";
+	public static final String COL_TABLE_CHECKPOINT_KEY				= "KEY";
+	public static final String COL_TABLE_CHECKPOINT_SCHEMA			= "SCHEMA_IDS";
+	public static final String COL_TABLE_CHECKPOINT_SEARCH_ENABLED	= "SEARCH_ENABLED";
+	public static final String DDL_TABLE_CHECKPOINT 				= "schema/TableCheckpoint-ddl.sql";
 		
 	public static final String TABLE_BOUND_COLUMN_OWNER		= "BOUND_COLUMN_OWNER";
 	public static final String COL_BOUND_OWNER_OBJECT_ID	= "OBJECT_ID";
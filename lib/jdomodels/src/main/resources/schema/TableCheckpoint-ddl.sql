@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS `TABLE_CHECKPOINT` (
+  `TABLE_ID` BIGINT NOT NULL,
+  `CHANGE_NUMBER` BIGINT NOT NULL,
+  `CREATED_ON` timestamp(3) NOT NULL,
+  `BUCKET_NAME` varchar(100) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+  `KEY` varchar(700) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL,
+  `SCHEMA_IDS` MEDIUMTEXT NOT NULL,
+  `SEARCH_ENABLED` BOOLEAN NOT NULL,
+  PRIMARY KEY (`TABLE_ID`, `CHANGE_NUMBER`),
+  CONSTRAINT `TABLE_CHECKPOINT_TABLE_FK` FOREIGN KEY (`TABLE_ID`) REFERENCES `NODE` (`ID`) ON DELETE CASCADE
+)
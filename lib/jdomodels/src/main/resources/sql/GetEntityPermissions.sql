@@ -2,6 +2,7 @@
  * For each entity, the RECURSIVE BEN table will contain one row for the entity plus an additional row for each entity in its
  * hierarchy until an ACL is found.  Note: Only the last row with an ACL_ID will have a correct benefactorId.  The finally
  * BEN table will only contain the last valid row for each entity since all rows with null ACL ids are filtered out.
+ * The PATH of the last row lists the IDs of each node from the entity up to and including its benefactor.
  * 
  * The ACC table will contain one row for each distinct permission that the user has been granted to any of their principals
  * on the ACL identified from the BEN table.
@@ -12,19 +13,20 @@
  */
 WITH
 	BEN AS (
-		WITH RECURSIVE BEN (ENTITY_ID, PARENT_ID, BENEFACTOR_ID, ACL_ID, DEPTH) AS
+		WITH RECURSIVE BEN (ENTITY_ID, PARENT_ID, BENEFACTOR_ID, ACL_ID, ACL_ETAG, PATH, DEPTH) AS
 			(
-				SELECT N.ID, N.PARENT_ID, N.ID AS BENEFACTOR_ID, A.ID AS ACL_ID, 1 AS DEPTH
+				SELECT N.ID, N.PARENT_ID, N.ID AS BENEFACTOR_ID, A.ID AS ACL_ID, A.ETAG AS ACL_ETAG,
+					CAST(N.ID AS CHAR(1500)) AS PATH, 1 AS DEPTH
 					FROM NODE N LEFT JOIN ACL A ON (N.ID = A.OWNER_ID AND A.OWNER_TYPE = 'ENTITY')
 					WHERE N.ID IN (:entityIds)
 				UNION DISTINCT
 				SELECT BEN.ENTITY_ID, N.PARENT_ID, N.ID AS BENEFACTOR_ID,
-					A.ID AS ACL_ID, BEN.DEPTH + 1 AS DEPTH 
+					A.ID AS ACL_ID, A.ETAG AS ACL_ETAG, CONCAT(BEN.PATH, ',', N.ID) AS PATH, BEN.DEPTH + 1 AS DEPTH 
 					FROM BEN JOIN NODE N ON (BEN.PARENT_ID = N.ID) 
 					LEFT JOIN ACL A ON (N.ID = A.OWNER_ID AND A.OWNER_TYPE = 'ENTITY')
 					WHERE BEN.ACL_ID IS NULL AND DEPTH < :depth
 			)
-		SELECT ENTITY_ID, BENEFACTOR_ID, ACL_ID FROM BEN WHERE ACL_ID IS NOT NULL
+		SELECT ENTITY_ID, BENEFACTOR_ID, ACL_ID, ACL_ETAG, PATH FROM BEN WHERE ACL_ID IS NOT NULL
 	),
 	ACC AS (
 		SELECT DISTINCT RA.OWNER_ID AS ACL_ID, RAT.STRING_ELE AS ACCESS_TYPE
@@ -44,6 +46,9 @@ SELECT
  MAX(N.PARENT_ID) AS ENTITY_PARENT_ID,
  MAX(N.CREATED_BY) AS ENTITY_CREATED_BY,
  MAX(BEN.BENEFACTOR_ID) AS BENEFACTOR_ID,
+ MAX(BEN.ACL_ID) AS ACL_ID,
+ MAX(BEN.ACL_ETAG) AS ACL_ETAG,
+ MAX(BEN.PATH) AS BENEFACTOR_PATH,
  MAX(DT.DATA_TYPE) AS DATA_TYPE,
  COUNT(CASE WHEN ACC.ACCESS_TYPE = 'CHANGE_PERMISSIONS' THEN 1 END) AS CHANGE_PERMISSIONS_COUNT,
  COUNT(CASE WHEN ACC.ACCESS_TYPE = 'CHANGE_SETTINGS' THEN 1 END) AS CHANGE_SETTINGS_COUNT,
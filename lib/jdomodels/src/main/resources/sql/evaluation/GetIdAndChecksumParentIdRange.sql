@@ -0,0 +1,6 @@
+SELECT 
+S.ID AS ID,
+ SUM(CRC32(CONCAT(:salt,'-',R.ETAG,'-',R.SUBSTATUS_VERSION,'-',S.EVALUATION_ID))) AS CHECK_SUM
+	FROM EVALUATION_SUBMISSION S
+	 INNER JOIN EVALUATION_SUBMISSION_STATUS R ON (S.ID = R.ID) 
+	 WHERE S.EVALUATION_ID IN (:evaluationIds) AND S.ID >= :minId AND S.ID < :maxId GROUP BY S.ID ORDER BY S.ID ASC LIMIT :limit OFFSET :offset
\ No newline at end of file
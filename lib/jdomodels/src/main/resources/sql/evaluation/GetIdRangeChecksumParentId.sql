@@ -0,0 +1,7 @@
+SELECT 
+S.ID DIV :rangeSize AS RANGE_INDEX,
+ COUNT(DISTINCT S.ID) AS ID_COUNT,
+ SUM(CRC32(CONCAT(:salt,'-',R.ETAG,'-',R.SUBSTATUS_VERSION,'-',S.EVALUATION_ID))) AS CHECK_SUM
+	FROM EVALUATION_SUBMISSION S
+	 INNER JOIN EVALUATION_SUBMISSION_STATUS R ON (S.ID = R.ID) 
+	 WHERE S.EVALUATION_ID IN (:evaluationIds) GROUP BY RANGE_INDEX ORDER BY RANGE_INDEX ASC
\ No newline at end of file
@@ -45,6 +45,7 @@ import org.sagebionetworks.repo.model.EntityBundle;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.GroupMembersDAO;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.InvalidModelException;
 import org.sagebionetworks.repo.model.Node;
@@ -1097,6 +1098,96 @@ public class SubmissionDAOImplTest {
 		assertEquals("offset is required.", message);
 	}
 
+	@Test
+	public void testGetIdAndChecksumsPageWithRange() {
+		
+		List<Long> submissions = Arrays.asList(
+			Long.parseLong(createScoredSubmission(evalId).getId()),
+			Long.parseLong(createScoredSubmission(evalId2).getId()),
+			Long.parseLong(createScoredSubmission(evalId2).getId()),
+			Long.parseLong(createScoredSubmission(evalId2).getId())
+		);
+		
+		Set<Long> parentIds = Sets.newHashSet(Long.parseLong(evalId), Long.parseLong(evalId2));
+		Long salt = 123L;
+		Long minId = submissions.get(1);
+		Long maxId = submissions.get(3);
+		Long limit = 10L;
+		Long offset = 0L;
+		
+		// call under test
+		List<IdAndChecksum> page = submissionDAO.getIdAndChecksumsPage(salt, parentIds, minId, maxId, limit, offset);
+		assertNotNull(page);
+		assertEquals(2, page.size());
+		assertEquals(submissions.get(1), page.get(0).getId());
+		assertEquals(submissions.get(2), page.get(1).getId());
+	}
+	
+	@Test
+	public void testGetIdAndChecksumsPageWithRangeWithNullMaxId() {
+		Set<Long> parentIds = Sets.newHashSet(Long.parseLong(evalId2));
+		Long salt = 123L;
+		
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			submissionDAO.getIdAndChecksumsPage(salt, parentIds, 0L, null, 2L, 0L);
+		}).getMessage();
+		assertEquals("maxId is required.", message);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksums() {
+		
+		List<Long> submissions = Arrays.asList(
+			Long.parseLong(createScoredSubmission(evalId).getId()),
+			Long.parseLong(createScoredSubmission(evalId2).getId()),
+			Long.parseLong(createScoredSubmission(evalId2).getId())
+		);
+		
+		Set<Long> parentIds = Sets.newHashSet(Long.parseLong(evalId2));
+		Long salt = 123L;
+		List<IdAndChecksum> idsAndChecksums = submissionDAO.getIdAndChecksumsPage(salt, parentIds, 10L, 0L);
+		// A single range that includes all of the IDs.
+		Long rangeSize = submissions.get(2) + 1;
+		
+		// call under test
+		List<IdRangeChecksum> results = submissionDAO.getIdRangeChecksums(salt, parentIds, rangeSize);
+		
+		List<IdRangeChecksum> expected = Arrays.asList(new IdRangeChecksum().withRangeIndex(0L).withCount(2L)
+				.withChecksum(idsAndChecksums.stream().mapToLong(IdAndChecksum::getChecksum).sum()));
+		assertEquals(expected, results);
+		
+		// call under test
+		results = submissionDAO.getIdRangeChecksums(salt, parentIds, 1L);
+		
+		// Each ID is its own range.
+		expected = idsAndChecksums.stream().map(i -> new IdRangeChecksum().withRangeIndex(i.getId()).withCount(1L)
+				.withChecksum(i.getChecksum())).collect(Collectors.toList());
+		assertEquals(expected, results);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsWithEmptyParentIds() {
+		Set<Long> parentIds = Collections.emptySet();
+		Long salt = 123L;
+		
+		// call under test
+		List<IdRangeChecksum> results = submissionDAO.getIdRangeChecksums(salt, parentIds, 10L);
+		assertTrue(results.isEmpty());
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsWithZeroRangeSize() {
+		Set<Long> parentIds = Sets.newHashSet(Long.parseLong(evalId2));
+		Long salt = 123L;
+		
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			submissionDAO.getIdRangeChecksums(salt, parentIds, 0L);
+		}).getMessage();
+		assertEquals("rangeSize must be greater than zero.", message);
+	}
+
 	@Test
 	public void testGetSubmissionData() {
 
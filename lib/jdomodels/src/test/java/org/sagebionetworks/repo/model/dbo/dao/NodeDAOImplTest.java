@@ -60,6 +60,7 @@ import org.sagebionetworks.repo.model.GroupMembersDAO;
 import org.sagebionetworks.repo.model.HierarchyInfo;
 import org.sagebionetworks.repo.model.IdAndAlias;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.InvalidModelException;
 import org.sagebionetworks.repo.model.LimitExceededException;
 import org.sagebionetworks.repo.model.Node;
@@ -1879,6 +1880,102 @@ public class NodeDAOImplTest {
 		assertEquals(array[0].getId(), path.get(0).getId());
 	}
 	
+	@Test
+	public void testGetEntityPathAfterMoveAndRename() throws Exception {
+		Node node = privateCreateNew("projectOne");
+		node.setNodeType(EntityType.project);
+		String projectOneId = nodeDao.createNew(node);
+		toDelete.add(projectOneId);
+		node = privateCreateNew("projectTwo");
+		node.setNodeType(EntityType.project);
+		String projectTwoId = nodeDao.createNew(node);
+		toDelete.add(projectTwoId);
+		node = privateCreateNew("folder");
+		node.setNodeType(EntityType.folder);
+		node.setParentId(projectOneId);
+		String folderId = nodeDao.createNew(node);
+		toDelete.add(folderId);
+		node = privateCreateNew("file");
+		node.setNodeType(EntityType.file);
+		node.setParentId(folderId);
+		String fileId = nodeDao.createNew(node);
+		toDelete.add(fileId);
+		
+		// the first call loads the path.
+		List<NameIdType> path = nodeDao.getEntityPath(fileId);
+		assertEquals(Arrays.asList(projectOneId, folderId, fileId), path.stream().map(NameIdType::getId).collect(Collectors.toList()));
+		
+		// move the folder to the other project and rename it.
+		Node folder = nodeDao.getNode(folderId);
+		folder.setParentId(projectTwoId);
+		folder.setName("renamed");
+		nodeDao.updateNode(folder);
+		
+		// call under test
+		path = nodeDao.getEntityPath(fileId);
+		assertEquals(Arrays.asList(projectTwoId, folderId, fileId), path.stream().map(NameIdType::getId).collect(Collectors.toList()));
+		assertEquals("renamed", path.get(1).getName());
+		
+		// call under test
+		assertEquals(Arrays.asList(KeyFactory.stringToKey(projectTwoId), KeyFactory.stringToKey(folderId)),
+				nodeDao.getEntityPathIds(fileId, false));
+	}
+	
+	@Test
+	public void testGetEntityPaths() throws Exception {
+		Node node = privateCreateNew("projectOne");
+		node.setNodeType(EntityType.project);
+		String projectOneId = nodeDao.createNew(node);
+		toDelete.add(projectOneId);
+		node = privateCreateNew("projectTwo");
+		node.setNodeType(EntityType.project);
+		String projectTwoId = nodeDao.createNew(node);
+		toDelete.add(projectTwoId);
+		node = privateCreateNew("folder");
+		node.setNodeType(EntityType.folder);
+		node.setParentId(projectOneId);
+		String folderId = nodeDao.createNew(node);
+		toDelete.add(folderId);
+		node = privateCreateNew("fileOne");
+		node.setNodeType(EntityType.file);
+		node.setParentId(folderId);
+		String fileOneId = nodeDao.createNew(node);
+		toDelete.add(fileOneId);
+		node = privateCreateNew("fileTwo");
+		node.setNodeType(EntityType.file);
+		node.setParentId(projectOneId);
+		String fileTwoId = nodeDao.createNew(node);
+		toDelete.add(fileTwoId);
+		Long fileOneKey = KeyFactory.stringToKey(fileOneId);
+		Long fileTwoKey = KeyFactory.stringToKey(fileTwoId);
+		Long doesNotExist = -123L;
+		
+		// call under test
+		Map<Long, List<NameIdType>> paths = nodeDao.getEntityPaths(Arrays.asList(fileOneKey, fileTwoKey, doesNotExist));
+		assertEquals(2, paths.size());
+		assertEquals(nodeDao.getEntityPath(fileOneId), paths.get(fileOneKey));
+		assertEquals(nodeDao.getEntityPath(fileTwoId), paths.get(fileTwoKey));
+		assertEquals(Arrays.asList(projectOneId, folderId, fileOneId), paths.get(fileOneKey).stream().map(NameIdType::getId).collect(Collectors.toList()));
+		
+		// move the folder to the other project and rename it.
+		Node folder = nodeDao.getNode(folderId);
+		folder.setParentId(projectTwoId);
+		folder.setName("renamed");
+		nodeDao.updateNode(folder);
+		
+		// call under test
+		paths = nodeDao.getEntityPaths(Arrays.asList(fileOneKey, fileTwoKey));
+		assertEquals(Arrays.asList(projectTwoId, folderId, fileOneId), paths.get(fileOneKey).stream().map(NameIdType::getId).collect(Collectors.toList()));
+		assertEquals("renamed", paths.get(fileOneKey).get(1).getName());
+		assertEquals(Arrays.asList(projectOneId, fileTwoId), paths.get(fileTwoKey).stream().map(NameIdType::getId).collect(Collectors.toList()));
+	}
+	
+	@Test
+	public void testGetEntityPathsWithEmptyList() {
+		// call under test
+		assertEquals(Collections.emptyMap(), nodeDao.getEntityPaths(Collections.emptyList()));
+	}
+	
 	@Test
 	public void testGetEntityPathInvalidNode() throws Exception {
 		assertThrows(NotFoundException.class, ()->{
@@ -4236,6 +4333,50 @@ public class NodeDAOImplTest {
 		assertFalse(availableIds.contains(doesNotExist));
 	}
 	
+	@Test
+	public void testGetNodesAnnotationsAndBenefactors() {
+		Node one = NodeTestUtils.createNew("one", creatorUserGroupId);
+		one = nodeDao.createNewNode(one);
+		Long oneId = KeyFactory.stringToKey(one.getId());
+		toDelete.add(one.getId());
+		Annotations annos = nodeDao.getUserAnnotations(one.getId());
+		AnnotationsV2TestUtils.putAnnotations(annos, "key", "value", AnnotationsValueType.STRING);
+		nodeDao.updateUserAnnotations(one.getId(), annos);
+		Node two = NodeTestUtils.createNew("two", creatorUserGroupId);
+		two.setParentId(one.getId());
+		two = nodeDao.createNewNode(two);
+		Long twoId = KeyFactory.stringToKey(two.getId());
+		toDelete.add(two.getId());
+		Long doesNotExist = -1L;
+		List<Long> ids = Lists.newArrayList(oneId, twoId, doesNotExist);
+		
+		// call under test
+		List<Node> nodes = nodeDao.getNodes(ids);
+		assertEquals(2, nodes.size());
+		assertTrue(nodes.contains(nodeDao.getNode(one.getId())));
+		assertTrue(nodes.contains(nodeDao.getNode(two.getId())));
+		
+		// call under test
+		Map<Long, Annotations> annotations = nodeDao.getUserAnnotationsForNodes(ids);
+		assertEquals(2, annotations.size());
+		assertEquals(nodeDao.getUserAnnotations(one.getId()), annotations.get(oneId));
+		assertEquals(nodeDao.getUserAnnotations(two.getId()), annotations.get(twoId));
+		
+		// call under test
+		Map<Long, Long> benefactors = nodeDao.getBenefactors(ids);
+		assertEquals(2, benefactors.size());
+		assertEquals(nodeDao.getBenefactor(one.getId()), KeyFactory.keyToString(benefactors.get(oneId)));
+		assertEquals(nodeDao.getBenefactor(two.getId()), KeyFactory.keyToString(benefactors.get(twoId)));
+	}
+	
+	@Test
+	public void testGetNodesAnnotationsAndBenefactorsWithEmptyList() {
+		// call under test
+		assertEquals(Collections.emptyList(), nodeDao.getNodes(Collections.emptyList()));
+		assertEquals(Collections.emptyMap(), nodeDao.getUserAnnotationsForNodes(Collections.emptyList()));
+		assertEquals(Collections.emptyMap(), nodeDao.getBenefactors(Collections.emptyList()));
+	}
+	
 	@Test
 	public void testTouch() throws InterruptedException {
 		Long user1Id = Long.parseLong(user1);
@@ -5435,6 +5576,147 @@ public class NodeDAOImplTest {
 		assertEquals("salt is required.", message);
 	}
 	
+	@Test
+	public void testGetIdsAndChecksumsForChildrenWithRange() throws Exception {
+		Node projectOne = nodeDaoHelper.create(n -> {
+			n.setName("project-one");
+			n.setCreatedByPrincipalId(creatorUserGroupId);
+		});
+		aclDaoHelper.create(a->{
+			a.setId(projectOne.getId());
+			a.getResourceAccess().add(createResourceAccess(creatorUserGroupId, ACCESS_TYPE.READ));
+		});
+		int numberVersions = 3;
+		List<Long> idsInOne = Arrays.asList(
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId()))
+		);
+		
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentIds = Sets.newHashSet(KeyFactory.stringToKey(projectOne.getId()));
+		Long salt = 123L;
+		
+		// call under test
+		List<IdAndChecksum> results = nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes, idsInOne.get(1),
+				idsInOne.get(2));
+		List<IdAndChecksum> expected = nodeDao.getIdsAndChecksumsForObjects(salt, Sets.newHashSet(idsInOne.get(1)));
+		assertEquals(1, results.size());
+		assertEquals(expected, results);
+	}
+	
+	@Test
+	public void testGetIdsAndChecksumsForChildrenWithRangeWithNullMinId() throws Exception {
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentIds = Sets.newHashSet(1L,2L);
+		Long salt = 123L;
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes, null, 10L);
+		}).getMessage();
+		assertEquals("minId is required.", message);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForChildren() throws Exception {
+		Node projectOne = nodeDaoHelper.create(n -> {
+			n.setName("project-one");
+			n.setCreatedByPrincipalId(creatorUserGroupId);
+		});
+		aclDaoHelper.create(a->{
+			a.setId(projectOne.getId());
+			a.getResourceAccess().add(createResourceAccess(creatorUserGroupId, ACCESS_TYPE.READ));
+		});
+		int numberVersions = 3;
+		List<Long> idsInOne = Arrays.asList(
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId()))
+		);
+		
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentIds = Sets.newHashSet(KeyFactory.stringToKey(projectOne.getId()));
+		Long salt = 123L;
+		List<IdAndChecksum> idsAndChecksums = nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes);
+		// A single range that includes all of the IDs.
+		Long rangeSize = idsInOne.get(2) + 1;
+		
+		// call under test
+		List<IdRangeChecksum> results = nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, rangeSize);
+		
+		List<IdRangeChecksum> expected = Arrays.asList(new IdRangeChecksum().withRangeIndex(0L).withCount(3L)
+				.withChecksum(idsAndChecksums.stream().mapToLong(IdAndChecksum::getChecksum).sum()));
+		assertEquals(expected, results);
+		
+		// call under test
+		results = nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, 1L);
+		
+		// Each ID is its own range.
+		expected = idsAndChecksums.stream().map(i -> new IdRangeChecksum().withRangeIndex(i.getId()).withCount(1L)
+				.withChecksum(i.getChecksum())).collect(Collectors.toList());
+		assertEquals(expected, results);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForChildrenWithEmptyParentIds() throws Exception {
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentIds = Collections.emptySet();
+		Long salt = 123L;
+		// call under test
+		List<IdRangeChecksum> results = nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, 10L);
+		assertEquals(Collections.emptyList(), results);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForChildrenWithZeroRangeSize() throws Exception {
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentIds = Sets.newHashSet(1L,2L);
+		Long salt = 123L;
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, 0L);
+		}).getMessage();
+		assertEquals("rangeSize must be greater than zero.", message);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForObjects() throws Exception {
+		Node projectOne = nodeDaoHelper.create(n -> {
+			n.setName("project-one");
+			n.setCreatedByPrincipalId(creatorUserGroupId);
+		});
+		aclDaoHelper.create(a->{
+			a.setId(projectOne.getId());
+			a.getResourceAccess().add(createResourceAccess(creatorUserGroupId, ACCESS_TYPE.READ));
+		});
+		int numberVersions = 3;
+		List<Long> idsInOne = Arrays.asList(
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId())),
+				KeyFactory.stringToKey(createNodeWithMultipleVersions(numberVersions, projectOne.getId()))
+		);
+		
+		Set<Long> objectIds = idsInOne.stream().collect(Collectors.toSet());
+		Long salt = 123L;
+		List<IdAndChecksum> idsAndChecksums = nodeDao.getIdsAndChecksumsForObjects(salt, objectIds);
+		
+		// call under test
+		List<IdRangeChecksum> results = nodeDao.getIdRangeChecksumsForObjects(salt, objectIds, 1L);
+		
+		List<IdRangeChecksum> expected = idsAndChecksums.stream().map(i -> new IdRangeChecksum()
+				.withRangeIndex(i.getId()).withCount(1L).withChecksum(i.getChecksum())).collect(Collectors.toList());
+		assertEquals(expected, results);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForObjectsWithEmptyObjects() throws Exception {
+		Set<Long> objectIds = Collections.emptySet();
+		Long salt = 123L;
+		// call under test
+		List<IdRangeChecksum> results = nodeDao.getIdRangeChecksumsForObjects(salt, objectIds, 10L);
+		assertEquals(Collections.emptyList(), results);
+	}
+	
 	@Test
 	public void testGetNodeByIdWitNotFound() {
 		String message = assertThrows(NotFoundException.class, ()->{
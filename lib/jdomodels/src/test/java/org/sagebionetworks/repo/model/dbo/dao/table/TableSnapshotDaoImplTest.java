@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -48,6 +49,7 @@ public class TableSnapshotDaoImplTest {
 	private NodeDAO nodeDao;
 	
 	TableSnapshot tableSnapshot;
+	TableCheckpoint tableCheckpoint;
 	IdAndVersion idAndVersion;
 	long adminUserId;
 
@@ -56,6 +58,7 @@ public class TableSnapshotDaoImplTest {
 		adminUserId = BOOTSTRAP_PRINCIPAL.THE_ADMIN_USER.getPrincipalId();
 		tableTruthDao.truncateAllRowData();
 		viewSnapshotDao.truncateAll();
+		viewSnapshotDao.truncateAllCheckpoints();
 		tableTransactionDao.truncateAll();
 		nodeDao.truncateAll();
 		
@@ -78,12 +81,22 @@ public class TableSnapshotDaoImplTest {
 			.withCreatedBy(adminUserId).withCreatedOn(new Date())
 			.withBucket("some bucket")
 			.withKey("some key");
+		
+		tableCheckpoint = new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(3L)
+			.withCreatedOn(new Date())
+			.withBucket("some bucket")
+			.withKey("some checkpoint key")
+			.withSchema(List.of("11", "22"))
+			.withSearchEnabled(true);
 	}
 
 	@AfterEach
 	public void afterEach() {
 		tableTruthDao.truncateAllRowData();
 		viewSnapshotDao.truncateAll();
+		viewSnapshotDao.truncateAllCheckpoints();
 		tableTransactionDao.truncateAll();
 		nodeDao.truncateAll();
 	}
@@ -445,6 +458,100 @@ public class TableSnapshotDaoImplTest {
 		assertTrue(result.isEmpty());
 	}	
 
+	@Test
+	public void testTranslateCheckpoint() {
+		// call under test
+		DBOTableCheckpoint dbo = TableSnapshotDaoImpl.translate(tableCheckpoint);
+		assertEquals("11,22", dbo.getSchemaIds());
+		// call under test
+		TableCheckpoint clone = TableSnapshotDaoImpl.translate(dbo);
+		assertEquals(tableCheckpoint, clone);
+	}
+	
+	@Test
+	public void testTranslateCheckpointWithEmptySchema() {
+		tableCheckpoint.withSchema(Collections.emptyList());
+		// call under test
+		TableCheckpoint clone = TableSnapshotDaoImpl.translate(TableSnapshotDaoImpl.translate(tableCheckpoint));
+		assertEquals(tableCheckpoint, clone);
+	}
+	
+	@Test
+	public void testCreateCheckpoint() {
+		// call under test
+		TableCheckpoint result = viewSnapshotDao.createCheckpoint(tableCheckpoint);
+		assertEquals(tableCheckpoint, result);
+	}
+	
+	@Test
+	public void testCreateCheckpointNullSchema() {
+		tableCheckpoint.withSchema(null);
+		assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			viewSnapshotDao.createCheckpoint(tableCheckpoint);
+		});
+	}
+	
+	@Test
+	public void testGetMostRecentCheckpoint() {
+		TableCheckpoint first = viewSnapshotDao.createCheckpoint(tableCheckpoint);
+		TableCheckpoint second = viewSnapshotDao.createCheckpoint(new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(10L)
+			.withCreatedOn(new Date())
+			.withBucket("some bucket")
+			.withKey("another checkpoint key")
+			.withSchema(List.of("11"))
+			.withSearchEnabled(false));
+		
+		// call under test
+		assertEquals(Optional.of(second), viewSnapshotDao.getMostRecentCheckpoint(idAndVersion.getId(), Long.MAX_VALUE));
+		assertEquals(Optional.of(second), viewSnapshotDao.getMostRecentCheckpoint(idAndVersion.getId(), 10L));
+		assertEquals(Optional.of(first), viewSnapshotDao.getMostRecentCheckpoint(idAndVersion.getId(), 9L));
+		assertEquals(Optional.empty(), viewSnapshotDao.getMostRecentCheckpoint(idAndVersion.getId(), 2L));
+	}
+	
+	@Test
+	public void testGetCheckpointsReplacedBefore() {
+		Date now = new Date();
+		TableCheckpoint first = viewSnapshotDao.createCheckpoint(tableCheckpoint.withCreatedOn(new Date(now.getTime() - 3000)));
+		TableCheckpoint second = viewSnapshotDao.createCheckpoint(new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(10L)
+			.withCreatedOn(new Date(now.getTime() - 2000))
+			.withBucket("some bucket")
+			.withKey("another checkpoint key")
+			.withSchema(List.of("11"))
+			.withSearchEnabled(false));
+		viewSnapshotDao.createCheckpoint(new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(20L)
+			.withCreatedOn(now)
+			.withBucket("some bucket")
+			.withKey("latest checkpoint key")
+			.withSchema(List.of("11"))
+			.withSearchEnabled(false));
+		
+		// call under test
+		assertEquals(List.of(), viewSnapshotDao.getCheckpointsReplacedBefore(idAndVersion.getId(), new Date(now.getTime() - 2000)));
+		assertEquals(List.of(first), viewSnapshotDao.getCheckpointsReplacedBefore(idAndVersion.getId(), new Date(now.getTime() - 1000)));
+		assertEquals(List.of(first, second), viewSnapshotDao.getCheckpointsReplacedBefore(idAndVersion.getId(), new Date(now.getTime() + 1000)));
+	}
+	
+	@Test
+	public void testGetCheckpointsReplacedBeforeWithNoCheckpoints() {
+		// call under test
+		assertEquals(List.of(), viewSnapshotDao.getCheckpointsReplacedBefore(idAndVersion.getId(), new Date()));
+	}
+	
+	@Test
+	public void testDeleteCheckpoint() {
+		viewSnapshotDao.createCheckpoint(tableCheckpoint);
+		// call under test
+		viewSnapshotDao.deleteCheckpoint(idAndVersion.getId(), tableCheckpoint.getChangeNumber());
+		assertEquals(Optional.empty(), viewSnapshotDao.getMostRecentCheckpoint(idAndVersion.getId(), Long.MAX_VALUE));
+	}
+
 	private Long addTableChanges(String tableId, boolean newTableVersion) {
 		final Node table = nodeDao.getNode(tableId);
 		
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.sagebionetworks.repo.model.ACCESS_TYPE;
+import org.sagebionetworks.repo.model.AccessControlList;
 import org.sagebionetworks.repo.model.AccessControlListDAO;
 import org.sagebionetworks.repo.model.AuthorizationConstants.BOOTSTRAP_PRINCIPAL;
 import org.sagebionetworks.repo.model.DataType;
@@ -102,6 +103,7 @@ public class UsersEntityPermissionsDaoImplTest {
 
 	@AfterEach
 	public void after() {
+		entityPermissionDao.clearCache();
 		aclDao.truncateAll();
 		dataTypeDao.truncateAllData();
 		nodeDao.truncateAll();
@@ -661,6 +663,73 @@ public class UsersEntityPermissionsDaoImplTest {
 		assertEquals(expected, results);
 	}
 
+	@Test
+	public void testGetEntityPermissionsWithWarmCache() {
+		setupNodeHierarchy(userOneId);
+		List<Long> entityIds = Arrays.asList(fileId);
+		aclHelper.create((a) -> {
+			a.setId(project.getId());
+			a.getResourceAccess().add(createResourceAccess(userOneId, ACCESS_TYPE.READ));
+		});
+		List<UserEntityPermissionsState> expected = Arrays
+				.asList(createExpectedState(file).withBenefactorId(projectId).withEntityType(EntityType.file)
+						.withHasRead(true).withDoesEntityExist(true));
+		assertEquals(expected, entityPermissionDao.getEntityPermissions(userOneGroups, entityIds));
+		long pathHits = entityPermissionDao.getBenefactorPathCacheStats().hitCount();
+		long aclHits = entityPermissionDao.getAclPermissionsCacheStats().hitCount();
+		// call under test
+		List<UserEntityPermissionsState> results = entityPermissionDao.getEntityPermissions(userOneGroups, entityIds);
+		assertEquals(expected, results);
+		assertEquals(pathHits + 1, entityPermissionDao.getBenefactorPathCacheStats().hitCount());
+		assertEquals(aclHits + 1, entityPermissionDao.getAclPermissionsCacheStats().hitCount());
+	}
+
+	@Test
+	public void testGetEntityPermissionsWithWarmCacheAndAclUpdate() {
+		setupNodeHierarchy(userOneId);
+		List<Long> entityIds = Arrays.asList(fileId);
+		aclHelper.create((a) -> {
+			a.setId(project.getId());
+			a.getResourceAccess().add(createResourceAccess(userOneId, ACCESS_TYPE.READ));
+		});
+		// warm the cache
+		entityPermissionDao.getEntityPermissions(userOneGroups, entityIds);
+		AccessControlList acl = aclDao.get(project.getId(), ObjectType.ENTITY);
+		acl.setResourceAccess(Sets.newHashSet(createResourceAccess(userOneId, ACCESS_TYPE.DOWNLOAD)));
+		aclDao.update(acl, ObjectType.ENTITY);
+		// call under test
+		List<UserEntityPermissionsState> results = entityPermissionDao.getEntityPermissions(userOneGroups, entityIds);
+		List<UserEntityPermissionsState> expected = Arrays
+				.asList(createExpectedState(file).withBenefactorId(projectId).withEntityType(EntityType.file)
+						.withHasRead(false).withHasDownload(true).withDoesEntityExist(true));
+		assertEquals(expected, results);
+	}
+
+	@Test
+	public void testGetEntityPermissionsWithWarmCacheAndMove() {
+		setupNodeHierarchy(userOneId);
+		List<Long> entityIds = Arrays.asList(fileId);
+		aclHelper.create((a) -> {
+			a.setId(project.getId());
+			a.getResourceAccess().add(createResourceAccess(userOneId, ACCESS_TYPE.READ));
+		});
+		aclHelper.create((a) -> {
+			a.setId(folder.getId());
+			a.getResourceAccess().add(createResourceAccess(userTwoId, ACCESS_TYPE.READ));
+		});
+		// warm the cache
+		entityPermissionDao.getEntityPermissions(userOneGroups, entityIds);
+		Node toMove = nodeDao.getNode(file.getId());
+		toMove.setParentId(project.getId());
+		nodeDao.updateNode(toMove);
+		// call under test
+		List<UserEntityPermissionsState> results = entityPermissionDao.getEntityPermissions(userOneGroups, entityIds);
+		List<UserEntityPermissionsState> expected = Arrays.asList(createExpectedState(file).withBenefactorId(projectId)
+				.withEntityParentId(projectId).withEntityType(EntityType.file).withHasRead(true)
+				.withDoesEntityExist(true));
+		assertEquals(expected, results);
+	}
+
 	/**
 	 * Helper to setup a node hierarchy with the provided user as the creator.
 	 * 
@@ -16,6 +16,8 @@ public class MigrationFileTypeTest {
 		assertEquals(MigrationFileType.XML, MigrationFileType.fromFileName("foo.xml"));
 		assertEquals(MigrationFileType.XML, MigrationFileType.fromFileName("foo.XML"));
 		assertEquals(MigrationFileType.XML, MigrationFileType.fromFileName("foo.1.XML"));
+		assertEquals(MigrationFileType.JSONL, MigrationFileType.fromFileName("foo.jsonl"));
+		assertEquals(MigrationFileType.JSONL, MigrationFileType.fromFileName("foo.3.JSONL"));
 	}
 
 	@Test
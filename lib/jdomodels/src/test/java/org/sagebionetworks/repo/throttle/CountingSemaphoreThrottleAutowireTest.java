@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.sagebionetworks.database.semaphore.CountingSemaphore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -22,6 +23,10 @@ public class CountingSemaphoreThrottleAutowireTest {
 	@Autowired
 	private CountingSemaphore countingSemaphore;
 	
+	@Autowired
+	@Qualifier("databaseCountingSemaphore")
+	private CountingSemaphore databaseCountingSemaphore;
+	
 	@Autowired
 	private CountingSemaphoreThrottle throttle;
 	
@@ -65,8 +70,8 @@ public class CountingSemaphoreThrottleAutowireTest {
 		});
 		long failedAcquireCount = throttle.getFailedLockAttemptCount()-startCount;
 		assertEquals(0, failedAcquireCount);
-		// this should also return a lock
-		optional = countingSemaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, CountingSemaphoreThrottleAutowireTest.class.getName());
+		// the lock is taken directly from the database as if by another machine.
+		optional = databaseCountingSemaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, CountingSemaphoreThrottleAutowireTest.class.getName());
 		assertNotNull(optional);
 		assertTrue(optional.isPresent());
 		// this acquire should fail to get a lock
@@ -76,5 +81,17 @@ public class CountingSemaphoreThrottleAutowireTest {
 		failedAcquireCount = throttle.getFailedLockAttemptCount()-startCount;
 		assertEquals(1, failedAcquireCount);
 	}
+	
+	@Test
+	public void testFailedAttemptToAcquireLockHeldLocally() {
+		Optional<String> optional = countingSemaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, CountingSemaphoreThrottleAutowireTest.class.getName());
+		assertTrue(optional.isPresent());
+		long startCount = throttle.getCounter();
+		// call under test
+		optional = countingSemaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount, CountingSemaphoreThrottleAutowireTest.class.getName());
+		assertTrue(optional.isEmpty());
+		// the lock is held by this machine so the database is not called.
+		assertEquals(0L, throttle.getCounter() - startCount);
+	}
 
 }
@@ -1,13 +1,14 @@
 package org.sagebionetworks.table.cluster;
 
 import java.sql.Timestamp;
+import java.util.Arrays;
 import java.util.Objects;
 
 public class CachedQueryDto {
 	
 	private String requestHash;
 	private String requestJson;
-	private String resultJson;
+	private byte[] results;
 	private Long runtimeMS;
 	private Timestamp expiresOn;
 	
@@ -25,11 +26,11 @@ public class CachedQueryDto {
 		this.requestJson = requestJson;
 		return this;
 	}
-	public String getResultJson() {
-		return resultJson;
+	public byte[] getResults() {
+		return results;
 	}
-	public CachedQueryDto setResultJson(String resultJson) {
-		this.resultJson = resultJson;
+	public CachedQueryDto setResults(byte[] results) {
+		this.results = results;
 		return this;
 	}
 	public Long getRuntimeMS() {
@@ -49,7 +50,11 @@ public class CachedQueryDto {
 	
 	@Override
 	public int hashCode() {
-		return Objects.hash(expiresOn, requestHash, requestJson, resultJson, runtimeMS);
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + Arrays.hashCode(results);
+		result = prime * result + Objects.hash(expiresOn, requestHash, requestJson, runtimeMS);
+		return result;
 	}
 	
 	@Override
@@ -62,14 +67,14 @@ public class CachedQueryDto {
 			return false;
 		CachedQueryDto other = (CachedQueryDto) obj;
 		return Objects.equals(expiresOn, other.expiresOn) && Objects.equals(requestHash, other.requestHash)
-				&& Objects.equals(requestJson, other.requestJson) && Objects.equals(resultJson, other.resultJson)
+				&& Objects.equals(requestJson, other.requestJson) && Arrays.equals(results, other.results)
 				&& Objects.equals(runtimeMS, other.runtimeMS);
 	}
 	
 	@Override
 	public String toString() {
-		return "CachedQueryDto [requestHash=" + requestHash + ", requestJson=" + requestJson + ", resultJson="
-				+ resultJson + ", runtimeMS=" + runtimeMS + ", expiresOn=" + expiresOn + "]";
+		return "CachedQueryDto [requestHash=" + requestHash + ", requestJson=" + requestJson + ", results="
+				+ Arrays.toString(results) + ", runtimeMS=" + runtimeMS + ", expiresOn=" + expiresOn + "]";
 	}
 	
 }
@@ -20,6 +20,7 @@ import org.sagebionetworks.table.cluster.description.IndexDescription;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
 import org.sagebionetworks.table.query.ParseException;
 import org.sagebionetworks.table.query.TableQueryParser;
+import org.sagebionetworks.table.query.model.Pagination;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.QuerySpecification;
 import org.sagebionetworks.table.query.model.SelectList;
@@ -212,6 +213,66 @@ public class QueryTranslator implements TranslatedQuery {
 			throw new IllegalArgumentException(e);
 		}
 	}
+
+	/**
+	 * Copy the given translation replacing its parameters and the maximum number
+	 * of rows per page.
+	 * 
+	 * @param toCopy
+	 * @param parameters
+	 * @param maxRowsPerPage
+	 */
+	private QueryTranslator(QueryTranslator toCopy, Map<String, Object> parameters, Long maxRowsPerPage) {
+		this.inputSql = toCopy.inputSql;
+		this.translated = toCopy.translated;
+		this.parameters = parameters;
+		this.outputSQL = toCopy.outputSQL;
+		this.maxRowSizeBytes = toCopy.maxRowSizeBytes;
+		this.maxRowsPerPage = maxRowsPerPage;
+		this.includesRowIdAndVersion = toCopy.includesRowIdAndVersion;
+		this.includeEntityEtag = toCopy.includeEntityEtag;
+		this.isAggregatedResult = toCopy.isAggregatedResult;
+		this.selectColumns = toCopy.selectColumns;
+		this.isIncludeSearch = toCopy.isIncludeSearch;
+		this.schemaOfSelect = toCopy.schemaOfSelect;
+		this.indexDescription = toCopy.indexDescription;
+		this.sqlContext = toCopy.sqlContext;
+		this.distinctTableIds = toCopy.distinctTableIds;
+		this.tableSchema = toCopy.tableSchema;
+		this.isCommonTableExpression = toCopy.isCommonTableExpression;
+		this.tableHash = toCopy.tableHash;
+	}
+
+	/**
+	 * Create a copy of this translation with the given offset, limit and maximum
+	 * bytes per page applied to its pagination, without translating the query
+	 * again. The values are applied exactly as they would be if they were passed
+	 * with the SQL of this translation. Only the bound values of the LIMIT and
+	 * OFFSET change, so this translation must have both a LIMIT and an OFFSET.
+	 * 
+	 * @param offset
+	 * @param limit
+	 * @param maxBytesPerPage
+	 * @return
+	 */
+	public QueryTranslator withPagination(Long offset, Long limit, Long maxBytesPerPage) {
+		Pagination pagination = translated.stream(QuerySpecification.class).findFirst()
+				.map(q -> q.getTableExpression().getPagination()).orElse(null);
+		if (pagination == null || pagination.getOffset() == null) {
+			throw new IllegalStateException("The translated query does not include both a LIMIT and an OFFSET");
+		}
+		// The translated LIMIT and OFFSET are bind variables of the form ':key'.
+		String limitKey = pagination.getLimit().substring(1);
+		String offsetKey = pagination.getOffset().substring(1);
+		Pagination paginated = SqlElementUtils.overridePagination(
+				new Pagination((Long) parameters.get(limitKey), (Long) parameters.get(offsetKey)), offset, limit);
+		Long newMaxRowsPerPage = maxBytesPerPage == null ? null : Math.max(1, maxBytesPerPage / this.maxRowSizeBytes);
+		paginated = SqlElementUtils.limitMaxRowsPerPage(paginated, newMaxRowsPerPage);
+		Map<String, Object> newParameters = new LinkedHashMap<>(parameters);
+		newParameters.put(limitKey, paginated.getLimitLong());
+		newParameters.put(offsetKey, paginated.getOffsetLong());
+		return new QueryTranslator(this, newParameters, newMaxRowsPerPage);
+	}
 	
 	private static class QueryPart {
 
@@ -10,6 +10,7 @@ import java.util.Set;
 import javax.sql.DataSource;
 
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.dao.table.RowHandler;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
@@ -510,6 +511,35 @@ public interface TableIndexDAO {
 	 */
 	List<IdAndChecksum> getIdAndChecksumsForFilter(Long salt, ViewFilter filter, Long limit, Long offset);
 
+	/**
+	 * Get a single page of IdAndChecksums from the replication table using the
+	 * provided filter, limited to the objects with an ID in the given range.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param minId  Inclusive
+	 * @param maxId  Exclusive
+	 * @param limit
+	 * @param offset
+	 * @return
+	 */
+	List<IdAndChecksum> getIdAndChecksumsForFilterRange(Long salt, ViewFilter filter, Long minId, Long maxId,
+			Long limit, Long offset);
+
+	/**
+	 * Get the aggregated checksum of each range of IDs from the replication table
+	 * using the provided filter. The checksum of a range is the sum of the
+	 * checksums of each ID in the range, as calculated by
+	 * {@link #getIdAndChecksumsForFilter(Long, ViewFilter, Long, Long)}. Ranges
+	 * without any objects are not included.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param rangeSize The number of IDs covered by each range.
+	 * @return The checksum of each range ordered by the range index.
+	 */
+	List<IdRangeChecksum> getIdRangeChecksumsForFilter(Long salt, ViewFilter filter, Long rangeSize);
+
 	/**
 	 * @param idAndVersion  The id of the table
 	 * @param selectColumns The columns to fetch
@@ -611,14 +641,6 @@ public interface TableIndexDAO {
 	 */
 	Optional<String> getConstraintClause(String constraintName);
 
-	/**
-	 * Get the JSON results for a cached query for the given request hash.
-	 * 
-	 * @param requestHash
-	 * @return {@link Optional#empty()} if there is no entry for the the given hash.
-	 */
-	Optional<String> getCachedQueryResults(String requestHash);
-
 	/**
 	 * Get the JSON request for a cached query for the given request hash if it is
 	 * expired.
@@ -634,11 +656,11 @@ public interface TableIndexDAO {
 	 * 
 	 * @param requestHash The SHA 256 Hex of the query request.
 	 * @param requestJson The JSON of the query request.
-	 * @param resultJson  The JSON of the query results.
+	 * @param results     The encoded query results.
 	 * @param runtimeMS   The runtime in MS it took to execute the query.
 	 * @param expiresInSec The number of seconds until this cached result will expire.
 	 */
-	void saveCachedQuery(String requestHash, String requestJson, String resultJson, long runtimeMS, int expiresInSec);
+	void saveCachedQuery(String requestHash, String requestJson, byte[] results, long runtimeMS, int expiresInSec);
 	
 	/**
 	 * Get a cached query result for the given request hash.
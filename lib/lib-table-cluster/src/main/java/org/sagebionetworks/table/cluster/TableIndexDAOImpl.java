@@ -77,6 +77,7 @@ import javax.sql.DataSource;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.json.JSONArray;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.dao.table.RowHandler;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
@@ -143,6 +144,7 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 	private static String REPLICATION_SYNCH_EXPIRATION_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/ReplicationSynchExpiration.sql");
 	private static String QUERY_CACHE_TABLE_CREATE = SQLUtils.loadSQLFromClasspath("schema/QueryCache.sql");
 	private static String GET_ID_AND_CHECKSUMS_SQL_TEMPLATE = SQLUtils.loadSQLFromClasspath("sql/GetIdAndChecksumsTemplate.sql");
+	private static String GET_ID_RANGE_CHECKSUMS_SQL_TEMPLATE = SQLUtils.loadSQLFromClasspath("sql/GetIdRangeChecksumsTemplate.sql");
 	
 	public static RowMapper<ObjectDataDTO> OBJECT_DATA_ROW_MAPPER = (ResultSet rs, int rowNum) -> {
 		ObjectDataDTO dto = new ObjectDataDTO();
@@ -748,6 +750,21 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 		template.update(ANNOTATION_REPLICATION_TABLE_CREATE);
 		template.update(REPLICATION_SYNCH_EXPIRATION_TABLE_CREATE);
 		template.update(QUERY_CACHE_TABLE_CREATE);
+		alterQueryCacheResultsToBinaryIfNeeded();
+	}
+
+	/**
+	 * The RESULTS of the QUERY_CACHE were originally stored in a JSON column.
+	 * Converting an existing column to LONGBLOB keeps the JSON text of the existing
+	 * rows, which can still be decoded.
+	 */
+	void alterQueryCacheResultsToBinaryIfNeeded() {
+		String dataType = template.queryForObject(
+				"SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'QUERY_CACHE' AND COLUMN_NAME = 'RESULTS'",
+				String.class);
+		if (!"longblob".equalsIgnoreCase(dataType)) {
+			template.update("ALTER TABLE QUERY_CACHE MODIFY COLUMN RESULTS LONGBLOB NOT NULL");
+		}
 	}
 
 	@Override
@@ -1389,6 +1406,54 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
 		});
 	}
+
+	@Override
+	public List<IdAndChecksum> getIdAndChecksumsForFilterRange(Long salt, ViewFilter filter, Long minId, Long maxId,
+			Long limit, Long offset) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(filter, "filter");
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		if(filter.isEmpty()) {
+			return Collections.emptyList();
+		}
+		ValidateArgument.required(limit, "limit");
+		ValidateArgument.required(offset, "offset");
+		
+		String sql = String.format(GET_ID_AND_CHECKSUMS_SQL_TEMPLATE,
+				filter.getObjectIdFilterSql() + " AND R.OBJECT_ID >= :minId AND R.OBJECT_ID < :maxId");
+		Map<String, Object> params = new HashMap<String, Object>(filter.getParameters());
+		params.put("salt", salt);
+		params.put("minId", minId);
+		params.put("maxId", maxId);
+		params.put("limit", limit);
+		params.put("offset", offset);
+		
+		return namedTemplate.query(sql, params, (ResultSet rs, int rowNum) -> {
+			return new IdAndChecksum().withId(rs.getLong("ID")).withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForFilter(Long salt, ViewFilter filter, Long rangeSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(filter, "filter");
+		ValidateArgument.required(rangeSize, "rangeSize");
+		ValidateArgument.requirement(rangeSize > 0, "rangeSize must be greater than zero.");
+		if(filter.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		String sql = String.format(GET_ID_RANGE_CHECKSUMS_SQL_TEMPLATE, filter.getObjectIdFilterSql());
+		Map<String, Object> params = new HashMap<String, Object>(filter.getParameters());
+		params.put("salt", salt);
+		params.put("rangeSize", rangeSize);
+		
+		return namedTemplate.query(sql, params, (ResultSet rs, int rowNum) -> {
+			return new IdRangeChecksum().withRangeIndex(rs.getLong("RANGE_INDEX")).withCount(rs.getLong("ID_COUNT"))
+					.withChecksum(rs.getLong("CHECK_SUM"));
+		});
+	}
 		
 	@Override
 	public List<TableRowData> getTableDataForRowIds(IdAndVersion idAndVersion, List<ColumnModel> selectColumns, Set<Long> rowIds) {
@@ -1592,27 +1657,15 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 	}
 
 	@Override
-	public Optional<String> getCachedQueryResults(String requestHash) {
-		ValidateArgument.required(requestHash, "requestHash");
-		try {
-			return Optional.of(template.queryForObject(
-					"SELECT RESULTS FROM QUERY_CACHE WHERE REQUEST_HASH = ?",
-					String.class, requestHash));
-		} catch (EmptyResultDataAccessException e) {
-			return Optional.empty();
-		}
-	}
-
-	@Override
-	public void saveCachedQuery(String requestHash, String requestJson, String resultJson, long runtimeMS,
+	public void saveCachedQuery(String requestHash, String requestJson, byte[] results, long runtimeMS,
 			int expiresInSec) {
 		ValidateArgument.required(requestHash, "requestHash");
 		ValidateArgument.required(requestJson, "requestJson");
-		ValidateArgument.required(resultJson, "resultJson");
+		ValidateArgument.required(results, "results");
 		template.update(
 				"INSERT INTO QUERY_CACHE (REQUEST_HASH, REQUEST, RESULTS, EXPIRES_ON, RUNTIME_MS) VALUES (?,?,?,TIMESTAMPADD(SECOND, ?, NOW()),?) "
 						+ "  ON DUPLICATE KEY UPDATE RESULTS = ?, EXPIRES_ON = TIMESTAMPADD(SECOND, ?, NOW()), RUNTIME_MS = ?",
-				requestHash, requestJson, resultJson, expiresInSec, runtimeMS, resultJson, expiresInSec, runtimeMS);
+				requestHash, requestJson, results, expiresInSec, runtimeMS, results, expiresInSec, runtimeMS);
 	}
 	
 	@Override
@@ -1634,7 +1687,7 @@ public class TableIndexDAOImpl implements TableIndexDAO {
 			return Optional.of(template.queryForObject("SELECT * FROM QUERY_CACHE WHERE REQUEST_HASH = ?",
 					(ResultSet rs, int rowNum) -> {
 						return new CachedQueryDto().setRequestHash(rs.getString("REQUEST_HASH"))
-								.setRequestJson(rs.getString("REQUEST")).setResultJson(rs.getString("RESULTS"))
+								.setRequestJson(rs.getString("REQUEST")).setResults(rs.getBytes("RESULTS"))
 								.setRuntimeMS(rs.getLong("RUNTIME_MS")).setExpiresOn(rs.getTimestamp("EXPIRES_ON"));
 					}, requestHash));
 		} catch (EmptyResultDataAccessException e) {
@@ -0,0 +1,8 @@
+SELECT
+ R.OBJECT_ID DIV :rangeSize AS RANGE_INDEX,
+ COUNT(DISTINCT R.OBJECT_ID) AS ID_COUNT,
+ SUM(CRC32(CONCAT(:salt,'-',R.ETAG,'-',R.OBJECT_VERSION,'-',R.BENEFACTOR_ID))) AS CHECK_SUM
+  FROM OBJECT_REPLICATION R
+   WHERE %s
+   GROUP BY RANGE_INDEX
+    ORDER BY RANGE_INDEX ASC
\ No newline at end of file
@@ -1175,6 +1175,58 @@ public class QueryTranslatorTest {
 		assertEquals("SELECT _C111_, ROW_ID, ROW_VERSION FROM T123", translator.getOutputSQL());
 	}
 
+	@Test
+	public void testWithPagination() throws ParseException {
+
+		when(mockSchemaProvider.getTableSchema(any())).thenReturn(tableSchema);
+		setupGetColumns(columnNameToModelMap.get("foo"));
+
+		QueryTranslator translator = QueryTranslator.builder("select foo from syn123 limit 10 offset 1", mockSchemaProvider, userId)
+				.indexDescription(new TableIndexDescription(idAndVersion)).build();
+		Long maxBytesPerPage = 10000L;
+		// call under test
+		QueryTranslator paginated = translator.withPagination(2L, 5L, maxBytesPerPage);
+		assertEquals("SELECT _C111_, ROW_ID, ROW_VERSION FROM T123 LIMIT :b0 OFFSET :b1", paginated.getOutputSQL());
+		assertEquals(5L, paginated.getParameters().get("b0"));
+		assertEquals(3L, paginated.getParameters().get("b1"));
+		assertEquals(Long.valueOf(maxBytesPerPage / translator.getMaxRowSizeBytes()), paginated.getMaxRowsPerPage());
+		// the original is unchanged
+		assertEquals(10L, translator.getParameters().get("b0"));
+		assertEquals(1L, translator.getParameters().get("b1"));
+		assertEquals(null, translator.getMaxRowsPerPage());
+	}
+
+	@Test
+	public void testWithPaginationWithSmallMaxBytesPerPage() throws ParseException {
+
+		when(mockSchemaProvider.getTableSchema(any())).thenReturn(tableSchema);
+		setupGetColumns(columnNameToModelMap.get("foo"));
+
+		QueryTranslator translator = QueryTranslator.builder("select foo from syn123 limit 10 offset 1", mockSchemaProvider, userId)
+				.indexDescription(new TableIndexDescription(idAndVersion)).build();
+		// call under test
+		QueryTranslator paginated = translator.withPagination(null, null, 1L);
+		assertEquals("SELECT _C111_, ROW_ID, ROW_VERSION FROM T123 LIMIT :b0 OFFSET :b1", paginated.getOutputSQL());
+		assertEquals(1L, paginated.getParameters().get("b0"));
+		assertEquals(1L, paginated.getParameters().get("b1"));
+		assertEquals(Long.valueOf(1L), paginated.getMaxRowsPerPage());
+	}
+
+	@Test
+	public void testWithPaginationWithoutOffset() throws ParseException {
+
+		when(mockSchemaProvider.getTableSchema(any())).thenReturn(tableSchema);
+		setupGetColumns(columnNameToModelMap.get("foo"));
+
+		QueryTranslator translator = QueryTranslator.builder("select foo from syn123 limit 10", mockSchemaProvider, userId)
+				.indexDescription(new TableIndexDescription(idAndVersion)).build();
+		String message = assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			translator.withPagination(2L, 5L, 10000L);
+		}).getMessage();
+		assertEquals("The translated query does not include both a LIMIT and an OFFSET", message);
+	}
+
 	@Test
 	public void testPLFM_4161() throws ParseException {
 
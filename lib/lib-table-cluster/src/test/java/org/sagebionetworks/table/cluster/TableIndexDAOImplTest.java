@@ -20,6 +20,7 @@ import static org.sagebionetworks.repo.model.table.TableConstants.ROW_VERSION;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -47,6 +48,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
@@ -4558,6 +4560,75 @@ public class TableIndexDAOImplTest {
 		assertEquals(2, page.stream().filter(i->i.getChecksum() != null).count());
 	}
 	
+	@Test
+	public void testGetIdRangeChecksumsForFilter() {
+		tableId = IdAndVersion.parse("syn123");
+		indexDescription = new ViewIndexDescription(tableId, TableType.entityview, -1L);
+		Long objectIdOne = 22L;
+		Long objectIdTwo = 33L;
+		Long objectIdThree = 44L;
+		// delete all data
+		tableIndexDAO.deleteObjectData(mainType, Lists.newArrayList(objectIdOne, objectIdTwo, objectIdThree));
+		tableIndexDAO.deleteTable(tableId);
+		
+		int annotationCoun = 1;
+		int versionCount = 2;
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdOne, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdTwo, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdThree, EntityType.file, annotationCoun, versionCount));
+		
+		ViewFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(1L));
+		Long salt = 123L;
+		List<IdAndChecksum> all = tableIndexDAO.getIdAndChecksumsForFilter(salt, filter, 100L, 0L);
+		assertEquals(3, all.size());
+		
+		Long rangeSize = 30L;
+		// call under test
+		List<IdRangeChecksum> ranges = tableIndexDAO.getIdRangeChecksumsForFilter(salt, filter, rangeSize);
+		
+		List<IdRangeChecksum> expected = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(all.get(0).getChecksum()),
+				new IdRangeChecksum().withRangeIndex(1L).withCount(2L)
+						.withChecksum(all.get(1).getChecksum() + all.get(2).getChecksum()));
+		assertEquals(expected, ranges);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksumsForFilterWithZeroRangeSize() {
+		ViewFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(1L));
+		String message = assertThrows(IllegalArgumentException.class, ()->{
+			// call under test
+			tableIndexDAO.getIdRangeChecksumsForFilter(123L, filter, 0L);
+		}).getMessage();
+		assertEquals("rangeSize must be greater than zero.", message);
+	}
+	
+	@Test
+	public void testGetIdAndChecksumsForFilterRange() {
+		tableId = IdAndVersion.parse("syn123");
+		indexDescription = new ViewIndexDescription(tableId, TableType.entityview, -1L);
+		Long objectIdOne = 22L;
+		Long objectIdTwo = 33L;
+		Long objectIdThree = 44L;
+		// delete all data
+		tableIndexDAO.deleteObjectData(mainType, Lists.newArrayList(objectIdOne, objectIdTwo, objectIdThree));
+		tableIndexDAO.deleteTable(tableId);
+		
+		int annotationCoun = 1;
+		int versionCount = 2;
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdOne, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdTwo, EntityType.file, annotationCoun, versionCount));
+		tableIndexDAO.addObjectData(mainType, createMultipleVersions(objectIdThree, EntityType.file, annotationCoun, versionCount));
+		
+		ViewFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, Set.of(SubType.file), Set.of(1L));
+		Long salt = 123L;
+		List<IdAndChecksum> all = tableIndexDAO.getIdAndChecksumsForFilter(salt, filter, 100L, 0L);
+		
+		// call under test
+		List<IdAndChecksum> page = tableIndexDAO.getIdAndChecksumsForFilterRange(salt, filter, 30L, 44L, 100L, 0L);
+		assertEquals(List.of(all.get(1)), page);
+	}
+	
 	@Test
 	public void testGetIdAndChecksumsForFilterWithFlatFilter() {
 		tableId = IdAndVersion.parse("syn123");
@@ -5042,12 +5113,12 @@ public class TableIndexDAOImplTest {
 	public void testCachedQuery() throws InterruptedException {
 		String requestHash = DigestUtils.sha256Hex(UUID.randomUUID().toString());
 		String requestJson = "{\"request\": \"bar\"}";
-		String resultJson = "{\"result\": \"foo\"}";
+		byte[] results = "{\"result\": \"foo\"}".getBytes(StandardCharsets.UTF_8);
 		long runtimeMS = 10L;
 		int expiresInSec = 3;
 		
 		// call under test
-		tableIndexDAO.saveCachedQuery(requestHash, requestJson, resultJson, runtimeMS, expiresInSec);
+		tableIndexDAO.saveCachedQuery(requestHash, requestJson, results, runtimeMS, expiresInSec);
 		
 		// call under test
 		Optional<CachedQueryDto> resultOption = tableIndexDAO.getCachedQuery(requestHash);
@@ -5056,12 +5127,9 @@ public class TableIndexDAOImplTest {
 		assertNotNull(result.getExpiresOn());
 		assertEquals(requestHash, result.getRequestHash());
 		assertEquals(requestJson, result.getRequestJson());
-		assertEquals(resultJson, result.getResultJson());
+		assertArrayEquals(results, result.getResults());
 		assertEquals(runtimeMS, result.getRuntimeMS());
 		
-		// call under test
-		assertEquals(Optional.of(resultJson), tableIndexDAO.getCachedQueryResults(requestHash));
-		
 		// call under test
 		assertEquals(Optional.empty(), tableIndexDAO.getExpiredCachedQueryRequest(requestHash));
 		
@@ -5071,9 +5139,9 @@ public class TableIndexDAOImplTest {
 		assertEquals(Optional.of(requestJson), tableIndexDAO.getExpiredCachedQueryRequest(requestHash));
 
 		runtimeMS = 18L;
-		resultJson = "{\"result\": \"foo\", \"updated\": true}";
+		results = new byte[] { 1, 2, 3, 4 };
 		// call under test
-		tableIndexDAO.saveCachedQuery(requestHash, requestJson, resultJson, runtimeMS, expiresInSec);
+		tableIndexDAO.saveCachedQuery(requestHash, requestJson, results, runtimeMS, expiresInSec);
 		
 		// call under test
 		Optional<CachedQueryDto> updatedOption = tableIndexDAO.getCachedQuery(requestHash);
@@ -5083,7 +5151,7 @@ public class TableIndexDAOImplTest {
 		assertTrue(updatedResult.getExpiresOn().toInstant().isAfter(result.getExpiresOn().toInstant()));
 		assertEquals(requestHash, updatedResult.getRequestHash());
 		assertEquals(requestJson, updatedResult.getRequestJson());
-		assertEquals(resultJson, updatedResult.getResultJson());
+		assertArrayEquals(results, updatedResult.getResults());
 		assertEquals(runtimeMS, updatedResult.getRuntimeMS());
 	}
 	
@@ -5091,7 +5159,6 @@ public class TableIndexDAOImplTest {
 	public void testCachedQueryWithDoesNotExist() {
 		String requestHash = "does not exist";
 		assertEquals(Optional.empty(), tableIndexDAO.getCachedQuery(requestHash));
-		assertEquals(Optional.empty(), tableIndexDAO.getCachedQueryResults(requestHash));
 		assertEquals(Optional.empty(), tableIndexDAO.getExpiredCachedQueryRequest(requestHash));
 	}
 	
@@ -5105,16 +5172,6 @@ public class TableIndexDAOImplTest {
 		assertEquals("requestHash is required.", message);
 	}
 	
-	@Test
-	public void testGetCachedQueryResultsWithNull() {
-		String requestHash = null;
-		String message = assertThrows(IllegalArgumentException.class, ()->{
-			// call under test
-			tableIndexDAO.getCachedQueryResults(requestHash);
-		}).getMessage();
-		assertEquals("requestHash is required.", message);
-	}
-	
 	@Test
 	public void testGetCachedQueryRequestWithNull() {
 		String requestHash = null;
@@ -5129,12 +5186,12 @@ public class TableIndexDAOImplTest {
 	public void testSaveCachedQueryWithNullHash() {
 		String requestHash = null;
 		String requestJson = "{\"request\": \"bar\"}";
-		String resultJson = "{\"result\": \"foo\"}";
+		byte[] results = "{\"result\": \"foo\"}".getBytes(StandardCharsets.UTF_8);
 		long runtimeMS = 10L;
 		int expiresInSec = 12;
 		String message = assertThrows(IllegalArgumentException.class, ()->{
 			// call under test
-			tableIndexDAO.saveCachedQuery(requestHash, requestJson, resultJson, runtimeMS, expiresInSec);
+			tableIndexDAO.saveCachedQuery(requestHash, requestJson, results, runtimeMS, expiresInSec);
 		}).getMessage();
 		assertEquals("requestHash is required.", message);
 	}
@@ -5143,12 +5200,12 @@ public class TableIndexDAOImplTest {
 	public void testSaveCachedQueryWithNullRequest() {
 		String requestHash = DigestUtils.sha256Hex(UUID.randomUUID().toString());
 		String requestJson = null;
-		String resultJson = "{\"result\": \"foo\"}";
+		byte[] results = "{\"result\": \"foo\"}".getBytes(StandardCharsets.UTF_8);
 		Long runtimeMS = 10L;
 		int expiresInSec = 12;
 		String message = assertThrows(IllegalArgumentException.class, ()->{
 			// call under test
-			tableIndexDAO.saveCachedQuery(requestHash, requestJson, resultJson, runtimeMS, expiresInSec);
+			tableIndexDAO.saveCachedQuery(requestHash, requestJson, results, runtimeMS, expiresInSec);
 		}).getMessage();
 		assertEquals("requestJson is required.", message);
 	}
@@ -5157,14 +5214,14 @@ public class TableIndexDAOImplTest {
 	public void testSaveCachedQueryWithNullResult() {
 		String requestHash = DigestUtils.sha256Hex(UUID.randomUUID().toString());
 		String requestJson = "{\"request\": \"bar\"}";
-		String resultJson = null;
+		byte[] results = null;
 		Long runtimeMS = 10L;
 		int expiresInSec = 12;
 		String message = assertThrows(IllegalArgumentException.class, ()->{
 			// call under test
-			tableIndexDAO.saveCachedQuery(requestHash, requestJson, resultJson, runtimeMS, expiresInSec);
+			tableIndexDAO.saveCachedQuery(requestHash, requestJson, results, runtimeMS, expiresInSec);
 		}).getMessage();
-		assertEquals("resultJson is required.", message);
+		assertEquals("results is required.", message);
 	}
 	
 	@Test
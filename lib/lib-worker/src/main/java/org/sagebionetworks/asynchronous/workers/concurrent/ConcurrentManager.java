@@ -15,7 +15,8 @@ import com.amazonaws.services.sqs.AmazonSQSClient;
  * worker stack instances. Note: This manager does not directly encapsulate
  * the state of individual workers or worker stacks. However, it does
  * encapsulate the {@link Executors#newCachedThreadPool()} used to run each
- * worker on a separate thread.
+ * worker on a separate thread, and the {@link SqsMessageBatcher} of each queue
+ * used to delete messages and refresh their visibility.
  *
  */
 public interface ConcurrentManager {
@@ -68,7 +69,8 @@ public interface ConcurrentManager {
 
 	/**
 	 * Poll for messages from an SQS queue. Each message received from the queue
-	 * will be passed to the provided worker on a new thread. It is up to the caller
+	 * will be passed to the provided worker on a new thread of the given
+	 * {@link WorkerExecutorMode}. It is up to the caller
 	 * to monitor the resulting {@link Future}, and to refresh the message
 	 * visibility timeout by calling {@link ProgressListener#progressMade()}.
 	 * 
@@ -84,13 +86,15 @@ public interface ConcurrentManager {
 	 *                                    expected to call
 	 *                                    {@link ProgressListener#progressMade()} to
 	 *                                    periodically refresh the message timeout.
+	 * @param executorMode                The type of thread each job will be run
+	 *                                    on.
 	 * @param worker                      For each message polled this worker will
 	 *                                    receive a call to:
 	 *                                    {@link MessageDrivenRunner#run(ProgressCallback, com.amazonaws.services.sqs.model.Message)}
 	 * @return
 	 */
 	List<WorkerJob> pollForMessagesAndStartJobs(String queueUrl, int maxNumberOfMessages,
-			int messageVisibilityTimeoutSec, MessageDrivenRunner worker);
+			int messageVisibilityTimeoutSec, WorkerExecutorMode executorMode, MessageDrivenRunner worker);
 	
 	/**
 	 * Allows the client to be shared with the rest of the stack.
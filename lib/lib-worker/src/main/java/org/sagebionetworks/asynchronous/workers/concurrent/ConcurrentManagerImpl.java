@@ -1,10 +1,17 @@
 package org.sagebionetworks.asynchronous.workers.concurrent;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
@@ -18,24 +25,47 @@ import org.sagebionetworks.workers.util.aws.message.MessageDrivenRunner;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 
 import com.amazonaws.services.sqs.AmazonSQSClient;
-import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
-import com.amazonaws.services.sqs.model.DeleteMessageRequest;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 
 public class ConcurrentManagerImpl implements ConcurrentManager {
 
 	private static final int TWO_SECONDS = 2;
+	/**
+	 * The maximum time a message delete or visibility change will wait for its
+	 * batch to fill before being sent.
+	 */
+	public static final long BATCH_FLUSH_DELAY_MS = 100L;
+	/**
+	 * The maximum time the final flush of the pending message deletes and
+	 * visibility changes can take on shutdown.
+	 */
+	public static final long SHUTDOWN_FLUSH_TIMEOUT_MS = 5_000L;
 	private static final Log log = LogFactory.getLog(ConcurrentWorkerStack.class);
 
 	private final CountingSemaphore countingSemaphore;
-	private final ExecutorService executorService;
+	private final Map<WorkerExecutorMode, ExecutorService> executorServices;
 	private final AmazonSQSClient amazonSQSClient;
 	private final StackStatusDao stackStatusDao;
+	private final ConcurrentMap<String, SqsMessageBatcher> messageBatchers;
+	private final ScheduledExecutorService batchFlushScheduler;
 	private volatile boolean isShutdown;
 
 	public ConcurrentManagerImpl(CountingSemaphore countingSemaphore, AmazonSQSClient amazonSQSClient,
 			StackStatusDao stackStatusDao) {
+		this(countingSemaphore, amazonSQSClient, stackStatusDao, BATCH_FLUSH_DELAY_MS);
+	}
+
+	/**
+	 * 
+	 * @param countingSemaphore
+	 * @param amazonSQSClient
+	 * @param stackStatusDao
+	 * @param batchFlushDelayMS The delay between each flush of the pending message
+	 *                          deletes and visibility changes of all queues.
+	 */
+	ConcurrentManagerImpl(CountingSemaphore countingSemaphore, AmazonSQSClient amazonSQSClient,
+			StackStatusDao stackStatusDao, long batchFlushDelayMS) {
 		super();
 		this.countingSemaphore = countingSemaphore;
 		this.amazonSQSClient = amazonSQSClient;
@@ -52,14 +82,30 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 		 * allows us guarantee that every messages received has a thread immediately
 		 * available, while at it will reuse threads already allocated (until they
 		 * expire).
+		 * 
+		 * Stacks that select WorkerExecutorMode.VIRTUAL_THREADS get a new virtual
+		 * thread per message instead, which has the same guarantee without holding a
+		 * platform thread while the worker is blocked.
 		 */
-		this.executorService = Executors.newCachedThreadPool();
+		ExecutorService platformExecutor = Executors.newCachedThreadPool();
+		this.executorServices = new EnumMap<>(WorkerExecutorMode.class);
+		this.executorServices.put(WorkerExecutorMode.PLATFORM_THREADS, platformExecutor);
+		this.executorServices.put(WorkerExecutorMode.VIRTUAL_THREADS,
+				createVirtualThreadExecutor().orElse(platformExecutor));
+		this.messageBatchers = new ConcurrentHashMap<>();
+		this.batchFlushScheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "sqs-message-batch-flusher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.batchFlushScheduler.scheduleWithFixedDelay(this::flushAllMessageBatches, batchFlushDelayMS,
+				batchFlushDelayMS, TimeUnit.MILLISECONDS);
 
 		isShutdown = false;
 		// We need to know when the JVM is shutting down.
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-			isShutdown = true;
-			log.warn("JVM is shutting down. No messages will be deleted.");
+			log.warn("JVM is shutting down. Pending message batches will be sent, but no new messages will be deleted.");
+			forceShutdown();
 		}));
 	}
 
@@ -104,10 +150,30 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 		});
 	}
 
+	/**
+	 * Attempt to create an executor that starts a new virtual thread for each
+	 * task. Virtual threads are not available on all of the JVMs this code is
+	 * compiled for, so the factory method is looked up at runtime.
+	 * 
+	 * @return {@link Optional#empty()} if the running JVM does not support virtual
+	 *         threads.
+	 */
+	static Optional<ExecutorService> createVirtualThreadExecutor() {
+		try {
+			return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			log.warn("Virtual threads are not supported by this JVM (" + System.getProperty("java.version")
+					+ "). Workers configured with " + WorkerExecutorMode.VIRTUAL_THREADS + " will use "
+					+ WorkerExecutorMode.PLATFORM_THREADS + ".");
+			return Optional.empty();
+		}
+	}
+
 	@Override
 	public List<WorkerJob> pollForMessagesAndStartJobs(String queueUrl, int maxNumberOfMessages,
-			int messageVisibilityTimeoutSec, MessageDrivenRunner worker) {
+			int messageVisibilityTimeoutSec, WorkerExecutorMode executorMode, MessageDrivenRunner worker) {
 		ValidateArgument.required(queueUrl, "queueUrl");
+		ValidateArgument.required(executorMode, "executorMode");
 		ValidateArgument.required(worker, "worker");
 		ValidateArgument.requirement(maxNumberOfMessages >= 1,
 				"maxNumberOfMessages must be greater than or equals to 1.");
@@ -131,41 +197,44 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 		
 		// For each message start a new job.
 		return messages.stream().map((message) -> {
-			return startWorkerJob(queueUrl, messageVisibilityTimeoutSec, worker, message);
+			return startWorkerJob(queueUrl, messageVisibilityTimeoutSec, executorMode, worker, message);
 		}).collect(Collectors.toList());
 	}
 
 	/**
-	 * For the given message, submit a new worker instance to the thread pool.
+	 * For the given message, submit a new worker instance to the executor of the
+	 * given mode.
 	 * 
 	 * @param queueUrl
 	 * @param messageVisibilityTimeoutSec
+	 * @param executorMode
 	 * @param worker
 	 * @param message
 	 * @return
 	 */
-	WorkerJob startWorkerJob(String queueUrl, int messageVisibilityTimeoutSec, MessageDrivenRunner worker,
-			Message message) {
+	WorkerJob startWorkerJob(String queueUrl, int messageVisibilityTimeoutSec, WorkerExecutorMode executorMode,
+			MessageDrivenRunner worker, Message message) {
+		SqsMessageBatcher batcher = getMessageBatcher(queueUrl);
 		ConcurrentProgressCallback callback = new ConcurrentProgressCallback(messageVisibilityTimeoutSec);
 		ProgressListener listener = () -> {
-			amazonSQSClient.changeMessageVisibility(new ChangeMessageVisibilityRequest().withQueueUrl(queueUrl)
-					.withReceiptHandle(message.getReceiptHandle()).withVisibilityTimeout(messageVisibilityTimeoutSec));
+			batcher.changeMessageVisibility(message.getReceiptHandle(), messageVisibilityTimeoutSec);
 		};
 		callback.addProgressListener(listener);
-		Future<Void> future = executorService.submit(() -> {
+		Future<Void> future = executorServices.get(executorMode).submit(() -> {
 			boolean deleteMessage = true;
 			try {
 				worker.run(callback, message);
 			} catch (RecoverableMessageException e) {
 				deleteMessage = false;
-				amazonSQSClient.changeMessageVisibility(new ChangeMessageVisibilityRequest().withQueueUrl(queueUrl)
-						.withReceiptHandle(message.getReceiptHandle()).withVisibilityTimeout(TWO_SECONDS));
+				// The listener must be removed first, otherwise a progress event could
+				// replace the short visibility timeout with the full one.
+				callback.removeProgressListener(listener);
+				batcher.changeMessageVisibility(message.getReceiptHandle(), TWO_SECONDS);
 			} finally {
 				try {
 					callback.removeProgressListener(listener);
 					if (deleteMessage && !isShutdown) {
-						amazonSQSClient.deleteMessage(new DeleteMessageRequest().withQueueUrl(queueUrl)
-								.withReceiptHandle(message.getReceiptHandle()));
+						batcher.deleteMessage(message.getReceiptHandle());
 					}
 				} catch (Exception e) {
 					log.warn("failed to delete message", e);
@@ -176,13 +245,58 @@ public class ConcurrentManagerImpl implements ConcurrentManager {
 		return new WorkerJob(future, callback);
 	}
 
+	/**
+	 * Get the {@link SqsMessageBatcher} for the given queue, creating it on first
+	 * use.
+	 * 
+	 * @param queueUrl
+	 * @return
+	 */
+	SqsMessageBatcher getMessageBatcher(String queueUrl) {
+		return messageBatchers.computeIfAbsent(queueUrl,
+				(url) -> new SqsMessageBatcher(amazonSQSClient, url, System::currentTimeMillis));
+	}
+
+	/**
+	 * Send all pending message deletes and visibility changes for all queues.
+	 */
+	void flushAllMessageBatches() {
+		messageBatchers.values().forEach((batcher) -> {
+			try {
+				batcher.flush();
+			} catch (Exception e) {
+				log.warn("Failed to flush message batch", e);
+			}
+		});
+	}
+
 	@Override
 	public AmazonSQSClient getAmazonSQSClient() {
 		return amazonSQSClient;
 	}
 
+	/**
+	 * Stop deleting messages and send the message deletes and visibility changes
+	 * that are still pending. The final flush runs on the batch flush thread, so
+	 * it cannot overlap with a scheduled flush, and waits at most
+	 * {@link #SHUTDOWN_FLUSH_TIMEOUT_MS}.
+	 */
 	public void forceShutdown() {
 		isShutdown = true;
+		try {
+			batchFlushScheduler.submit(this::flushAllMessageBatches);
+		} catch (RejectedExecutionException e) {
+			// The final flush was already issued by a previous call.
+			return;
+		}
+		batchFlushScheduler.shutdown();
+		try {
+			if (!batchFlushScheduler.awaitTermination(SHUTDOWN_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+				log.warn("Timed out sending the pending message batches on shutdown.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
 }
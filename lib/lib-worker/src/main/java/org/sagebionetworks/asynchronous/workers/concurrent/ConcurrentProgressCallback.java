@@ -3,6 +3,7 @@ package org.sagebionetworks.asynchronous.workers.concurrent;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,8 +13,14 @@ import org.sagebionetworks.util.progress.SynchronizedProgressCallback;
 
 /**
  * A thread-safe implementation of ProgressCallback. All calls that access the
- * listeners are synchronized. Also implements ProgressListener to notify all
- * list
+ * listeners are guarded by a single lock. Also implements ProgressListener to
+ * notify all list
+ * <p>
+ * Note: A {@link ReentrantLock} is used rather than synchronized methods since
+ * the listeners can block on network calls while the lock is held. A virtual
+ * thread blocked inside a synchronized block pins its carrier thread (see
+ * -Djdk.tracePinnedThreads), while one waiting on a {@link ReentrantLock} does
+ * not.
  */
 public class ConcurrentProgressCallback implements ProgressCallback, ProgressListener {
 
@@ -21,21 +28,33 @@ public class ConcurrentProgressCallback implements ProgressCallback, ProgressLis
 
 	private final Set<ProgressListener> listeners;
 	private final long lockTimeoutSeconds;
+	private final ReentrantLock lock;
 
 	@Override
-	public synchronized void addProgressListener(ProgressListener listener) {
-		listeners.add(listener);
+	public void addProgressListener(ProgressListener listener) {
+		lock.lock();
+		try {
+			listeners.add(listener);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	public ConcurrentProgressCallback(long lockTimeoutSeconds) {
 		super();
 		this.listeners = new LinkedHashSet<>();
 		this.lockTimeoutSeconds = lockTimeoutSeconds;
+		this.lock = new ReentrantLock();
 	}
 
 	@Override
-	public synchronized void removeProgressListener(ProgressListener listener) {
-		listeners.remove(listener);
+	public void removeProgressListener(ProgressListener listener) {
+		lock.lock();
+		try {
+			listeners.remove(listener);
+		} finally {
+			lock.unlock();
+		}
 	}
 
 	@Override
@@ -48,16 +67,21 @@ public class ConcurrentProgressCallback implements ProgressCallback, ProgressLis
 	 * throws an exception it will be removed from the listeners.
 	 */
 	@Override
-	public synchronized void progressMade() {
-		Iterator<ProgressListener> it = listeners.iterator();
-		while (it.hasNext()) {
-			try {
-				ProgressListener listener = it.next();
-				listener.progressMade();
-			} catch (Exception e) {
-				log.error("Error on progressMade. Listener will be removed.", e);
-				it.remove();
+	public void progressMade() {
+		lock.lock();
+		try {
+			Iterator<ProgressListener> it = listeners.iterator();
+			while (it.hasNext()) {
+				try {
+					ProgressListener listener = it.next();
+					listener.progressMade();
+				} catch (Exception e) {
+					log.error("Error on progressMade. Listener will be removed.", e);
+					it.remove();
+				}
 			}
+		} finally {
+			lock.unlock();
 		}
 	}
 
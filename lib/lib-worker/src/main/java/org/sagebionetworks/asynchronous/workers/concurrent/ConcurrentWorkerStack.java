@@ -56,6 +56,7 @@ public class ConcurrentWorkerStack implements Runnable {
 	private final int semaphoreMaxLockCount;
 	private final int semaphoreLockAndMessageVisibilityTimeoutSec;
 	private final int maxThreadsPerMachine;
+	private final WorkerExecutorMode executorMode;
 	private final MessageDrivenRunner worker;
 
 	// derived parameters
@@ -78,6 +79,7 @@ public class ConcurrentWorkerStack implements Runnable {
 		semaphoreMaxLockCount = -1;
 		semaphoreLockAndMessageVisibilityTimeoutSec = -1;
 		maxThreadsPerMachine = -1;
+		executorMode = null;
 		worker = null;
 		lockRefreshFrequencyMS = -1;
 		queueUrl = null;
@@ -85,7 +87,7 @@ public class ConcurrentWorkerStack implements Runnable {
 
 	private ConcurrentWorkerStack(ConcurrentManager manager, Boolean canRunInReadOnly, String semaphoreLockKey,
 			Integer semaphoreMaxLockCount, Integer semaphoreLockAndMessageVisibilityTimeoutSec,
-			Integer maxThreadsPerMachine, MessageDrivenRunner worker, String queueName) {
+			Integer maxThreadsPerMachine, WorkerExecutorMode executorMode, MessageDrivenRunner worker, String queueName) {
 		super();
 		ValidateArgument.required(manager, "manager");
 		ValidateArgument.required(semaphoreLockKey, "semaphoreLockKey");
@@ -107,6 +109,7 @@ public class ConcurrentWorkerStack implements Runnable {
 		this.semaphoreMaxLockCount = semaphoreMaxLockCount;
 		this.semaphoreLockAndMessageVisibilityTimeoutSec = semaphoreLockAndMessageVisibilityTimeoutSec;
 		this.maxThreadsPerMachine = maxThreadsPerMachine;
+		this.executorMode = executorMode == null ? WorkerExecutorMode.PLATFORM_THREADS : executorMode;
 		this.worker = worker;
 		this.lockRefreshFrequencyMS = (semaphoreLockAndMessageVisibilityTimeoutSec * 1000) / 3;
 		this.queueUrl = manager.getSqsQueueUrl(queueName);
@@ -253,7 +256,7 @@ public class ConcurrentWorkerStack implements Runnable {
 		}
 
 		return runningJobs.addAll(manager.pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessagesToRecieve,
-				semaphoreLockAndMessageVisibilityTimeoutSec, worker));
+				semaphoreLockAndMessageVisibilityTimeoutSec, executorMode, worker));
 	}
 	
 	
@@ -291,6 +294,10 @@ public class ConcurrentWorkerStack implements Runnable {
 	long getLockRefreshFrequencyMS() {
 		return lockRefreshFrequencyMS;
 	}
+	
+	WorkerExecutorMode getExecutorMode() {
+		return executorMode;
+	}
 
 	/**
 	 * Possible states for this stack.
@@ -317,6 +324,7 @@ public class ConcurrentWorkerStack implements Runnable {
 		private Integer semaphoreMaxLockCount;
 		private Integer semaphoreLockAndMessageVisibilityTimeoutSec;
 		private Integer maxThreadsPerMachine;
+		private WorkerExecutorMode executorMode;
 		private String queueName;
 		private MessageDrivenRunner worker;
 
@@ -395,6 +403,18 @@ public class ConcurrentWorkerStack implements Runnable {
 			return this;
 		}
 
+		/**
+		 * The type of thread used to run each job of this stack. Defaults to
+		 * {@link WorkerExecutorMode#PLATFORM_THREADS}.
+		 * 
+		 * @param executorMode
+		 * @return
+		 */
+		public Builder withExecutorMode(WorkerExecutorMode executorMode) {
+			this.executorMode = executorMode;
+			return this;
+		}
+
 		/**
 		 * The {@link MessageDrivenRunner} is the worker that will be invoke to process
 		 * each SQS messages polled by this worker stack. The worker should be a
@@ -420,7 +440,7 @@ public class ConcurrentWorkerStack implements Runnable {
 
 		public ConcurrentWorkerStack build() {
 			return new ConcurrentWorkerStack(singleton, canRunInReadOnly, semaphoreLockKey, semaphoreMaxLockCount,
-					semaphoreLockAndMessageVisibilityTimeoutSec, maxThreadsPerMachine, worker, queueName);
+					semaphoreLockAndMessageVisibilityTimeoutSec, maxThreadsPerMachine, executorMode, worker, queueName);
 		}
 	}
 
@@ -0,0 +1,290 @@
+package org.sagebionetworks.asynchronous.workers.concurrent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.amazonaws.services.sqs.AmazonSQSClient;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+
+/**
+ * Coalesces the message deletes and visibility changes of a single SQS queue
+ * into {@link AmazonSQSClient#deleteMessageBatch(DeleteMessageBatchRequest)}
+ * and
+ * {@link AmazonSQSClient#changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest)}
+ * calls.
+ * <p>
+ * A batch is sent as soon as {@link #MAX_BATCH_SIZE} entries are pending.
+ * Anything less is sent by the next call to {@link #flush()}, which the
+ * {@link ConcurrentManagerImpl} issues on a short fixed delay. Only the most
+ * recent visibility change of each receipt handle is kept, and a pending
+ * visibility change is dropped when the same message is deleted.
+ * <p>
+ * This class is thread-safe. The SQS calls are never made while holding the
+ * lock on the pending entries.
+ *
+ */
+public class SqsMessageBatcher {
+
+	/**
+	 * The AWS limit for the number of entries in a single batch request.
+	 */
+	public static final int MAX_BATCH_SIZE = 10;
+
+	private static final Log log = LogFactory.getLog(SqsMessageBatcher.class);
+
+	private final AmazonSQSClient amazonSQSClient;
+	private final String queueUrl;
+	private final Supplier<Long> clock;
+
+	// receipt handle -> visibility timeout seconds
+	private final Map<String, Integer> pendingVisibility;
+	private final Set<String> pendingDeletes;
+
+	private final AtomicLong batchCount;
+	private final AtomicLong entryCount;
+	private final AtomicLong failedEntryCount;
+	private final AtomicLong totalFlushLatencyMS;
+
+	public SqsMessageBatcher(AmazonSQSClient amazonSQSClient, String queueUrl, Supplier<Long> clock) {
+		ValidateArgument.required(amazonSQSClient, "amazonSQSClient");
+		ValidateArgument.required(queueUrl, "queueUrl");
+		ValidateArgument.required(clock, "clock");
+		this.amazonSQSClient = amazonSQSClient;
+		this.queueUrl = queueUrl;
+		this.clock = clock;
+		this.pendingVisibility = new LinkedHashMap<>();
+		this.pendingDeletes = new LinkedHashSet<>();
+		this.batchCount = new AtomicLong(0L);
+		this.entryCount = new AtomicLong(0L);
+		this.failedEntryCount = new AtomicLong(0L);
+		this.totalFlushLatencyMS = new AtomicLong(0L);
+	}
+
+	/**
+	 * Queue the deletion of the message with the given receipt handle. Any pending
+	 * visibility change for the same message is discarded.
+	 *
+	 * @param receiptHandle
+	 */
+	public void deleteMessage(String receiptHandle) {
+		ValidateArgument.required(receiptHandle, "receiptHandle");
+		List<String> fullBatch = null;
+		synchronized (this) {
+			pendingVisibility.remove(receiptHandle);
+			pendingDeletes.add(receiptHandle);
+			if (pendingDeletes.size() >= MAX_BATCH_SIZE) {
+				fullBatch = drainDeletes();
+			}
+		}
+		if (fullBatch != null) {
+			sendDeletes(fullBatch);
+		}
+	}
+
+	/**
+	 * Queue a visibility change for the message with the given receipt handle. If
+	 * a change is already pending for the message it will be replaced with this
+	 * one.
+	 *
+	 * @param receiptHandle
+	 * @param visibilityTimeoutSec
+	 */
+	public void changeMessageVisibility(String receiptHandle, int visibilityTimeoutSec) {
+		ValidateArgument.required(receiptHandle, "receiptHandle");
+		Map<String, Integer> fullBatch = null;
+		synchronized (this) {
+			if (pendingDeletes.contains(receiptHandle)) {
+				// the message is about to be deleted.
+				return;
+			}
+			pendingVisibility.put(receiptHandle, visibilityTimeoutSec);
+			if (pendingVisibility.size() >= MAX_BATCH_SIZE) {
+				fullBatch = drainVisibility();
+			}
+		}
+		if (fullBatch != null) {
+			sendVisibilityChanges(fullBatch);
+		}
+	}
+
+	/**
+	 * Send all pending entries to SQS.
+	 */
+	public void flush() {
+		List<String> deletes;
+		Map<String, Integer> visibility;
+		synchronized (this) {
+			deletes = drainDeletes();
+			visibility = drainVisibility();
+		}
+		if (!deletes.isEmpty()) {
+			sendDeletes(deletes);
+		}
+		if (!visibility.isEmpty()) {
+			sendVisibilityChanges(visibility);
+		}
+	}
+
+	/**
+	 * @return The total number of entries waiting to be sent.
+	 */
+	public synchronized int getPendingCount() {
+		return pendingDeletes.size() + pendingVisibility.size();
+	}
+
+	/**
+	 * @return The total number of batch requests sent to SQS.
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * @return The total number of entries sent to SQS across all batches.
+	 */
+	public long getEntryCount() {
+		return entryCount.get();
+	}
+
+	/**
+	 * @return The total number of entries that SQS reported as failed, including
+	 *         the entries of batch requests that failed as a whole.
+	 */
+	public long getFailedEntryCount() {
+		return failedEntryCount.get();
+	}
+
+	/**
+	 * @return The total time in MS spent waiting for the batch requests.
+	 */
+	public long getTotalFlushLatencyMS() {
+		return totalFlushLatencyMS.get();
+	}
+
+	/**
+	 * @return The average fraction of {@link #MAX_BATCH_SIZE} that was used by
+	 *         each batch, or zero if no batch has been sent.
+	 */
+	public double getAverageBatchFillRatio() {
+		long batches = batchCount.get();
+		if (batches < 1) {
+			return 0.0;
+		}
+		return ((double) entryCount.get()) / (batches * MAX_BATCH_SIZE);
+	}
+
+	List<String> drainDeletes() {
+		List<String> drained = new ArrayList<>(pendingDeletes);
+		pendingDeletes.clear();
+		return drained;
+	}
+
+	Map<String, Integer> drainVisibility() {
+		Map<String, Integer> drained = new LinkedHashMap<>(pendingVisibility);
+		pendingVisibility.clear();
+		return drained;
+	}
+
+	/**
+	 * Send the given receipt handles to SQS in batches of {@link #MAX_BATCH_SIZE}.
+	 *
+	 * @param receiptHandles
+	 */
+	void sendDeletes(List<String> receiptHandles) {
+		for (int start = 0; start < receiptHandles.size(); start += MAX_BATCH_SIZE) {
+			List<String> batch = receiptHandles.subList(start, Math.min(start + MAX_BATCH_SIZE, receiptHandles.size()));
+			List<DeleteMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+			for (int i = 0; i < batch.size(); i++) {
+				entries.add(new DeleteMessageBatchRequestEntry().withId(Integer.toString(i)).withReceiptHandle(batch.get(i)));
+			}
+			long startMS = clock.get();
+			try {
+				DeleteMessageBatchResult result = amazonSQSClient
+						.deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl).withEntries(entries));
+				handleFailures("delete", result.getFailed());
+			} catch (Exception e) {
+				failedEntryCount.addAndGet(entries.size());
+				log.warn("Failed to delete a batch of " + entries.size() + " messages from: " + queueUrl, e);
+			} finally {
+				recordBatch(entries.size(), startMS);
+			}
+		}
+	}
+
+	/**
+	 * Send the given visibility changes to SQS in batches of
+	 * {@link #MAX_BATCH_SIZE}.
+	 *
+	 * @param visibility
+	 */
+	void sendVisibilityChanges(Map<String, Integer> visibility) {
+		List<ChangeMessageVisibilityBatchRequestEntry> entries = new ArrayList<>(MAX_BATCH_SIZE);
+		for (Map.Entry<String, Integer> entry : visibility.entrySet()) {
+			entries.add(new ChangeMessageVisibilityBatchRequestEntry().withId(Integer.toString(entries.size()))
+					.withReceiptHandle(entry.getKey()).withVisibilityTimeout(entry.getValue()));
+			if (entries.size() >= MAX_BATCH_SIZE) {
+				sendVisibilityBatch(entries);
+				entries = new ArrayList<>(MAX_BATCH_SIZE);
+			}
+		}
+		if (!entries.isEmpty()) {
+			sendVisibilityBatch(entries);
+		}
+	}
+
+	void sendVisibilityBatch(List<ChangeMessageVisibilityBatchRequestEntry> entries) {
+		long startMS = clock.get();
+		try {
+			ChangeMessageVisibilityBatchResult result = amazonSQSClient.changeMessageVisibilityBatch(
+					new ChangeMessageVisibilityBatchRequest().withQueueUrl(queueUrl).withEntries(entries));
+			handleFailures("change visibility", result.getFailed());
+		} catch (Exception e) {
+			failedEntryCount.addAndGet(entries.size());
+			log.warn("Failed to change the visibility of a batch of " + entries.size() + " messages from: " + queueUrl, e);
+		} finally {
+			recordBatch(entries.size(), startMS);
+		}
+	}
+
+	/**
+	 * Each failed entry is logged and counted. A failed delete means the message
+	 * will be delivered again once its visibility expires, while a failed
+	 * visibility change will be retried on the next progress tick of the job.
+	 *
+	 * @param operation
+	 * @param failed
+	 */
+	void handleFailures(String operation, List<BatchResultErrorEntry> failed) {
+		if (failed == null || failed.isEmpty()) {
+			return;
+		}
+		failedEntryCount.addAndGet(failed.size());
+		for (BatchResultErrorEntry error : failed) {
+			log.warn(String.format("Failed to %s message entry %s from %s: %s %s", operation, error.getId(), queueUrl,
+					error.getCode(), error.getMessage()));
+		}
+	}
+
+	void recordBatch(int size, long startMS) {
+		batchCount.incrementAndGet();
+		entryCount.addAndGet(size);
+		totalFlushLatencyMS.addAndGet(clock.get() - startMS);
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.sagebionetworks.asynchronous.workers.concurrent;
+
+/**
+ * The type of threads used to run the jobs of a {@link ConcurrentWorkerStack}.
+ *
+ */
+public enum WorkerExecutorMode {
+
+	/**
+	 * Each job is run on a platform thread from a shared cached thread pool. This
+	 * is the default.
+	 */
+	PLATFORM_THREADS,
+
+	/**
+	 * Each job is run on a new virtual thread. This is intended for workers that
+	 * spend most of their time blocked on JDBC, S3 or SQS calls. If the running JVM
+	 * does not support virtual threads, the jobs will be run with
+	 * {@link #PLATFORM_THREADS}.
+	 */
+	VIRTUAL_THREADS;
+
+}
@@ -9,6 +9,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -21,13 +22,13 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Spy;
+import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.database.semaphore.CountingSemaphore;
@@ -38,8 +39,12 @@ import org.sagebionetworks.workers.util.aws.message.MessageDrivenRunner;
 import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 
 import com.amazonaws.services.sqs.AmazonSQSClient;
-import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
-import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
 import com.amazonaws.services.sqs.model.GetQueueUrlResult;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
@@ -65,8 +70,6 @@ public class ConcurrentManagerImplTest {
 	@Mock
 	private ProgressListener mockProgressListener;
 
-	@Spy
-	@InjectMocks
 	ConcurrentManagerImpl manager;
 
 	private String lockKey;
@@ -74,6 +77,7 @@ public class ConcurrentManagerImplTest {
 	private int maxLockCount;
 	private String queueUrl;
 	private int maxThreadCount;
+	private WorkerExecutorMode executorMode;
 
 	@BeforeEach
 	public void before() {
@@ -82,6 +86,10 @@ public class ConcurrentManagerImplTest {
 		maxLockCount = 3;
 		queueUrl = "https://aws-some-queue";
 		maxThreadCount = 5;
+		executorMode = WorkerExecutorMode.PLATFORM_THREADS;
+		// batches are only flushed explicitly by the tests.
+		manager = Mockito.spy(new ConcurrentManagerImpl(mockCountingSemaphore, mockAmazonSQSClient, mockStackStatusDao,
+				Long.MAX_VALUE / 2));
 	}
 
 	@Test
@@ -229,25 +237,57 @@ public class ConcurrentManagerImplTest {
 			return null;
 		}).when(mockWorker).run(any(), any());
 
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+
 		// call under test
-		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, mockMessage);
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
 		assertNotNull(job);
 		assertNotNull(job.getListener());
 		// progress made should refresh the lock
 		job.getListener().progressMade();
+		manager.flushAllMessageBatches();
 		
 		waitForFuture(job.getFuture());
 		
 		// the listener should be removed after the job is finished so this should be a no-op.
 		job.getListener().progressMade();
+		manager.flushAllMessageBatches();
 
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(any());
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(new ChangeMessageVisibilityRequest()
-				.withQueueUrl(queueUrl).withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec));
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(any());
+		verify(mockAmazonSQSClient).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(new ChangeMessageVisibilityBatchRequestEntry().withId("0")
+						.withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec)));
 
 		verify(mockWorker).run((ProgressCallback) job.getListener(), mockMessage);
-		verify(mockAmazonSQSClient)
-				.deleteMessage(new DeleteMessageRequest().withQueueUrl(queueUrl).withReceiptHandle(receiptHandle));
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl)
+				.withEntries(new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle(receiptHandle)));
+		verify(mockAmazonSQSClient, never()).changeMessageVisibility(any());
+		verify(mockAmazonSQSClient, never()).deleteMessage(any());
+	}
+
+	@Test
+	public void testStartWorkerJobWithProgressMadeAndDeleteBeforeFlush() throws RecoverableMessageException, Exception {
+		String receiptHandle = "receiptHandle";
+		when(mockMessage.getReceiptHandle()).thenReturn(receiptHandle);
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+
+		doAnswer((a)->{
+			// We sleep to get a chance to call progressMade() before the job terminates.
+			Thread.sleep(100);
+			return null;
+		}).when(mockWorker).run(any(), any());
+
+		// call under test
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
+		job.getListener().progressMade();
+		waitForFuture(job.getFuture());
+		manager.flushAllMessageBatches();
+
+		// the pending visibility change is dropped since the message was deleted.
+		verify(mockAmazonSQSClient, never()).changeMessageVisibilityBatch(any());
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl)
+				.withEntries(new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle(receiptHandle)));
 	}
 
 	@Test
@@ -261,20 +301,26 @@ public class ConcurrentManagerImplTest {
 			throw new RecoverableMessageException("Try again later");
 		}).when(mockWorker).run(any(), any());
 
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+
 		// call under test
-		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, mockMessage);
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
 		assertNotNull(job);
 		assertNotNull(job.getListener());
 		// progress made should refresh the lock
 		job.getListener().progressMade();
+		manager.flushAllMessageBatches();
 		waitForFuture(job.getFuture());
+		manager.flushAllMessageBatches();
 
-		verify(mockAmazonSQSClient, times(2)).changeMessageVisibility(any());
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(new ChangeMessageVisibilityRequest()
-				.withQueueUrl(queueUrl).withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec));
-		// second call to put the message back in the queue in 5 seconds.
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(new ChangeMessageVisibilityRequest()
-				.withQueueUrl(queueUrl).withReceiptHandle(receiptHandle).withVisibilityTimeout(2));
+		verify(mockAmazonSQSClient, times(2)).changeMessageVisibilityBatch(any());
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(new ChangeMessageVisibilityBatchRequestEntry().withId("0")
+						.withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec)));
+		// second call to put the message back in the queue in 2 seconds.
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(new ChangeMessageVisibilityBatchRequestEntry().withId("0")
+						.withReceiptHandle(receiptHandle).withVisibilityTimeout(2)));
 
 		assertNotNull(job.getFuture());
 		assertTrue(job.getFuture().isDone());
@@ -282,7 +328,43 @@ public class ConcurrentManagerImplTest {
 		job.getFuture().get();
 
 		verify(mockWorker).run((ProgressCallback) job.getListener(), mockMessage);
-		verify(mockAmazonSQSClient, never()).deleteMessage(any());
+		verify(mockAmazonSQSClient, never()).deleteMessageBatch(any());
+	}
+
+	@Test
+	public void testStartWorkerJobWithRecoverableExceptionAndProgressAfterVisibilityChange()
+			throws RecoverableMessageException, Exception {
+		String receiptHandle = "receiptHandle";
+		when(mockMessage.getReceiptHandle()).thenReturn(receiptHandle);
+
+		AtomicReference<ProgressCallback> callbackRef = new AtomicReference<>();
+		doAnswer((a) -> {
+			callbackRef.set(a.getArgument(0));
+			throw new RecoverableMessageException("Try again later");
+		}).when(mockWorker).run(any(), any());
+
+		SqsMessageBatcher batcher = Mockito.spy(new SqsMessageBatcher(mockAmazonSQSClient, queueUrl, System::currentTimeMillis));
+		doReturn(batcher).when(manager).getMessageBatcher(queueUrl);
+		doAnswer((a) -> {
+			a.callRealMethod();
+			// A progress event that arrives right after the message is put back must not
+			// extend its visibility again.
+			callbackRef.get().progressMade();
+			return null;
+		}).when(batcher).changeMessageVisibility(receiptHandle, 2);
+
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+
+		// call under test
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
+		waitForFuture(job.getFuture());
+		manager.flushAllMessageBatches();
+
+		verify(batcher, never()).changeMessageVisibility(receiptHandle, lockTimeoutSec);
+		verify(mockAmazonSQSClient).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(new ChangeMessageVisibilityBatchRequestEntry().withId("0")
+						.withReceiptHandle(receiptHandle).withVisibilityTimeout(2)));
+		verify(mockAmazonSQSClient, never()).deleteMessageBatch(any());
 	}
 
 	/**
@@ -306,21 +388,24 @@ public class ConcurrentManagerImplTest {
 		String receiptHandle = "receiptHandle";
 		when(mockMessage.getReceiptHandle()).thenReturn(receiptHandle);
 
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+
 		IllegalArgumentException toThrow = new IllegalArgumentException("Nope.");
 		doThrow(toThrow).when(mockWorker).run(any(), any());
 
 		// call under test
-		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, mockMessage);
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
 		assertNotNull(job);
 		assertNotNull(job.getListener());
 		Throwable cause = assertThrows(ExecutionException.class, () -> {
 			waitForFuture(job.getFuture());
 		}).getCause();
 		assertEquals(toThrow, cause);
+		manager.flushAllMessageBatches();
 
-		verify(mockAmazonSQSClient, never()).changeMessageVisibility(any());
-		verify(mockAmazonSQSClient)
-				.deleteMessage(new DeleteMessageRequest().withQueueUrl(queueUrl).withReceiptHandle(receiptHandle));
+		verify(mockAmazonSQSClient, never()).changeMessageVisibilityBatch(any());
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl)
+				.withEntries(new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle(receiptHandle)));
 	}
 
 	@Test
@@ -330,13 +415,13 @@ public class ConcurrentManagerImplTest {
 
 		// call under test
 		List<WorkerJob> jobs = manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec,
-				mockWorker);
+				executorMode, mockWorker);
 		assertEquals(Collections.emptyList(), jobs);
 
 		verify(mockAmazonSQSClient).receiveMessage(new ReceiveMessageRequest().withQueueUrl(queueUrl)
 				.withWaitTimeSeconds(0).withMaxNumberOfMessages(maxThreadCount).withVisibilityTimeout(lockTimeoutSec));
 
-		verify(manager, never()).startWorkerJob(any(), anyInt(), any(), any());
+		verify(manager, never()).startWorkerJob(any(), anyInt(), any(), any(), any());
 	}
 	
 	@Test
@@ -348,7 +433,7 @@ public class ConcurrentManagerImplTest {
 		
 		// call under test
 		List<WorkerJob> jobs = manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec,
-				mockWorker);
+				executorMode, mockWorker);
 		assertEquals(Collections.emptyList(), jobs);
 
 		verify(mockAmazonSQSClient).receiveMessage(new ReceiveMessageRequest()
@@ -359,7 +444,7 @@ public class ConcurrentManagerImplTest {
 			.withMessageAttributeNames("All")
 		);
 
-		verify(manager, never()).startWorkerJob(any(), anyInt(), any(), any());
+		verify(manager, never()).startWorkerJob(any(), anyInt(), any(), any(), any());
 	}
 
 	@Test
@@ -373,7 +458,7 @@ public class ConcurrentManagerImplTest {
 
 		// call under test
 		List<WorkerJob> jobs = manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec,
-				mockWorker);
+				executorMode, mockWorker);
 
 		assertNotNull(jobs);
 		assertEquals(2, jobs.size());
@@ -381,9 +466,9 @@ public class ConcurrentManagerImplTest {
 		verify(mockAmazonSQSClient).receiveMessage(new ReceiveMessageRequest().withQueueUrl(queueUrl)
 				.withWaitTimeSeconds(0).withMaxNumberOfMessages(maxThreadCount).withVisibilityTimeout(lockTimeoutSec));
 
-		verify(manager, times(2)).startWorkerJob(any(), anyInt(), any(), any());
-		verify(manager).startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, messages.get(0));
-		verify(manager).startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, messages.get(1));
+		verify(manager, times(2)).startWorkerJob(any(), anyInt(), any(), any(), any());
+		verify(manager).startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, messages.get(0));
+		verify(manager).startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, messages.get(1));
 	}
 
 	@Test
@@ -391,7 +476,7 @@ public class ConcurrentManagerImplTest {
 		queueUrl = null;
 		String message = assertThrows(IllegalArgumentException.class, () -> {
 			// call under test
-			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, mockWorker);
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, executorMode, mockWorker);
 		}).getMessage();
 		assertEquals("queueUrl is required.", message);
 	}
@@ -401,17 +486,45 @@ public class ConcurrentManagerImplTest {
 		mockWorker = null;
 		String message = assertThrows(IllegalArgumentException.class, () -> {
 			// call under test
-			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, mockWorker);
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, executorMode, mockWorker);
 		}).getMessage();
 		assertEquals("worker is required.", message);
 	}
 
+	@Test
+	public void testPollForMessagesAndStartJobsWithNullExecutorMode() {
+		executorMode = null;
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, executorMode, mockWorker);
+		}).getMessage();
+		assertEquals("executorMode is required.", message);
+	}
+
+	@Test
+	public void testStartWorkerJobWithVirtualThreads() throws RecoverableMessageException, Exception {
+		executorMode = WorkerExecutorMode.VIRTUAL_THREADS;
+		String receiptHandle = "receiptHandle";
+		when(mockMessage.getReceiptHandle()).thenReturn(receiptHandle);
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+
+		// call under test
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
+		waitForFuture(job.getFuture());
+		manager.flushAllMessageBatches();
+
+		// the job must run on either a virtual thread or the platform fall-back.
+		verify(mockWorker).run((ProgressCallback) job.getListener(), mockMessage);
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl)
+				.withEntries(new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle(receiptHandle)));
+	}
+
 	@Test
 	public void testPollForMessagesAndStartJobsWithCountLessThanOne() {
 		maxThreadCount = 0;
 		String message = assertThrows(IllegalArgumentException.class, () -> {
 			// call under test
-			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, mockWorker);
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, executorMode, mockWorker);
 		}).getMessage();
 		assertEquals("maxNumberOfMessages must be greater than or equals to 1.", message);
 	}
@@ -421,7 +534,7 @@ public class ConcurrentManagerImplTest {
 		maxThreadCount = 11;
 		String message = assertThrows(IllegalArgumentException.class, () -> {
 			// call under test
-			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, mockWorker);
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, executorMode, mockWorker);
 		}).getMessage();
 		assertEquals("maxNumberOfMessages must be less than or equals to 10.", message);
 	}
@@ -431,7 +544,7 @@ public class ConcurrentManagerImplTest {
 		lockTimeoutSec = 9;
 		String message = assertThrows(IllegalArgumentException.class, () -> {
 			// call under test
-			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, mockWorker);
+			manager.pollForMessagesAndStartJobs(queueUrl, maxThreadCount, lockTimeoutSec, executorMode, mockWorker);
 		}).getMessage();
 		assertEquals("messageVisibilityTimeoutSec must be greater than or equals to 10.", message);
 	}
@@ -447,10 +560,12 @@ public class ConcurrentManagerImplTest {
 			return null;
 		}).when(mockWorker).run(any(), any());
 		
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+		
 		manager.forceShutdown();
 
 		// call under test
-		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, mockMessage);
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
 		assertNotNull(job);
 		assertNotNull(job.getListener());
 		// progress made should refresh the lock
@@ -460,14 +575,16 @@ public class ConcurrentManagerImplTest {
 		
 		// the listener should be removed after the job is finished so this should be a no-op.
 		job.getListener().progressMade();
+		manager.flushAllMessageBatches();
 
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(any());
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(new ChangeMessageVisibilityRequest()
-				.withQueueUrl(queueUrl).withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec));
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(any());
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(new ChangeMessageVisibilityBatchRequestEntry().withId("0")
+						.withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec)));
 
 		verify(mockWorker).run((ProgressCallback) job.getListener(), mockMessage);
 		// the message should not be deleted after shutdown.
-		verify(mockAmazonSQSClient, never()).deleteMessage(any());
+		verify(mockAmazonSQSClient, never()).deleteMessageBatch(any());
 	}
 	
 	@Test
@@ -482,14 +599,16 @@ public class ConcurrentManagerImplTest {
 			throw firstException;
 		}).when(mockWorker).run(any(), any());
 
-		when(mockAmazonSQSClient.deleteMessage(any())).thenThrow(new IllegalArgumentException("two"));
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenThrow(new IllegalArgumentException("two"));
 
 		// call under test
-		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, mockWorker, mockMessage);
+		WorkerJob job = manager.startWorkerJob(queueUrl, lockTimeoutSec, executorMode, mockWorker, mockMessage);
 		assertNotNull(job);
 		assertNotNull(job.getListener());
 		// progress made should refresh the lock
 		job.getListener().progressMade();
+		manager.flushAllMessageBatches();
 
 		ExecutionException thrown = assertThrows(ExecutionException.class, () -> {
 			waitForFuture(job.getFuture());
@@ -499,13 +618,59 @@ public class ConcurrentManagerImplTest {
 		// the listener should be removed after the job is finished so this should be a
 		// no-op.
 		job.getListener().progressMade();
+		// the failed delete should not be thrown.
+		manager.flushAllMessageBatches();
 
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(any());
-		verify(mockAmazonSQSClient, times(1)).changeMessageVisibility(new ChangeMessageVisibilityRequest()
-				.withQueueUrl(queueUrl).withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec));
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(any());
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(new ChangeMessageVisibilityBatchRequestEntry().withId("0")
+						.withReceiptHandle(receiptHandle).withVisibilityTimeout(lockTimeoutSec)));
 
 		verify(mockWorker).run((ProgressCallback) job.getListener(), mockMessage);
-		verify(mockAmazonSQSClient)
-				.deleteMessage(new DeleteMessageRequest().withQueueUrl(queueUrl).withReceiptHandle(receiptHandle));
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl)
+				.withEntries(new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle(receiptHandle)));
+		assertEquals(1L, manager.getMessageBatcher(queueUrl).getFailedEntryCount());
+	}
+	
+	@Test
+	public void testForceShutdownWithPendingBatches() {
+		String receiptHandle = "receiptHandle";
+		String otherReceiptHandle = "otherReceiptHandle";
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+		manager.getMessageBatcher(queueUrl).deleteMessage(receiptHandle);
+		manager.getMessageBatcher(queueUrl).changeMessageVisibility(otherReceiptHandle, 2);
+
+		// call under test
+		manager.forceShutdown();
+
+		// the pending batches are sent before the call returns.
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl)
+				.withEntries(new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle(receiptHandle)));
+		verify(mockAmazonSQSClient).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(new ChangeMessageVisibilityBatchRequestEntry().withId("0")
+						.withReceiptHandle(otherReceiptHandle).withVisibilityTimeout(2)));
+	}
+
+	@Test
+	public void testForceShutdownCalledTwice() {
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+		manager.getMessageBatcher(queueUrl).deleteMessage("receiptHandle");
+		manager.forceShutdown();
+
+		// call under test
+		manager.forceShutdown();
+
+		verify(manager, times(1)).flushAllMessageBatches();
+		verify(mockAmazonSQSClient, times(1)).deleteMessageBatch(any());
+	}
+
+	@Test
+	public void testGetMessageBatcher() {
+		SqsMessageBatcher batcher = manager.getMessageBatcher(queueUrl);
+		assertNotNull(batcher);
+		// the same batcher should be used for each call with the same queue.
+		assertTrue(batcher == manager.getMessageBatcher(queueUrl));
+		assertFalse(batcher == manager.getMessageBatcher("https://aws-other-queue"));
 	}
 }
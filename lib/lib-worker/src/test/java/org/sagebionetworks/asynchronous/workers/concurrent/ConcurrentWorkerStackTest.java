@@ -65,6 +65,7 @@ public class ConcurrentWorkerStackTest {
 	private Integer maxThreadsPerMachine;
 	private String queueName;
 	private String queueUrl;
+	private WorkerExecutorMode executorMode;
 
 	@BeforeEach
 	public void before() {
@@ -75,13 +76,15 @@ public class ConcurrentWorkerStackTest {
 		maxThreadsPerMachine = 8;
 		queueName = "queue-name";
 		queueUrl = "https://aws-some-queue";
+		executorMode = null;
 	}
 
 	ConcurrentWorkerStack createStack() {
 		return ConcurrentWorkerStack.builder().withSingleton(mockManager).withCanRunInReadOnly(canRunInReadOnly)
 				.withSemaphoreLockKey(semaphoreLockKey).withSemaphoreMaxLockCount(semaphoreMaxLockCount)
 				.withSemaphoreLockAndMessageVisibilityTimeoutSec(semaphoreLockAndMessageVisibilityTimeoutSec)
-				.withMaxThreadsPerMachine(maxThreadsPerMachine).withWorker(mockWorker).withQueueName(queueName).build();
+				.withMaxThreadsPerMachine(maxThreadsPerMachine).withExecutorMode(executorMode).withWorker(mockWorker)
+				.withQueueName(queueName).build();
 	}
 
 	@Test
@@ -105,6 +108,23 @@ public class ConcurrentWorkerStackTest {
 		assertEquals("worker is required.", message);
 	}
 
+	@Test
+	public void testBuildWithDefaultExecutorMode() {
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		// call under test
+		ConcurrentWorkerStack stack = createStack();
+		assertEquals(WorkerExecutorMode.PLATFORM_THREADS, stack.getExecutorMode());
+	}
+
+	@Test
+	public void testBuildWithVirtualThreadsExecutorMode() {
+		executorMode = WorkerExecutorMode.VIRTUAL_THREADS;
+		when(mockManager.getSqsQueueUrl(any())).thenReturn(queueUrl);
+		// call under test
+		ConcurrentWorkerStack stack = createStack();
+		assertEquals(WorkerExecutorMode.VIRTUAL_THREADS, stack.getExecutorMode());
+	}
+
 	@Test
 	public void testBuildWithNullQueueName() {
 		queueName = null;
@@ -597,7 +617,7 @@ public class ConcurrentWorkerStackTest {
 				new WorkerJob(futureTwo, mockProgressListenerTwo),
 				new WorkerJob(futureThree, mockProgressListenerThree));
 
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(jobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any(), any())).thenReturn(jobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -609,7 +629,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = maxThreadsPerMachine;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, WorkerExecutorMode.PLATFORM_THREADS, mockWorker);
 
 	}
 	
@@ -624,7 +644,7 @@ public class ConcurrentWorkerStackTest {
 
 		List<WorkerJob> jobs = Collections.emptyList();
 
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(jobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any(), any())).thenReturn(jobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -636,7 +656,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = maxThreadsPerMachine;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, WorkerExecutorMode.PLATFORM_THREADS, mockWorker);
 
 	}
 
@@ -657,7 +677,7 @@ public class ConcurrentWorkerStackTest {
 		stack.getRunningJobs().add(allJobs.get(0));
 
 		// three will get added
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any()))
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any(), any()))
 				.thenReturn(List.of(allJobs.get(1), allJobs.get(2), allJobs.get(3)));
 
 		// call under test
@@ -670,7 +690,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = 3;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, WorkerExecutorMode.PLATFORM_THREADS, mockWorker);
 
 	}
 
@@ -689,7 +709,7 @@ public class ConcurrentWorkerStackTest {
 		doReturn(true).when(stack).canProcessMoreMessages();
 
 		// three will get added
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(allJobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any(), any())).thenReturn(allJobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -701,7 +721,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = 10;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, WorkerExecutorMode.PLATFORM_THREADS, mockWorker);
 
 	}
 
@@ -720,7 +740,7 @@ public class ConcurrentWorkerStackTest {
 		doReturn(true).when(stack).canProcessMoreMessages();
 
 		// three will get added
-		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any())).thenReturn(allJobs);
+		when(mockManager.pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any(), any())).thenReturn(allJobs);
 
 		// call under test
 		boolean result = stack.attemptToAddMoreWorkers();
@@ -732,7 +752,7 @@ public class ConcurrentWorkerStackTest {
 		verify(stack).canProcessMoreMessages();
 		int maxNumberOfMessages = 10;
 		verify(mockManager).pollForMessagesAndStartJobs(queueUrl, maxNumberOfMessages,
-				semaphoreLockAndMessageVisibilityTimeoutSec, mockWorker);
+				semaphoreLockAndMessageVisibilityTimeoutSec, WorkerExecutorMode.PLATFORM_THREADS, mockWorker);
 
 	}
 
@@ -759,7 +779,7 @@ public class ConcurrentWorkerStackTest {
 
 		verify(mockManager).getSqsQueueUrl(queueName);
 		assertEquals(allJobs, stack.getRunningJobs());
-		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any());
+		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any(), any());
 	}
 
 	@Test
@@ -785,6 +805,6 @@ public class ConcurrentWorkerStackTest {
 
 		verify(mockManager).getSqsQueueUrl(queueName);
 		assertEquals(allJobs, stack.getRunningJobs());
-		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any());
+		verify(mockManager, never()).pollForMessagesAndStartJobs(any(), anyInt(), anyInt(), any(), any());
 	}
 }
@@ -0,0 +1,203 @@
+package org.sagebionetworks.asynchronous.workers.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.amazonaws.services.sqs.AmazonSQSClient;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+
+@ExtendWith(MockitoExtension.class)
+public class SqsMessageBatcherTest {
+
+	@Mock
+	private AmazonSQSClient mockAmazonSQSClient;
+	@Mock
+	private Supplier<Long> mockClock;
+
+	private String queueUrl;
+	private SqsMessageBatcher batcher;
+
+	@BeforeEach
+	public void before() {
+		queueUrl = "https://aws-some-queue";
+		batcher = new SqsMessageBatcher(mockAmazonSQSClient, queueUrl, mockClock);
+	}
+
+	@Test
+	public void testDeleteMessageWithFlush() {
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+		when(mockClock.get()).thenReturn(100L, 105L);
+
+		batcher.deleteMessage("one");
+		batcher.deleteMessage("two");
+		// duplicates are ignored
+		batcher.deleteMessage("one");
+		assertEquals(2, batcher.getPendingCount());
+		verify(mockAmazonSQSClient, never()).deleteMessageBatch(any());
+
+		// call under test
+		batcher.flush();
+
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl).withEntries(
+				new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle("one"),
+				new DeleteMessageBatchRequestEntry().withId("1").withReceiptHandle("two")));
+		verifyNoMoreInteractions(mockAmazonSQSClient);
+		assertEquals(0, batcher.getPendingCount());
+		assertEquals(1L, batcher.getBatchCount());
+		assertEquals(2L, batcher.getEntryCount());
+		assertEquals(0L, batcher.getFailedEntryCount());
+		assertEquals(5L, batcher.getTotalFlushLatencyMS());
+		assertEquals(0.2, batcher.getAverageBatchFillRatio(), 0.0001);
+	}
+
+	@Test
+	public void testDeleteMessageWithFullBatch() {
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+		when(mockClock.get()).thenReturn(0L);
+
+		List<DeleteMessageBatchRequestEntry> expectedEntries = new ArrayList<>();
+		for (int i = 0; i < SqsMessageBatcher.MAX_BATCH_SIZE; i++) {
+			// call under test
+			batcher.deleteMessage("handle-" + i);
+			expectedEntries.add(new DeleteMessageBatchRequestEntry().withId(Integer.toString(i)).withReceiptHandle("handle-" + i));
+		}
+
+		// a full batch is sent without a flush.
+		verify(mockAmazonSQSClient)
+				.deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl).withEntries(expectedEntries));
+		assertEquals(0, batcher.getPendingCount());
+		assertEquals(1.0, batcher.getAverageBatchFillRatio(), 0.0001);
+	}
+
+	@Test
+	public void testChangeMessageVisibilityWithFlush() {
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+		when(mockClock.get()).thenReturn(0L);
+
+		batcher.changeMessageVisibility("one", 30);
+		batcher.changeMessageVisibility("two", 30);
+		// the latest change for a message replaces the pending change.
+		batcher.changeMessageVisibility("one", 2);
+
+		// call under test
+		batcher.flush();
+
+		verify(mockAmazonSQSClient).changeMessageVisibilityBatch(new ChangeMessageVisibilityBatchRequest()
+				.withQueueUrl(queueUrl).withEntries(
+						new ChangeMessageVisibilityBatchRequestEntry().withId("0").withReceiptHandle("one").withVisibilityTimeout(2),
+						new ChangeMessageVisibilityBatchRequestEntry().withId("1").withReceiptHandle("two").withVisibilityTimeout(30)));
+		verifyNoMoreInteractions(mockAmazonSQSClient);
+	}
+
+	@Test
+	public void testChangeMessageVisibilityWithFullBatch() {
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenReturn(new ChangeMessageVisibilityBatchResult());
+		when(mockClock.get()).thenReturn(0L);
+
+		for (int i = 0; i < SqsMessageBatcher.MAX_BATCH_SIZE + 1; i++) {
+			// call under test
+			batcher.changeMessageVisibility("handle-" + i, 30);
+		}
+
+		verify(mockAmazonSQSClient, times(1)).changeMessageVisibilityBatch(any());
+		assertEquals(1, batcher.getPendingCount());
+	}
+
+	@Test
+	public void testDeleteMessageWithPendingVisibilityChange() {
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult());
+		when(mockClock.get()).thenReturn(0L);
+
+		batcher.changeMessageVisibility("one", 30);
+		batcher.deleteMessage("one");
+		// a deleted message does not need a visibility change.
+		batcher.changeMessageVisibility("one", 30);
+
+		// call under test
+		batcher.flush();
+
+		verify(mockAmazonSQSClient).deleteMessageBatch(new DeleteMessageBatchRequest().withQueueUrl(queueUrl)
+				.withEntries(new DeleteMessageBatchRequestEntry().withId("0").withReceiptHandle("one")));
+		verify(mockAmazonSQSClient, never()).changeMessageVisibilityBatch(any());
+	}
+
+	@Test
+	public void testFlushWithNothingPending() {
+		// call under test
+		batcher.flush();
+		verifyNoMoreInteractions(mockAmazonSQSClient);
+		assertEquals(0.0, batcher.getAverageBatchFillRatio(), 0.0001);
+	}
+
+	@Test
+	public void testFlushWithFailedEntries() {
+		when(mockAmazonSQSClient.deleteMessageBatch(any())).thenReturn(new DeleteMessageBatchResult()
+				.withFailed(new BatchResultErrorEntry().withId("1").withCode("ReceiptHandleIsInvalid").withSenderFault(true)));
+		when(mockClock.get()).thenReturn(0L);
+
+		batcher.deleteMessage("one");
+		batcher.deleteMessage("two");
+
+		// call under test
+		batcher.flush();
+
+		assertEquals(2L, batcher.getEntryCount());
+		assertEquals(1L, batcher.getFailedEntryCount());
+	}
+
+	@Test
+	public void testFlushWithBatchException() {
+		when(mockAmazonSQSClient.changeMessageVisibilityBatch(any())).thenThrow(new IllegalStateException("nope"));
+		when(mockClock.get()).thenReturn(0L);
+
+		batcher.changeMessageVisibility("one", 30);
+		batcher.changeMessageVisibility("two", 30);
+
+		// call under test
+		batcher.flush();
+
+		assertEquals(1L, batcher.getBatchCount());
+		assertEquals(2L, batcher.getFailedEntryCount());
+		assertEquals(0, batcher.getPendingCount());
+	}
+
+	@Test
+	public void testDeleteMessageWithNullHandle() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			batcher.deleteMessage(null);
+		}).getMessage();
+		assertEquals("receiptHandle is required.", message);
+	}
+
+	@Test
+	public void testChangeMessageVisibilityWithNullHandle() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			batcher.changeMessageVisibility(null, 30);
+		}).getMessage();
+		assertEquals("receiptHandle is required.", message);
+	}
+}
@@ -1,8 +1,68 @@
 package org.sagebionetworks.kinesis;
 
 import java.util.List;
+import java.util.Set;
 
 public interface AwsKinesisFirehoseLogger {
 
+	/**
+	 * Send the given records to the stream with the given suffix, blocking until
+	 * all the records are delivered.
+	 * 
+	 * @param kinesisDataStreamSuffix
+	 * @param logRecords
+	 * @throws AwsKinesisDeliveryException If the records could not be delivered
+	 *                                     after all retries.
+	 */
 	void logBatch(String kinesisDataStreamSuffix, List<? extends AwsKinesisLogRecord> logRecords) throws AwsKinesisDeliveryException;
+
+	/**
+	 * Add the given records to the bounded buffer of the stream with the given
+	 * suffix and return without waiting for delivery. Buffered records are sent
+	 * in the background once enough records are buffered or the flush interval
+	 * has passed. When the buffer of the stream is full, the records are sent on
+	 * the calling thread instead.
+	 * <p>
+	 * Only use this method for records that can be lost if their delivery fails
+	 * after all retries, or if the JVM stops before they are sent.
+	 * 
+	 * @param kinesisDataStreamSuffix
+	 * @param logRecords
+	 */
+	void logBatchAsync(String kinesisDataStreamSuffix, List<? extends AwsKinesisLogRecord> logRecords);
+
+	/**
+	 * @return The suffixes of the streams that records were sent to with
+	 *         {@link #logBatchAsync(String, List)}
+	 */
+	Set<String> getAsyncStreamSuffixes();
+
+	/**
+	 * @param kinesisDataStreamSuffix
+	 * @return The number of records of the given stream that are either buffered
+	 *         or being delivered by {@link #logBatchAsync(String, List)}
+	 */
+	int getQueueDepth(String kinesisDataStreamSuffix);
+
+	/**
+	 * @param kinesisDataStreamSuffix
+	 * @return The time in ms between the oldest record of the last successful
+	 *         flush of the given stream being buffered and its delivery
+	 */
+	long getLastDeliveryLatencyMs(String kinesisDataStreamSuffix);
+
+	/**
+	 * @param kinesisDataStreamSuffix
+	 * @return The number of calls to {@link #logBatchAsync(String, List)} for the
+	 *         given stream that were delivered on the calling thread because the
+	 *         buffer was full
+	 */
+	long getOverflowCount(String kinesisDataStreamSuffix);
+
+	/**
+	 * @param kinesisDataStreamSuffix
+	 * @return The number of buffered records of the given stream that could not
+	 *         be delivered
+	 */
+	long getFailedCount(String kinesisDataStreamSuffix);
 }
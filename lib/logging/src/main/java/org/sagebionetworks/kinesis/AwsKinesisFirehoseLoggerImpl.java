@@ -1,15 +1,50 @@
 package org.sagebionetworks.kinesis;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.util.ValidateArgument;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 @Component
-public class AwsKinesisFirehoseLoggerImpl implements AwsKinesisFirehoseLogger {
+public class AwsKinesisFirehoseLoggerImpl implements AwsKinesisFirehoseLogger, DisposableBean {
+
+	private static final Logger LOG = LogManager.getLogger(AwsKinesisFirehoseLoggerImpl.class);
+
+	// The maximum number of records of a single stream that are either buffered or being delivered by logBatchAsync
+	public static final int MAX_BUFFERED_RECORDS_PER_STREAM = 10_000;
+
+	// A stream is flushed as soon as this many records are buffered, this is also the maximum number of records in a single flush
+	public static final int FLUSH_RECORD_COUNT = 1_000;
+
+	// Streams with any buffered records are flushed at least this often
+	public static final long FLUSH_INTERVAL_MS = 1_000;
+
+	// The maximum number of concurrent flushes of a single stream
+	public static final int MAX_IN_FLIGHT_FLUSHES_PER_STREAM = 2;
+
+	// The number of threads that deliver buffered records for all streams
+	public static final int DELIVERY_THREAD_COUNT = 4;
+
+	// How long to wait for in flight deliveries on shutdown
+	public static final long SHUTDOWN_TIMEOUT_MS = 10_000;
 
 	private AwsKinesisFirehoseBatchClient kinesisFirehoseBatchClient;
 	
@@ -19,10 +54,24 @@ public class AwsKinesisFirehoseLoggerImpl implements AwsKinesisFirehoseLogger {
 	
 	private String instance;
 
+	private ScheduledExecutorService deliveryExecutor;
+
+	private ConcurrentMap<String, StreamBuffer> streamBuffers = new ConcurrentHashMap<>();
+
 	@Autowired
 	public AwsKinesisFirehoseLoggerImpl(AwsKinesisFirehoseBatchClient kinesisFirehoseBatchClient,  AwsKinesisLogRecordSerializer kinesisRecordSerializer) {
+		this(kinesisFirehoseBatchClient, kinesisRecordSerializer, Executors.newScheduledThreadPool(DELIVERY_THREAD_COUNT, (runnable) -> {
+			Thread thread = new Thread(runnable, "firehose-delivery");
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	AwsKinesisFirehoseLoggerImpl(AwsKinesisFirehoseBatchClient kinesisFirehoseBatchClient,  AwsKinesisLogRecordSerializer kinesisRecordSerializer, ScheduledExecutorService deliveryExecutor) {
 		this.kinesisFirehoseBatchClient = kinesisFirehoseBatchClient;
 		this.kinesisRecordSerializer = kinesisRecordSerializer;
+		this.deliveryExecutor = deliveryExecutor;
+		this.deliveryExecutor.scheduleWithFixedDelay(this::flushAll, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
 	}
 	
 	@Autowired
@@ -79,8 +128,188 @@ public class AwsKinesisFirehoseLoggerImpl implements AwsKinesisFirehoseLogger {
 		
 	}
 	
+	@Override
+	public void logBatchAsync(String kinesisDataStreamSuffix, List<? extends AwsKinesisLogRecord> logRecords) {
+		ValidateArgument.required(kinesisDataStreamSuffix, "The kinesisDataStreamSuffix");
+		ValidateArgument.required(logRecords, "The logRecords");
+		
+		if (logRecords.isEmpty()) {
+			return;
+		}
+		
+		StreamBuffer buffer = streamBuffers.computeIfAbsent(kinesisDataStreamSuffix, StreamBuffer::new);
+		
+		if (buffer.pendingCount.addAndGet(logRecords.size()) > MAX_BUFFERED_RECORDS_PER_STREAM) {
+			buffer.pendingCount.addAndGet(-logRecords.size());
+			buffer.overflowCount.incrementAndGet();
+			// The buffer is full, the caller pays for the delivery rather than dropping the records
+			logBatch(kinesisDataStreamSuffix, logRecords);
+			return;
+		}
+		
+		long now = System.currentTimeMillis();
+		
+		logRecords.forEach(record -> buffer.records.add(new BufferedRecord(record, now)));
+		
+		if (buffer.bufferedCount.addAndGet(logRecords.size()) >= FLUSH_RECORD_COUNT) {
+			scheduleFlush(buffer);
+		}
+	}
+	
+	/**
+	 * Start a flush of each stream that has buffered records, called on a timer.
+	 */
+	void flushAll() {
+		streamBuffers.values().forEach(buffer -> {
+			if (buffer.bufferedCount.get() > 0) {
+				scheduleFlush(buffer);
+			}
+		});
+	}
+	
+	/**
+	 * Start a flush of the given stream on the delivery executor, unless the stream already has the maximum number of flushes in flight.
+	 * 
+	 * @param buffer
+	 */
+	void scheduleFlush(StreamBuffer buffer) {
+		int scheduled;
+		do {
+			scheduled = buffer.scheduledFlushes.get();
+			if (scheduled >= MAX_IN_FLIGHT_FLUSHES_PER_STREAM) {
+				return;
+			}
+		} while (!buffer.scheduledFlushes.compareAndSet(scheduled, scheduled + 1));
+		
+		try {
+			deliveryExecutor.execute(() -> {
+				try {
+					flush(buffer);
+				} finally {
+					buffer.scheduledFlushes.decrementAndGet();
+				}
+				// More records might have been buffered while the flush was in flight
+				if (buffer.bufferedCount.get() >= FLUSH_RECORD_COUNT) {
+					scheduleFlush(buffer);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// The executor was shutdown
+			buffer.scheduledFlushes.decrementAndGet();
+			flush(buffer);
+		}
+	}
+	
+	/**
+	 * Deliver up to {@link #FLUSH_RECORD_COUNT} buffered records of the given stream on the calling thread.
+	 * 
+	 * @param buffer
+	 */
+	void flush(StreamBuffer buffer) {
+		List<AwsKinesisLogRecord> batch = new ArrayList<>();
+		long oldestBufferedOn = Long.MAX_VALUE;
+		
+		BufferedRecord next;
+		
+		while (batch.size() < FLUSH_RECORD_COUNT && (next = buffer.records.poll()) != null) {
+			batch.add(next.record);
+			oldestBufferedOn = Math.min(oldestBufferedOn, next.bufferedOn);
+		}
+		
+		if (batch.isEmpty()) {
+			return;
+		}
+		
+		buffer.bufferedCount.addAndGet(-batch.size());
+		
+		try {
+			logBatch(buffer.streamSuffix, batch);
+			buffer.lastDeliveryLatencyMs.set(System.currentTimeMillis() - oldestBufferedOn);
+		} catch (Exception e) {
+			buffer.failedCount.addAndGet(batch.size());
+			LOG.error("Failed to deliver {} buffered records to stream {}: {}", batch.size(), buffer.streamSuffix, e.getMessage(), e);
+		} finally {
+			buffer.pendingCount.addAndGet(-batch.size());
+		}
+	}
+	
+	/**
+	 * Stop the delivery threads and deliver all the remaining buffered records on the calling thread.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		deliveryExecutor.shutdown();
+		deliveryExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		streamBuffers.values().forEach(buffer -> {
+			while (buffer.bufferedCount.get() > 0) {
+				flush(buffer);
+			}
+		});
+	}
+	
+	@Override
+	public Set<String> getAsyncStreamSuffixes() {
+		return Collections.unmodifiableSet(streamBuffers.keySet());
+	}
+	
+	@Override
+	public int getQueueDepth(String kinesisDataStreamSuffix) {
+		StreamBuffer buffer = streamBuffers.get(kinesisDataStreamSuffix);
+		return buffer == null ? 0 : buffer.pendingCount.get();
+	}
+	
+	@Override
+	public long getLastDeliveryLatencyMs(String kinesisDataStreamSuffix) {
+		StreamBuffer buffer = streamBuffers.get(kinesisDataStreamSuffix);
+		return buffer == null ? 0 : buffer.lastDeliveryLatencyMs.get();
+	}
+	
+	@Override
+	public long getOverflowCount(String kinesisDataStreamSuffix) {
+		StreamBuffer buffer = streamBuffers.get(kinesisDataStreamSuffix);
+		return buffer == null ? 0 : buffer.overflowCount.get();
+	}
+	
+	@Override
+	public long getFailedCount(String kinesisDataStreamSuffix) {
+		StreamBuffer buffer = streamBuffers.get(kinesisDataStreamSuffix);
+		return buffer == null ? 0 : buffer.failedCount.get();
+	}
+	
 	private String kinesisStreamName(String kinesisDataStreamSuffix) {
 		return stack + instance + kinesisDataStreamSuffix;
 	}
+	
+	/**
+	 * The records buffered for a single stream
+	 */
+	static class StreamBuffer {
+		
+		private final String streamSuffix;
+		private final ConcurrentLinkedQueue<BufferedRecord> records = new ConcurrentLinkedQueue<>();
+		// The number of records in the queue
+		private final AtomicInteger bufferedCount = new AtomicInteger();
+		// The number of records either in the queue or being delivered
+		private final AtomicInteger pendingCount = new AtomicInteger();
+		private final AtomicInteger scheduledFlushes = new AtomicInteger();
+		private final AtomicLong lastDeliveryLatencyMs = new AtomicLong();
+		private final AtomicLong overflowCount = new AtomicLong();
+		private final AtomicLong failedCount = new AtomicLong();
+		
+		StreamBuffer(String streamSuffix) {
+			this.streamSuffix = streamSuffix;
+		}
+	}
+	
+	private static class BufferedRecord {
+		
+		private final AwsKinesisLogRecord record;
+		private final long bufferedOn;
+		
+		BufferedRecord(AwsKinesisLogRecord record, long bufferedOn) {
+			this.record = record;
+			this.bufferedOn = bufferedOn;
+		}
+	}
 
 }
@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -12,6 +15,9 @@ import static org.mockito.Mockito.when;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +40,9 @@ class AwsKinesisFirehoseLoggerImplTest {
 	@Mock
 	private AwsKinesisFirehoseBatchClient mockKinesisFirehoseBatchClient;
 
+	@Mock
+	private ScheduledExecutorService mockDeliveryExecutor;
+
 	@InjectMocks
 	private AwsKinesisFirehoseLoggerImpl kinesisFirehoseLogger;
 
@@ -191,4 +200,144 @@ class AwsKinesisFirehoseLoggerImplTest {
 		verifyNoMoreInteractions(mockKinesisFirehoseBatchClient);
 	}
 
+	/**
+	 * Run each delivery on the calling thread.
+	 */
+	private void setupDeliveryExecutor() {
+		doAnswer(invocation -> {
+			((Runnable) invocation.getArgument(0)).run();
+			return null;
+		}).when(mockDeliveryExecutor).execute(any());
+	}
+
+	@Test
+	public void testConstructorSchedulesFlush() {
+		verify(mockDeliveryExecutor).scheduleWithFixedDelay(any(), eq(AwsKinesisFirehoseLoggerImpl.FLUSH_INTERVAL_MS),
+				eq(AwsKinesisFirehoseLoggerImpl.FLUSH_INTERVAL_MS), eq(TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testLogBatchAsyncWithNoStream() {
+		kinesisStreamSuffix = null;
+		List<AwsKinesisLogRecord> mockRecordList = Lists.newArrayList(mockRecord1, mockRecord2);
+
+		String errorMessage = assertThrows(IllegalArgumentException.class, () -> {
+			// method under test
+			kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, mockRecordList);
+		}).getMessage();
+
+		assertEquals("The kinesisDataStreamSuffix is required.", errorMessage);
+	}
+
+	@Test
+	public void testLogBatchAsyncWithEmptyRecords() {
+		// method under test
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, Collections.emptyList());
+
+		assertEquals(0, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+		assertEquals(Collections.emptySet(), kinesisFirehoseLogger.getAsyncStreamSuffixes());
+	}
+
+	@Test
+	public void testLogBatchAsync() {
+		setupDeliveryExecutor();
+		when(mockRecordSerializer.toBytes(any())).thenReturn(new byte[1]);
+		List<AwsKinesisLogRecord> mockRecordList = Lists.newArrayList(mockRecord1, mockRecord2);
+
+		// method under test
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, mockRecordList);
+
+		// Nothing is sent until the buffer is flushed
+		assertEquals(2, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+		assertEquals(Collections.singleton(kinesisStreamSuffix), kinesisFirehoseLogger.getAsyncStreamSuffixes());
+		verify(mockDeliveryExecutor, never()).execute(any());
+		verifyZeroInteractions(mockKinesisFirehoseBatchClient);
+
+		kinesisFirehoseLogger.flushAll();
+
+		// Both records are sent with a single request
+		verify(mockKinesisFirehoseBatchClient).sendBatch(eq("devtestmyKinesisStream"), batchCaptor.capture());
+		assertEquals(1, batchCaptor.getValue().size());
+		assertEquals(0, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+	}
+
+	@Test
+	public void testLogBatchAsyncWithFlushRecordCount() {
+		setupDeliveryExecutor();
+		when(mockRecordSerializer.toBytes(any())).thenReturn(new byte[1]);
+		List<AwsKinesisLogRecord> mockRecordList = Collections.nCopies(AwsKinesisFirehoseLoggerImpl.FLUSH_RECORD_COUNT, mockRecord1);
+
+		// method under test
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, mockRecordList);
+
+		// A full flush is started without waiting for the timer
+		verify(mockDeliveryExecutor).execute(any());
+		verify(mockKinesisFirehoseBatchClient).sendBatch(eq("devtestmyKinesisStream"), any());
+		assertEquals(0, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+	}
+
+	@Test
+	public void testLogBatchAsyncWithFullBuffer() {
+		when(mockRecordSerializer.toBytes(any())).thenReturn(new byte[1]);
+		List<AwsKinesisLogRecord> mockRecordList = Collections.nCopies(AwsKinesisFirehoseLoggerImpl.MAX_BUFFERED_RECORDS_PER_STREAM, mockRecord1);
+
+		// The deliveries are scheduled but never run so the buffer stays full
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, mockRecordList);
+		verifyZeroInteractions(mockKinesisFirehoseBatchClient);
+
+		// method under test
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, Collections.singletonList(mockRecord2));
+
+		// The overflow is sent on the calling thread
+		verify(mockKinesisFirehoseBatchClient).sendBatch(eq("devtestmyKinesisStream"), any());
+		assertEquals(1, kinesisFirehoseLogger.getOverflowCount(kinesisStreamSuffix));
+		assertEquals(AwsKinesisFirehoseLoggerImpl.MAX_BUFFERED_RECORDS_PER_STREAM, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+	}
+
+	@Test
+	public void testLogBatchAsyncWithDeliveryFailure() {
+		setupDeliveryExecutor();
+		when(mockRecordSerializer.toBytes(any())).thenReturn(new byte[1]);
+		doThrow(new AwsKinesisDeliveryException("failed")).when(mockKinesisFirehoseBatchClient).sendBatch(any(), any());
+
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, Lists.newArrayList(mockRecord1, mockRecord2));
+
+		// method under test
+		kinesisFirehoseLogger.flushAll();
+
+		assertEquals(2, kinesisFirehoseLogger.getFailedCount(kinesisStreamSuffix));
+		assertEquals(0, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+	}
+
+	@Test
+	public void testLogBatchAsyncWithShutdownExecutor() {
+		when(mockRecordSerializer.toBytes(any())).thenReturn(new byte[1]);
+		doThrow(RejectedExecutionException.class).when(mockDeliveryExecutor).execute(any());
+
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, Lists.newArrayList(mockRecord1, mockRecord2));
+
+		// method under test
+		kinesisFirehoseLogger.flushAll();
+
+		// The records are sent on the calling thread
+		verify(mockKinesisFirehoseBatchClient).sendBatch(eq("devtestmyKinesisStream"), any());
+		assertEquals(0, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+	}
+
+	@Test
+	public void testDestroy() throws InterruptedException {
+		when(mockRecordSerializer.toBytes(any())).thenReturn(new byte[1]);
+
+		kinesisFirehoseLogger.logBatchAsync(kinesisStreamSuffix, Lists.newArrayList(mockRecord1, mockRecord2));
+
+		// method under test
+		kinesisFirehoseLogger.destroy();
+
+		verify(mockDeliveryExecutor).shutdown();
+		verify(mockDeliveryExecutor).awaitTermination(AwsKinesisFirehoseLoggerImpl.SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		// The remaining records are sent on the calling thread
+		verify(mockKinesisFirehoseBatchClient).sendBatch(eq("devtestmyKinesisStream"), any());
+		assertEquals(0, kinesisFirehoseLogger.getQueueDepth(kinesisStreamSuffix));
+	}
+
 }
\ No newline at end of file
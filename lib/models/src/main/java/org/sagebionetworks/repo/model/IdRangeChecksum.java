@@ -0,0 +1,85 @@
+package org.sagebionetworks.repo.model;
+
+import java.util.Objects;
+
+/**
+ * The aggregated checksum of all objects with an ID in a single range. The
+ * range with the index 'i' includes all IDs where: 'i * rangeSize <= ID < (i +
+ * 1) * rangeSize'.
+ *
+ */
+public class IdRangeChecksum {
+
+	private Long rangeIndex;
+	private Long count;
+	private Long checksum;
+
+	/**
+	 * @return the index of the range
+	 */
+	public Long getRangeIndex() {
+		return rangeIndex;
+	}
+
+	/**
+	 * @param rangeIndex the index of the range to set
+	 */
+	public IdRangeChecksum withRangeIndex(Long rangeIndex) {
+		this.rangeIndex = rangeIndex;
+		return this;
+	}
+
+	/**
+	 * @return the number of IDs in the range
+	 */
+	public Long getCount() {
+		return count;
+	}
+
+	/**
+	 * @param count the number of IDs in the range to set
+	 */
+	public IdRangeChecksum withCount(Long count) {
+		this.count = count;
+		return this;
+	}
+
+	/**
+	 * @return the sum of the checksums of each ID in the range
+	 */
+	public Long getChecksum() {
+		return checksum;
+	}
+
+	/**
+	 * @param checksum the sum of the checksums of each ID in the range to set
+	 */
+	public IdRangeChecksum withChecksum(Long checksum) {
+		this.checksum = checksum;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(checksum, count, rangeIndex);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof IdRangeChecksum)) {
+			return false;
+		}
+		IdRangeChecksum other = (IdRangeChecksum) obj;
+		return Objects.equals(checksum, other.checksum) && Objects.equals(count, other.count)
+				&& Objects.equals(rangeIndex, other.rangeIndex);
+	}
+
+	@Override
+	public String toString() {
+		return "IdRangeChecksum [rangeIndex=" + rangeIndex + ", count=" + count + ", checksum=" + checksum + "]";
+	}
+
+}
@@ -17,6 +17,7 @@ import org.sagebionetworks.repo.web.NotFoundException;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -78,6 +79,15 @@ public interface NodeDAO {
 	 */
 	public Node getNode(String id);
 	
+	/**
+	 * Fetch the current version of each of the given nodes with a single query.
+	 * Nodes that do not exist are not included in the results.
+	 * 
+	 * @param ids
+	 * @return
+	 */
+	public List<Node> getNodes(List<Long> ids);
+	
 	/**
 	 * Get the node for a given version number.
 	 * @param id
@@ -156,6 +166,16 @@ public interface NodeDAO {
 	 * @throws NotFoundException
 	 */
 	Annotations getUserAnnotations(String id);
+	
+	/**
+	 * Get the user annotations associated with the current version of each of the
+	 * given entities with a single query.
+	 * 
+	 * @param ids
+	 * @return Map of entity id to its annotations. Entities that do not exist are
+	 *         not included.
+	 */
+	Map<Long, Annotations> getUserAnnotationsForNodes(List<Long> ids);
 
 	/**
 	 * Get user annotations for a specific version of the entity
@@ -223,6 +243,15 @@ public interface NodeDAO {
 	 */
 	public Set<Long> getAvailableNodes(List<Long> nodeIds);
 	
+	/**
+	 * Get the benefactor of each of the given nodes with a single query.
+	 * 
+	 * @param nodeIds
+	 * @return Map of node id to the id of its benefactor. Nodes that do not exist
+	 *         are not included.
+	 */
+	public Map<Long, Long> getBenefactors(List<Long> nodeIds);
+	
 	/**
 	 * True if the node exists and is not in the trash.
 	 * @param nodeId
@@ -277,6 +306,17 @@ public interface NodeDAO {
 	 */
 	public List<NameIdType> getEntityPath(String nodeId) throws DatastoreException, NotFoundException;
 	
+	/**
+	 * Get the full path for each of the given entities. The number of queries
+	 * depends on the depth of the hierarchy rather than the number of entities.
+	 * 
+	 * @param nodeIds
+	 * @return The path of each entity by the entity's ID, in the same order as
+	 *         {@link #getEntityPath(String)}. Entities that do not exist are
+	 *         omitted.
+	 */
+	public Map<Long, List<NameIdType>> getEntityPaths(List<Long> nodeIds);
+	
 	/**
 	 * Get the IDs of the entities in the provided entityId's path.
 	 * @param nodeId
@@ -692,6 +732,49 @@ public interface NodeDAO {
 	 * @return
 	 */
 	public List<IdAndChecksum> getIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds);
+
+	/**
+	 * Get all of the IdAndChecksums for children of the given parent with an ID
+	 * in the given range.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param minId     Inclusive
+	 * @param maxId     Exclusive
+	 * @return
+	 */
+	public List<IdAndChecksum> getIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long minId, Long maxId);
+
+	/**
+	 * Get the aggregated checksum of each range of IDs for the children of the
+	 * given parents. The checksum of a range is the sum of the checksums of each
+	 * ID in the range, as provided by
+	 * {@link #getIdsAndChecksumsForChildren(Long, Set, Set)}. Ranges without any
+	 * children are not included.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param rangeSize The number of IDs covered by each range.
+	 * @return The checksum of each range ordered by the range index.
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long rangeSize);
+
+	/**
+	 * Get the aggregated checksum of each range of IDs for the given objectIds.
+	 * The checksum of a range is the sum of the checksums of each ID in the range,
+	 * as provided by {@link #getIdsAndChecksumsForObjects(Long, Set)}. Ranges
+	 * without any objects are not included.
+	 * 
+	 * @param salt
+	 * @param objectIds
+	 * @param rangeSize The number of IDs covered by each range.
+	 * @return The checksum of each range ordered by the range index.
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksumsForObjects(Long salt, Set<Long> objectIds, Long rangeSize);
 	
 	/**
 	 * @param nodeId
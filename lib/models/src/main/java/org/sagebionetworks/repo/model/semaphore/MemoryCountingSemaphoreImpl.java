@@ -1,11 +1,13 @@
 package org.sagebionetworks.repo.model.semaphore;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.sagebionetworks.util.Clock;
 import org.sagebionetworks.util.ValidateArgument;
@@ -18,11 +20,15 @@ import org.sagebionetworks.util.ValidateArgument;
  */
 public class MemoryCountingSemaphoreImpl implements MemoryCountingSemaphore {
 	
+	public static final long EVICTION_INTERVAL_MS = 60_000L;
+
 	/*
-	 * Note: This is not a synchronized map. All access to this map must occur in a synchronized method
-	 * making this singleton the lock (not the map).
+	 * Note: The lists in this map are not synchronized. All access to a list must
+	 * occur within a compute of its key, so callers only contend with other callers
+	 * of the same key. A key is removed from the map as soon as it has no locks.
 	 */
-	private Map<String, List<Lock>> keyTokenMap = new HashMap<String, List<Lock>>();
+	private final ConcurrentMap<String, List<Lock>> keyTokenMap = new ConcurrentHashMap<String, List<Lock>>();
+	private final AtomicLong nextEvictionMs;
 	// abstraction from the system clock.
 	private Clock clock;
 	
@@ -33,91 +39,119 @@ public class MemoryCountingSemaphoreImpl implements MemoryCountingSemaphore {
 	public MemoryCountingSemaphoreImpl(Clock clock) {
 		super();
 		this.clock = clock;
+		this.nextEvictionMs = new AtomicLong(clock.currentTimeMillis() + EVICTION_INTERVAL_MS);
 	}
 
 	@Override
-	public synchronized String attemptToAcquireLock(String key, long timeoutSec,
+	public String attemptToAcquireLock(String key, long timeoutSec,
 			int maxLockCount) {
 		ValidateArgument.required(key, "key");
-		// Is there an entry in the map for this key?
-		List<Lock> locks = keyTokenMap.get(key);
-		if(locks == null){
-			locks = new LinkedList<Lock>();
-			keyTokenMap.put(key, locks);
-		}
-		// remove expired locks
 		long now = clock.currentTimeMillis();
-		Iterator<Lock> it = locks.iterator();
-		while(it.hasNext()){
-			Lock lock = it.next();
-			if(now > lock.getExpiresTimeMs()){
-				it.remove();
+		evictExpired(now);
+		Lock newLock = new Lock();
+		newLock.setExpiresTimeMs(now+(timeoutSec*1000));
+		newLock.setToken(UUID.randomUUID().toString());
+		AtomicBoolean issued = new AtomicBoolean(false);
+		keyTokenMap.compute(key, (k, locks) -> {
+			if(locks == null){
+				locks = new LinkedList<Lock>();
 			}
-		}
-		// are we out of locks for this key?
-		if(locks.size() < maxLockCount){
-			// a new lock can be issued
-			Lock lock = new Lock();
-			lock.setExpiresTimeMs(now+(timeoutSec*1000));
-			lock.setToken(UUID.randomUUID().toString());
-			locks.add(lock);
-			return lock.getToken();
-		}
+			removeExpired(locks, now);
+			// are we out of locks for this key?
+			if(locks.size() < maxLockCount){
+				// a new lock can be issued
+				locks.add(newLock);
+				issued.set(true);
+			}
+			return locks.isEmpty() ? null : locks;
+		});
 		// a new token could not be issued.
-		return null;
+		return issued.get() ? newLock.getToken() : null;
 	}
 
 	@Override
-	public synchronized void refreshLockTimeout(String key, String tokenString, long timeoutSec) {
+	public void refreshLockTimeout(String key, String tokenString, long timeoutSec) {
 		ValidateArgument.required(key, "key");
 		ValidateArgument.required(tokenString, "token");
-		// Get the tokens for this key
-		List<Lock> locks = keyTokenMap.get(key);
-		boolean refreshed = false;
-		if(locks != null){
-			Iterator<Lock> it = locks.iterator();
-			while(it.hasNext()){
-				Lock lock = it.next();
+		AtomicBoolean refreshed = new AtomicBoolean(false);
+		keyTokenMap.computeIfPresent(key, (k, locks) -> {
+			for (Lock lock : locks) {
 				if(lock.getToken().equals(tokenString)){
 					// found a match.
 					long now = clock.currentTimeMillis();
 					lock.setExpiresTimeMs(now+(timeoutSec*1000));
-					refreshed = true;
+					refreshed.set(true);
 					break;
 				}
 			}
-		}
-		if(!refreshed){
+			return locks;
+		});
+		if(!refreshed.get()){
 			throw new LockReleaseFailedException("Key: " + key + " token: "	+ tokenString + " has expired.");
 		}
 	}
 
 	@Override
-	public synchronized void releaseLock(String key, String tokenString) {
+	public void releaseLock(String key, String tokenString) {
 		ValidateArgument.required(key, "key");
 		ValidateArgument.required(tokenString, "token");
-		// Get the tokens for this key
-		List<Lock> locks = keyTokenMap.get(key);
-		boolean released = false;
-		if(locks != null){
+		AtomicBoolean released = new AtomicBoolean(false);
+		keyTokenMap.computeIfPresent(key, (k, locks) -> {
 			Iterator<Lock> it = locks.iterator();
 			while(it.hasNext()){
 				Lock lock = it.next();
 				if(lock.getToken().equals(tokenString)){
 					// found a match.
 					it.remove();
-					released = true;
+					released.set(true);
 					break;
 				}
 			}
-		}
-		if(!released){
+			return locks.isEmpty() ? null : locks;
+		});
+		if(!released.get()){
 			throw new LockReleaseFailedException("Key: " + key + " token: "	+ tokenString + " has expired.");
 		}
 	}
 
+	/**
+	 * Remove the expired locks of all keys if the eviction interval has passed.
+	 * Keys that are left without locks are removed from the map. Only one caller
+	 * will win the right to run each eviction.
+	 *
+	 * @param now
+	 */
+	void evictExpired(long now) {
+		long next = nextEvictionMs.get();
+		if (now >= next && nextEvictionMs.compareAndSet(next, now + EVICTION_INTERVAL_MS)) {
+			for (String key : keyTokenMap.keySet()) {
+				keyTokenMap.computeIfPresent(key, (k, locks) -> {
+					removeExpired(locks, now);
+					return locks.isEmpty() ? null : locks;
+				});
+			}
+		}
+	}
+
+	private static void removeExpired(List<Lock> locks, long now) {
+		Iterator<Lock> it = locks.iterator();
+		while(it.hasNext()){
+			Lock lock = it.next();
+			if(now > lock.getExpiresTimeMs()){
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return The number of keys currently tracked.
+	 */
+	int getKeyCount() {
+		return keyTokenMap.size();
+	}
+
 	@Override
-	public synchronized void releaseAllLocks() {
+	public void releaseAllLocks() {
 		keyTokenMap.clear();
 	}
 
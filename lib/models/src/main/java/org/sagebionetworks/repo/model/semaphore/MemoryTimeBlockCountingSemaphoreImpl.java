@@ -1,15 +1,36 @@
 package org.sagebionetworks.repo.model.semaphore;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.sagebionetworks.util.Clock;
 import org.sagebionetworks.util.ValidateArgument;
 
+/**
+ * Thread-safe singleton that does not serialize callers on a single monitor.
+ * The count of the current time block of each key is incremented with a
+ * compare-and-set, and a block is only replaced (atomically per key) once it
+ * has expired. Expired blocks are evicted from memory at most once every
+ * {@link #EVICTION_INTERVAL_MS}.
+ *
+ */
 public class MemoryTimeBlockCountingSemaphoreImpl implements MemoryTimeBlockCountingSemaphore{
-	private Map<String, SimpleSemaphore> keySemaphoreMap = new HashMap<String,SimpleSemaphore>();
+
+	public static final long EVICTION_INTERVAL_MS = 60_000L;
+
+	private final ConcurrentMap<String, SimpleSemaphore> keySemaphoreMap = new ConcurrentHashMap<String,SimpleSemaphore>();
+	private final AtomicLong nextEvictionMs;
+	// abstraction from the system clock.
+	private final Clock clock;
+
+	public MemoryTimeBlockCountingSemaphoreImpl(Clock clock) {
+		this.clock = clock;
+		this.nextEvictionMs = new AtomicLong(clock.currentTimeMillis() + EVICTION_INTERVAL_MS);
+	}
 	
 	@Override
-	public synchronized boolean attemptToAcquireLock(String key, long timeoutSec, long maxLockCount) {
+	public boolean attemptToAcquireLock(String key, long timeoutSec, long maxLockCount) {
 		ValidateArgument.required(key, "key");
 		ValidateArgument.requirement(timeoutSec >= 0, "timeoutSec must be a positive value");
 		ValidateArgument.requirement(maxLockCount >= 0, "maxLockCount must be a positive value");
@@ -19,42 +40,41 @@ public class MemoryTimeBlockCountingSemaphoreImpl implements MemoryTimeBlockCoun
 			return false;
 		}
 		
+		long now = clock.currentTimeMillis();
+		evictExpired(now);
+
 		SimpleSemaphore semaphore = keySemaphoreMap.get(key);
-		
-		if(semaphore == null){
-			//no semaphore created for key yet
-			//create new semaphore and increment
-			SimpleSemaphore newSem = new SimpleSemaphore();
-			resetAndIncrementSemaphore(newSem, timeoutSec);
-			keySemaphoreMap.put(key, newSem);
-			return true;
-		}
-		
-		if(semaphore.isExpired()){
-			//reset and increment if semaphore has expired
-			resetAndIncrementSemaphore(semaphore, timeoutSec);
-			return true;
-		}
-		
-		if(semaphore.getCount() < maxLockCount){
-			//current count not exceeding maximum. just increment
-			semaphore.increment();
-			return true;
+		if(semaphore == null || semaphore.isExpired(now)){
+			//start a new time block unless another thread has already done so
+			semaphore = keySemaphoreMap.compute(key, (k, current) -> current == null || current.isExpired(now)
+					? new SimpleSemaphore(now + timeoutSec * 1000)
+					: current);
 		}
-		
-		return false;
+		return semaphore.tryIncrement(maxLockCount);
 	}
 	
-	//resets the semaphore, give it a new expiration and increment the count
-	private static void resetAndIncrementSemaphore(SimpleSemaphore semaphore, long timeoutSec){
-		long newExpiration = System.currentTimeMillis() + timeoutSec * 1000;
-		semaphore.setExpiration(newExpiration);
-		semaphore.resetCount();
-		semaphore.increment();
+	/**
+	 * Remove all expired time blocks if the eviction interval has passed. Only
+	 * one caller will win the right to run each eviction.
+	 *
+	 * @param now
+	 */
+	void evictExpired(long now) {
+		long next = nextEvictionMs.get();
+		if (now >= next && nextEvictionMs.compareAndSet(next, now + EVICTION_INTERVAL_MS)) {
+			keySemaphoreMap.values().removeIf(semaphore -> semaphore.isExpired(now));
+		}
+	}
+
+	/**
+	 * @return The number of keys currently tracked.
+	 */
+	int getKeyCount() {
+		return keySemaphoreMap.size();
 	}
 
 	@Override
-	public synchronized void releaseAllLocks() {
+	public void releaseAllLocks() {
 		keySemaphoreMap.clear();
 	}
 
@@ -1,37 +1,52 @@
 package org.sagebionetworks.repo.model.semaphore;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * semaphore used by SimpleMemoryCountingSemaphore 
+ * semaphore used by MemoryTimeBlockCountingSemaphoreImpl. Each instance covers
+ * a single time block. A new instance is created for the next block rather
+ * than resetting an existing one, so the count can be incremented without any
+ * locking.
  * 
  * @author zdong
  *
  */
 public class SimpleSemaphore {
-	private int count; //number of semaphores held
-	private long expirationTimeMilis; //expiration time in milliseconds
-	
-	public SimpleSemaphore(){
-		this.count = 0;
-		this.expirationTimeMilis = System.currentTimeMillis();
-	}
+	private final AtomicLong count; //number of semaphores held
+	private final long expirationTimeMilis; //expiration time in milliseconds
 	
-	public void increment(){
-		this.count++;
+	public SimpleSemaphore(long expirationTimeMilis){
+		this.count = new AtomicLong(0);
+		this.expirationTimeMilis = expirationTimeMilis;
 	}
 	
-	public void setExpiration(long time){
-		this.expirationTimeMilis = time;
+	/**
+	 * Attempt to increment the count without exceeding the given maximum.
+	 *
+	 * @param maxCount
+	 * @return true if the count was incremented.
+	 */
+	public boolean tryIncrement(long maxCount){
+		while (true) {
+			long current = count.get();
+			if (current >= maxCount) {
+				return false;
+			}
+			if (count.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
 	}
 	
-	public void resetCount(){
-		this.count = 0;
+	public long getCount(){
+		return this.count.get();
 	}
 	
-	public int getCount(){
-		return this.count;
+	public long getExpiration(){
+		return this.expirationTimeMilis;
 	}
 	
-	public boolean isExpired(){
-		return  System.currentTimeMillis() >= this.expirationTimeMilis;
+	public boolean isExpired(long nowMillis){
+		return nowMillis >= this.expirationTimeMilis;
 	}
 }
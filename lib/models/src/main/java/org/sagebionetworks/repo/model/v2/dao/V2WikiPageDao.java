@@ -85,6 +85,29 @@ public interface V2WikiPageDao {
 	 */
 	public String getMarkdown(WikiPageKey key, Long version) throws IOException, NotFoundException;
 	
+	/**
+	 * Get the markdown stored in each of the given markdown file handles. The file
+	 * handles are loaded with a single query.
+	 * 
+	 * @param markdownFileHandleIds
+	 * @return The markdown of each file handle that exists by file handle ID.
+	 * @throws IOException
+	 */
+	public Map<String, String> getMarkdownByFileHandleId(List<String> markdownFileHandleIds) throws IOException;
+	
+	/**
+	 * Get the current version of every page of the wikis of the given owners with
+	 * a single query. Only the ID, title, parent ID and markdown file handle ID of
+	 * each page are set.
+	 * 
+	 * @param ownerIds
+	 * @param ownerType
+	 * @param limit     The maximum number of pages per owner.
+	 * @return The pages of each owner that has a wiki by owner ID, in the same order
+	 *         as {@link #getHeaderTree(String, ObjectType, Long, Long)}.
+	 */
+	public Map<Long, List<V2WikiPage>> getCurrentPagesForOwners(List<Long> ownerIds, ObjectType ownerType, long limit);
+	
 	/**
 	 * Get ALL the file handle ids used (in the past/currently) for a wiki page.
 	 * @param key
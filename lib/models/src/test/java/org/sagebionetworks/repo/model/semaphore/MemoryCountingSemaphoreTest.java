@@ -3,9 +3,19 @@ package org.sagebionetworks.repo.model.semaphore;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -97,4 +107,68 @@ public class MemoryCountingSemaphoreTest {
 		}
 	}
 
+	@Test
+	public void testReleaseLockRemovesKey(){
+		String key = "someKey";
+		String token = memoryCountingSemaphore.attemptToAcquireLock(key, 1000, 1);
+		assertEquals(1, memoryCountingSemaphore.getKeyCount());
+		memoryCountingSemaphore.releaseLock(key, token);
+		assertEquals(0, memoryCountingSemaphore.getKeyCount());
+	}
+
+	@Test
+	public void testAttemptToAcquireLockEvictsExpired(){
+		when(mockClock.currentTimeMillis()).thenReturn(1000L, 1000L, 1000L + MemoryCountingSemaphoreImpl.EVICTION_INTERVAL_MS);
+		assertNotNull(memoryCountingSemaphore.attemptToAcquireLock("one", 1, 1));
+		assertNotNull(memoryCountingSemaphore.attemptToAcquireLock("two", 1000, 1));
+		assertEquals(2, memoryCountingSemaphore.getKeyCount());
+		assertEquals(null, memoryCountingSemaphore.attemptToAcquireLock("two", 1000, 1));
+		// only the key with expired locks should be removed.
+		assertEquals(1, memoryCountingSemaphore.getKeyCount());
+	}
+
+	@Test
+	public void testAttemptToAcquireLockWithContention() throws Exception {
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		String key = "someKey";
+		int threadCount = 200;
+		int maxLockCount = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			AtomicInteger held = new AtomicInteger(0);
+			AtomicInteger maxHeld = new AtomicInteger(0);
+			List<Future<Integer>> futures = new ArrayList<>(threadCount);
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit((Callable<Integer>) () -> {
+					start.await();
+					int acquired = 0;
+					for (int j = 0; j < 20; j++) {
+						String token = memoryCountingSemaphore.attemptToAcquireLock(key, 1000, maxLockCount);
+						if (token != null) {
+							acquired++;
+							maxHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+							held.decrementAndGet();
+							memoryCountingSemaphore.releaseLock(key, token);
+						}
+					}
+					return acquired;
+				}));
+			}
+			start.countDown();
+			int total = 0;
+			for (Future<Integer> future : futures) {
+				total += future.get();
+			}
+			assertTrue(total >= maxLockCount);
+			// the number of locks held at the same time must never exceed the maximum.
+			assertTrue(maxHeld.get() <= maxLockCount);
+			// every lock was released so the key should no longer be tracked.
+			assertEquals(0, memoryCountingSemaphore.getKeyCount());
+			assertNotNull(memoryCountingSemaphore.attemptToAcquireLock(key, 1000, 1));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 }
@@ -3,34 +3,30 @@ package org.sagebionetworks.repo.model.semaphore;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.sagebionetworks.util.Clock;
 
 @RunWith(MockitoJUnitRunner.class)
 public class MempryTimeBlockCountingSemaphoreTest {
 	
-	private MemoryTimeBlockCountingSemaphore memoryTimeBlockCountingSemaphore;
+	private MemoryTimeBlockCountingSemaphoreImpl memoryTimeBlockCountingSemaphore;
 	
 	@Mock
-	private Map<String, SimpleSemaphore> keySemaphoreMap;
-	
-	@Mock
-	private SimpleSemaphore mockSemaphore;
+	private Clock mockClock;
 	
 	private static String key = "some key";
 	
@@ -40,9 +36,8 @@ public class MempryTimeBlockCountingSemaphoreTest {
 	
 	@Before
 	public void setUp() throws Exception {
-		MockitoAnnotations.initMocks(this);
-		memoryTimeBlockCountingSemaphore = new MemoryTimeBlockCountingSemaphoreImpl();
-		ReflectionTestUtils.setField(memoryTimeBlockCountingSemaphore, "keySemaphoreMap", keySemaphoreMap);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+		memoryTimeBlockCountingSemaphore = new MemoryTimeBlockCountingSemaphoreImpl(mockClock);
 	}
 	
 	@Test (expected = IllegalArgumentException.class)
@@ -63,72 +58,87 @@ public class MempryTimeBlockCountingSemaphoreTest {
 
 	@Test
 	public void testAcquireLockNoExistentSemaphore() {
-		when(keySemaphoreMap.get(key)).thenReturn(null);
-		
 		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
-		
-		verify(keySemaphoreMap).get(key);
-		ArgumentCaptor<SimpleSemaphore> semaphoreCaptor = ArgumentCaptor.forClass(SimpleSemaphore.class);
-		verify(keySemaphoreMap).put(eq(key), semaphoreCaptor.capture());
-		SimpleSemaphore capturedSemaphore = semaphoreCaptor.getValue();
-		assertEquals(1, capturedSemaphore.getCount());
-		verifyNoMoreInteractions(keySemaphoreMap);
+		assertEquals(1, memoryTimeBlockCountingSemaphore.getKeyCount());
 	}
 	
 	@Test
-	public void testAcquireLockExpiredSemaphore() throws InterruptedException {
-		when(keySemaphoreMap.get(key)).thenReturn(mockSemaphore);
-		when(mockSemaphore.isExpired()).thenReturn(true);
-		
+	public void testAcquireLockExpiredSemaphore() {
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
+		// the block expires at 3000
+		when(mockClock.currentTimeMillis()).thenReturn(3000L);
 		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
-		
-		verify(keySemaphoreMap).get(key);
-		verify(mockSemaphore).isExpired();
-		verify(mockSemaphore).setExpiration(any(Long.class));
-		verify(mockSemaphore).resetCount();
-		verify(mockSemaphore).increment();
-		
-		verifyNoMoreInteractions(keySemaphoreMap,  mockSemaphore);
 	}
 	
 	@Test
 	public void testAcquireLockOverCountLimit(){
-		when(keySemaphoreMap.get(key)).thenReturn(mockSemaphore);
-		when(mockSemaphore.isExpired()).thenReturn(false);
-		when(mockSemaphore.getCount()).thenReturn(limit);
-		
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
+		when(mockClock.currentTimeMillis()).thenReturn(2999L);
 		assertFalse(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
-		
-		verify(keySemaphoreMap).get(key);
-		verify(mockSemaphore).isExpired();
-		verify(mockSemaphore).getCount();
-		verifyNoMoreInteractions(keySemaphoreMap,  mockSemaphore);
 	}
 	
 	@Test
 	public void testAcquireLockUnderCountLimit(){
-		when(keySemaphoreMap.get(key)).thenReturn(mockSemaphore);
-		when(mockSemaphore.isExpired()).thenReturn(false);
-		when(mockSemaphore.getCount()).thenReturn(limit - 1);
-		
-		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
-		
-		verify(keySemaphoreMap).get(key);
-		verify(mockSemaphore).isExpired();
-		verify(mockSemaphore).getCount();
-		verify(mockSemaphore).increment();
-		verifyNoMoreInteractions(keySemaphoreMap,  mockSemaphore);
-
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit + 1));
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit + 1));
+		assertFalse(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit + 1));
 	}
 	
 	@Test
 	public void testAcquireLockZeroMaxLocks(){
 		assertFalse(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, 0));
-		verify(keySemaphoreMap, never()).get(key);
-		verify(mockSemaphore, never()).isExpired();
-		verify(mockSemaphore, never()).getCount();
-		verify(mockSemaphore, never()).increment();
-		verify(mockSemaphore, never()).setExpiration(any(Long.class));
+		assertEquals(0, memoryTimeBlockCountingSemaphore.getKeyCount());
+	}
+
+	@Test
+	public void testAcquireLockEvictsExpired(){
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock("other key", 1000, limit));
+		assertEquals(2, memoryTimeBlockCountingSemaphore.getKeyCount());
+		when(mockClock.currentTimeMillis()).thenReturn(1000L + MemoryTimeBlockCountingSemaphoreImpl.EVICTION_INTERVAL_MS);
+		assertFalse(memoryTimeBlockCountingSemaphore.attemptToAcquireLock("other key", 1000, limit));
+		// only the expired block should be removed.
+		assertEquals(1, memoryTimeBlockCountingSemaphore.getKeyCount());
+	}
+
+	@Test
+	public void testReleaseAllLocks(){
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
+		memoryTimeBlockCountingSemaphore.releaseAllLocks();
+		assertTrue(memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, limit));
+	}
+
+	@Test
+	public void testAcquireLockWithContention() throws Exception {
+		int threadCount = 200;
+		int attemptsPerThread = 50;
+		long maxLockCount = 1234;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Integer>> futures = new ArrayList<>(threadCount);
+			for (int i = 0; i < threadCount; i++) {
+				futures.add(executor.submit((Callable<Integer>) () -> {
+					start.await();
+					int acquired = 0;
+					for (int j = 0; j < attemptsPerThread; j++) {
+						if (memoryTimeBlockCountingSemaphore.attemptToAcquireLock(key, timeoutSec, maxLockCount)) {
+							acquired++;
+						}
+					}
+					return acquired;
+				}));
+			}
+			start.countDown();
+			int total = 0;
+			for (Future<Integer> future : futures) {
+				total += future.get();
+			}
+			// exactly the maximum number of locks must be issued for a single block.
+			assertEquals(maxLockCount, total);
+		} finally {
+			executor.shutdownNow();
+		}
 	}
 
 }
@@ -0,0 +1,124 @@
+package org.sagebionetworks.repo.manager.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.sagebionetworks.repo.model.audit.AccessRecord;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * A bounded buffer of access records with many producers and a single
+ * consumer. Producers claim a slot with a single compare-and-set, so request
+ * threads never block on each other or on the consumer. When the buffer is
+ * full the record is dropped and counted rather than holding up the request.
+ * <p>
+ * Each slot has a sequence that tells whether the slot is free for a given
+ * position or holds the record of that position, so the consumer never reads a
+ * slot that a producer has claimed but not yet filled.
+ *
+ */
+public class AccessRecordRingBuffer {
+
+	private final int capacity;
+	private final int mask;
+	private final AtomicReferenceArray<AccessRecord> slots;
+	private final AtomicLongArray sequences;
+	private final AtomicLong producerPosition;
+	private final AtomicLong droppedCount;
+	// Only read and written by the consumer while holding the lock of this buffer.
+	private long consumerPosition;
+
+	/**
+	 *
+	 * @param capacity The maximum number of records held by the buffer, must be a
+	 *                 power of two.
+	 */
+	public AccessRecordRingBuffer(int capacity) {
+		ValidateArgument.requirement(capacity > 1 && Integer.bitCount(capacity) == 1, "capacity must be a power of two greater than one");
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.slots = new AtomicReferenceArray<>(capacity);
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+		this.producerPosition = new AtomicLong(0L);
+		this.droppedCount = new AtomicLong(0L);
+		this.consumerPosition = 0L;
+	}
+
+	/**
+	 * Add the given record to the buffer. This method never blocks.
+	 *
+	 * @param record
+	 * @return False if the buffer was full and the record was dropped.
+	 */
+	public boolean offer(AccessRecord record) {
+		ValidateArgument.required(record, "record");
+		long position = producerPosition.get();
+		while (true) {
+			int index = (int) (position & mask);
+			long sequence = sequences.get(index);
+			if (sequence == position) {
+				if (producerPosition.compareAndSet(position, position + 1)) {
+					slots.set(index, record);
+					// Publish the record to the consumer.
+					sequences.set(index, position + 1);
+					return true;
+				}
+				position = producerPosition.get();
+			} else if (sequence < position) {
+				// The consumer has not yet taken the record of the previous lap.
+				droppedCount.incrementAndGet();
+				return false;
+			} else {
+				// Another producer claimed this position.
+				position = producerPosition.get();
+			}
+		}
+	}
+
+	/**
+	 * Remove all the records that are currently available, in the order they were
+	 * added, and pass each to the given consumer.
+	 *
+	 * @param consumer
+	 * @return The number of records removed.
+	 */
+	public synchronized int drain(Consumer<AccessRecord> consumer) {
+		ValidateArgument.required(consumer, "consumer");
+		int count = 0;
+		while (count < capacity) {
+			int index = (int) (consumerPosition & mask);
+			if (sequences.get(index) != consumerPosition + 1) {
+				// Either empty or the producer has not finished writing the record.
+				break;
+			}
+			AccessRecord record = slots.get(index);
+			slots.set(index, null);
+			// Free the slot for the next lap.
+			sequences.set(index, consumerPosition + capacity);
+			consumerPosition++;
+			count++;
+			consumer.accept(record);
+		}
+		return count;
+	}
+
+	/**
+	 * @return The total number of records that were dropped because the buffer was
+	 *         full.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/**
+	 * @return The maximum number of records held by the buffer.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+}
@@ -1,10 +1,8 @@
 package org.sagebionetworks.repo.manager.audit;
 
-import java.io.IOException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -24,14 +22,22 @@ public class KinesisAccessRecorder implements AccessRecorder {
 
 	static private Log log = LogFactory.getLog(KinesisAccessRecorder.class);
 	public static final String ACCESS_RECORD_STREAM = "accessRecord";
+	
+	/**
+	 * The maximum number of records waiting to be sent, roughly a minute of peak
+	 * traffic. Records that arrive while the buffer is full are dropped.
+	 */
+	public static final int MAX_BUFFERED_RECORDS = 1 << 16;
 
 	/**
 	 * At any given time, there are multiple threads creating new AccessRecords
 	 * as new web services request come in. These AccessRecords are added to
-	 * this batch from the threads where they originated. The batch is then
-	 * processed from a separate timer thread.
+	 * this buffer from the threads where they originated. The buffer is then
+	 * drained from a separate timer thread.
 	 */
-	private ConcurrentLinkedQueue<AccessRecord> recordBatch = new ConcurrentLinkedQueue<AccessRecord>();
+	private final AccessRecordRingBuffer recordBuffer = new AccessRecordRingBuffer(MAX_BUFFERED_RECORDS);
+	
+	private final AtomicLong reportedDroppedCount = new AtomicLong(0L);
 
 	AwsKinesisFirehoseLogger firehoseLogger;
 
@@ -43,32 +49,31 @@ public class KinesisAccessRecorder implements AccessRecorder {
 	}
 
 	/**
-	 * New AccessRecords will come in from 
+	 * New AccessRecords will come in from the web service threads. This never
+	 * blocks, if the buffer is full the record is dropped and counted.
 	 */
 	@Override
 	public void save(AccessRecord record) {
-		// add the messages to the queue;
-		recordBatch.add(record);
+		// add the record to the buffer;
+		recordBuffer.offer(record);
 	}
 
 	/**
 	 * When the timer fires we send the messages to S3.
-	 * @throws IOException 
 	 * 
 	 */
 	public void timerFired() {
-		// Poll all data currently on the queue.
-		List<AccessRecord> currentBatch = pollListFromQueue();
+		reportDroppedRecords();
+		// Drain all data currently in the buffer straight into the firehose records.
+		List<KinesisJsonEntityRecord<AccessRecord>> kinesisJsonEntityRecords = new ArrayList<>();
+		recordBuffer.drain(record -> kinesisJsonEntityRecords
+				.add(new KinesisJsonEntityRecord<>(record.getTimestamp(), record, record.getStack(), record.getInstance())));
 		// There is nothing to do if the batch is empty.
-		if (currentBatch.isEmpty()) {
+		if (kinesisJsonEntityRecords.isEmpty()) {
 			return;
 		}
 		try {
 			// send records to firehose delivery stream
-			List<KinesisJsonEntityRecord<AccessRecord>> kinesisJsonEntityRecords = currentBatch.stream()
-					.map(record -> new KinesisJsonEntityRecord<>(record.getTimestamp(), record, record.getStack(), record.getInstance()))
-					.collect(Collectors.toList());
-
 			firehoseLogger.logBatch(ACCESS_RECORD_STREAM, kinesisJsonEntityRecords);
 		} catch (Exception e) {
 			log.error("Failed to write batch", e);
@@ -76,18 +81,21 @@ public class KinesisAccessRecorder implements AccessRecorder {
 	}
 	
 	/**
-	 * Poll all data currently on the queue and add it to a list.
-	 * @return
+	 * Log the number of records dropped since the last report.
 	 */
-	private List<AccessRecord> pollListFromQueue(){
-		List<AccessRecord> list = new LinkedList<AccessRecord>();
-		for(AccessRecord ac = this.recordBatch.poll(); ac != null; ac = this.recordBatch.poll()){
-			// Add to the list
-			list.add(ac);
+	private void reportDroppedRecords() {
+		long droppedCount = recordBuffer.getDroppedCount();
+		long newlyDropped = droppedCount - reportedDroppedCount.getAndSet(droppedCount);
+		if (newlyDropped > 0) {
+			log.warn("Dropped " + newlyDropped + " access records because the buffer was full");
 		}
-		return list;
 	}
 	
-	
+	/**
+	 * @return The total number of access records dropped because the buffer was full.
+	 */
+	public long getDroppedCount() {
+		return recordBuffer.getDroppedCount();
+	}
 	
 }
@@ -0,0 +1,256 @@
+package org.sagebionetworks.repo.manager.file;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.sagebionetworks.repo.model.file.S3FileHandle;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Downloads the files of a bulk download ahead of the thread that writes them
+ * to the zip. Files are downloaded in the order they will be requested, with
+ * at most a fixed number of files and bytes downloaded ahead of the writer.
+ * <p>
+ * This class is not thread-safe and must only be used by the thread writing the
+ * zip.
+ *
+ */
+public class FileDownloadPrefetcher implements Closeable {
+
+	static private Logger log = LogManager.getLogger(FileDownloadPrefetcher.class);
+
+	/**
+	 * Abstraction for downloading a single file to a temporary file.
+	 *
+	 */
+	@FunctionalInterface
+	public interface Downloader {
+		File download(S3FileHandle handle) throws IOException;
+	}
+
+	private final ExecutorService threadPool;
+	private final Downloader downloader;
+	private final List<S3FileHandle> fileHandles;
+	private final Map<String, Integer> fileHandleIndex;
+	private final int maxFilesAhead;
+	private final long maxBytesAhead;
+	// Downloads that have been started but not yet taken, in download order.
+	private final LinkedHashMap<String, Pending> pending;
+	private int nextIndex;
+	private long bytesAhead;
+	private boolean stopped;
+
+	/**
+	 *
+	 * @param threadPool    The pool used to run the downloads.
+	 * @param downloader    Downloads a single file.
+	 * @param fileHandles   The handles of the files in the order they will be
+	 *                      requested.
+	 * @param maxFilesAhead The maximum number of files downloaded ahead of the
+	 *                      writer.
+	 * @param maxBytesAhead The maximum number of bytes downloaded ahead of the
+	 *                      writer. A single file larger than this limit is still
+	 *                      downloaded when no other file is pending.
+	 */
+	public FileDownloadPrefetcher(ExecutorService threadPool, Downloader downloader, List<S3FileHandle> fileHandles,
+			int maxFilesAhead, long maxBytesAhead) {
+		ValidateArgument.required(threadPool, "threadPool");
+		ValidateArgument.required(downloader, "downloader");
+		ValidateArgument.required(fileHandles, "fileHandles");
+		ValidateArgument.requirement(maxFilesAhead > 0, "maxFilesAhead must be greater than zero");
+		this.threadPool = threadPool;
+		this.downloader = downloader;
+		this.fileHandles = fileHandles;
+		this.fileHandleIndex = new HashMap<>(fileHandles.size());
+		for (int i = 0; i < fileHandles.size(); i++) {
+			fileHandleIndex.putIfAbsent(fileHandles.get(i).getId(), i);
+		}
+		this.maxFilesAhead = maxFilesAhead;
+		this.maxBytesAhead = maxBytesAhead;
+		this.pending = new LinkedHashMap<>();
+		this.nextIndex = 0;
+		this.bytesAhead = 0L;
+		this.stopped = false;
+		scheduleAhead();
+	}
+
+	/**
+	 * Get the downloaded file for the given handle. If the file was not
+	 * downloaded ahead, it will be downloaded by the calling thread. Any file
+	 * that was downloaded ahead but skipped by the writer is deleted. The caller
+	 * is responsible for deleting the returned file.
+	 *
+	 * @param handle
+	 * @return
+	 * @throws IOException
+	 */
+	public File getFile(S3FileHandle handle) throws IOException {
+		ValidateArgument.required(handle, "handle");
+		Integer index = fileHandleIndex.get(handle.getId());
+		if (index != null) {
+			discardBefore(index);
+			nextIndex = Math.max(nextIndex, index + 1);
+		}
+		Pending download = pending.remove(handle.getId());
+		if (download != null) {
+			bytesAhead -= download.size;
+		}
+		scheduleAhead();
+		if (download == null) {
+			return downloader.download(handle);
+		}
+		return await(download.future);
+	}
+
+	/**
+	 * Start downloads until either the file or the byte limit is reached.
+	 */
+	void scheduleAhead() {
+		while (!stopped && nextIndex < fileHandles.size() && pending.size() < maxFilesAhead) {
+			S3FileHandle handle = fileHandles.get(nextIndex);
+			long size = handle.getContentSize() == null ? 0L : handle.getContentSize();
+			if (!pending.isEmpty() && bytesAhead + size > maxBytesAhead) {
+				return;
+			}
+			nextIndex++;
+			if (pending.containsKey(handle.getId())) {
+				continue;
+			}
+			Pending download = new Pending(nextIndex - 1, size);
+			download.future = threadPool.submit(() -> download.downloaded(downloader.download(handle)));
+			pending.put(handle.getId(), download);
+			bytesAhead += size;
+		}
+	}
+
+	/**
+	 * Discard all pending downloads that come before the given index.
+	 *
+	 * @param index
+	 */
+	private void discardBefore(int index) {
+		Iterator<Pending> it = pending.values().iterator();
+		while (it.hasNext()) {
+			Pending download = it.next();
+			if (download.index >= index) {
+				return;
+			}
+			it.remove();
+			bytesAhead -= download.size;
+			download.cancel();
+		}
+	}
+
+	private static File await(Future<File> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Stop downloading ahead of the writer, for example once the zip has reached
+	 * its size limit. All pending downloads are cancelled and their files
+	 * deleted. Any file requested afterwards is downloaded by the calling thread.
+	 */
+	public void stop() {
+		stopped = true;
+		pending.values().forEach(Pending::cancel);
+		pending.clear();
+		bytesAhead = 0L;
+	}
+
+	/**
+	 * Cancel all downloads that were started ahead but never taken and delete
+	 * their files.
+	 */
+	@Override
+	public void close() {
+		stop();
+	}
+
+	/**
+	 * @return The handles of the files that will be downloaded ahead, in order.
+	 */
+	List<S3FileHandle> getFileHandles() {
+		return fileHandles;
+	}
+
+	/**
+	 * @return The number of downloads that have been started but not yet taken.
+	 */
+	int getPendingCount() {
+		return pending.size();
+	}
+
+	private static class Pending {
+		private final int index;
+		private final long size;
+		// The downloaded file until it is either taken or deleted.
+		private final AtomicReference<File> file;
+		private volatile boolean cancelled;
+		private Future<File> future;
+
+		Pending(int index, long size) {
+			this.index = index;
+			this.size = size;
+			this.file = new AtomicReference<>();
+			this.cancelled = false;
+		}
+
+		/**
+		 * Called by the download thread once the file is downloaded. A download
+		 * that finishes after it was cancelled deletes its own file.
+		 *
+		 * @param downloaded
+		 * @return
+		 */
+		File downloaded(File downloaded) {
+			file.set(downloaded);
+			if (cancelled) {
+				deleteFile();
+			}
+			return downloaded;
+		}
+
+		/**
+		 * Cancel this download without waiting for it and delete its file if it
+		 * was already downloaded.
+		 */
+		void cancel() {
+			cancelled = true;
+			future.cancel(true);
+			deleteFile();
+		}
+
+		private void deleteFile() {
+			File toDelete = file.getAndSet(null);
+			if (toDelete != null && !toDelete.delete()) {
+				log.warn("Failed to delete a prefetched file: " + toDelete.getAbsolutePath());
+			}
+		}
+	}
+}
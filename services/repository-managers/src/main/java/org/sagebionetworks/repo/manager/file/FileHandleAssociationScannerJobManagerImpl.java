@@ -34,8 +34,12 @@ public class FileHandleAssociationScannerJobManagerImpl implements FileHandleAss
 	
 	private static final Logger LOG = LogManager.getLogger(FileHandleAssociationScannerJobManagerImpl.class);
 		
-	static final long FLUSH_DELAY_MS = 250;
 	static final int KINESIS_BATCH_SIZE = 10000;
+	// Number of times a batch is sent to kinesis before giving up on the whole range
+	static final int MAX_FLUSH_ATTEMPTS = 3;
+	// Bounds of the delay between batches applied once kinesis starts pushing back
+	static final long MIN_FLUSH_DELAY_MS = 250;
+	static final long MAX_FLUSH_DELAY_MS = 30_000;
 	static final int MAX_DELAY_SEC = 60;
 	
 	private FileHandleAssociationManager associationManager;
@@ -80,6 +84,8 @@ public class FileHandleAssociationScannerJobManagerImpl implements FileHandleAss
 
 		int totalRecords = 0;
 		int relinkedRecords = 0;
+		// Delay between batches, only grows when kinesis fails to take a batch
+		long flushDelay = 0;
 
 		for (ScannedFileHandleAssociation association : iterable) {
 
@@ -94,23 +100,21 @@ public class FileHandleAssociationScannerJobManagerImpl implements FileHandleAss
 			if (recordsBatch.size() >= KINESIS_BATCH_SIZE) {
 				validateStackReadWrite();
 				relinkedRecords += relinkRecords(recordsBatch);
-				totalRecords += flushRecordsBatch(recordsBatch);
+				flushDelay = flushRecordsBatch(recordsBatch, flushDelay);
+				totalRecords += recordsBatch.size();
 				recordsBatch.clear();
 				batchTimestamp = clock.currentTimeMillis();
 
-				// Put a small sleep before continuing with the next batch to avoid saturating kinesis
-				try {
-					clock.sleep(FLUSH_DELAY_MS);
-				} catch (InterruptedException e) {
-					LOG.warn(e.getMessage(), e);
-				}
+				// Slow down before the next batch only if kinesis pushed back recently
+				sleep(flushDelay);
 			}
 		}
 
 		if (!recordsBatch.isEmpty()) {
 			validateStackReadWrite();
 			relinkedRecords += relinkRecords(recordsBatch);
-			totalRecords += flushRecordsBatch(recordsBatch);
+			flushRecordsBatch(recordsBatch, flushDelay);
+			totalRecords += recordsBatch.size();
 		}
 
 		statusDao.increaseJobCompletedCount(request.getJobId(), totalRecords, relinkedRecords);
@@ -191,20 +195,43 @@ public class FileHandleAssociationScannerJobManagerImpl implements FileHandleAss
 		return ThreadLocalRandom.current().nextInt(MAX_DELAY_SEC + 1);
 	}
 	
-	private int flushRecordsBatch(Set<FileHandleAssociationRecord> recordsBatch) throws RecoverableMessageException {
-		if (recordsBatch.isEmpty()) {
-			return 0;
-		}
-		
-		int size = recordsBatch.size();
+	/**
+	 * Sends the given batch to kinesis. If kinesis cannot take the batch (e.g. it keeps throttling), the delay is doubled and the same
+	 * batch is sent again, up to {@link #MAX_FLUSH_ATTEMPTS} times. Since the records in the batch share the same timestamp, any record
+	 * delivered twice is de-duplicated downstream.
+	 * 
+	 * @param recordsBatch
+	 * @param flushDelay The current delay between batches
+	 * @return The delay to apply before the next batch, halved after a successful delivery
+	 * @throws RecoverableMessageException If the batch could not be delivered after {@link #MAX_FLUSH_ATTEMPTS}
+	 */
+	long flushRecordsBatch(Set<FileHandleAssociationRecord> recordsBatch, long flushDelay) throws RecoverableMessageException {
+		List<FileHandleAssociationRecord> records = new ArrayList<>(recordsBatch);
 		
+		for (int attempt = 1;; attempt++) {
+			try {
+				kinesisLogger.logBatch(FileHandleAssociationRecord.STREAM_NAME, records);
+				return flushDelay / 2 < MIN_FLUSH_DELAY_MS ? 0 : flushDelay / 2;
+			} catch (AwsKinesisDeliveryException e) {
+				if (attempt >= MAX_FLUSH_ATTEMPTS) {
+					throw new RecoverableMessageException(e);
+				}
+				flushDelay = Math.min(MAX_FLUSH_DELAY_MS, Math.max(MIN_FLUSH_DELAY_MS, flushDelay * 2));
+				LOG.warn("Could not deliver a batch of {} records (Attempt: {}), will retry in {} ms: {}", records.size(), attempt, flushDelay, e.getMessage());
+				sleep(flushDelay);
+			}
+		}
+	}
+	
+	private void sleep(long delayMs) {
+		if (delayMs <= 0) {
+			return;
+		}
 		try {
-			kinesisLogger.logBatch(FileHandleAssociationRecord.STREAM_NAME, new ArrayList<>(recordsBatch));
-		} catch (AwsKinesisDeliveryException e) {
-			throw new RecoverableMessageException(e);
+			clock.sleep(delayMs);
+		} catch (InterruptedException e) {
+			LOG.warn(e.getMessage(), e);
 		}
-		
-		return size;
 	}
 	
 	private int relinkRecords(Set<FileHandleAssociationRecord> recordsBatch) {
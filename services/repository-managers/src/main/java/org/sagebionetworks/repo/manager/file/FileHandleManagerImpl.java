@@ -1428,23 +1428,30 @@ public class FileHandleManagerImpl implements FileHandleManager {
 
 		String userId = userInfo.getId().toString();
 		Map<String, FileHandleCopyRequest> map = FileHandleCopyUtils.getRequestMap(request);
-		List<FileHandle> toCreate = new ArrayList<FileHandle>();
 		// lookup the file handles.
 		Map<String, FileHandle> fileHandles = fileHandleDao.getAllFileHandlesBatch(fileHandleIdsToFetch);
 
+		List<FileHandleCopyResult> toCopy = new ArrayList<FileHandleCopyResult>();
 		for(FileHandleCopyResult fhcr: copyResults){
 			if(fhcr.getFailureCode() == null){
-				FileHandle original = fileHandles.get(fhcr.getOriginalFileHandleId());
-				if(original == null){
+				if(fileHandles.get(fhcr.getOriginalFileHandleId()) == null){
 					fhcr.setFailureCode(FileResultFailureCode.NOT_FOUND);
 				}else{
-					FileHandle newFileHandle = FileHandleCopyUtils.createCopy(userId, original, map.get(fhcr.getOriginalFileHandleId()), idGenerator.generateNewId(IdType.FILE_IDS).toString());
-					toCreate.add(newFileHandle);
-					fhcr.setNewFileHandle(newFileHandle);
+					toCopy.add(fhcr);
 				}
 			}
 		}
-		if (!toCreate.isEmpty()) {
+		if (!toCopy.isEmpty()) {
+			// Issue the IDs for all of the copies with a single call.
+			List<Long> newIds = idGenerator.generateNewIds(IdType.FILE_IDS, toCopy.size());
+			List<FileHandle> toCreate = new ArrayList<FileHandle>(toCopy.size());
+			for (int i = 0; i < toCopy.size(); i++) {
+				FileHandleCopyResult fhcr = toCopy.get(i);
+				FileHandle original = fileHandles.get(fhcr.getOriginalFileHandleId());
+				FileHandle newFileHandle = FileHandleCopyUtils.createCopy(userId, original, map.get(fhcr.getOriginalFileHandleId()), newIds.get(i).toString());
+				toCreate.add(newFileHandle);
+				fhcr.setNewFileHandle(newFileHandle);
+			}
 			fileHandleDao.createBatch(toCreate);
 		}
 
@@ -33,9 +33,13 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -51,6 +55,14 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 	public static final String FILE_EXCEEDS_THE_MAXIMUM_SIZE_LIMIT = "File exceeds the maximum size limit.";
 	public static final String RESULT_FILE_HAS_REACHED_THE_MAXIMUM_SIZE = "Result file has reached the maximum size.";
 	public static final String FILE_ALREADY_ADDED = "File already added.";
+	/**
+	 * The maximum number of files downloaded from S3 ahead of the zip writer.
+	 */
+	public static final int MAX_FILES_DOWNLOADED_AHEAD = 4;
+	/**
+	 * The maximum number of bytes downloaded from S3 ahead of the zip writer.
+	 */
+	public static final long MAX_BYTES_DOWNLOADED_AHEAD = 512L * 1024L * 1024L;
 
 	private FileHandleDao fileHandleDao;
 	private SynapseS3Client s3client;
@@ -58,11 +70,12 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 	private FileHandleManager fileHandleManager;
 	private TransactionalMessenger messenger;
 	private StackConfiguration configuration;
+	private ExecutorService threadPool;
 
 	@Autowired
 	public FileHandlePackageManagerImpl(FileHandleDao fileHandleDao, SynapseS3Client s3client,
 			AuthorizationManager fileHandleAuthorizationManager, FileHandleManager fileHandleManager,
-			TransactionalMessenger messenger, StackConfiguration configuration) {
+			TransactionalMessenger messenger, StackConfiguration configuration, ExecutorService cachedThreadPool) {
 		super();
 		this.fileHandleDao = fileHandleDao;
 		this.s3client = s3client;
@@ -70,6 +83,7 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 		this.fileHandleManager = fileHandleManager;
 		this.messenger = messenger;
 		this.configuration = configuration;
+		this.threadPool = cachedThreadPool;
 	}
 
 	/*
@@ -114,8 +128,14 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 	@Override
 	public File downloadToTempFile(S3FileHandle fileHandle) throws IOException {
 		File tempFile = File.createTempFile("FileHandle" + fileHandle.getId(), ".tmp");
-		// download this file to the local machine
-		s3client.getObject(new GetObjectRequest(fileHandle.getBucketName(), fileHandle.getKey()), tempFile);
+		try {
+			// download this file to the local machine
+			s3client.getObject(new GetObjectRequest(fileHandle.getBucketName(), fileHandle.getKey()), tempFile);
+		} catch (RuntimeException e) {
+			// a failed or cancelled download must not leave its temp file behind.
+			tempFile.delete();
+			throw e;
+		}
 		return tempFile;
 	}
 
@@ -190,9 +210,10 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 	 */
 	List<FileDownloadSummary> addFilesToZip(UserInfo user, BulkFileDownloadRequest request, File tempResultFile, boolean skipFileSizeCheck) throws IOException {
 
-		try (ZipOutputStream zipOut = createZipOutputStream(tempResultFile)) {
-			List<FileHandleAssociationAuthorizationStatus> authResults = fileHandleAuthorizationManager
-					.canDownLoadFile(user, request.getRequestedFiles());
+		List<FileHandleAssociationAuthorizationStatus> authResults = fileHandleAuthorizationManager
+				.canDownLoadFile(user, request.getRequestedFiles());
+		try (ZipOutputStream zipOut = createZipOutputStream(tempResultFile);
+				FileDownloadPrefetcher prefetcher = createPrefetcher(authResults, skipFileSizeCheck)) {
 			ZipEntryNameProvider zipEntryNameProvider = createZipEntryNameProvider(request.getZipFileFormat());
 			Set<String> fileIdsInZip = new HashSet<>(authResults.size());
 			// This will be the final summary of results..
@@ -207,7 +228,7 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 				fileSummaries.add(summary);
 				try {
 					String zipEntryName = writeOneFileToZip(zipOut, tempResultFile.length(), fhas, fileIdsInZip,
-							zipEntryNameProvider, skipFileSizeCheck);
+							zipEntryNameProvider, prefetcher, skipFileSizeCheck);
 					// download this file from S3
 					fileIdsInZip.add(fileHandleId);
 					summary.setStatus(FileDownloadStatus.SUCCESS);
@@ -235,6 +256,38 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 
 	}
 
+	/**
+	 * Create a prefetcher that will download the files that can be added to the
+	 * zip ahead of the zip writer. Files that the user cannot download, duplicates,
+	 * non-S3 files and files over the size limit are excluded since they will
+	 * never be written to the zip.
+	 * 
+	 * @param authResults
+	 * @param skipFileSizeCheck
+	 * @return
+	 */
+	FileDownloadPrefetcher createPrefetcher(List<FileHandleAssociationAuthorizationStatus> authResults,
+			boolean skipFileSizeCheck) {
+		Set<String> fileHandleIds = new LinkedHashSet<>(authResults.size());
+		for (FileHandleAssociationAuthorizationStatus fhas : authResults) {
+			if (fhas.getStatus().isAuthorized()) {
+				fileHandleIds.add(fhas.getAssociation().getFileHandleId());
+			}
+		}
+		Map<String, FileHandle> handles = fileHandleIds.isEmpty() ? Collections.emptyMap()
+				: fileHandleDao.getAllFileHandlesBatch(fileHandleIds);
+		List<S3FileHandle> toDownload = new ArrayList<>(fileHandleIds.size());
+		for (String fileHandleId : fileHandleIds) {
+			FileHandle handle = handles.get(fileHandleId);
+			if (handle instanceof S3FileHandle && handle.getContentSize() != null && (skipFileSizeCheck
+					|| handle.getContentSize() <= FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES)) {
+				toDownload.add((S3FileHandle) handle);
+			}
+		}
+		return new FileDownloadPrefetcher(threadPool, this::downloadToTempFile, toDownload,
+				MAX_FILES_DOWNLOADED_AHEAD, MAX_BYTES_DOWNLOADED_AHEAD);
+	}
+
 	/**
 	 * Write a single file to the given zip stream.
 	 * 
@@ -242,11 +295,13 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 	 * @param zipFileSize
 	 * @param fhas
 	 * @param fileIdsInZip
+	 * @param prefetcher   Provides the downloaded file.
 	 * @throws IOException
 	 * @return The zip entry name used for this file.
 	 */
 	String writeOneFileToZip(ZipOutputStream zipOut, long zipFileSize, FileHandleAssociationAuthorizationStatus fhas,
-			Set<String> fileIdsInZip, ZipEntryNameProvider zipEntryNameProvider, boolean skipFileSizeCheck) throws IOException {
+			Set<String> fileIdsInZip, ZipEntryNameProvider zipEntryNameProvider, FileDownloadPrefetcher prefetcher,
+			boolean skipFileSizeCheck) throws IOException {
 		String fileHandleId = fhas.getAssociation().getFileHandleId();
 		// Is the user authorized to download this file?
 		if (!fhas.getStatus().isAuthorized()) {
@@ -258,6 +313,8 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 		}
 		// Each file must be less than the max.
 		if (!skipFileSizeCheck && zipFileSize > FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES) {
+			// No other file will fit in the zip so stop downloading ahead.
+			prefetcher.stop();
 			throw new BulkFileException(RESULT_FILE_HAS_REACHED_THE_MAXIMUM_SIZE, FileDownloadCode.EXCEEDS_SIZE_LIMIT);
 		}
 		// Get this filehandle.
@@ -266,8 +323,8 @@ public class FileHandlePackageManagerImpl implements FileHandlePackageManager {
 		if (!skipFileSizeCheck && s3Handle.getContentSize() > FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES) {
 			throw new BulkFileException(FILE_EXCEEDS_THE_MAXIMUM_SIZE_LIMIT, FileDownloadCode.EXCEEDS_SIZE_LIMIT);
 		}
-		// This file will be downloaded to this temp.
-		File downloadTemp = downloadToTempFile(s3Handle);
+		// This file was downloaded (or will be downloaded) to this temp.
+		File downloadTemp = prefetcher.getFile(s3Handle);
 		try {
 			// The entry name is the path plus file name.
 			String zipEntryName = zipEntryNameProvider.createZipEntryName(s3Handle.getFileName(),
@@ -1,5 +1,6 @@
 package org.sagebionetworks.repo.manager.message;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -128,18 +129,25 @@ public class RepositoryMessagePublisherImpl implements RepositoryMessagePublishe
 			}
 			return;
 		}
-		// Publish each message to the topic
+		List<ChangeMessage> changes = new ArrayList<>(currentQueue.size());
 		for (Message queueItem : currentQueue) {
-			try {
-				if (queueItem instanceof ChangeMessage) {
-					ChangeMessage message = (ChangeMessage) queueItem;
-					publishToTopic(message);
-				} else {
-					throw new IllegalArgumentException("Unknown message type " + queueItem.getClass().getName());
+			if (queueItem instanceof ChangeMessage) {
+				changes.add((ChangeMessage) queueItem);
+			} else {
+				log.error("Failed to publish message.", new IllegalArgumentException("Unknown message type " + queueItem.getClass().getName()));
+			}
+		}
+		// Publish the messages of each type to the topic in batches.
+		Map<ObjectType, List<List<ChangeMessage>>> batches = ChangeMessageUtils.groupByObjectTypeAndPartitionEachGroup(changes,
+				ChangeMessageUtils.MAX_NUMBER_OF_CHANGE_MESSAGES_PER_SQS_MESSAGE);
+		for (Map.Entry<ObjectType, List<List<ChangeMessage>>> entry : batches.entrySet()) {
+			for (List<ChangeMessage> batch : entry.getValue()) {
+				try {
+					publishBatchToTopic(entry.getKey(), batch);
+				} catch (Throwable e) {
+					// If one batch fails, we must send the rest.
+					log.error("Failed to publish a batch of " + batch.size() + " " + entry.getKey() + " messages.", e);
 				}
-			} catch (Throwable e) {
-				// If one messages fails, we must send the rest.
-				log.error("Failed to publish message.", e);
 			}
 		}
 	}
@@ -16,9 +16,10 @@ public interface BackupFileStream {
 
 	/**
 	 * Stream over all of the data in the given backup file InputStream. The data is
-	 * read from the provided stream, one sub-file at a time. This means each
-	 * sub-file must be small enough to fit in memory. After each sub-file is read,
-	 * all data from that file will be flushed from memory.
+	 * read from the provided stream, one sub-file at a time. Sub-files written in
+	 * the JSON Lines format are read one row at a time, so memory use does not
+	 * depend on the size of the sub-file. Legacy JSON and XML sub-files must be
+	 * small enough to fit in memory.
 	 * 
 	 * Note: The caller is responsible for closing the passed stream.
 	 * 
@@ -33,12 +34,11 @@ public interface BackupFileStream {
 	 * @param out
 	 * @param stream
 	 * @param maximumRowsPerFile
-	 *            Determines the maximum number of rows that will reside in memory
-	 *            during both reading and writing migration backup files. Each time
-	 *            this number of rows is read from the provided stream, the current
-	 *            batch of rows will be written as a new sub-file within the zip,
-	 *            the rows will be cleared from memory, and a new batch of rows will
-	 *            be started.
+	 *            The maximum number of rows written to each sub-file within the
+	 *            zip. Each row is written as a single line of JSON as soon as it is
+	 *            read from the provided stream, so rows are never buffered in
+	 *            memory. Each time this number of rows is written, a new sub-file
+	 *            will be started.
 	 * @throws IOException
 	 */
 	public void writeBackupFile(OutputStream out, Iterable<MigratableDatabaseObject<?,?>> stream, BackupAliasType backupAliasType,
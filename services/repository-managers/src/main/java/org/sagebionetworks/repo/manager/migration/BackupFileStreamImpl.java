@@ -2,15 +2,16 @@ package org.sagebionetworks.repo.manager.migration;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,15 +34,15 @@ import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Iterators;
+
 @Service
 public class BackupFileStreamImpl implements BackupFileStream {
 	
 	static private Log log = LogFactory.getLog(BackupFileStreamImpl.class);
 
-	private static final String UTF_8 = "UTF-8";
-
 	private static final String DOT = ".";
-	private static final String FILE_NAME_TEMPLATE = "%1$s.%2$d.json";
+	private static final String FILE_NAME_TEMPLATE = "%1$s.%2$d.jsonl";
 
 	private final MigrationTypeProvider typeProvider;
 	private final Map<MigratableDatabaseObject<?, ?>, MigratableTableTranslation<?,?>> translatorCache;
@@ -67,8 +68,9 @@ public class BackupFileStreamImpl implements BackupFileStream {
 	}
 
 	/**
-	 * This Iterator will read one file at a time from the provided zip file. Note:
-	 * All data for any single file must fit in memory.
+	 * This Iterator will read one file at a time from the provided zip file. Rows
+	 * of a JSON Lines file are read one at a time. Note: All data for any single
+	 * legacy JSON or XML file must fit in memory.
 	 *
 	 */
 	private class InputStreamIterator
@@ -94,7 +96,7 @@ public class BackupFileStreamImpl implements BackupFileStream {
 				}
 			}
 			// read the next file from the zip.
-			this.currentFile = readBatchFromZip(this.zipInputStream, this.backupAliasType).iterator();
+			this.currentFile = readNextFileFromZip(this.zipInputStream, this.backupAliasType);
 			// The current file will be empty at the end of the stream.
 			return this.currentFile.hasNext();
 		}
@@ -158,88 +160,39 @@ public class BackupFileStreamImpl implements BackupFileStream {
 		ValidateArgument.required(backupAliasType, "BackupAliasType");
 		ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(out));
 		try {
+			Writer zipWriter = new BufferedWriter(new OutputStreamWriter(zos, StandardCharsets.UTF_8));
 			MigrationType currentType = null;
+			MigratableTableTranslation translator = null;
 			int index = 0;
-
-			List<MigratableDatabaseObject<?,?>> currentBatch = null;
+			long rowsInFile = 0;
 
 			// Process all rows as a stream
 			for (MigratableDatabaseObject<?,?> row : stream) {
-				if (currentType == null) {
-					// first row
-					currentType = row.getMigratableTableType();
-					currentBatch = new LinkedList<>();
-				}
-
 				/*
-				 * Each file added to the zip will only contain one type. Also, each file must
-				 * fit within memory. Therefore, the current batch must be written to the zip
-				 * file if the maximum batch size is exceeded or if there is a type change.
+				 * Each file added to the zip will only contain one type. Each row is written
+				 * as soon as it is read, so the rows of a file are never held in memory. A new
+				 * file is started if the maximum rows per file is reached or if there is a
+				 * type change.
 				 */
-				if (currentType != row.getMigratableTableType() || currentBatch.size() >= maximumRowsPerFile) {
-					writeBatchToZip(zos, currentBatch, index, currentType, backupAliasType);
-					currentBatch.clear();
-					index++;
+				if (currentType != row.getMigratableTableType() || rowsInFile >= maximumRowsPerFile) {
+					if (currentType != null) {
+						zipWriter.flush();
+						index++;
+					}
+					currentType = row.getMigratableTableType();
+					translator = getCachedTranslator(typeProvider.getObjectForType(currentType));
+					zos.putNextEntry(new ZipEntry(createFileName(currentType, index)));
+					rowsInFile = 0;
 				}
-				// add this row to the current batch
-				currentBatch.add(row);
-				currentType = row.getMigratableTableType();
+				typeProvider.writeObject(translator.createBackupFromDatabaseObject(row), zipWriter);
+				rowsInFile++;
 			}
-			// Write the remaining data
-			writeBatchToZip(zos, currentBatch, index, currentType, backupAliasType);
+			zipWriter.flush();
 		} finally {
 			IOUtils.closeQuietly(zos);
 		}
 	}
 
-	/**
-	 * Write a single batch of rows as a new sub-file in the zip stream.
-	 * 
-	 * @param backupAliasType
-	 * @param zos
-	 * @param currentType
-	 * @param index
-	 * @param currentBatch
-	 * @throws IOException
-	 * @throws UnsupportedEncodingException
-	 */
-	public<D extends DatabaseObject<D>, B> void writeBatchToZip(ZipOutputStream zos, List<MigratableDatabaseObject<?,?>> currentBatch, int index, MigrationType currentType,
-			BackupAliasType backupAliasType) throws IOException {
-		if(currentType != null && currentBatch != null && !currentBatch.isEmpty()) {
-			// Write the current batch as a sub-file to the zip
-			String fileName = createFileName(currentType, index);
-			ZipEntry entry = new ZipEntry(fileName);
-			zos.putNextEntry(entry);
-			Writer zipWriter = new OutputStreamWriter(zos, UTF_8);
-
-			writeBatchToStream(currentBatch, currentType, backupAliasType, zipWriter);
-		}
-	}
-
-	/**
-	 * Write the given batch of object to the passed writer
-	 * @param currentBatch
-	 * @param currentType
-	 * @param backupAliasType
-	 * @param writter
-	 * @throws IOException
-	 */
-	<D extends DatabaseObject<D>, B> void writeBatchToStream(List<MigratableDatabaseObject<?, ?>> currentBatch,
-			MigrationType currentType, BackupAliasType backupAliasType, Writer writer) throws IOException {
-		MigratableDatabaseObject<D, B> mdo = typeProvider.getObjectForType(currentType);
-		MigratableTableTranslation<D, B> translator = getCachedTranslator(mdo);
-		
-		// translate to the backup objects
-		List<B> backupObjects = new LinkedList<>();
-		for(MigratableDatabaseObject<?,?> migrationOjbect: currentBatch) {
-			B backupObject = translator.createBackupFromDatabaseObject((D) migrationOjbect);
-			backupObjects.add(backupObject);
-		}
-
-		typeProvider.writeObjects(backupObjects, writer);
-		writer.flush();
-	}
-
 	/**
 	 * Get the cached translator for the given database object.
 	 * @param <D>
@@ -255,42 +208,45 @@ public class BackupFileStreamImpl implements BackupFileStream {
 	}
 
 	/**
-	 * Read a batch of rows from the ZipInputStream.  If an empty list is returned then there is no
-	 * more data within the zip.
+	 * Read the rows of the next file from the ZipInputStream. The rows of a JSON
+	 * Lines file are read lazily as the returned iterator is consumed, so the
+	 * iterator must be exhausted before the next file is read.
+	 * 
 	 * @param zipStream
 	 * @param backupAliasType
-	 * @return Will return the contents of the next file in the zip.  An empty list will be returned if 
-	 * no more data could be read from the stream.
+	 * @return Will return the rows of the next file in the zip that contains data.
+	 *         An empty iterator will be returned if no more data could be read from
+	 *         the stream.
 	 */
-	public <D extends DatabaseObject<D>, B> List<MigratableDatabaseObject<?,?>> readBatchFromZip(ZipInputStream zipStream, BackupAliasType backupAliasType) {
+	public Iterator<MigratableDatabaseObject<?,?>> readNextFileFromZip(ZipInputStream zipStream, BackupAliasType backupAliasType) {
 		try {
 			// Keep reading files until new data is found.
 			ZipEntry entry;
 			while ((entry = zipStream.getNextEntry()) != null) {
 				// Read the zip entry.
-				Optional<List<MigratableDatabaseObject<?, ?>>> result = readFileFromStream(zipStream, backupAliasType,
+				Optional<Iterator<MigratableDatabaseObject<?, ?>>> result = readFileFromStream(zipStream, backupAliasType,
 						entry.getName());
-				if (result.isEmpty()) {
-					continue;
-				} else {
+				if (result.isPresent() && result.get().hasNext()) {
 					return result.get();
 				}
 			}
 			// No new data was found in the zip
-			return new LinkedList<>();
+			return Collections.emptyIterator();
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}		
 	}
 	
 	/**
-	 * Read all of the data from a single file.
+	 * Read the data from a single file. JSON Lines files are read lazily, one row
+	 * at a time, while legacy JSON and XML files are read in full.
+	 * 
 	 * @param input
 	 * @param backupAliasType
 	 * @param fileName
 	 * @return
 	 */
-	<D extends DatabaseObject<D>, B> Optional<List<MigratableDatabaseObject<?, ?>>> readFileFromStream(InputStream input,
+	<D extends DatabaseObject<D>, B> Optional<Iterator<MigratableDatabaseObject<?, ?>>> readFileFromStream(InputStream input,
 			BackupAliasType backupAliasType, String fileName) {
 		MigrationType type;
 		try {
@@ -304,18 +260,21 @@ public class BackupFileStreamImpl implements BackupFileStream {
 		MigratableDatabaseObject<D, B> mdo = typeProvider.getObjectForType(type);
 		MigratableTableTranslation<D, B> translator = getCachedTranslator(mdo);
 
-		Optional<List<B>> backupObjects = typeProvider.readObjects(mdo.getBackupClass(), backupAliasType, input,
-				MigrationFileType.fromFileName(fileName));
-		if (backupObjects.isEmpty()) {
-			return Optional.empty();
-		}
-		// Translate the results
-		List<MigratableDatabaseObject<?, ?>> translated = new LinkedList<>();
-		for (B backupObject : backupObjects.get()) {
-			D databaseObject = translator.createDatabaseObjectFromBackup(backupObject);
-			translated.add((MigratableDatabaseObject<?, ?>) databaseObject);
+		MigrationFileType fileType = MigrationFileType.fromFileName(fileName);
+		Iterator<B> backupObjects;
+		if (MigrationFileType.JSONL.equals(fileType)) {
+			backupObjects = typeProvider.readObjectStream(mdo.getBackupClass(), input);
+		} else {
+			Optional<List<B>> allBackupObjects = typeProvider.readObjects(mdo.getBackupClass(), backupAliasType, input,
+					fileType);
+			if (allBackupObjects.isEmpty()) {
+				return Optional.empty();
+			}
+			backupObjects = allBackupObjects.get().iterator();
 		}
-		return Optional.of(translated);
+		// Translate the results as they are read
+		return Optional.of(Iterators.transform(backupObjects,
+				(backupObject) -> (MigratableDatabaseObject<?, ?>) translator.createDatabaseObjectFromBackup(backupObject)));
 	}
 
 
@@ -15,6 +15,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -84,6 +85,15 @@ public class MigrationManagerImpl implements MigrationManager {
 	public static String backupBucket = StackConfigurationSingleton.singleton().getSharedS3BackupBucket();
 	public static String stack = StackConfigurationSingleton.singleton().getStack();
 	public static String instance = StackConfigurationSingleton.singleton().getStackInstance();
+	/**
+	 * The number of decoded rows handed from the restore read ahead thread to the
+	 * writer at a time.
+	 */
+	public static final int RESTORE_READ_AHEAD_CHUNK_SIZE = 100;
+	/**
+	 * The maximum number of chunks decoded ahead of the writer during a restore.
+	 */
+	public static final int RESTORE_READ_AHEAD_MAX_CHUNKS = 10;
 	
 	private MigratableTableDAO migratableTableDao;
 	private StackStatusDao stackStatusDao;
@@ -91,6 +101,7 @@ public class MigrationManagerImpl implements MigrationManager {
 	private SynapseS3Client s3Client;
 	private FileProvider fileProvider;
 	private JdbcTemplate jdbcTemplate;
+	private ExecutorService cachedThreadPool;
 
 	/**
 	 * The list of migration listeners
@@ -103,7 +114,7 @@ public class MigrationManagerImpl implements MigrationManager {
 	static Set<MigrationType> PRINCIPAL_TYPES;
 	
 	@Autowired
-	public MigrationManagerImpl(MigratableTableDAO migratableTableDao, @Qualifier("migrationJdbcTemplate") JdbcTemplate jdbcTemplate, StackStatusDao stackStatusDao, BackupFileStream backupFileStream, SynapseS3Client s3Client, FileProvider fileProvider, List<? extends MigrationTypeListener> migrationListeners) {
+	public MigrationManagerImpl(MigratableTableDAO migratableTableDao, @Qualifier("migrationJdbcTemplate") JdbcTemplate jdbcTemplate, StackStatusDao stackStatusDao, BackupFileStream backupFileStream, SynapseS3Client s3Client, FileProvider fileProvider, List<? extends MigrationTypeListener> migrationListeners, ExecutorService cachedThreadPool) {
 		this.migratableTableDao = migratableTableDao;
 		this.jdbcTemplate = jdbcTemplate;
 		this.stackStatusDao = stackStatusDao;
@@ -111,6 +122,7 @@ public class MigrationManagerImpl implements MigrationManager {
 		this.s3Client = s3Client;
 		this.fileProvider = fileProvider;
 		this.migrationListeners = migrationListeners;
+		this.cachedThreadPool = cachedThreadPool;
 	}
 	
 	/**
@@ -592,6 +604,11 @@ public class MigrationManagerImpl implements MigrationManager {
 	 * it should not be annotated with a transaction.  Instead, each batch added to the table
 	 * will is done so in a separate transaction.
 	 * 
+	 * The backup file is read and decoded on a separate thread that runs ahead of
+	 * the writes, so decoding overlaps with the database inserts. The writes
+	 * themselves remain on the calling thread as they must all occur within the
+	 * transaction of the caller.
+	 * 
 	 * @param fis
 	 * @param migrationType
 	 * @param aliasType
@@ -614,22 +631,26 @@ public class MigrationManagerImpl implements MigrationManager {
 		// Start reading the stream.
 		Iterable<MigratableDatabaseObject<?,?>> iterable = this.backupFileStream.readBackupFile(input, manifest.getAliasType());
 		MigrationType currentType = MigrationType.valueOf(manifest.getPrimaryType().getMigrationType());
-		List<DatabaseObject<?>> currentBatch = new LinkedList<>();
-		for(MigratableDatabaseObject<?,?> rowToRestore: iterable) {
-			MigrationType rowType = rowToRestore.getMigratableTableType();
-			if(!this.migratableTableDao.isMigrationTypeRegistered(rowType.name())) {
-				// ignore types that are not registered.
-				continue;
-			}
-			
-			// If over the batch size or a type switch push the current batch.
-			if(currentBatch.size() >= manifest.getBatchSize() || !rowType.equals(currentType)) {
-				restoreBatch(currentType, currentBatch);
-				currentBatch = new LinkedList<>();
+		List<DatabaseObject<?>> currentBatch = new ArrayList<>();
+		try (ReadAheadIterator<MigratableDatabaseObject<?, ?>> rows = new ReadAheadIterator<>(cachedThreadPool,
+				iterable.iterator(), RESTORE_READ_AHEAD_CHUNK_SIZE, RESTORE_READ_AHEAD_MAX_CHUNKS)) {
+			while (rows.hasNext()) {
+				MigratableDatabaseObject<?, ?> rowToRestore = rows.next();
+				MigrationType rowType = rowToRestore.getMigratableTableType();
+				if(!this.migratableTableDao.isMigrationTypeRegistered(rowType.name())) {
+					// ignore types that are not registered.
+					continue;
+				}
+				
+				// If over the batch size or a type switch push the current batch.
+				if(currentBatch.size() >= manifest.getBatchSize() || !rowType.equals(currentType)) {
+					restoreBatch(currentType, currentBatch);
+					currentBatch = new ArrayList<>();
+				}
+				currentType = rowType;
+				currentBatch.add(rowToRestore);
+				rowCount++;
 			}
-			currentType = rowType;
-			currentBatch.add(rowToRestore);
-			rowCount++;
 		}
 		// push the remaining rows
 		restoreBatch(currentType, currentBatch);
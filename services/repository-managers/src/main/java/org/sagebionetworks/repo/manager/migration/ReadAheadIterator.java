@@ -0,0 +1,184 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * An Iterator that reads ahead of its consumer. The source iterator is consumed
+ * on a separate thread and its elements are handed to the consumer in chunks
+ * through a bounded queue. This allows the work done by the source (for
+ * example, reading and decoding a backup file) to overlap with the work done by
+ * the consumer (for example, writing the rows to the database). At most
+ * 'maxChunks' chunks are held in the queue, so the memory used is bounded.
+ * <p>
+ * Note: {@link #close()} must be called once the consumer is done, to stop the
+ * read ahead thread before the resources of the source are released.
+ *
+ * @param <T>
+ */
+public class ReadAheadIterator<T> implements Iterator<T>, AutoCloseable {
+
+	static final long QUEUE_TIMEOUT_MS = 100L;
+
+	private final BlockingQueue<Chunk<T>> queue;
+	private final AtomicBoolean closed;
+	private final CompletableFuture<Void> producer;
+
+	private Iterator<T> currentChunk;
+	private boolean done;
+
+	/**
+	 *
+	 * @param executor  Runs the thread that reads from the source.
+	 * @param source    The elements to read ahead.
+	 * @param chunkSize The number of elements passed to the consumer at a time.
+	 * @param maxChunks The maximum number of chunks read ahead of the consumer.
+	 */
+	public ReadAheadIterator(Executor executor, Iterator<T> source, int chunkSize, int maxChunks) {
+		ValidateArgument.required(executor, "executor");
+		ValidateArgument.required(source, "source");
+		ValidateArgument.requirement(chunkSize > 0, "chunkSize must be greater than zero.");
+		ValidateArgument.requirement(maxChunks > 0, "maxChunks must be greater than zero.");
+		this.queue = new ArrayBlockingQueue<>(maxChunks);
+		this.closed = new AtomicBoolean(false);
+		this.currentChunk = Collections.emptyIterator();
+		this.done = false;
+		this.producer = CompletableFuture.runAsync(() -> readAhead(source, chunkSize), executor);
+	}
+
+	/**
+	 * Read all of the elements from the source, one chunk at a time. The end of
+	 * the source, or any failure, is passed to the consumer as a final chunk.
+	 *
+	 * @param source
+	 * @param chunkSize
+	 */
+	void readAhead(Iterator<T> source, int chunkSize) {
+		try {
+			List<T> elements = new ArrayList<>(chunkSize);
+			while (source.hasNext()) {
+				elements.add(source.next());
+				if (elements.size() >= chunkSize) {
+					if (!put(new Chunk<>(elements, null))) {
+						return;
+					}
+					elements = new ArrayList<>(chunkSize);
+				}
+			}
+			if (!elements.isEmpty() && !put(new Chunk<>(elements, null))) {
+				return;
+			}
+			put(new Chunk<>(null, null));
+		} catch (RuntimeException e) {
+			put(new Chunk<>(null, e));
+		}
+	}
+
+	/**
+	 * Wait for space in the queue to add the given chunk.
+	 *
+	 * @param chunk
+	 * @return False if this iterator was closed before the chunk could be added.
+	 */
+	boolean put(Chunk<T> chunk) {
+		try {
+			while (!closed.get()) {
+				if (queue.offer(chunk, QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!currentChunk.hasNext()) {
+			if (done) {
+				return false;
+			}
+			Chunk<T> chunk = take();
+			if (chunk.failure != null) {
+				done = true;
+				throw chunk.failure;
+			}
+			if (chunk.elements == null) {
+				done = true;
+				return false;
+			}
+			currentChunk = chunk.elements.iterator();
+		}
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentChunk.next();
+	}
+
+	/**
+	 * Wait for the next chunk from the read ahead thread.
+	 *
+	 * @return
+	 */
+	Chunk<T> take() {
+		try {
+			while (true) {
+				Chunk<T> chunk = queue.poll(QUEUE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+				if (chunk != null) {
+					return chunk;
+				}
+				if (producer.isDone() && queue.isEmpty()) {
+					throw new IllegalStateException("The read ahead stopped before the end of the source was reached");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Stop the read ahead thread and wait for it to terminate. Any elements that
+	 * have not been consumed are discarded.
+	 */
+	@Override
+	public void close() {
+		closed.set(true);
+		queue.clear();
+		producer.join();
+	}
+
+	/**
+	 * A chunk of elements read from the source. The last chunk has no elements
+	 * and will include the failure, if any.
+	 */
+	static class Chunk<T> {
+
+		private final List<T> elements;
+		private final RuntimeException failure;
+
+		Chunk(List<T> elements, RuntimeException failure) {
+			this.elements = elements;
+			this.failure = failure;
+		}
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.sagebionetworks.repo.manager.monitoring;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.kinesis.AwsKinesisFirehoseLogger;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+/**
+ * Publishes the queue depth and last delivery latency of each stream buffered
+ * by {@link AwsKinesisFirehoseLogger#logBatchAsync(String, List)} in this JVM,
+ * along with the number of overflowed calls and failed records. The overflow
+ * and failed counts of each call to {@link #collectMetrics()} are the counts
+ * since the previous call.
+ */
+public class FirehoseLoggerMonitor {
+
+	private final AwsKinesisFirehoseLogger firehoseLogger;
+	private final Consumer consumer;
+	private final String namespace;
+
+	private final Map<String, Long> lastOverflowCounts;
+	private final Map<String, Long> lastFailedCounts;
+
+	public FirehoseLoggerMonitor(ApplicationType applicationType, AwsKinesisFirehoseLogger firehoseLogger,
+			Consumer consumer, StackConfiguration config) {
+		this.firehoseLogger = firehoseLogger;
+		this.consumer = consumer;
+		this.namespace = String.format("%s-Firehose-%s", StringUtils.capitalize(applicationType.name()),
+				config.getStackInstance());
+		this.lastOverflowCounts = new HashMap<>();
+		this.lastFailedCounts = new HashMap<>();
+	}
+
+	public void collectMetrics() {
+		List<ProfileData> data = new ArrayList<>();
+
+		firehoseLogger.getAsyncStreamSuffixes().stream().sorted().forEach(stream -> {
+			long currentOverflowCount = firehoseLogger.getOverflowCount(stream);
+			Long lastOverflowCount = lastOverflowCounts.put(stream, currentOverflowCount);
+			long currentFailedCount = firehoseLogger.getFailedCount(stream);
+			Long lastFailedCount = lastFailedCounts.put(stream, currentFailedCount);
+
+			data.add(createProfileData(stream, "queueDepth", firehoseLogger.getQueueDepth(stream), StandardUnit.Count));
+			data.add(createProfileData(stream, "lastDeliveryLatency", firehoseLogger.getLastDeliveryLatencyMs(stream),
+					StandardUnit.Milliseconds));
+			data.add(createProfileData(stream, "overflowCount",
+					currentOverflowCount - (lastOverflowCount == null ? 0L : lastOverflowCount), StandardUnit.Count));
+			data.add(createProfileData(stream, "failedCount",
+					currentFailedCount - (lastFailedCount == null ? 0L : lastFailedCount), StandardUnit.Count));
+		});
+
+		if (!data.isEmpty()) {
+			consumer.addProfileData(data);
+		}
+	}
+
+	private ProfileData createProfileData(String stream, String name, long value, StandardUnit unit) {
+		return new ProfileData()
+			.setNamespace(namespace)
+			.setName(name)
+			.setValue(Double.valueOf(value))
+			.setUnit(unit.name())
+			.setDimension(Map.of("stream", stream));
+	}
+
+}
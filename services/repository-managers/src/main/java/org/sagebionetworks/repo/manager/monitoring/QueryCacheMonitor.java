@@ -0,0 +1,74 @@
+package org.sagebionetworks.repo.manager.monitoring;
+
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.repo.manager.table.QueryCacheManager;
+import org.sagebionetworks.repo.manager.table.TableQueryManager;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Publishes the hit, miss and eviction counts of the local query results cache
+ * of this JVM, along with the number of callers that waited on an identical
+ * query that was already running and the hit and miss counts of the query
+ * translations cache. Each call to {@link #collectMetrics()} publishes the
+ * counts since the previous call.
+ */
+public class QueryCacheMonitor {
+
+	private final QueryCacheManager queryCacheManager;
+	private final TableQueryManager tableQueryManager;
+	private final Consumer consumer;
+	private final String namespace;
+
+	private CacheStats lastStats;
+	private CacheStats lastTranslationsStats;
+	private long lastCoalescedWaiterCount;
+
+	public QueryCacheMonitor(ApplicationType applicationType, QueryCacheManager queryCacheManager,
+			TableQueryManager tableQueryManager, Consumer consumer, StackConfiguration config) {
+		this.queryCacheManager = queryCacheManager;
+		this.tableQueryManager = tableQueryManager;
+		this.consumer = consumer;
+		this.namespace = String.format("%s-QueryCache-%s", StringUtils.capitalize(applicationType.name()),
+				config.getStackInstance());
+		this.lastStats = new CacheStats(0, 0, 0, 0, 0, 0);
+		this.lastTranslationsStats = new CacheStats(0, 0, 0, 0, 0, 0);
+		this.lastCoalescedWaiterCount = 0L;
+	}
+
+	public void collectMetrics() {
+		CacheStats currentStats = queryCacheManager.getLocalCacheStats();
+		CacheStats delta = currentStats.minus(lastStats);
+		lastStats = currentStats;
+		long currentCoalescedWaiterCount = queryCacheManager.getCoalescedWaiterCount();
+		long coalescedWaiterDelta = currentCoalescedWaiterCount - lastCoalescedWaiterCount;
+		lastCoalescedWaiterCount = currentCoalescedWaiterCount;
+		CacheStats currentTranslationsStats = tableQueryManager.getTranslationsCacheStats();
+		CacheStats translationsDelta = currentTranslationsStats.minus(lastTranslationsStats);
+		lastTranslationsStats = currentTranslationsStats;
+
+		consumer.addProfileData(List.of(
+			createProfileData("localHitCount", delta.hitCount()),
+			createProfileData("localMissCount", delta.missCount()),
+			createProfileData("localEvictionCount", delta.evictionCount()),
+			createProfileData("coalescedWaiterCount", coalescedWaiterDelta),
+			createProfileData("translationsHitCount", translationsDelta.hitCount()),
+			createProfileData("translationsMissCount", translationsDelta.missCount())
+		));
+	}
+
+	private ProfileData createProfileData(String name, long value) {
+		return new ProfileData()
+			.setNamespace(namespace)
+			.setName(name)
+			.setValue(Double.valueOf(value))
+			.setUnit(StandardUnit.Count.name());
+	}
+
+}
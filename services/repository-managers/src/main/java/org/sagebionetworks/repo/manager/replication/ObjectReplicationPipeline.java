@@ -0,0 +1,164 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.sagebionetworks.repo.model.table.ObjectDataDTO;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Replicates the object data of a group of IDs split into sub-batches. The
+ * data of the next sub-batches is read from the repository database on the
+ * executor while the current sub-batch is written to the index. All writes
+ * happen on the calling thread in the order of the sub-batches, so concurrent
+ * index transactions never compete for the locks of the same replication rows.
+ * At most 'maxReadAhead' sub-batches are read ahead of the sub-batch being
+ * written, which bounds both the number of threads used and the object data
+ * held in memory.
+ * <p>
+ * Each instance collects the throughput of the read and write stages of a
+ * single {@link #run(List, Function, Consumer)}.
+ *
+ */
+public class ObjectReplicationPipeline {
+
+	private final Executor executor;
+	private final int maxReadAhead;
+
+	private final AtomicLong readCount;
+	private final AtomicLong readNanos;
+	private final AtomicLong writeCount;
+	private final AtomicLong writeNanos;
+
+	/**
+	 *
+	 * @param executor     Reads the sub-batches.
+	 * @param maxReadAhead The maximum number of sub-batches read ahead of the
+	 *                     sub-batch being written.
+	 */
+	public ObjectReplicationPipeline(Executor executor, int maxReadAhead) {
+		ValidateArgument.required(executor, "executor");
+		ValidateArgument.requirement(maxReadAhead > 0, "maxReadAhead must be greater than zero.");
+		this.executor = executor;
+		this.maxReadAhead = maxReadAhead;
+		this.readCount = new AtomicLong();
+		this.readNanos = new AtomicLong();
+		this.writeCount = new AtomicLong();
+		this.writeNanos = new AtomicLong();
+	}
+
+	/**
+	 * Read and write the object data of each sub-batch. A single sub-batch is
+	 * processed entirely on the calling thread. Once any sub-batch fails no new
+	 * sub-batches are read, and the failure is thrown after the reads that were
+	 * already started complete.
+	 *
+	 * @param subBatches The IDs of each sub-batch.
+	 * @param reader     Reads the object data for the IDs of a sub-batch.
+	 * @param writer     Writes the object data of a sub-batch.
+	 */
+	public void run(List<List<Long>> subBatches, Function<List<Long>, List<ObjectDataDTO>> reader,
+			Consumer<List<ObjectDataDTO>> writer) {
+		ValidateArgument.required(subBatches, "subBatches");
+		ValidateArgument.required(reader, "reader");
+		ValidateArgument.required(writer, "writer");
+		if (subBatches.size() == 1) {
+			write(writer, read(reader, subBatches.get(0)));
+			return;
+		}
+		Iterator<List<Long>> iterator = subBatches.iterator();
+		Deque<CompletableFuture<List<ObjectDataDTO>>> reads = new ArrayDeque<>(maxReadAhead);
+		try {
+			while (iterator.hasNext() && reads.size() < maxReadAhead) {
+				reads.add(startRead(reader, iterator.next()));
+			}
+			while (!reads.isEmpty()) {
+				List<ObjectDataDTO> data = join(reads.poll());
+				// The next sub-batch is read while this one is written
+				if (iterator.hasNext()) {
+					reads.add(startRead(reader, iterator.next()));
+				}
+				write(writer, data);
+			}
+		} finally {
+			reads.forEach(ObjectReplicationPipeline::awaitQuietly);
+		}
+	}
+
+	CompletableFuture<List<ObjectDataDTO>> startRead(Function<List<Long>, List<ObjectDataDTO>> reader, List<Long> ids) {
+		return CompletableFuture.supplyAsync(() -> read(reader, ids), executor);
+	}
+
+	List<ObjectDataDTO> read(Function<List<Long>, List<ObjectDataDTO>> reader, List<Long> ids) {
+		long start = System.nanoTime();
+		List<ObjectDataDTO> data = reader.apply(ids);
+		readNanos.addAndGet(System.nanoTime() - start);
+		readCount.addAndGet(data.size());
+		return data;
+	}
+
+	void write(Consumer<List<ObjectDataDTO>> writer, List<ObjectDataDTO> data) {
+		long start = System.nanoTime();
+		writer.accept(data);
+		writeNanos.addAndGet(System.nanoTime() - start);
+		writeCount.addAndGet(data.size());
+	}
+
+	static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Wait for the given future to complete, ignoring its result or failure.
+	 * 
+	 * @param future
+	 */
+	static void awaitQuietly(CompletableFuture<?> future) {
+		future.handle((result, exception) -> null).join();
+	}
+
+	/**
+	 * @return The number of objects read from the repository database.
+	 */
+	public long getReadCount() {
+		return readCount.get();
+	}
+
+	/**
+	 * @return The total time spent reading, summed over all sub-batches.
+	 */
+	public long getReadMS() {
+		return TimeUnit.NANOSECONDS.toMillis(readNanos.get());
+	}
+
+	/**
+	 * @return The number of objects written to the index.
+	 */
+	public long getWriteCount() {
+		return writeCount.get();
+	}
+
+	/**
+	 * @return The total time spent writing, summed over all sub-batches.
+	 */
+	public long getWriteMS() {
+		return TimeUnit.NANOSECONDS.toMillis(writeNanos.get());
+	}
+
+}
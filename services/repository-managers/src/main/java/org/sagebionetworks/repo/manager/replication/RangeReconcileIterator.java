@@ -0,0 +1,143 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.util.ValidateArgument;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * An Iterator to find changes between 'truth' and 'replication' that only
+ * compares individual objects within the ranges of IDs that differ.
+ * <p>
+ * The IDs are divided into ranges of a fixed size. For each range, the
+ * aggregated checksum from truth is compared to the aggregated checksum of the
+ * same range from replication. Only when a range does not match are the truth
+ * and replication streams for that range read and compared ID-by-ID using a
+ * {@link ReconcileIterator}. For a view that is mostly in-sync, this avoids
+ * reading each object from either side.
+ * <p>
+ * Note: The truth and replication ranges are expected to be ordered by range
+ * index ascending.
+ *
+ */
+public class RangeReconcileIterator implements Iterator<ChangeMessage> {
+
+	private final ObjectType objectType;
+	private final long rangeSize;
+	private final PeekingIterator<IdRangeChecksum> truthRanges;
+	private final PeekingIterator<IdRangeChecksum> replicationRanges;
+	private final BiFunction<Long, Long, Iterator<IdAndChecksum>> truthRangeStreamProvider;
+	private final BiFunction<Long, Long, Iterator<IdAndChecksum>> replicationRangeStreamProvider;
+
+	private Iterator<ChangeMessage> currentRange;
+	private long rangeCount;
+	private long mismatchedRangeCount;
+
+	/**
+	 *
+	 * @param objectType                     The type of the change messages.
+	 * @param rangeSize                      The number of IDs covered by each
+	 *                                       range.
+	 * @param truthRanges                    The aggregated checksum of each
+	 *                                       non-empty truth range ordered by
+	 *                                       range index.
+	 * @param replicationRanges              The aggregated checksum of each
+	 *                                       non-empty replication range ordered
+	 *                                       by range index.
+	 * @param truthRangeStreamProvider       Provides the truth stream for the
+	 *                                       IDs in the range [minId, maxId).
+	 * @param replicationRangeStreamProvider Provides the replication stream for
+	 *                                       the IDs in the range [minId, maxId).
+	 */
+	public RangeReconcileIterator(ObjectType objectType, long rangeSize, Iterator<IdRangeChecksum> truthRanges,
+			Iterator<IdRangeChecksum> replicationRanges,
+			BiFunction<Long, Long, Iterator<IdAndChecksum>> truthRangeStreamProvider,
+			BiFunction<Long, Long, Iterator<IdAndChecksum>> replicationRangeStreamProvider) {
+		ValidateArgument.required(objectType, "objectType");
+		ValidateArgument.requirement(rangeSize > 0, "rangeSize must be greater than zero.");
+		ValidateArgument.required(truthRanges, "truthRanges");
+		ValidateArgument.required(replicationRanges, "replicationRanges");
+		ValidateArgument.required(truthRangeStreamProvider, "truthRangeStreamProvider");
+		ValidateArgument.required(replicationRangeStreamProvider, "replicationRangeStreamProvider");
+		this.objectType = objectType;
+		this.rangeSize = rangeSize;
+		this.truthRanges = Iterators.peekingIterator(truthRanges);
+		this.replicationRanges = Iterators.peekingIterator(replicationRanges);
+		this.truthRangeStreamProvider = truthRangeStreamProvider;
+		this.replicationRangeStreamProvider = replicationRangeStreamProvider;
+		this.currentRange = Collections.emptyIterator();
+		this.rangeCount = 0L;
+		this.mismatchedRangeCount = 0L;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!currentRange.hasNext()) {
+			if (!truthRanges.hasNext() && !replicationRanges.hasNext()) {
+				return false;
+			}
+			currentRange = reconcileNextRange();
+		}
+		return true;
+	}
+
+	@Override
+	public ChangeMessage next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentRange.next();
+	}
+
+	/**
+	 * @return The number of ranges compared so far.
+	 */
+	public long getRangeCount() {
+		return rangeCount;
+	}
+
+	/**
+	 * @return The number of ranges that did not match so far.
+	 */
+	public long getMismatchedRangeCount() {
+		return mismatchedRangeCount;
+	}
+
+	/**
+	 * Compare the next range that exists in either truth or replication.
+	 *
+	 * @return The changes for the range. Empty if the range matches.
+	 */
+	private Iterator<ChangeMessage> reconcileNextRange() {
+		long truthIndex = truthRanges.hasNext() ? truthRanges.peek().getRangeIndex() : Long.MAX_VALUE;
+		long replicationIndex = replicationRanges.hasNext() ? replicationRanges.peek().getRangeIndex() : Long.MAX_VALUE;
+		long rangeIndex = Math.min(truthIndex, replicationIndex);
+
+		IdRangeChecksum truthRange = truthIndex == rangeIndex ? truthRanges.next() : null;
+		IdRangeChecksum replicationRange = replicationIndex == rangeIndex ? replicationRanges.next() : null;
+
+		rangeCount++;
+		if (Objects.equals(truthRange, replicationRange)) {
+			return Collections.emptyIterator();
+		}
+		mismatchedRangeCount++;
+		long minId = rangeIndex * rangeSize;
+		long maxId = minId + rangeSize;
+		Iterator<IdAndChecksum> truthInRange = truthRange == null ? Collections.emptyIterator()
+				: truthRangeStreamProvider.apply(minId, maxId);
+		Iterator<IdAndChecksum> replicationInRange = replicationRange == null ? Collections.emptyIterator()
+				: replicationRangeStreamProvider.apply(minId, maxId);
+		return new ReconcileIterator(objectType, truthInRange, replicationInRange);
+	}
+
+}
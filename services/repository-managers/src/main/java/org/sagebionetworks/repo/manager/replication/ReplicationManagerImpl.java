@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.Logger;
@@ -19,6 +20,7 @@ import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFact
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProvider;
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProviderFactory;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
@@ -39,6 +41,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionStatus;
 
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 @Service
@@ -50,6 +53,23 @@ public class ReplicationManagerImpl implements ReplicationManager {
 	
 	public static final int MAX_MESSAGE_PAGE_SIZE = 1000;
 	
+	/**
+	 * The number of IDs covered by each range when comparing the aggregated
+	 * checksums of truth and replication.
+	 */
+	public static final long RECONCILE_ID_RANGE_SIZE = 10_000L;
+	
+	/**
+	 * The maximum number of object IDs replicated by a single sub-batch.
+	 */
+	public static final int REPLICATION_SUB_BATCH_SIZE = 100;
+	
+	/**
+	 * The maximum number of sub-batches of a single group read ahead of the
+	 * sub-batch being written to the index.
+	 */
+	public static final int MAX_REPLICATION_SUB_BATCHES_READ_AHEAD = 2;
+	
 	final private ObjectDataProviderFactory objectDataProviderFactory;
 	final private MetadataIndexProviderFactory indexProviderFactory;
 
@@ -60,6 +80,8 @@ public class ReplicationManagerImpl implements ReplicationManager {
 	final private TableIndexConnectionFactory indexConnectionFactory;
 	
 	final private Random random;
+	
+	final private ExecutorService cachedThreadPool;
 
 	@Autowired
 	public ReplicationManagerImpl(
@@ -68,7 +90,8 @@ public class ReplicationManagerImpl implements ReplicationManager {
 			ReplicationMessageManager replicationMessageManager, 
 			TableIndexConnectionFactory indexConnectionFactory,
 			MetadataIndexProviderFactory indexProviderFactory, LoggerProvider logProvider,
-			Random random) {
+			Random random,
+			ExecutorService cachedThreadPool) {
 		this.objectDataProviderFactory = objectDataProviderFactory;
 		this.tableManagerSupport = tableManagerSupport;
 		this.replicationMessageManager = replicationMessageManager;
@@ -76,6 +99,7 @@ public class ReplicationManagerImpl implements ReplicationManager {
 		this.indexProviderFactory = indexProviderFactory;
 		this.log = logProvider.getLogger(ReplicationManagerImpl.class.getName());
 		this.random = random;
+		this.cachedThreadPool = cachedThreadPool;
 	}
 
 	/**
@@ -97,12 +121,13 @@ public class ReplicationManagerImpl implements ReplicationManager {
 	}
 
 	/**
-	 * Update the replication tables within a single transaction that removes rows to be deleted
-	 * and creates or updates rows from the provided group.
+	 * Update the replication tables by removing the rows to be deleted and then
+	 * creating or updating the rows from the provided group. Large groups are
+	 * split into sub-batches of {@link #REPLICATION_SUB_BATCH_SIZE} objects. The
+	 * object data of the next sub-batches is read while the current sub-batch is
+	 * written, the index writes are done one at a time in order.
 	 * 
-	 * @param replicationType
-	 * @param toDelete
-	 * @param objectData
+	 * @param group
 	 */
 	void updateReplicationTables(ReplicationDataGroup group) {
 		TableIndexManager indexManager = indexConnectionFactory.connectToFirstIndex();
@@ -110,10 +135,19 @@ public class ReplicationManagerImpl implements ReplicationManager {
 		indexManager.deleteObjectData(group.getObjectType(), group.getToDeleteIds());
 		
 		ObjectDataProvider provider = objectDataProviderFactory.getObjectDataProvider(group.getObjectType());
-		Iterator<ObjectDataDTO> objectData = provider.getObjectData(group.getCreateOrUpdateIds(),
-				MAX_ANNOTATION_CHARS);
-		
-		indexManager.updateObjectReplication(group.getObjectType(), objectData);
+		List<List<Long>> subBatches = Lists.partition(group.getCreateOrUpdateIds(), REPLICATION_SUB_BATCH_SIZE);
+		if (subBatches.isEmpty()) {
+			return;
+		}
+		ObjectReplicationPipeline pipeline = new ObjectReplicationPipeline(cachedThreadPool,
+				MAX_REPLICATION_SUB_BATCHES_READ_AHEAD);
+		pipeline.run(subBatches,
+				(ids) -> Lists.newArrayList(provider.getObjectData(ids, MAX_ANNOTATION_CHARS)),
+				(objectData) -> indexManager.updateObjectReplication(group.getObjectType(), objectData.iterator()));
+		log.info(String.format(
+				"Replicated %d %s objects in %d sub-batches. Read: %d objects in %d ms. Write: %d objects in %d ms.",
+				group.getCreateOrUpdateIds().size(), group.getObjectType(), subBatches.size(), pipeline.getReadCount(),
+				pipeline.getReadMS(), pipeline.getWriteCount(), pipeline.getWriteMS()));
 	}
 
 	/**
@@ -270,41 +304,78 @@ public class ReplicationManagerImpl implements ReplicationManager {
 	}
 
 	/**
-	 * Create a stream of 'truth' IdAndChecksum from the provided filter.
+	 * Get the aggregated 'truth' checksum of each range of IDs from the provided
+	 * filter.
 	 * 
+	 * @param salt
 	 * @param filter
+	 * @param rangeSize
+	 * @return
+	 */
+	List<IdRangeChecksum> createTruthRanges(Long salt, ViewFilter filter, Long rangeSize) {
+		ValidateArgument.required(salt, "salt");
+		ValidateArgument.required(filter, "filter");
+		ValidateArgument.required(rangeSize, "rangeSize");
+		ObjectDataProvider provider = objectDataProviderFactory.getObjectDataProvider(filter.getReplicationType());
+		if (filter instanceof HierarchicaFilter) {
+			HierarchicaFilter hierarchy = (HierarchicaFilter) filter;
+			return provider.getIdRangeChecksumsForChildren(salt, hierarchy.getParentIds(), filter.getSubTypes(),
+					rangeSize);
+		} else if (filter instanceof IdAndVersionFilter) {
+			IdAndVersionFilter flat = (IdAndVersionFilter) filter;
+			return provider.getIdRangeChecksumsForObjects(salt, flat.getObjectIds(), rangeSize);
+		} else {
+			throw new IllegalStateException("Unknown filter types: " + filter.getClass().getName());
+		}
+	}
+
+	/**
+	 * Create a stream of 'truth' IdAndChecksum from the provided filter for the
+	 * IDs in the range [minId, maxId).
+	 * 
 	 * @param salt
+	 * @param filter
+	 * @param minId  Inclusive
+	 * @param maxId  Exclusive
 	 * @return
 	 */
-	Iterator<IdAndChecksum> createTruthStream(Long salt, ViewFilter filter) {
+	Iterator<IdAndChecksum> createTruthStream(Long salt, ViewFilter filter, Long minId, Long maxId) {
 		ValidateArgument.required(salt, "salt");
 		ValidateArgument.required(filter, "filter");
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
 		ObjectDataProvider provider = objectDataProviderFactory.getObjectDataProvider(filter.getReplicationType());
 		if (filter instanceof HierarchicaFilter) {
 			HierarchicaFilter hierarchy = (HierarchicaFilter) filter;
-			return provider.streamOverIdsAndChecksumsForChildren(salt, hierarchy.getParentIds(), filter.getSubTypes());
+			return provider.streamOverIdsAndChecksumsForChildren(salt, hierarchy.getParentIds(), filter.getSubTypes(),
+					minId, maxId);
 		} else if (filter instanceof IdAndVersionFilter) {
 			IdAndVersionFilter flat = (IdAndVersionFilter) filter;
-			return provider.streamOverIdsAndChecksumsForObjects(salt, flat.getObjectIds());
+			return provider.streamOverIdsAndChecksumsForObjects(salt, flat.getObjectIds(), minId, maxId);
 		} else {
 			throw new IllegalStateException("Unknown filter types: " + filter.getClass().getName());
 		}
 	}
 	
 	/**
-	 * Abstraction of the ReconcileIterator.
-	 * @param objectType
-	 * @param truth
-	 * @param replication
+	 * Abstraction of the RangeReconcileIterator. The aggregated checksum of each
+	 * range of IDs from truth and replication is compared first, and only the
+	 * ranges that differ are read ID-by-ID.
+	 * 
+	 * @param filter
 	 * @return
 	 */
 	Iterator<ChangeMessage> createReconcileIterator(ViewFilter filter) {
 		ValidateArgument.required(filter, "filter");
 		long salt = random.nextLong();
-		Iterator<IdAndChecksum> truthStream = createTruthStream(salt, filter);
+		List<IdRangeChecksum> truthRanges = createTruthRanges(salt, filter, RECONCILE_ID_RANGE_SIZE);
 		TableIndexManager indexManager = indexConnectionFactory.connectToFirstIndex();
-		Iterator<IdAndChecksum> replicationStream = indexManager.streamOverIdsAndChecksums(salt, filter);
-		return new ReconcileIterator(filter.getReplicationType().getObjectType(), truthStream, replicationStream);
+		List<IdRangeChecksum> replicationRanges = indexManager.getIdRangeChecksums(salt, filter,
+				RECONCILE_ID_RANGE_SIZE);
+		return new RangeReconcileIterator(filter.getReplicationType().getObjectType(), RECONCILE_ID_RANGE_SIZE,
+				truthRanges.iterator(), replicationRanges.iterator(),
+				(minId, maxId) -> createTruthStream(salt, filter, minId, maxId),
+				(minId, maxId) -> indexManager.streamOverIdsAndChecksums(salt, filter, minId, maxId));
 	}
 	
 	@Override
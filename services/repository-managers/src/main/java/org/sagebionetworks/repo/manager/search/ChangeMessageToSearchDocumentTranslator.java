@@ -1,5 +1,11 @@
 package org.sagebionetworks.repo.manager.search;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.repo.model.ObjectType;
@@ -43,6 +49,62 @@ public class ChangeMessageToSearchDocumentTranslator {
 		}
 	}
 
+	/**
+	 * Generate the documents for a batch of change messages. The documents of all
+	 * the entities of the batch are formulated together, so the number of queries
+	 * does not grow with the size of the batch.
+	 * 
+	 * @param changes
+	 * @return The documents in the order of the messages. Ignored messages have no
+	 *         document.
+	 */
+	List<Document> generateSearchDocumentsIfNecessary(List<ChangeMessage> changes) {
+		List<CloudSearchDocumentLogRecord> records = new ArrayList<>(changes.size());
+		List<String> entityIds = new ArrayList<>(changes.size());
+		for (ChangeMessage change : changes) {
+			// start a log record for this message.
+			CloudSearchDocumentLogRecord record = recordLogger.startRecordForChangeMessage(change);
+			records.add(record);
+			entityIds.add(getEntityId(change, record));
+		}
+		Map<String, Document> documents = searchDocumentDriver.formulateSearchDocuments(
+				entityIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList()));
+		List<Document> results = new ArrayList<>(changes.size());
+		for (int i = 0; i < entityIds.size(); i++) {
+			String entityId = entityIds.get(i);
+			if (entityId == null) {
+				continue;
+			}
+			Document document = documents.get(entityId);
+			if (document == null) {
+				records.get(i).withAction(DocumentAction.DELETE);
+				results.add(createDeleteDocument(entityId));
+			} else {
+				records.get(i).withAction(DocumentAction.CREATE_OR_UPDATE);
+				results.add(document);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Get the ID of the entity whose document is affected by the given change.
+	 * 
+	 * @param change
+	 * @param record
+	 * @return Null if the change will be ignored.
+	 */
+	String getEntityId(ChangeMessage change, CloudSearchDocumentLogRecord record) {
+		switch (change.getObjectType()) {
+		case ENTITY:
+			return change.getObjectId();
+		case WIKI:
+			return getWikiOwnerEntityId(change.getObjectId(), record);
+		default:
+			throw new IllegalArgumentException("Unknown change type: " + change.getChangeType());
+		}
+	}
+
 	/**
 	 * Wiki changes are converted into entity changes.
 	 * @param wikiId
@@ -50,6 +112,18 @@ public class ChangeMessageToSearchDocumentTranslator {
 	 * @return
 	 */
 	Document wikiChange(String wikiId, CloudSearchDocumentLogRecord record) {
+		String entityId = getWikiOwnerEntityId(wikiId, record);
+		return entityId == null ? null : entityChange(entityId, record);
+	}
+
+	/**
+	 * Get the ID of the entity that owns the given wiki.
+	 * 
+	 * @param wikiId
+	 * @param record
+	 * @return Null if the wiki does not exist or is not owned by an entity.
+	 */
+	String getWikiOwnerEntityId(String wikiId, CloudSearchDocumentLogRecord record) {
 		// Lookup the owner of the page
 		try {
 			WikiPageKey key = wikiPageDao.lookupWikiKey(wikiId);
@@ -57,7 +131,7 @@ public class ChangeMessageToSearchDocumentTranslator {
 			// message.
 			if (ObjectType.ENTITY == key.getOwnerObjectType()) {
 				record.withWikiOwner(key.getOwnerObjectId());
-				return entityChange(key.getOwnerObjectId(), record);
+				return key.getOwnerObjectId();
 			}
 		} catch (NotFoundException e) {
 			// Nothing to do if the wiki does not exist
@@ -2,6 +2,7 @@ package org.sagebionetworks.repo.manager.search;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.sagebionetworks.repo.model.AccessControlList;
@@ -35,6 +36,18 @@ public interface SearchDocumentDriver {
 	 * @throws IOException TODO
 	 */
 	public Document formulateSearchDocument(String nodeId) throws DatastoreException, NotFoundException;
+	
+	/**
+	 * Create the search documents of all of the given entities. The data of all
+	 * entities is gathered with a fixed number of queries regardless of the number
+	 * of entities.
+	 * 
+	 * @param entityIds
+	 * @return The document of each entity keyed by the given entity ID. Entities
+	 *         that do not exist or are in the trash are omitted.
+	 */
+	public Map<String, Document> formulateSearchDocuments(List<String> entityIds);
+	
 	/**
 	 * Create a search document and return it.
 	 *
@@ -57,6 +70,15 @@ public interface SearchDocumentDriver {
 	 */
 	public EntityPath getEntityPath(String nodeId) throws NotFoundException;
 	
+	/**
+	 * Get the paths of all of the given nodes with a few queries.
+	 * 
+	 * @param nodeIds
+	 * @return The path of each node keyed by the given node ID. Nodes that do not
+	 *         exist are omitted.
+	 */
+	public Map<String, EntityPath> getEntityPaths(List<String> nodeIds);
+	
 	/**
 	 * 
 	 * @param nodeIds
@@ -10,8 +10,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,6 +36,7 @@ import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValue;
 import org.sagebionetworks.repo.model.dao.WikiPageKey;
 import org.sagebionetworks.repo.model.dao.WikiPageKeyHelper;
 import org.sagebionetworks.repo.model.entity.NameIdType;
+import org.sagebionetworks.repo.model.jdo.KeyFactory;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentFields;
 import org.sagebionetworks.repo.model.search.DocumentTypeNames;
@@ -41,6 +45,7 @@ import org.sagebionetworks.repo.model.v2.wiki.V2WikiHeader;
 import org.sagebionetworks.repo.model.v2.wiki.V2WikiPage;
 import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.search.SearchUtil;
+import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -59,6 +64,11 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 	 * No more than 100 values in a field value array
 	 */
 	public static final int FIELD_VALUE_SIZE_LIMIT = 100;
+	
+	/**
+	 * The maximum number of wiki pages of an entity included in its document.
+	 */
+	public static final long WIKI_PAGE_LIMIT = 100L;
 
 	private static Log log = LogFactory.getLog(SearchDocumentDriverImpl.class);
 
@@ -127,6 +137,22 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 		return entityPath;
 	}
 	
+	@Override
+	public Map<String, EntityPath> getEntityPaths(List<String> nodeIds) {
+		ValidateArgument.required(nodeIds, "nodeIds");
+		Map<Long, List<NameIdType>> paths = nodeDao.getEntityPaths(KeyFactory.stringToKey(nodeIds));
+		Map<String, EntityPath> results = new HashMap<>(paths.size());
+		for (String nodeId : nodeIds) {
+			List<NameIdType> path = paths.get(KeyFactory.stringToKey(nodeId));
+			if (path != null) {
+				EntityPath entityPath = new EntityPath();
+				entityPath.setPath(NameIdType.toEntityHeader(path));
+				results.put(nodeId, entityPath);
+			}
+		}
+		return results;
+	}
+	
 	@Override
 	public List<IdAndAlias> getAliases(List<String> nodeIds) {
 		return nodeDao.getAliasByNodeId(nodeIds);
@@ -308,6 +334,114 @@ public class SearchDocumentDriverImpl implements SearchDocumentDriver {
 		}
 	}
 
+	@Override
+	public Map<String, Document> formulateSearchDocuments(List<String> entityIds) {
+		ValidateArgument.required(entityIds, "entityIds");
+		if (entityIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		List<Long> nodeIds = new ArrayList<>(nodeDao.getAvailableNodes(KeyFactory.stringToKey(entityIds)));
+		if (nodeIds.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<Long, Annotations> annotations = nodeDao.getUserAnnotationsForNodes(nodeIds);
+		Map<Long, AccessControlList> acls = getBenefactorAcls(nodeIds);
+		Map<Long, String> wikiPagesText = getAllWikiPageText(nodeIds);
+		Map<Long, Document> documents = new HashMap<>(nodeIds.size());
+		for (Node node : nodeDao.getNodes(nodeIds)) {
+			Long nodeId = KeyFactory.stringToKey(node.getId());
+			Annotations annos = annotations.get(nodeId);
+			AccessControlList acl = acls.get(nodeId);
+			if (annos == null || acl == null) {
+				// the node was deleted while the batch was gathered.
+				continue;
+			}
+			documents.put(nodeId, formulateSearchDocument(node, annos, acl, wikiPagesText.get(nodeId)));
+		}
+		Map<String, Document> results = new HashMap<>(documents.size());
+		for (String entityId : entityIds) {
+			Document document = documents.get(KeyFactory.stringToKey(entityId));
+			if (document != null) {
+				results.put(entityId, document);
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * Get the ACL of the benefactor of each of the given nodes. Only the READ and
+	 * UPDATE permissions used by the search documents are included.
+	 * 
+	 * @param nodeIds
+	 * @return
+	 */
+	Map<Long, AccessControlList> getBenefactorAcls(List<Long> nodeIds) {
+		Map<Long, Long> benefactors = nodeDao.getBenefactors(nodeIds);
+		Set<String> benefactorIds = benefactors.values().stream().map(Object::toString).collect(Collectors.toSet());
+		Map<String, Set<String>> readers = aclDAO.getPrincipalIdsMap(benefactorIds, ObjectType.ENTITY, ACCESS_TYPE.READ);
+		Map<String, Set<String>> updaters = aclDAO.getPrincipalIdsMap(benefactorIds, ObjectType.ENTITY, ACCESS_TYPE.UPDATE);
+		Map<String, AccessControlList> aclsByBenefactor = new HashMap<>(benefactorIds.size());
+		for (String benefactorId : benefactorIds) {
+			Map<Long, ResourceAccess> accessByPrincipal = new HashMap<>();
+			addAccess(accessByPrincipal, readers.get(benefactorId), ACCESS_TYPE.READ);
+			addAccess(accessByPrincipal, updaters.get(benefactorId), ACCESS_TYPE.UPDATE);
+			AccessControlList acl = new AccessControlList();
+			acl.setId(benefactorId);
+			acl.setResourceAccess(new HashSet<>(accessByPrincipal.values()));
+			aclsByBenefactor.put(benefactorId, acl);
+		}
+		Map<Long, AccessControlList> results = new HashMap<>(benefactors.size());
+		benefactors.forEach((nodeId, benefactorId) -> results.put(nodeId, aclsByBenefactor.get(benefactorId.toString())));
+		return results;
+	}
+	
+	private static void addAccess(Map<Long, ResourceAccess> accessByPrincipal, Set<String> principalIds, ACCESS_TYPE accessType) {
+		if (principalIds == null) {
+			return;
+		}
+		for (String principalId : principalIds) {
+			ResourceAccess access = accessByPrincipal.computeIfAbsent(Long.parseLong(principalId),
+					id -> new ResourceAccess().setPrincipalId(id).setAccessType(new HashSet<>()));
+			access.getAccessType().add(accessType);
+		}
+	}
+	
+	/**
+	 * Get all wiki text for each of the given entities.
+	 * 
+	 * @param nodeIds
+	 * @return The wiki text of each entity that has a wiki.
+	 */
+	Map<Long, String> getAllWikiPageText(List<Long> nodeIds) {
+		Map<Long, List<V2WikiPage>> pagesByOwner = wikiPageDao.getCurrentPagesForOwners(nodeIds, ObjectType.ENTITY, WIKI_PAGE_LIMIT);
+		List<String> markdownFileHandleIds = pagesByOwner.values().stream().flatMap(List::stream)
+				.map(V2WikiPage::getMarkdownFileHandleId).distinct().collect(Collectors.toList());
+		try {
+			Map<String, String> markdown = wikiPageDao.getMarkdownByFileHandleId(markdownFileHandleIds);
+			Map<Long, String> results = new HashMap<>(pagesByOwner.size());
+			pagesByOwner.forEach((ownerId, pages) -> {
+				StringBuilder builder = new StringBuilder();
+				for (V2WikiPage page : pages) {
+					// Append the title and markdown
+					if (page.getTitle() != null) {
+						builder.append("\n");
+						builder.append(page.getTitle());
+					}
+					String pageMarkdown = markdown.get(page.getMarkdownFileHandleId());
+					// The file handle of the markdown might no longer exist
+					if (pageMarkdown != null) {
+						builder.append("\n");
+						builder.append(pageMarkdown);
+					}
+				}
+				results.put(ownerId, builder.toString());
+			});
+			return results;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	@Override
 	public boolean doesEntityExistInRepository(String entityId){
 		return nodeDao.isNodeAvailable(entityId);
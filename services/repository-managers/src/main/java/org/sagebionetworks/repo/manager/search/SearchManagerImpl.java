@@ -3,10 +3,8 @@ package org.sagebionetworks.repo.manager.search;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -18,7 +16,6 @@ import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.Hit;
 import org.sagebionetworks.repo.model.search.SearchResults;
 import org.sagebionetworks.repo.model.search.query.SearchQuery;
-import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.search.CloudSearchLogger;
 import org.sagebionetworks.search.SearchConstants;
 import org.sagebionetworks.search.SearchDao;
@@ -31,6 +28,11 @@ import com.google.common.collect.Iterators;
 
 public class SearchManagerImpl implements SearchManager{
 	private static final Logger log = LogManager.getLogger(SearchManagerImpl.class.getName());
+	
+	/**
+	 * The maximum number of change messages translated into documents together.
+	 */
+	static final int CHANGE_MESSAGE_BATCH_SIZE = 100;
 
 
 	@Autowired
@@ -85,20 +87,24 @@ public class SearchManagerImpl implements SearchManager{
 	 * @param hits
 	 */
 	public void addPathDataToHits(List<Hit> hits) {
-		// For each hit we need to add the path
-		List<Hit> toRemove = new LinkedList<>();
-		for(Hit hit: hits){
-			try {
-				EntityPath path = searchDocumentDriver.getEntityPath(hit.getId());
+		List<String> ids = new ArrayList<String>(hits.size());
+		for (Hit hit : hits) {
+			ids.add(hit.getId());
+		}
+		// Resolve the paths of all hits at once
+		Map<String, EntityPath> paths = searchDocumentDriver.getEntityPaths(ids);
+		Iterator<Hit> iterator = hits.iterator();
+		while (iterator.hasNext()) {
+			Hit hit = iterator.next();
+			EntityPath path = paths.get(hit.getId());
+			if (path != null) {
 				hit.setPath(path);
-			} catch (NotFoundException e) {
+			} else {
 				// Add a warning and remove it from the hits
 				log.warn("Found a search document that did not exist in the repository: "+hit);
-				// We need to remove this from the hits
-				toRemove.add(hit);
+				iterator.remove();
 			}
 		}
-		hits.removeAll(toRemove);
 	}
 
 	/**
@@ -143,9 +149,10 @@ public class SearchManagerImpl implements SearchManager{
 	@Override
 	public void documentChangeMessages(List<ChangeMessage> messages){
 		try {
-			Iterator<Document> documentIterator = Iterators.filter(
-					Iterators.transform(messages.iterator(), translator::generateSearchDocumentIfNecessary),
-					Objects::nonNull);
+			// Each batch of messages is translated with a fixed number of queries as the documents are sent.
+			Iterator<Document> documentIterator = Iterators.concat(Iterators.transform(
+					Iterators.partition(messages.iterator(), CHANGE_MESSAGE_BATCH_SIZE),
+					batch -> translator.generateSearchDocumentsIfNecessary(batch).iterator()));
 			searchDao.sendDocuments(documentIterator);
 		}finally {
 			recordLogger.pushAllRecordsAndReset();
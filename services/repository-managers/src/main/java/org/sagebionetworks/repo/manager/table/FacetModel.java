@@ -141,8 +141,10 @@ public class FacetModel {
 		ValidateArgument.required(validatedFacets, "validatedFacets");
 		
 		List<FacetTransformer> transformersList = new ArrayList<>(validatedFacets.size());
+		// Each transformer gets its own copy of the query, so the SQL is only written once.
+		String originalSql = originalQuery.toSql();
 		for(FacetRequestColumnModel facet: validatedFacets) {
-			QueryExpression queryClone = cloneQuery(originalQuery);
+			QueryExpression queryClone = cloneQuery(originalSql);
 			switch(facet.getFacetType()) {
 				case enumeration:
 					Set<String> selectedValues = null;
@@ -176,9 +178,9 @@ public class FacetModel {
 		return columnName + "." + jsonPath;
 	}
 	
-	private static QueryExpression cloneQuery(QueryExpression toClone) {
+	private static QueryExpression cloneQuery(String sqlToClone) {
 		try {
-			return new TableQueryParser(toClone.toSql()).queryExpression();
+			return new TableQueryParser(sqlToClone).queryExpression();
 		} catch (ParseException e) {
 			throw new RuntimeException(e);
 		}
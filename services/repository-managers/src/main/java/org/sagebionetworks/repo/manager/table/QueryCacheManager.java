@@ -4,6 +4,8 @@ import org.sagebionetworks.repo.model.table.RowSet;
 import org.sagebionetworks.table.cluster.CachedQueryRequest;
 import org.sagebionetworks.table.cluster.TableIndexDAO;
 
+import com.google.common.cache.CacheStats;
+
 public interface QueryCacheManager {
 
 	/**
@@ -24,4 +26,21 @@ public interface QueryCacheManager {
 	 */
 	void refreshCachedQuery(TableIndexDAO indexDao, String requestHash);
 
+	/**
+	 * Get the hit, miss and eviction statistics of the parsed results cached in
+	 * this JVM.
+	 * 
+	 * @return
+	 */
+	CacheStats getLocalCacheStats();
+
+	/**
+	 * Get the total number of callers in this JVM that waited for the results of
+	 * an identical query that was already running rather than running the query
+	 * themselves.
+	 * 
+	 * @return
+	 */
+	long getCoalescedWaiterCount();
+
 }
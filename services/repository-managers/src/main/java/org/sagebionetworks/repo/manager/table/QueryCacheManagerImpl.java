@@ -1,15 +1,25 @@
 package org.sagebionetworks.repo.manager.table;
 
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.sagebionetworks.util.Clock;
 import org.sagebionetworks.repo.manager.message.RepositoryMessagePublisher;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.table.QueryCacheHitEvent;
+import org.sagebionetworks.repo.model.table.Row;
 import org.sagebionetworks.repo.model.table.RowSet;
-import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
-import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
+import org.sagebionetworks.table.cluster.CachedQueryDto;
 import org.sagebionetworks.table.cluster.CachedQueryRequest;
 import org.sagebionetworks.table.cluster.TableIndexDAO;
 import org.sagebionetworks.util.ValidateArgument;
@@ -18,13 +28,42 @@ import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 
 @Service
 public class QueryCacheManagerImpl implements QueryCacheManager {
 
+	/**
+	 * The maximum number of encoded result bytes held by the local cache of this
+	 * JVM. The encoded results are compressed, so the parsed results take several
+	 * times this amount of memory.
+	 */
+	public static final long MAX_LOCAL_CACHE_WEIGHT = 10_000_000L;
+
+	/**
+	 * The maximum time a caller waits for the results of the same query running
+	 * on another thread before running the query itself.
+	 */
+	public static final long MAX_IN_FLIGHT_WAIT_MS = 60_000L;
+
 	private ObjectMapper objectMapper;
 	private Clock clock;
 	private RepositoryMessagePublisher publisher;
+	/*
+	 * Parsed results by request hash. Each entry expires at the same time as the
+	 * matching QUERY_CACHE row so the results served from this cache are never
+	 * older than the results that would be read from the database.
+	 */
+	private Cache<String, LocalCacheEntry> localCache;
+	/*
+	 * The queries currently being executed by this JVM by request hash. Callers
+	 * that miss the cache while a query for the same hash is running wait for its
+	 * results rather than running the same query again.
+	 */
+	private ConcurrentMap<String, CompletableFuture<RowSet>> inFlightQueries;
+	private AtomicLong coalescedWaiterCount;
 
 	@Autowired
 	public QueryCacheManagerImpl(ObjectMapper objectMapper, Clock clock, RepositoryMessagePublisher publisher) {
@@ -32,6 +71,13 @@ public class QueryCacheManagerImpl implements QueryCacheManager {
 		this.objectMapper = objectMapper;
 		this.clock = clock;
 		this.publisher = publisher;
+		this.localCache = CacheBuilder.newBuilder()
+			.maximumWeight(MAX_LOCAL_CACHE_WEIGHT)
+			.weigher((String hash, LocalCacheEntry entry) -> entry.getWeight())
+			.recordStats()
+			.build();
+		this.inFlightQueries = new ConcurrentHashMap<>();
+		this.coalescedWaiterCount = new AtomicLong();
 	}
 
 	@Override
@@ -42,14 +88,87 @@ public class QueryCacheManagerImpl implements QueryCacheManager {
 		String requestJson = requestToJson(request);
 		String hash = DigestUtils.sha256Hex(requestJson);
 
-		Optional<String> optional = indexDao.getCachedQueryResults(hash);
+		Optional<RowSet> local = getFromLocalCache(hash);
+		if (local.isPresent()) {
+			return local.get();
+		}
+
+		Optional<CachedQueryDto> optional = indexDao.getCachedQuery(hash);
 		if (optional.isPresent()) {
-			RowSet results = parseRowSet(optional.get());
+			byte[] encoded = optional.get().getResults();
+			RowSet results = decodeResults(encoded);
+			if (optional.get().getExpiresOn() != null) {
+				putInLocalCache(hash, results, encoded.length, optional.get().getExpiresOn().getTime());
+			}
 			publisher.fireLocalStackMessage(
 					new QueryCacheHitEvent().setQueryRequestHash(hash).setObjectType(ObjectType.QUERY_CACHE_HIT));
 			return results;
 		} else {
-			return executeQueryAndSaveToCache(indexDao, request, requestJson, hash, request.getExpiresInSec());
+			return executeQueryAndSaveToCacheOnce(indexDao, request, requestJson, hash, request.getExpiresInSec());
+		}
+	}
+
+	/**
+	 * Execute the query and save the results to the cache unless the same query
+	 * is already being executed by another thread of this JVM, in which case wait
+	 * for its results. Each waiter gets its own copy of the results. A waiter
+	 * that does not get the results within {@link #MAX_IN_FLIGHT_WAIT_MS} runs
+	 * the query itself.
+	 * 
+	 * @param indexDao
+	 * @param request
+	 * @param requestJson
+	 * @param hash
+	 * @param expiresInSec
+	 * @return
+	 */
+	RowSet executeQueryAndSaveToCacheOnce(TableIndexDAO indexDao, CachedQueryRequest request, String requestJson,
+			String hash, int expiresInSec) {
+		CompletableFuture<RowSet> future = new CompletableFuture<>();
+		CompletableFuture<RowSet> inFlight = inFlightQueries.putIfAbsent(hash, future);
+		if (inFlight != null) {
+			coalescedWaiterCount.incrementAndGet();
+			Optional<RowSet> results = waitForResults(inFlight, MAX_IN_FLIGHT_WAIT_MS);
+			if (results.isPresent()) {
+				return copyRowSet(results.get());
+			}
+			return executeQueryAndSaveToCache(indexDao, request, requestJson, hash, expiresInSec);
+		}
+		try {
+			RowSet results = executeQueryAndSaveToCache(indexDao, request, requestJson, hash, expiresInSec);
+			// The caller is free to modify the results so the waiters get a copy.
+			future.complete(copyRowSet(results));
+			return results;
+		} catch (Throwable e) {
+			// Errors must also release the waiters
+			future.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlightQueries.remove(hash, future);
+		}
+	}
+
+	/**
+	 * Wait for the results of a query running on another thread.
+	 * 
+	 * @param inFlight
+	 * @param timeoutMS
+	 * @return {@link Optional#empty()} if the results are not available within the
+	 *         given timeout.
+	 */
+	static Optional<RowSet> waitForResults(CompletableFuture<RowSet> inFlight, long timeoutMS) {
+		try {
+			return Optional.of(inFlight.get(timeoutMS, TimeUnit.MILLISECONDS));
+		} catch (TimeoutException e) {
+			return Optional.empty();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new CompletionException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
 		}
 	}
 
@@ -58,24 +177,92 @@ public class QueryCacheManagerImpl implements QueryCacheManager {
 		long start = clock.currentTimeMillis();
 		RowSet results = indexDao.query(request);
 		long runtimeMS = clock.currentTimeMillis() - start;
-		indexDao.saveCachedQuery(hash, requestJson, rowSetToJson(results), runtimeMS, expiresInSec);
+		byte[] encoded = encodeResults(results);
+		indexDao.saveCachedQuery(hash, requestJson, encoded, runtimeMS, expiresInSec);
+		putInLocalCache(hash, results, encoded.length, start + runtimeMS + expiresInSec * 1000L);
 		return results;
 	}
 
-	String rowSetToJson(RowSet rowSet) {
-		try {
-			return EntityFactory.createJSONStringForEntity(rowSet);
-		} catch (JSONObjectAdapterException e) {
-			throw new RuntimeException(e);
+	/**
+	 * Get a copy of the results for the given hash from the local cache. An entry
+	 * that has reached its expiration is removed and treated as a miss.
+	 * 
+	 * @param hash
+	 * @return {@link Optional#empty()} if there is no unexpired entry for the hash.
+	 */
+	Optional<RowSet> getFromLocalCache(String hash) {
+		LocalCacheEntry entry = localCache.getIfPresent(hash);
+		if (entry == null) {
+			return Optional.empty();
+		}
+		if (entry.getExpiresOnMS() <= clock.currentTimeMillis()) {
+			localCache.invalidate(hash);
+			return Optional.empty();
 		}
+		return Optional.of(copyRowSet(entry.getResults()));
 	}
 
-	RowSet parseRowSet(String json) {
-		try {
-			return EntityFactory.createEntityFromJSONString(json, RowSet.class);
-		} catch (JSONObjectAdapterException e) {
-			throw new RuntimeException(e);
+	/**
+	 * Add a copy of the given results to the local cache, replacing any existing
+	 * entry for the hash. Results that have already expired are not added.
+	 * 
+	 * @param hash
+	 * @param results
+	 * @param weight      The number of bytes in the encoded results.
+	 * @param expiresOnMS
+	 */
+	void putInLocalCache(String hash, RowSet results, int weight, long expiresOnMS) {
+		if (expiresOnMS <= clock.currentTimeMillis()) {
+			localCache.invalidate(hash);
+			return;
+		}
+		localCache.put(hash, new LocalCacheEntry(copyRowSet(results), weight, expiresOnMS));
+	}
+
+	@Override
+	public CacheStats getLocalCacheStats() {
+		return localCache.stats();
+	}
+
+	@Override
+	public long getCoalescedWaiterCount() {
+		return coalescedWaiterCount.get();
+	}
+
+	/**
+	 * Callers are free to modify the returned results (e.g. to set the etag), so
+	 * the local cache only hands out copies. The copy is shallow except for the
+	 * lists and rows.
+	 * 
+	 * @param rowSet
+	 * @return
+	 */
+	static RowSet copyRowSet(RowSet rowSet) {
+		RowSet copy = new RowSet().setTableId(rowSet.getTableId()).setEtag(rowSet.getEtag());
+		copy.setConcreteType(rowSet.getConcreteType());
+		if (rowSet.getHeaders() != null) {
+			copy.setHeaders(new ArrayList<>(rowSet.getHeaders()));
+		}
+		if (rowSet.getRows() != null) {
+			copy.setRows(rowSet.getRows().stream().map(QueryCacheManagerImpl::copyRow).collect(Collectors.toList()));
 		}
+		return copy;
+	}
+
+	static Row copyRow(Row row) {
+		Row copy = new Row().setRowId(row.getRowId()).setVersionNumber(row.getVersionNumber()).setEtag(row.getEtag());
+		if (row.getValues() != null) {
+			copy.setValues(new ArrayList<>(row.getValues()));
+		}
+		return copy;
+	}
+
+	byte[] encodeResults(RowSet rowSet) {
+		return QueryCacheResultsCodec.encode(rowSet);
+	}
+
+	RowSet decodeResults(byte[] encoded) {
+		return QueryCacheResultsCodec.decode(encoded);
 	}
 
 	String requestToJson(CachedQueryRequest request) {
@@ -100,7 +287,35 @@ public class QueryCacheManagerImpl implements QueryCacheManager {
 		ValidateArgument.required(requestHash, "requestHash");
 		indexDao.getExpiredCachedQueryRequest(requestHash).ifPresent((requestJson) -> {
 			CachedQueryRequest request = parseRequestJson(requestJson);
-			executeQueryAndSaveToCache(indexDao, request, requestJson, requestHash, request.getExpiresInSec());
+			executeQueryAndSaveToCacheOnce(indexDao, request, requestJson, requestHash, request.getExpiresInSec());
 		});
 	}
+
+	/**
+	 * Parsed results held by the local cache.
+	 */
+	private static final class LocalCacheEntry {
+
+		private final RowSet results;
+		private final int weight;
+		private final long expiresOnMS;
+
+		LocalCacheEntry(RowSet results, int weight, long expiresOnMS) {
+			this.results = results;
+			this.weight = weight;
+			this.expiresOnMS = expiresOnMS;
+		}
+
+		RowSet getResults() {
+			return results;
+		}
+
+		int getWeight() {
+			return weight;
+		}
+
+		long getExpiresOnMS() {
+			return expiresOnMS;
+		}
+	}
 }
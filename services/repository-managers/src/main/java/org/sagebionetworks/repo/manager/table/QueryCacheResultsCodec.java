@@ -0,0 +1,249 @@
+package org.sagebionetworks.repo.manager.table;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.sagebionetworks.repo.model.table.ColumnType;
+import org.sagebionetworks.repo.model.table.Row;
+import org.sagebionetworks.repo.model.table.RowSet;
+import org.sagebionetworks.repo.model.table.SelectColumn;
+import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
+import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Encodes the {@link RowSet} results stored in the QUERY_CACHE table.
+ * <p>
+ * The first byte of the encoded results identifies the format. Version one is a
+ * deflated, column-oriented stream: the row ids, version numbers and etags are
+ * each written as a column, followed by the values one column at a time. Values
+ * of a single column tend to be similar, so this compresses far better than the
+ * row-oriented JSON.
+ * <p>
+ * Results written before this format was introduced are plain JSON. Since JSON
+ * can never start with the version byte, such results are still decoded with
+ * {@link EntityFactory}.
+ */
+public class QueryCacheResultsCodec {
+
+	/**
+	 * The first byte of all results encoded with the current format.
+	 */
+	public static final byte FORMAT_VERSION_ONE = 0x01;
+
+	private static final int NULL_MARKER = -1;
+
+	/**
+	 * Encode the given results using the current format.
+	 *
+	 * @param rowSet
+	 * @return
+	 */
+	public static byte[] encode(RowSet rowSet) {
+		ValidateArgument.required(rowSet, "rowSet");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(FORMAT_VERSION_ONE);
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+			writeRowSet(out, rowSet);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			deflater.end();
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Decode results written with any version of the format, including the
+	 * original JSON.
+	 *
+	 * @param encoded
+	 * @return
+	 */
+	public static RowSet decode(byte[] encoded) {
+		ValidateArgument.required(encoded, "encoded");
+		ValidateArgument.requirement(encoded.length > 0, "Encoded results cannot be empty.");
+		if (encoded[0] != FORMAT_VERSION_ONE) {
+			return decodeJson(encoded);
+		}
+		Inflater inflater = new Inflater();
+		try (DataInputStream in = new DataInputStream(new InflaterInputStream(
+				new ByteArrayInputStream(encoded, 1, encoded.length - 1), inflater))) {
+			return readRowSet(in);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	static RowSet decodeJson(byte[] json) {
+		try {
+			return EntityFactory.createEntityFromJSONString(new String(json, StandardCharsets.UTF_8), RowSet.class);
+		} catch (JSONObjectAdapterException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static void writeRowSet(DataOutputStream out, RowSet rowSet) throws IOException {
+		writeString(out, rowSet.getConcreteType());
+		writeString(out, rowSet.getTableId());
+		writeString(out, rowSet.getEtag());
+		writeHeaders(out, rowSet.getHeaders());
+		writeRows(out, rowSet.getRows());
+	}
+
+	static RowSet readRowSet(DataInputStream in) throws IOException {
+		RowSet rowSet = new RowSet();
+		rowSet.setConcreteType(readString(in));
+		rowSet.setTableId(readString(in));
+		rowSet.setEtag(readString(in));
+		rowSet.setHeaders(readHeaders(in));
+		rowSet.setRows(readRows(in));
+		return rowSet;
+	}
+
+	static void writeHeaders(DataOutputStream out, List<SelectColumn> headers) throws IOException {
+		if (headers == null) {
+			out.writeInt(NULL_MARKER);
+			return;
+		}
+		out.writeInt(headers.size());
+		for (SelectColumn header : headers) {
+			writeString(out, header.getName());
+			writeString(out, header.getColumnType() == null ? null : header.getColumnType().name());
+			writeString(out, header.getId());
+		}
+	}
+
+	static List<SelectColumn> readHeaders(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size == NULL_MARKER) {
+			return null;
+		}
+		List<SelectColumn> headers = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String name = readString(in);
+			String columnType = readString(in);
+			String id = readString(in);
+			headers.add(new SelectColumn().setName(name)
+					.setColumnType(columnType == null ? null : ColumnType.valueOf(columnType)).setId(id));
+		}
+		return headers;
+	}
+
+	/**
+	 * Rows are written one column at a time: all row ids, then all version
+	 * numbers, then all etags, then the number of values of each row, and finally
+	 * the values of each column index.
+	 */
+	static void writeRows(DataOutputStream out, List<Row> rows) throws IOException {
+		if (rows == null) {
+			out.writeInt(NULL_MARKER);
+			return;
+		}
+		out.writeInt(rows.size());
+		for (Row row : rows) {
+			writeLong(out, row.getRowId());
+		}
+		for (Row row : rows) {
+			writeLong(out, row.getVersionNumber());
+		}
+		for (Row row : rows) {
+			writeString(out, row.getEtag());
+		}
+		int maxValueCount = 0;
+		for (Row row : rows) {
+			int valueCount = row.getValues() == null ? NULL_MARKER : row.getValues().size();
+			out.writeInt(valueCount);
+			maxValueCount = Math.max(maxValueCount, valueCount);
+		}
+		for (int columnIndex = 0; columnIndex < maxValueCount; columnIndex++) {
+			for (Row row : rows) {
+				if (row.getValues() != null && columnIndex < row.getValues().size()) {
+					writeString(out, row.getValues().get(columnIndex));
+				}
+			}
+		}
+	}
+
+	static List<Row> readRows(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size == NULL_MARKER) {
+			return null;
+		}
+		List<Row> rows = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			rows.add(new Row().setRowId(readLong(in)));
+		}
+		for (Row row : rows) {
+			row.setVersionNumber(readLong(in));
+		}
+		for (Row row : rows) {
+			row.setEtag(readString(in));
+		}
+		int maxValueCount = 0;
+		int[] valueCounts = new int[size];
+		for (int i = 0; i < size; i++) {
+			valueCounts[i] = in.readInt();
+			if (valueCounts[i] != NULL_MARKER) {
+				rows.get(i).setValues(new ArrayList<>(valueCounts[i]));
+			}
+			maxValueCount = Math.max(maxValueCount, valueCounts[i]);
+		}
+		for (int columnIndex = 0; columnIndex < maxValueCount; columnIndex++) {
+			for (int i = 0; i < size; i++) {
+				if (columnIndex < valueCounts[i]) {
+					rows.get(i).getValues().add(readString(in));
+				}
+			}
+		}
+		return rows;
+	}
+
+	static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(NULL_MARKER);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == NULL_MARKER) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	static void writeLong(DataOutputStream out, Long value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeLong(value);
+		}
+	}
+
+	static Long readLong(DataInputStream in) throws IOException {
+		if (!in.readBoolean()) {
+			return null;
+		}
+		return in.readLong();
+	}
+
+}
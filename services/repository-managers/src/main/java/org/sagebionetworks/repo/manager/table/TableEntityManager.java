@@ -316,4 +316,16 @@ public interface TableEntityManager {
 	 */
 	void storeTableSnapshot(IdAndVersion tableId, ProgressCallback progressCallback) throws Exception;
 	
+	/**
+	 * Stores a checkpoint of the index of the current version of the table with the given id to S3 if enough changes
+	 * were applied to the table since its last checkpoint. A rebuild of the index can start from the most recent
+	 * checkpoint and only apply the changes that follow it. Checkpoints that were replaced by a newer checkpoint more
+	 * than a grace period ago are deleted.
+	 * 
+	 * @param tableId The id of the table, without a version
+	 * @throws LockUnavilableException If the locks needed to stream the index couldn't be acquired
+	 * @throws RecoverableMessageException If the operation failed for a transient reason and can be retried
+	 */
+	void storeTableCheckpoint(IdAndVersion tableId, ProgressCallback progressCallback) throws Exception;
+	
 }
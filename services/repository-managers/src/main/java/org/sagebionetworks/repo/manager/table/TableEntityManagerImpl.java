@@ -19,6 +19,7 @@ import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.table.RowHandler;
 import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableCheckpoint;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshotDao;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableTransactionDao;
@@ -113,6 +114,17 @@ public class TableEntityManagerImpl implements TableEntityManager {
 	
 	public static final int READ_LOCK_TIMEOUT_SEC = 60;
 	
+	/**
+	 * The number of changes applied to a table since its last checkpoint before a new checkpoint is stored.
+	 */
+	public static final long CHECKPOINT_CHANGE_INTERVAL = 100L;
+	
+	/**
+	 * How long a checkpoint is kept after it is replaced by a newer checkpoint. Rebuilds of a table version only
+	 * hold a lock on that version, so they can still be restoring from a checkpoint after it was replaced.
+	 */
+	public static final long CHECKPOINT_REPLACEMENT_GRACE_PERIOD_MS = 24 * 60 * 60 * 1000L;
+	
 	@Autowired
 	private TableRowTruthDAO tableRowTruthDao;
 	@Autowired
@@ -1121,5 +1133,94 @@ public class TableEntityManagerImpl implements TableEntityManager {
 		
 		
 	}
+	
+	@Override
+	public void storeTableCheckpoint(IdAndVersion tableId, ProgressCallback progressCallback) throws Exception {
+		ValidateArgument.required(tableId, "tableId");
+		ValidateArgument.requirement(!tableId.getVersion().isPresent(), "Checkpoints can only be stored for the current version of a table.");
+		
+		// Avoid acquiring the locks when a checkpoint is not needed
+		if (!isTableCheckpointRequired(tableId)) {
+			return;
+		}
+		
+		// The exclusive lock makes sure that no other worker is storing the same checkpoint
+		String exclusiveLockKey = TableModelUtils.getTableSnapshotStreamingSempahoreKey(tableId);
+		LockContext lockContext = new LockContext(ContextType.TableCheckpoint, tableId);
+		
+		tableManagerSupport.tryRunWithTableExclusiveLock(progressCallback, lockContext, exclusiveLockKey, (exclusiveCallback) -> {
+			// The non-exclusive lock on the table makes sure that the index is not updated while it is streamed
+			return tableManagerSupport.tryRunWithTableNonExclusiveLock(exclusiveCallback, lockContext, (innerCallback) -> {
+				storeTableCheckpointWithLock(tableId);
+				return null;
+			}, tableId);
+		});
+	}
+	
+	/**
+	 * @param tableId
+	 * @return True if at least {@link #CHECKPOINT_CHANGE_INTERVAL} changes were
+	 *         applied to the table since its most recent checkpoint.
+	 */
+	boolean isTableCheckpointRequired(IdAndVersion tableId) {
+		Optional<Long> lastChangeNumber = tableManagerSupport.getLastTableChangeNumber(tableId);
+		if (!lastChangeNumber.isPresent()) {
+			return false;
+		}
+		long checkpointChangeNumber = tableManagerSupport.getMostRecentTableCheckpoint(tableId, Long.MAX_VALUE)
+				.map(TableCheckpoint::getChangeNumber).orElse(-1L);
+		return lastChangeNumber.get() - checkpointChangeNumber >= CHECKPOINT_CHANGE_INTERVAL;
+	}
+	
+	/**
+	 * Stream the index of the given table to a new checkpoint and delete the
+	 * checkpoints that were replaced more than
+	 * {@link #CHECKPOINT_REPLACEMENT_GRACE_PERIOD_MS} ago. The caller must hold a
+	 * non-exclusive lock on the table.
+	 * 
+	 * @param tableId
+	 */
+	void storeTableCheckpointWithLock(IdAndVersion tableId) {
+		Optional<TableCheckpoint> previousCheckpoint = tableManagerSupport.getMostRecentTableCheckpoint(tableId, Long.MAX_VALUE);
+		Optional<Long> lastChangeNumber = tableManagerSupport.getLastTableChangeNumber(tableId);
+		
+		if (!lastChangeNumber.isPresent() || lastChangeNumber.get() - previousCheckpoint.map(TableCheckpoint::getChangeNumber).orElse(-1L) < CHECKPOINT_CHANGE_INTERVAL) {
+			return;
+		}
+		
+		List<String> schemaIds = columModelManager.getColumnIdsForTable(tableId);
+		boolean searchEnabled = tableManagerSupport.isTableSearchEnabled(tableId);
+		
+		// The index must contain exactly the changes up to the last change, new changes will be applied to the index in a later update
+		if (!tableManagerSupport.isIndexSynchronized(tableId, schemaIds, lastChangeNumber.get(), searchEnabled)) {
+			return;
+		}
+		
+		String bucket = config.getTableSnapshotBucketName();
+		String key = tableId + "/checkpoint/" + UUID.randomUUID().toString() + ".csv.gzip";
+		
+		List<String> indexSchema = tableManagerSupport.streamTableIndexToS3(tableId, bucket, key);
+		
+		Date now = new Date();
+		
+		tableSnapshotDao.createCheckpoint(new TableCheckpoint()
+			.withTableId(tableId.getId())
+			.withChangeNumber(lastChangeNumber.get())
+			.withCreatedOn(now)
+			.withBucket(bucket)
+			.withKey(key)
+			.withSchema(indexSchema)
+			.withSearchEnabled(searchEnabled)
+		);
+		
+		// A rebuild of a table version does not conflict with the lock held here and might be restoring from a
+		// checkpoint that was just replaced, only the checkpoints replaced before the grace period are deleted
+		Date replacedBefore = new Date(now.getTime() - CHECKPOINT_REPLACEMENT_GRACE_PERIOD_MS);
+		
+		tableSnapshotDao.getCheckpointsReplacedBefore(tableId.getId(), replacedBefore).forEach(replaced -> {
+			tableSnapshotDao.deleteCheckpoint(replaced.getTableId(), replaced.getChangeNumber());
+			tableManagerSupport.deleteTableIndexFromS3(replaced.getBucket(), replaced.getKey());
+		});
+	}
 
 }
@@ -7,6 +7,7 @@ import java.util.Set;
 
 import org.sagebionetworks.repo.manager.table.change.TableChangeMetaData;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.table.ColumnModel;
 import org.sagebionetworks.repo.model.table.ColumnModelPage;
@@ -256,6 +257,31 @@ public interface TableIndexManager {
 	 */
 	Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter);
 
+	/**
+	 * Stream over the IdAndChecksum for the objects defined by the provided
+	 * filter with an ID in the given range.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param minId  Inclusive
+	 * @param maxId  Exclusive
+	 * @return
+	 */
+	Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter, Long minId, Long maxId);
+
+	/**
+	 * Get the aggregated checksum of each range of IDs for the objects defined by
+	 * the provided filter. The checksum of a range is the sum of the checksums of
+	 * each ID in the range, as provided by
+	 * {@link #streamOverIdsAndChecksums(Long, ViewFilter)}.
+	 * 
+	 * @param salt
+	 * @param filter
+	 * @param rangeSize
+	 * @return The checksum of each non-empty range ordered by the range index.
+	 */
+	List<IdRangeChecksum> getIdRangeChecksums(Long salt, ViewFilter filter, Long rangeSize);
+
 	/**
 	 * Is the synchronization lock for the given view expires?
 	 * 
@@ -7,19 +7,25 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.sagebionetworks.repo.manager.table.change.TableChangeMetaData;
+import org.sagebionetworks.repo.manager.table.change.TableChangeReadAhead;
+import org.sagebionetworks.repo.manager.table.change.TableChangeReadAhead.LoadedTableChange;
 import org.sagebionetworks.repo.manager.table.metadata.DefaultColumnModel;
 import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProvider;
 import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFactory;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.NextPageToken;
 import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.InvalidStatusTokenException;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableCheckpoint;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.semaphore.LockContext;
 import org.sagebionetworks.repo.model.semaphore.LockContext.ContextType;
@@ -29,6 +35,7 @@ import org.sagebionetworks.repo.model.table.ColumnModelPage;
 import org.sagebionetworks.repo.model.table.ColumnType;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.ReplicationType;
+import org.sagebionetworks.repo.model.table.TableChangeType;
 import org.sagebionetworks.repo.model.table.TableConstants;
 import org.sagebionetworks.repo.model.table.TableUnavailableException;
 import org.sagebionetworks.repo.model.table.ViewEntityType;
@@ -57,6 +64,7 @@ import org.sagebionetworks.table.model.Grouping;
 import org.sagebionetworks.table.model.SchemaChange;
 import org.sagebionetworks.table.model.SearchChange;
 import org.sagebionetworks.table.model.SparseChangeSet;
+import org.sagebionetworks.table.model.TableChange;
 import org.sagebionetworks.table.query.util.ColumnTypeListMappings;
 import org.sagebionetworks.util.PaginationIterator;
 import org.sagebionetworks.util.PaginationProvider;
@@ -68,6 +76,7 @@ import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.TransactionStatus;
 
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
 
 /**
@@ -88,23 +97,31 @@ public class TableIndexManagerImpl implements TableIndexManager {
 	 */
 	public static final long SYNCHRONIZATION_FEQUENCY_MS = 1000 * 60 * 1000; // 1000 minutes.
 	
+	/**
+	 * The maximum number of table changes loaded ahead of the change that is being applied to the index.
+	 */
+	public static final int MAX_CHANGE_READ_AHEAD = 4;
+	
 	private final TableIndexDAO tableIndexDao;
 	private final TableManagerSupport tableManagerSupport;
 	private final MetadataIndexProviderFactory metadataIndexProviderFactory;
 	private final ObjectFieldModelResolverFactory objectFieldModelResolverFactory;
 	private final TableRowSearchProcessor searchProcessor;
+	private final ExecutorService cachedThreadPool;
 
-	public TableIndexManagerImpl(TableIndexDAO dao, TableManagerSupport tableManagerSupport, MetadataIndexProviderFactory metadataIndexProviderFactory, ObjectFieldModelResolverFactory objectFieldModelResolverFactory, TableRowSearchProcessor searchProcessor){
+	public TableIndexManagerImpl(TableIndexDAO dao, TableManagerSupport tableManagerSupport, MetadataIndexProviderFactory metadataIndexProviderFactory, ObjectFieldModelResolverFactory objectFieldModelResolverFactory, TableRowSearchProcessor searchProcessor, ExecutorService cachedThreadPool){
 		ValidateArgument.required(dao, "TableIndexDao");
 		ValidateArgument.required(tableManagerSupport, "TableManagerSupport");
 		ValidateArgument.required(metadataIndexProviderFactory, "MetadataIndexProviderFactory");
 		ValidateArgument.required(objectFieldModelResolverFactory, "ObjectFieldModelResolverFactory");
 		ValidateArgument.required(searchProcessor, "RowSearchProcessor");
+		ValidateArgument.required(cachedThreadPool, "CachedThreadPool");
 		this.tableIndexDao = dao;
 		this.tableManagerSupport = tableManagerSupport;
 		this.metadataIndexProviderFactory = metadataIndexProviderFactory;
 		this.objectFieldModelResolverFactory = objectFieldModelResolverFactory;
 		this.searchProcessor = searchProcessor;
+		this.cachedThreadPool = cachedThreadPool;
 	}
 	/*
 	 * (non-Javadoc)
@@ -544,50 +561,98 @@ public class TableIndexManagerImpl implements TableIndexManager {
 			return;
 		}
 		
-		tableManagerSupport.getMostRecentTableSnapshot(idAndVersion).ifPresent( snapshot -> {
-			IdAndVersion snapshotId = IdAndVersion.newBuilder().setId(snapshot.getTableId()).setVersion(snapshot.getVersion()).build();
+		// The most recent checkpoint of the table that does not go past the target change
+		Optional<TableCheckpoint> checkpoint = tableManagerSupport.getMostRecentTableCheckpoint(idAndVersion, targetChangeNumber);
+		
+		Optional<TableSnapshot> snapshot = tableManagerSupport.getMostRecentTableSnapshot(idAndVersion);
+		
+		if (snapshot.isPresent()) {
+			IdAndVersion snapshotId = IdAndVersion.newBuilder().setId(snapshot.get().getTableId()).setVersion(snapshot.get().getVersion()).build();
 			
 			// Keeps the change number that correspond with the snapshot
 			long snapshotChangeNumber = tableManagerSupport.getLastTableChangeNumber(snapshotId).orElseThrow(
 				() -> new IllegalStateException("Expected a change number for snapshot " + snapshotId + ", but found none.")
 			);
 			
-			log.info("Restoring table " + idAndVersion + " from snapshot " + snapshotId + "...");
+			// A more recent checkpoint leaves less changes to apply
+			if (!checkpoint.isPresent() || checkpoint.get().getChangeNumber() <= snapshotChangeNumber) {
+				restoreTableFromSnapshot(idAndVersion, tableResetToken, targetChangeNumber, snapshot.get(), snapshotId, snapshotChangeNumber);
+				return;
+			}
+		}
 			
-			tableManagerSupport.attemptToUpdateTableProgress(
-				idAndVersion, 
-				tableResetToken, 
-				"Restoring table " + idAndVersion + " from snapshot " + snapshotId, 
-				snapshotChangeNumber, 
-				targetChangeNumber
-			);
+		checkpoint.ifPresent(c -> restoreTableFromCheckpoint(idAndVersion, tableResetToken, targetChangeNumber, c));
+	}
 			
-			TableIndexDescription indexDescription = new TableIndexDescription(idAndVersion);
+	void restoreTableFromSnapshot(IdAndVersion idAndVersion, String tableResetToken, long targetChangeNumber,
+			TableSnapshot snapshot, IdAndVersion snapshotId, long snapshotChangeNumber) {
+		log.info("Restoring table " + idAndVersion + " from snapshot " + snapshotId + "...");
 			
-			// We now reset the table index with the schema of the snapshot
-			List<ColumnModel> snapshotSchema = tableManagerSupport.getTableSchema(snapshotId);
+		tableManagerSupport.attemptToUpdateTableProgress(
+			idAndVersion, 
+			tableResetToken, 
+			"Restoring table " + idAndVersion + " from snapshot " + snapshotId, 
+			snapshotChangeNumber, 
+			targetChangeNumber
+		);
 			
-			// Make sure the search flag is synched with the snapshot
-			boolean isSearchEnabled = tableManagerSupport.isTableSearchEnabled(snapshotId);
+		TableIndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 			
-			resetTableIndex(indexDescription, snapshotSchema, isSearchEnabled);
+		// We now reset the table index with the schema of the snapshot
+		List<ColumnModel> snapshotSchema = tableManagerSupport.getTableSchema(snapshotId);
 			
-			// Restore the table data from the snapshot
-			tableManagerSupport.restoreTableIndexFromS3(idAndVersion, snapshot.getBucket(), snapshot.getKey());
+		// Make sure the search flag is synched with the snapshot
+		boolean isSearchEnabled = tableManagerSupport.isTableSearchEnabled(snapshotId);
 			
-			// Now build the secondary indicies, using the restored snapshot schema
-			buildTableIndexIndices(indexDescription, snapshotSchema);
+		resetTableIndex(indexDescription, snapshotSchema, isSearchEnabled);
 						
-			// Now sync the change number that correspond to the snapshot
-			setIndexVersion(idAndVersion, snapshotChangeNumber);
+		// Restore the table data from the snapshot
+		tableManagerSupport.restoreTableIndexFromS3(idAndVersion, snapshot.getBucket(), snapshot.getKey());
 			
-			log.info("Restoring table " + idAndVersion + " from snapshot " + snapshotId + "...DONE");
-		});
+		// Now build the secondary indicies, using the restored snapshot schema
+		buildTableIndexIndices(indexDescription, snapshotSchema);
+					
+		// Now sync the change number that correspond to the snapshot
+		setIndexVersion(idAndVersion, snapshotChangeNumber);
+		
+		log.info("Restoring table " + idAndVersion + " from snapshot " + snapshotId + "...DONE");
+	}
+	
+	void restoreTableFromCheckpoint(IdAndVersion idAndVersion, String tableResetToken, long targetChangeNumber,
+			TableCheckpoint checkpoint) {
+		long checkpointChangeNumber = checkpoint.getChangeNumber();
+		
+		log.info("Restoring table " + idAndVersion + " from checkpoint at change " + checkpointChangeNumber + "...");
+		
+		tableManagerSupport.attemptToUpdateTableProgress(
+			idAndVersion, 
+			tableResetToken, 
+			"Restoring table " + idAndVersion + " from checkpoint at change " + checkpointChangeNumber, 
+			checkpointChangeNumber, 
+			targetChangeNumber
+		);
+		
+		TableIndexDescription indexDescription = new TableIndexDescription(idAndVersion);
+		
+		// The schema of the index when the checkpoint was taken
+		List<ColumnModel> checkpointSchema = checkpoint.getSchema().stream().map(tableManagerSupport::getColumnModel)
+				.collect(Collectors.toList());
+		
+		resetTableIndex(indexDescription, checkpointSchema, checkpoint.getSearchEnabled());
+		
+		tableManagerSupport.restoreTableIndexFromS3(idAndVersion, checkpoint.getBucket(), checkpoint.getKey());
+		
+		buildTableIndexIndices(indexDescription, checkpointSchema);
+		
+		// Only the changes after the checkpoint will be applied
+		setIndexVersion(idAndVersion, checkpointChangeNumber);
+		
+		log.info("Restoring table " + idAndVersion + " from checkpoint at change " + checkpointChangeNumber + "...DONE");
 	}
 	
 	/**
 	 * Build the table index up to the latest change.  The caller must hold the table's exclusive lock and manage
-	 * the status of the table.
+	 * the status of the table. The data of the following changes is loaded while each change is applied to the index.
 	 * @param tableId
 	 * @param iterator
 	 * @param lastChangeNumber
@@ -600,21 +665,29 @@ public class TableIndexManagerImpl implements TableIndexManager {
 		String lastEtag = null;
 		
 		long currentVersion = tableIndexDao.getMaxCurrentCompleteVersionForTable(idAndVersion);
-		// Inspect each change.
-		while(iterator.hasNext()) {
-			TableChangeMetaData changeMetadata = iterator.next();
-			if(changeMetadata.getChangeNumber() > targetChangeNumber) {
-				// all changes have been applied to the index.
-				break;
+		// Only the changes that need to be applied to the index are loaded.
+		Iterator<TableChangeMetaData> changesToApply = filterChangesToApply(iterator, currentVersion, targetChangeNumber);
+		try (TableChangeReadAhead readAhead = new TableChangeReadAhead(cachedThreadPool, changesToApply, MAX_CHANGE_READ_AHEAD)) {
+			long applyMS = 0L;
+			// Inspect each change.
+			while (readAhead.hasNext()) {
+				LoadedTableChange change = readAhead.next();
+				TableChangeMetaData changeMetadata = change.getMetadata();
+				if(changeMetadata.getChangeNumber()> currentVersion) {
+					long start = System.currentTimeMillis();
+					// This change needs to be applied to the table
+					tableManagerSupport.attemptToUpdateTableProgress(idAndVersion,
+							tableResetToken, "Applying change: " + changeMetadata.getChangeNumber(), changeMetadata.getChangeNumber(),
+							targetChangeNumber);
+					applyChangeDataToIndex(idAndVersion, changeMetadata.getChangeType(), change.getData());
+					lastEtag = changeMetadata.getETag();
+					currentVersion = tableIndexDao.getMaxCurrentCompleteVersionForTable(idAndVersion);
+					applyMS += System.currentTimeMillis() - start;
+				}
 			}
-			if(changeMetadata.getChangeNumber()> currentVersion) {
-				// This change needs to be applied to the table
-				tableManagerSupport.attemptToUpdateTableProgress(idAndVersion,
-						tableResetToken, "Applying change: " + changeMetadata.getChangeNumber(), changeMetadata.getChangeNumber(),
-						targetChangeNumber);
-				applyChangeToIndex(idAndVersion, changeMetadata);
-				lastEtag = changeMetadata.getETag();
-				currentVersion = tableIndexDao.getMaxCurrentCompleteVersionForTable(idAndVersion);
+			if (readAhead.getLoadedCount() > 0) {
+				log.info(String.format("Applied %d changes to %s: waited %d ms for change data, applied changes in %d ms",
+						readAhead.getLoadedCount(), idAndVersion, readAhead.getWaitMS(), applyMS));
 			}
 		}
 
@@ -635,6 +708,36 @@ public class TableIndexManagerImpl implements TableIndexManager {
 		return lastEtag;
 	}
 	
+	/**
+	 * Filter the given changes to the changes that need to be applied to an index
+	 * at the given version. The changes are expected in change number order.
+	 * 
+	 * @param iterator
+	 * @param currentVersion
+	 * @param targetChangeNumber
+	 * @return
+	 */
+	static Iterator<TableChangeMetaData> filterChangesToApply(Iterator<TableChangeMetaData> iterator,
+			long currentVersion, long targetChangeNumber) {
+		return new AbstractIterator<TableChangeMetaData>() {
+
+			@Override
+			protected TableChangeMetaData computeNext() {
+				while (iterator.hasNext()) {
+					TableChangeMetaData changeMetadata = iterator.next();
+					if (changeMetadata.getChangeNumber() > targetChangeNumber) {
+						// all changes have been applied to the index.
+						return endOfData();
+					}
+					if (changeMetadata.getChangeNumber() > currentVersion) {
+						return changeMetadata;
+					}
+				}
+				return endOfData();
+			}
+		};
+	}
+	
 	/**
 	 * Apply the provided change to the provided index.
 	 * 
@@ -645,18 +748,30 @@ public class TableIndexManagerImpl implements TableIndexManager {
 	 */
 	void applyChangeToIndex(IdAndVersion idAndVersion, TableChangeMetaData changeMetadata) throws NotFoundException, IOException {
 		// Load the change based on the type and added the change to the index.
-		switch(changeMetadata.getChangeType()) {
+		applyChangeDataToIndex(idAndVersion, changeMetadata.getChangeType(), TableChangeReadAhead.loadChangeData(changeMetadata));
+	}
+	
+	/**
+	 * Apply the provided change data, loaded according to its type, to the provided index.
+	 * 
+	 * @param idAndVersion
+	 * @param changeType
+	 * @param changeData
+	 */
+	@SuppressWarnings("unchecked")
+	void applyChangeDataToIndex(IdAndVersion idAndVersion, TableChangeType changeType, ChangeData<? extends TableChange> changeData) {
+		switch(changeType) {
 		case ROW:
-			applyRowChangeToIndex(idAndVersion, changeMetadata.loadChangeData(SparseChangeSet.class));
+			applyRowChangeToIndex(idAndVersion, (ChangeData<SparseChangeSet>) changeData);
 			break;
 		case COLUMN:
-			applySchemaChangeToIndex(idAndVersion, changeMetadata.loadChangeData(SchemaChange.class));
+			applySchemaChangeToIndex(idAndVersion, (ChangeData<SchemaChange>) changeData);
 			break;
 		case SEARCH:
-			applySearchChangeToIndex(idAndVersion, changeMetadata.loadChangeData(SearchChange.class));
+			applySearchChangeToIndex(idAndVersion, (ChangeData<SearchChange>) changeData);
 			break;
 		default:
-			throw new IllegalArgumentException("Unknown type: "+changeMetadata.getChangeType());
+			throw new IllegalArgumentException("Unknown type: "+changeType);
 		}
 	}
 	
@@ -892,6 +1007,18 @@ public class TableIndexManagerImpl implements TableIndexManager {
 			return tableIndexDao.getIdAndChecksumsForFilter(salt, filter, limit, offset);
 		}, BATCH_SIZE);
 	}
+
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksums(Long salt, ViewFilter filter, Long minId, Long maxId) {
+		return new PaginationIterator<IdAndChecksum>((long limit, long offset) -> {
+			return tableIndexDao.getIdAndChecksumsForFilterRange(salt, filter, minId, maxId, limit, offset);
+		}, BATCH_SIZE);
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksums(Long salt, ViewFilter filter, Long rangeSize) {
+		return tableIndexDao.getIdRangeChecksumsForFilter(salt, filter, rangeSize);
+	}
 	
 	@Override
 	public boolean isViewSynchronizeLockExpired(ReplicationType type, IdAndVersion idAndVersion) {
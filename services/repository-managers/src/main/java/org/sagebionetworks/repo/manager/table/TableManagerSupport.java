@@ -11,6 +11,7 @@ import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.UnauthorizedException;
 import org.sagebionetworks.repo.model.UserInfo;
 import org.sagebionetworks.repo.model.dao.table.TableType;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableCheckpoint;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.dbo.file.download.v2.ActionsRequiredDao;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
@@ -439,6 +440,22 @@ public interface TableManagerSupport extends SchemaProvider, IndexDescriptionLoo
 	 */
 	Optional<TableSnapshot> getMostRecentTableSnapshot(IdAndVersion idAndVersion);
 	
+	/**
+	 * @param idAndVersion
+	 * @param maxChangeNumber
+	 * @return The most recent checkpoint of the index of the table with the given
+	 *         id that was taken at or before the given change number.
+	 */
+	Optional<TableCheckpoint> getMostRecentTableCheckpoint(IdAndVersion idAndVersion, long maxChangeNumber);
+	
+	/**
+	 * Delete the table data stored in the given bucket and key in S3
+	 * 
+	 * @param bucket
+	 * @param key
+	 */
+	void deleteTableIndexFromS3(String bucket, String key);
+	
 	/**
 	 * Sends a message to trigger an update for the table with the given id, this will not modify the status of the table
 	 * 
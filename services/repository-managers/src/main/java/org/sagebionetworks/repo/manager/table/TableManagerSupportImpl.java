@@ -34,6 +34,7 @@ import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.MaterializedViewDao;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableExceptionTranslator;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableCheckpoint;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshotDao;
 import org.sagebionetworks.repo.model.dbo.dao.table.ViewScopeTypeDao;
@@ -740,6 +741,19 @@ public class TableManagerSupportImpl implements TableManagerSupport {
 	public Optional<TableSnapshot> getMostRecentTableSnapshot(IdAndVersion idAndVersion) {
 		return tableSnapshotDao.getMostRecentTableSnapshot(idAndVersion);
 	}
+	
+	@Override
+	public Optional<TableCheckpoint> getMostRecentTableCheckpoint(IdAndVersion idAndVersion, long maxChangeNumber) {
+		ValidateArgument.required(idAndVersion, "idAndVersion");
+		return tableSnapshotDao.getMostRecentCheckpoint(idAndVersion.getId(), maxChangeNumber);
+	}
+	
+	@Override
+	public void deleteTableIndexFromS3(String bucket, String key) {
+		ValidateArgument.required(bucket, "bucket");
+		ValidateArgument.required(key, "key");
+		s3Client.deleteObject(bucket, key);
+	}
 
 	@Override
 	public ColumnModel getColumnModel(String id) {
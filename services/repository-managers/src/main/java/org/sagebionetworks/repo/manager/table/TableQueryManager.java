@@ -26,6 +26,8 @@ import org.sagebionetworks.util.csv.CSVWriterStream;
 import org.sagebionetworks.util.progress.ProgressCallback;
 import org.sagebionetworks.workers.util.semaphore.LockUnavilableException;
 
+import com.google.common.cache.CacheStats;
+
 /**
  * Business logic for table queries.
  *
@@ -126,5 +128,13 @@ public interface TableQueryManager {
 	TableStatus validateTableIsAvailable(String tableId)
 			throws NotFoundException, TableUnavailableException,
 			TableFailedException;
+
+	/**
+	 * Get the hit, miss and eviction statistics of the query translations cached
+	 * in this JVM.
+	 * 
+	 * @return
+	 */
+	CacheStats getTranslationsCacheStats();
 	
 }
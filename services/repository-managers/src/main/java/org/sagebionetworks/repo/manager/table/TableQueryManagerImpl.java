@@ -6,11 +6,14 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.sagebionetworks.repo.manager.entity.EntityAuthorizationManager;
 import org.sagebionetworks.repo.manager.table.query.ActionsRequiredQuery;
 import org.sagebionetworks.repo.manager.table.query.BasicQuery;
@@ -20,6 +23,7 @@ import org.sagebionetworks.repo.manager.table.query.FacetQueries;
 import org.sagebionetworks.repo.manager.table.query.QueryContext;
 import org.sagebionetworks.repo.manager.table.query.QueryExecutor;
 import org.sagebionetworks.repo.manager.table.query.QueryTranslations;
+import org.sagebionetworks.repo.manager.table.query.QueryTranslationsKey;
 import org.sagebionetworks.repo.manager.table.query.StreamingQueryExecutor;
 import org.sagebionetworks.repo.manager.table.query.SumFileSizesQuery;
 import org.sagebionetworks.repo.model.DatastoreException;
@@ -62,6 +66,7 @@ import org.sagebionetworks.table.cluster.description.IndexDescription;
 import org.sagebionetworks.table.cluster.utils.TableModelUtils;
 import org.sagebionetworks.table.query.ParseException;
 import org.sagebionetworks.table.query.TableQueryParser;
+import org.sagebionetworks.table.query.model.CurrentUserFunction;
 import org.sagebionetworks.table.query.model.Pagination;
 import org.sagebionetworks.table.query.model.QueryExpression;
 import org.sagebionetworks.table.query.model.QuerySpecification;
@@ -75,18 +80,38 @@ import org.sagebionetworks.workers.util.semaphore.LockUnavilableException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.BadSqlGrammarException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 public class TableQueryManagerImpl implements TableQueryManager {
 
 	public static final int CACHED_QUERY_EXPIRES_IN_SEC = 60*5;
 	public static final long MAX_ROWS_PER_CALL = 100;
 	public static final long ACTIONS_REQUIRED_BATCH_SIZE = 10_000;
 	public static final long MAX_ACTIONS_REQUIRED = 50;
+	/**
+	 * The maximum number of query translations held by the cache of this JVM.
+	 */
+	public static final long MAX_TRANSLATIONS_CACHE_SIZE = 1_000L;
+	/**
+	 * Translations that have not been used for this long are dropped from the
+	 * cache. Translations of a table that changed are never used again since the
+	 * table's hash is part of the key.
+	 */
+	public static final long TRANSLATIONS_CACHE_EXPIRES_IN_MINUTES = 10L;
 
 	private TableManagerSupport tableManagerSupport;
 	private ConnectionFactory tableConnectionFactory;
 	private EntityAuthorizationManager entityAuthorizationManager;
 	private ExecutorService threadPool;
 	private QueryCacheManager queryCacheManager;
+	/*
+	 * The translations of recent queries. Translation only depends on the
+	 * information captured in the key, so identical queries against an unchanged
+	 * table and schema can skip the parsing and translation.
+	 */
+	private Cache<QueryTranslationsKey, QueryTranslations> translationsCache;
 
 	@Autowired
 	public TableQueryManagerImpl(TableManagerSupport tableManagerSupport, ConnectionFactory tableConnectionFactory, EntityAuthorizationManager entityAuthorizationManager, ExecutorService cachedThreadPool, QueryCacheManager queryCacheManager) {
@@ -95,6 +120,11 @@ public class TableQueryManagerImpl implements TableQueryManager {
 		this.entityAuthorizationManager = entityAuthorizationManager;
 		this.threadPool = cachedThreadPool;
 		this.queryCacheManager = queryCacheManager;
+		this.translationsCache = CacheBuilder.newBuilder()
+			.maximumSize(MAX_TRANSLATIONS_CACHE_SIZE)
+			.expireAfterAccess(TRANSLATIONS_CACHE_EXPIRES_IN_MINUTES, TimeUnit.MINUTES)
+			.recordStats()
+			.build();
 	}
 	
 	/**
@@ -193,6 +223,7 @@ public class TableQueryManagerImpl implements TableQueryManager {
 	 * <li>Parse the query SQL string, and identify the tableId.</li>
 	 * <li>Authenticate that the user has read access on the table.</li>
 	 * <li>Gather table's schema information</li>
+	 * <li>Lookup the cached translations of the query, when it can be cached.</li>
 	 * <li>Add row level filtering as needed.</li>
 	 * <li>Create processed {@link QueryTranslator} that is ready for execution.</li>
 	 * </ol>
@@ -221,11 +252,46 @@ public class TableQueryManagerImpl implements TableQueryManager {
 		// 2. Validate the user has read access on this table
 		tableManagerSupport.validateTableReadAccess(user, indexDescription);
 
-		// 3. Get the table's schema count
-		long count = tableManagerSupport.getTableSchemaCount(idAndVersion);
-		if (count < 1L) {
+		// 3. Get the table's schema
+		List<ColumnModel> schema = tableManagerSupport.getTableSchema(idAndVersion);
+		if (schema.isEmpty()) {
 			throw new EmptyResultException("Table schema is empty for: " + tableId, tableId);
 		}
+		Optional<QueryTranslationsKey> key = createQueryTranslationsKey(user, query, options, model, indexDescription,
+				schema, maxBytesPerPage);
+		if (!key.isPresent()) {
+			return translateQuery(user, query, options, indexDescription, maxBytesPerPage, query.getOffset(),
+					query.getLimit());
+		}
+		QueryTranslations translations = translationsCache.getIfPresent(key.get());
+		if (translations == null) {
+			// An offset of zero binds both the LIMIT and the OFFSET of the main query, so
+			// the paging of each request can be applied to the cached translations.
+			translations = translateQuery(user, query, options, indexDescription, null, 0L, null);
+			translationsCache.put(key.get(), translations);
+		}
+		return translations.withPagination(query.getOffset(), query.getLimit(), maxBytesPerPage);
+	}
+
+	/**
+	 * Translate the given query after the user has been authorized to read the
+	 * table.
+	 * 
+	 * @param user
+	 * @param query
+	 * @param options
+	 * @param indexDescription
+	 * @param maxBytesPerPage
+	 * @param offset
+	 * @param limit
+	 * @return
+	 * @throws NotFoundException
+	 * @throws TableUnavailableException
+	 * @throws TableFailedException
+	 */
+	QueryTranslations translateQuery(UserInfo user, Query query, QueryOptions options,
+			IndexDescription indexDescription, Long maxBytesPerPage, Long offset, Long limit)
+			throws NotFoundException, TableUnavailableException, TableFailedException {
 		String preprocessedSql = indexDescription.preprocessQuery(query.getSql());
 		QueryExpression preprocessedModel = parserQueryQuerExpression(preprocessedSql);
 		for(QuerySpecification qs: preprocessedModel.createIterable(QuerySpecification.class)) {
@@ -244,8 +310,8 @@ public class TableQueryManagerImpl implements TableQueryManager {
 			.setAdditionalFilters(query.getAdditionalFilters())
 			.setSelectedFacets(query.getSelectedFacets())
 			.setSelectFileColumn(query.getSelectFileColumn())
-			.setLimit(query.getLimit())
-			.setOffset(query.getOffset())
+			.setLimit(limit)
+			.setOffset(offset)
 			.setSort(query.getSort())
 			.setIncludeEntityEtag(query.getIncludeEntityEtag())
 		.build();
@@ -253,6 +319,51 @@ public class TableQueryManagerImpl implements TableQueryManager {
 		return new QueryTranslations(expansion, options);
 	}
 
+	/**
+	 * Create the key of the cached translations of the given query. The key is
+	 * built from the SQL provided by the user, so the cache can be checked before
+	 * the query is processed any further. The paging of the query is not part of
+	 * the key, it is applied to the translations after the lookup.
+	 * 
+	 * @param user
+	 * @param query
+	 * @param options
+	 * @param model            The parsed SQL of the query.
+	 * @param indexDescription
+	 * @param schema
+	 * @param maxBytesPerPage
+	 * @return {@link Optional#empty()} when the translations of the query cannot
+	 *         be cached.
+	 */
+	Optional<QueryTranslationsKey> createQueryTranslationsKey(UserInfo user, Query query, QueryOptions options,
+			QuerySpecification model, IndexDescription indexDescription, List<ColumnModel> schema,
+			Long maxBytesPerPage) {
+		if (maxBytesPerPage == null) {
+			// Without a page size the main query might not have a LIMIT and OFFSET to bind the paging to.
+			return Optional.empty();
+		}
+		if (!indexDescription.getDependencies().isEmpty()) {
+			// The key does not capture the schemas of the dependencies.
+			return Optional.empty();
+		}
+		if (!indexDescription.getBenefactors().isEmpty()) {
+			// The row level filter depends on the permissions of the user at the time of the query.
+			return Optional.empty();
+		}
+		// The user's ID is only included in the translations when the query references the current user.
+		Long userId = model.getFirstElementOfType(CurrentUserFunction.class) != null ? user.getId() : null;
+		// The order of the columns matters for the translation so the IDs are not sorted.
+		String schemaMD5Hex = DigestUtils
+				.md5Hex(schema.stream().map(ColumnModel::getId).collect(Collectors.joining(",")));
+		return Optional.of(
+				new QueryTranslationsKey(query, options, indexDescription.getTableHash(), schemaMD5Hex, userId));
+	}
+
+	@Override
+	public CacheStats getTranslationsCacheStats() {
+		return translationsCache.stats();
+	}
+
 	/**
 	 * The main entry point for all table queries. Any business logic that must be
 	 * applied to all table queries should applied here or lower.
@@ -580,7 +691,7 @@ public class TableQueryManagerImpl implements TableQueryManager {
 			CachedQueryRequest cacheRequest = new CachedQueryRequest()
 				.setOutputSQL(countSqlQuery.getSql())
 				.setParameters(countSqlQuery.getParameters())
-				.setSelectColumns(List.of(new SelectColumn().setColumnType(ColumnType.INTEGER)))
+				.setSelectColumns(List.of(new SelectColumn().setColumnType(ColumnType.INTEGER)))
 				.setIncludesRowIdAndVersion(false)
 				.setIncludesRowIdAndVersion(false)
 				.setSingleTableId(query.getSingleTableId())
@@ -0,0 +1,202 @@
+package org.sagebionetworks.repo.manager.table.change;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.table.model.ChangeData;
+import org.sagebionetworks.table.model.SchemaChange;
+import org.sagebionetworks.table.model.SearchChange;
+import org.sagebionetworks.table.model.SparseChangeSet;
+import org.sagebionetworks.table.model.TableChange;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * Loads the data of a sequence of table changes ahead of the caller. While the
+ * caller applies the current change, the data of up to 'maxReadAhead' of the
+ * following changes is loaded concurrently. The changes are always returned in
+ * the order of the provided iterator.
+ * <p>
+ * Note: {@link #close()} should be called when the caller is done to cancel any
+ * loads that are still in progress.
+ *
+ */
+public class TableChangeReadAhead implements AutoCloseable {
+
+	private final Executor executor;
+	private final Iterator<TableChangeMetaData> changes;
+	private final int maxReadAhead;
+	private final Deque<LoadingChange> loading;
+
+	private long waitNanos;
+	private long loadedCount;
+
+	/**
+	 *
+	 * @param executor     Runs the loads of the change data.
+	 * @param changes      The changes to load, in the order they will be applied.
+	 * @param maxReadAhead The maximum number of changes loaded ahead of the
+	 *                     caller, including the next change.
+	 */
+	public TableChangeReadAhead(Executor executor, Iterator<TableChangeMetaData> changes, int maxReadAhead) {
+		ValidateArgument.required(executor, "executor");
+		ValidateArgument.required(changes, "changes");
+		ValidateArgument.requirement(maxReadAhead > 0, "maxReadAhead must be greater than zero.");
+		this.executor = executor;
+		this.changes = changes;
+		this.maxReadAhead = maxReadAhead;
+		this.loading = new ArrayDeque<>(maxReadAhead);
+		this.waitNanos = 0L;
+		this.loadedCount = 0L;
+	}
+
+	/**
+	 * @return True if there is another change.
+	 */
+	public boolean hasNext() {
+		fill();
+		return !loading.isEmpty();
+	}
+
+	/**
+	 * Get the data of the next change, waiting for it to be loaded if needed.
+	 *
+	 * @return
+	 * @throws NotFoundException
+	 * @throws IOException
+	 */
+	public LoadedTableChange next() throws NotFoundException, IOException {
+		fill();
+		LoadingChange next = loading.poll();
+		if (next == null) {
+			throw new NoSuchElementException();
+		}
+		// start loading the change that replaces this one.
+		fill();
+		long start = System.nanoTime();
+		try {
+			ChangeData<? extends TableChange> data = next.future.join();
+			loadedCount++;
+			return new LoadedTableChange(next.metadata, data);
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) e.getCause()).getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		} finally {
+			waitNanos += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Start loading changes until 'maxReadAhead' changes are loading.
+	 */
+	void fill() {
+		while (loading.size() < maxReadAhead && changes.hasNext()) {
+			TableChangeMetaData metadata = changes.next();
+			loading.add(new LoadingChange(metadata, CompletableFuture.supplyAsync(() -> {
+				try {
+					return loadChangeData(metadata);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, executor)));
+		}
+	}
+
+	/**
+	 * @return The total time spent waiting for change data to be loaded.
+	 */
+	public long getWaitMS() {
+		return TimeUnit.NANOSECONDS.toMillis(waitNanos);
+	}
+
+	/**
+	 * @return The number of changes returned so far.
+	 */
+	public long getLoadedCount() {
+		return loadedCount;
+	}
+
+	/**
+	 * Cancel the loads that are still in progress.
+	 */
+	@Override
+	public void close() {
+		loading.forEach((change) -> change.future.cancel(true));
+		loading.clear();
+	}
+
+	/**
+	 * Load the data of the given change according to its type.
+	 *
+	 * @param change
+	 * @return
+	 * @throws NotFoundException
+	 * @throws IOException
+	 */
+	public static ChangeData<? extends TableChange> loadChangeData(TableChangeMetaData change)
+			throws NotFoundException, IOException {
+		switch (change.getChangeType()) {
+		case ROW:
+			return change.loadChangeData(SparseChangeSet.class);
+		case COLUMN:
+			return change.loadChangeData(SchemaChange.class);
+		case SEARCH:
+			return change.loadChangeData(SearchChange.class);
+		default:
+			throw new IllegalArgumentException("Unknown type: " + change.getChangeType());
+		}
+	}
+
+	/**
+	 * A change with its loaded data.
+	 */
+	public static class LoadedTableChange {
+
+		private final TableChangeMetaData metadata;
+		private final ChangeData<? extends TableChange> data;
+
+		LoadedTableChange(TableChangeMetaData metadata, ChangeData<? extends TableChange> data) {
+			this.metadata = metadata;
+			this.data = data;
+		}
+
+		/**
+		 * @return The metadata of the change.
+		 */
+		public TableChangeMetaData getMetadata() {
+			return metadata;
+		}
+
+		/**
+		 * @return The loaded data of the change.
+		 */
+		public ChangeData<? extends TableChange> getData() {
+			return data;
+		}
+	}
+
+	private static class LoadingChange {
+
+		private final TableChangeMetaData metadata;
+		private final CompletableFuture<ChangeData<? extends TableChange>> future;
+
+		LoadingChange(TableChangeMetaData metadata, CompletableFuture<ChangeData<? extends TableChange>> future) {
+			this.metadata = metadata;
+			this.future = future;
+		}
+	}
+
+}
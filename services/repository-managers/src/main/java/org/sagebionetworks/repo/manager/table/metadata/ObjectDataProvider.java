@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.ReplicationType;
 import org.sagebionetworks.repo.model.table.SubType;
@@ -64,4 +65,61 @@ public interface ObjectDataProvider {
 	 */
 	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds);
 
+	/**
+	 * Provide a stream of IdAndChecksum data for the given parentIds and subTypes
+	 * limited to the IDs in the range [minId, maxId), ordered by the IDs
+	 * ascending. See
+	 * {@link #streamOverIdsAndChecksumsForChildren(Long, Set, Set)}.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param minId     Inclusive
+	 * @param maxId     Exclusive
+	 * @return
+	 */
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds,
+			Set<SubType> subTypes, Long minId, Long maxId);
+
+	/**
+	 * Provide a stream of IdAndChecksum data for the given objectIds limited to
+	 * the IDs in the range [minId, maxId), ordered by the IDs ascending. See
+	 * {@link #streamOverIdsAndChecksumsForObjects(Long, Set)}.
+	 * 
+	 * @param salt
+	 * @param objectIds
+	 * @param minId     Inclusive
+	 * @param maxId     Exclusive
+	 * @return
+	 */
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds, Long minId,
+			Long maxId);
+
+	/**
+	 * Get the aggregated checksum of each range of IDs for the given parentIds and
+	 * subTypes. The checksum of a range is the sum of the checksums of each ID in
+	 * the range, as provided by
+	 * {@link #streamOverIdsAndChecksumsForChildren(Long, Set, Set)}.
+	 * 
+	 * @param salt
+	 * @param parentIds
+	 * @param subTypes
+	 * @param rangeSize The number of IDs covered by each range.
+	 * @return The checksum of each non-empty range ordered by the range index.
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long rangeSize);
+
+	/**
+	 * Get the aggregated checksum of each range of IDs for the given objectIds. The
+	 * checksum of a range is the sum of the checksums of each ID in the range, as
+	 * provided by {@link #streamOverIdsAndChecksumsForObjects(Long, Set)}.
+	 * 
+	 * @param salt
+	 * @param objectIds
+	 * @param rangeSize The number of IDs covered by each range.
+	 * @return The checksum of each non-empty range ordered by the range index.
+	 */
+	public List<IdRangeChecksum> getIdRangeChecksumsForObjects(Long salt, Set<Long> objectIds, Long rangeSize);
+
 }
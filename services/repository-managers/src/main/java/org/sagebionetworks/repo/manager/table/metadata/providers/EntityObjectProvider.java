@@ -3,14 +3,17 @@ package org.sagebionetworks.repo.manager.table.metadata.providers;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProvider;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.ReplicationType;
 import org.sagebionetworks.repo.model.table.SubType;
 import org.sagebionetworks.util.PaginationIterator;
+import org.sagebionetworks.util.ValidateArgument;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -49,4 +52,32 @@ public class EntityObjectProvider implements ObjectDataProvider {
 		return nodeDao.getIdsAndChecksumsForObjects(salt, objectIds).iterator();
 	}
 
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds,
+			Set<SubType> subTypes, Long minId, Long maxId) {
+		return nodeDao.getIdsAndChecksumsForChildren(salt, parentIds, subTypes, minId, maxId).iterator();
+	}
+
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds, Long minId,
+			Long maxId) {
+		ValidateArgument.required(objectIds, "objectIds");
+		ValidateArgument.required(minId, "minId");
+		ValidateArgument.required(maxId, "maxId");
+		Set<Long> objectIdsInRange = objectIds.stream().filter(id -> id >= minId && id < maxId)
+				.collect(Collectors.toSet());
+		return nodeDao.getIdsAndChecksumsForObjects(salt, objectIdsInRange).iterator();
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long rangeSize) {
+		return nodeDao.getIdRangeChecksumsForChildren(salt, parentIds, subTypes, rangeSize);
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForObjects(Long salt, Set<Long> objectIds, Long rangeSize) {
+		return nodeDao.getIdRangeChecksumsForObjects(salt, objectIds, rangeSize);
+	}
+
 }
@@ -7,6 +7,7 @@ import java.util.Set;
 import org.sagebionetworks.evaluation.dao.SubmissionDAO;
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProvider;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.ReplicationType;
 import org.sagebionetworks.repo.model.table.SubType;
@@ -50,4 +51,29 @@ public class SubmissionObjectProvider implements ObjectDataProvider {
 		throw new UnsupportedOperationException("All submission views are hierarchical");
 	}
 
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForChildren(Long salt, Set<Long> parentIds,
+			Set<SubType> subTypes, Long minId, Long maxId) {
+		return new PaginationIterator<IdAndChecksum>((long limit, long offset) -> {
+			return submissionDao.getIdAndChecksumsPage(salt, parentIds, minId, maxId, limit, offset);
+		}, PAGE_SIZE);
+	}
+
+	@Override
+	public Iterator<IdAndChecksum> streamOverIdsAndChecksumsForObjects(Long salt, Set<Long> objectIds, Long minId,
+			Long maxId) {
+		throw new UnsupportedOperationException("All submission views are hierarchical");
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForChildren(Long salt, Set<Long> parentIds, Set<SubType> subTypes,
+			Long rangeSize) {
+		return submissionDao.getIdRangeChecksums(salt, parentIds, rangeSize);
+	}
+
+	@Override
+	public List<IdRangeChecksum> getIdRangeChecksumsForObjects(Long salt, Set<Long> objectIds, Long rangeSize) {
+		throw new UnsupportedOperationException("All submission views are hierarchical");
+	}
+
 }
@@ -25,12 +25,7 @@ public class ActionsRequiredQuery {
 		ValidateArgument.required(expansion, "expansion");
 		
 		try {
-			CombinedQuery combined = CombinedQuery.builder()
-				.setQuery(expansion.getStartingSql())
-				.setSchemaProvider(expansion.getSchemaProvider())
-				.setSelectedFacets(expansion.getSelectedFacets())
-				.setAdditionalFilters(expansion.getAdditionalFilters())
-				.build();
+			CombinedQuery combined = expansion.getFilteredQuery();
 			
 			QueryExpression expression = new TableQueryParser(combined.getCombinedSql()).queryExpression();
 			
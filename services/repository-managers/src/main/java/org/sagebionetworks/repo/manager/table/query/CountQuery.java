@@ -30,10 +30,7 @@ public class CountQuery {
 		ValidateArgument.required(expansion, "expansion");
 
 		try {
-			CombinedQuery combined = CombinedQuery.builder().setQuery(expansion.getStartingSql())
-					.setAdditionalFilters(expansion.getAdditionalFilters())
-					.setSchemaProvider(expansion.getSchemaProvider()).setSelectedFacets(expansion.getSelectedFacets())
-					.build();
+			CombinedQuery combined = expansion.getFilteredQuery();
 
 			QueryExpression queryExpression = new TableQueryParser(combined.getCombinedSql()).queryExpression();
 			QuerySpecification model = queryExpression.getFirstElementOfType(QuerySpecification.class);
@@ -23,8 +23,25 @@ public class MainQuery {
 				.build();
 	}
 
+	private MainQuery(QueryTranslator sqlQuery) {
+		this.sqlQuery = sqlQuery;
+	}
+
 	public QueryTranslator getTranslator() {
 		return sqlQuery;
 	}
 
+	/**
+	 * Create a copy of this query with the given paging applied. See:
+	 * {@link QueryTranslator#withPagination(Long, Long, Long)}
+	 * 
+	 * @param offset
+	 * @param limit
+	 * @param maxBytesPerPage
+	 * @return
+	 */
+	public MainQuery withPagination(Long offset, Long limit, Long maxBytesPerPage) {
+		return new MainQuery(sqlQuery.withPagination(offset, limit, maxBytesPerPage));
+	}
+
 }
@@ -1,14 +1,18 @@
 package org.sagebionetworks.repo.manager.table.query;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.sagebionetworks.repo.model.table.FacetColumnRequest;
 import org.sagebionetworks.repo.model.table.QueryFilter;
 import org.sagebionetworks.repo.model.table.SortItem;
+import org.sagebionetworks.table.cluster.CombinedQuery;
 import org.sagebionetworks.table.cluster.SchemaProvider;
 import org.sagebionetworks.table.cluster.description.IndexDescription;
 import org.sagebionetworks.util.ValidateArgument;
 
+import com.google.common.base.Suppliers;
+
 /**
  * An immutable wrapper of a query plus all of its optional parts. This also
  * wraps table metadata providers.
@@ -31,6 +35,7 @@ public class QueryContext {
 	private final Long offset;
 	private final Long limit;
 	private final List<SortItem> sort;
+	private final Supplier<CombinedQuery> filteredQuery;
 
 	public QueryContext(String startingSql, SchemaProvider schemaProvider, IndexDescription indexDescription,
 			Long userId, Long maxBytesPerPage, Long maxRowsPerCall, List<QueryFilter> additionalFilters,
@@ -54,6 +59,11 @@ public class QueryContext {
 		this.offset = offset;
 		this.limit = limit;
 		this.sort = sort;
+		// Only built when one of the derived queries needs it. The memoizing supplier
+		// is thread-safe, so the context can be shared by queries on other threads.
+		this.filteredQuery = Suppliers.memoize(() -> CombinedQuery.builder().setQuery(startingSql)
+				.setSchemaProvider(this.schemaProvider).setAdditionalFilters(additionalFilters)
+				.setSelectedFacets(selectedFacets).build());
 	}
 
 	/**
@@ -144,6 +154,18 @@ public class QueryContext {
 		return sort;
 	}
 
+	/**
+	 * The starting SQL combined with the additional filters and selected facets,
+	 * without any sorting or pagination overrides. This is the starting point of
+	 * the count, sum file sizes and actions required queries. The combined query
+	 * is built on the first call and shared by all subsequent calls.
+	 * 
+	 * @return
+	 */
+	public CombinedQuery getFilteredQuery() {
+		return filteredQuery.get();
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -28,6 +28,30 @@ public class QueryTranslations {
 		actionsRequiredQuery = options.returnActionsRequired() ? new ActionsRequiredQuery(expansion) : null;
 	}
 
+	private QueryTranslations(MainQuery mainQuery, FacetQueries facetQueries, CountQuery countQuery,
+			SumFileSizesQuery sumFileSizesQuery, ActionsRequiredQuery actionsRequiredQuery) {
+		this.mainQuery = mainQuery;
+		this.facetQueries = facetQueries;
+		this.countQuery = countQuery;
+		this.sumFileSizesQuery = sumFileSizesQuery;
+		this.actionsRequiredQuery = actionsRequiredQuery;
+	}
+
+	/**
+	 * Create a copy of these translations with the given paging applied to the
+	 * main query. The paging does not change any of the other queries, so they are
+	 * shared with the copy.
+	 * 
+	 * @param offset
+	 * @param limit
+	 * @param maxBytesPerPage
+	 * @return
+	 */
+	public QueryTranslations withPagination(Long offset, Long limit, Long maxBytesPerPage) {
+		return new QueryTranslations(mainQuery.withPagination(offset, limit, maxBytesPerPage), facetQueries,
+				countQuery, sumFileSizesQuery, actionsRequiredQuery);
+	}
+
 	public MainQuery getMainQuery() {
 		return mainQuery;
 	}
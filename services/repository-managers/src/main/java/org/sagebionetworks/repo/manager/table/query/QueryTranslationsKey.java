@@ -0,0 +1,112 @@
+package org.sagebionetworks.repo.manager.table.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.sagebionetworks.repo.model.table.FacetColumnRequest;
+import org.sagebionetworks.repo.model.table.Query;
+import org.sagebionetworks.repo.model.table.QueryFilter;
+import org.sagebionetworks.repo.model.table.QueryOptions;
+import org.sagebionetworks.repo.model.table.SortItem;
+import org.sagebionetworks.util.ValidateArgument;
+
+/**
+ * An immutable key that identifies the {@link QueryTranslations} of a query.
+ * Two queries with equal keys will produce identical translations. The key is
+ * built from the SQL as provided by the user, plus the table's hash and the MD5
+ * of the table's schema, so any change to the table or its schema results in a
+ * new key.
+ * <p>
+ * Note: The paging of the query (offset, limit and the maximum bytes per page)
+ * is not part of the key. The paging is applied to the translations after they
+ * are looked up. See: {@link QueryTranslations#withPagination(Long, Long, Long)}
+ *
+ */
+public class QueryTranslationsKey {
+
+	private final String sql;
+	private final String tableHash;
+	private final String schemaMD5Hex;
+	private final Long userId;
+	private final List<QueryFilter> additionalFilters;
+	private final List<FacetColumnRequest> selectedFacets;
+	private final Long selectFileColumn;
+	private final Boolean includeEntityEtag;
+	private final List<SortItem> sort;
+	private final boolean returnFacets;
+	private final boolean runCount;
+	private final boolean runSumFileSizes;
+	private final boolean returnActionsRequired;
+
+	/**
+	 * 
+	 * @param query
+	 * @param options
+	 * @param tableHash
+	 * @param schemaMD5Hex
+	 * @param userId       The ID of the user when the translations depend on the
+	 *                     user, otherwise null.
+	 */
+	public QueryTranslationsKey(Query query, QueryOptions options, String tableHash, String schemaMD5Hex,
+			Long userId) {
+		ValidateArgument.required(query, "query");
+		ValidateArgument.required(query.getSql(), "query.sql");
+		ValidateArgument.required(options, "options");
+		ValidateArgument.required(tableHash, "tableHash");
+		ValidateArgument.required(schemaMD5Hex, "schemaMD5Hex");
+		this.sql = query.getSql();
+		this.tableHash = tableHash;
+		this.schemaMD5Hex = schemaMD5Hex;
+		this.userId = userId;
+		this.additionalFilters = copyOf(query.getAdditionalFilters());
+		this.selectedFacets = copyOf(query.getSelectedFacets());
+		this.selectFileColumn = query.getSelectFileColumn();
+		this.includeEntityEtag = query.getIncludeEntityEtag();
+		this.sort = copyOf(query.getSort());
+		this.returnFacets = options.returnFacets();
+		this.runCount = options.runCount();
+		this.runSumFileSizes = options.runSumFileSizes();
+		this.returnActionsRequired = options.returnActionsRequired();
+	}
+
+	private static <T> List<T> copyOf(List<T> list) {
+		return list == null ? null : new ArrayList<>(list);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(additionalFilters, includeEntityEtag, returnActionsRequired, returnFacets, runCount,
+				runSumFileSizes, schemaMD5Hex, selectFileColumn, selectedFacets, sort, sql, tableHash, userId);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof QueryTranslationsKey)) {
+			return false;
+		}
+		QueryTranslationsKey other = (QueryTranslationsKey) obj;
+		return Objects.equals(additionalFilters, other.additionalFilters)
+				&& Objects.equals(includeEntityEtag, other.includeEntityEtag)
+				&& returnActionsRequired == other.returnActionsRequired && returnFacets == other.returnFacets
+				&& runCount == other.runCount && runSumFileSizes == other.runSumFileSizes
+				&& Objects.equals(schemaMD5Hex, other.schemaMD5Hex)
+				&& Objects.equals(selectFileColumn, other.selectFileColumn)
+				&& Objects.equals(selectedFacets, other.selectedFacets) && Objects.equals(sort, other.sort)
+				&& Objects.equals(sql, other.sql) && Objects.equals(tableHash, other.tableHash)
+				&& Objects.equals(userId, other.userId);
+	}
+
+	@Override
+	public String toString() {
+		return "QueryTranslationsKey [sql=" + sql + ", tableHash=" + tableHash + ", schemaMD5Hex=" + schemaMD5Hex
+				+ ", userId=" + userId + ", additionalFilters=" + additionalFilters + ", selectedFacets="
+				+ selectedFacets + ", selectFileColumn=" + selectFileColumn + ", includeEntityEtag="
+				+ includeEntityEtag + ", sort=" + sort + ", returnFacets=" + returnFacets + ", runCount=" + runCount
+				+ ", runSumFileSizes=" + runSumFileSizes + ", returnActionsRequired=" + returnActionsRequired + "]";
+	}
+
+}
@@ -22,9 +22,7 @@ public class SumFileSizesQuery {
 		if (TableType.entityview.equals(expansion.getIndexDescription().getTableType())
 				|| TableType.dataset.equals(expansion.getIndexDescription().getTableType())) {
 			try {
-				CombinedQuery combined = CombinedQuery.builder().setQuery(expansion.getStartingSql())
-						.setAdditionalFilters(expansion.getAdditionalFilters()).setSelectedFacets(expansion.getSelectedFacets())
-						.setSchemaProvider(expansion.getSchemaProvider()).build();
+				CombinedQuery combined = expansion.getFilteredQuery();
 				QuerySpecification model = new TableQueryParser(combined.getCombinedSql()).querySpecification();
 				QueryTranslator sqlQuery = QueryTranslator.builder(model.toSql(), expansion.getUserId()).schemaProvider(expansion.getSchemaProvider()).indexDescription(expansion.getIndexDescription()).build();
 				// first get the rowId and rowVersions for the given query up to the limit + 1.
@@ -0,0 +1,137 @@
+package org.sagebionetworks.repo.manager.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.audit.AccessRecord;
+
+public class AccessRecordRingBufferTest {
+
+	private static AccessRecord createRecord(long id) {
+		AccessRecord record = new AccessRecord();
+		record.setTimestamp(id);
+		return record;
+	}
+
+	@Test
+	public void testOfferAndDrain() {
+		AccessRecordRingBuffer buffer = new AccessRecordRingBuffer(4);
+		AccessRecord one = createRecord(1L);
+		AccessRecord two = createRecord(2L);
+		assertTrue(buffer.offer(one));
+		assertTrue(buffer.offer(two));
+		List<AccessRecord> drained = new ArrayList<>();
+
+		// call under test
+		assertEquals(2, buffer.drain(drained::add));
+
+		assertEquals(List.of(one, two), drained);
+		assertEquals(0, buffer.drain(drained::add));
+		assertEquals(0L, buffer.getDroppedCount());
+	}
+
+	@Test
+	public void testOfferWithFullBuffer() {
+		AccessRecordRingBuffer buffer = new AccessRecordRingBuffer(2);
+		assertTrue(buffer.offer(createRecord(1L)));
+		assertTrue(buffer.offer(createRecord(2L)));
+
+		// call under test
+		assertFalse(buffer.offer(createRecord(3L)));
+
+		assertEquals(1L, buffer.getDroppedCount());
+		List<AccessRecord> drained = new ArrayList<>();
+		assertEquals(2, buffer.drain(drained::add));
+		assertEquals(1L, drained.get(0).getTimestamp());
+		assertEquals(2L, drained.get(1).getTimestamp());
+	}
+
+	@Test
+	public void testOfferAfterDrain() {
+		AccessRecordRingBuffer buffer = new AccessRecordRingBuffer(2);
+		List<AccessRecord> drained = new ArrayList<>();
+		// wrap around the buffer several times.
+		for (long i = 0; i < 10; i++) {
+			// call under test
+			assertTrue(buffer.offer(createRecord(i)));
+			assertEquals(1, buffer.drain(drained::add));
+			assertEquals(i, drained.get((int) i).getTimestamp());
+		}
+		assertEquals(0L, buffer.getDroppedCount());
+	}
+
+	@Test
+	public void testOfferWithNullRecord() {
+		AccessRecordRingBuffer buffer = new AccessRecordRingBuffer(2);
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			buffer.offer(null);
+		}).getMessage();
+		assertEquals("record is required.", message);
+	}
+
+	@Test
+	public void testConstructorWithCapacityNotPowerOfTwo() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new AccessRecordRingBuffer(3);
+		}).getMessage();
+		assertEquals("capacity must be a power of two greater than one", message);
+	}
+
+	@Test
+	public void testOfferWithContention() throws Exception {
+		int threadCount = 16;
+		int recordsPerThread = 5000;
+		AccessRecordRingBuffer buffer = new AccessRecordRingBuffer(1024);
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Integer>> futures = new ArrayList<>(threadCount);
+			for (int t = 0; t < threadCount; t++) {
+				long base = t * recordsPerThread;
+				futures.add(executor.submit((Callable<Integer>) () -> {
+					start.await();
+					int accepted = 0;
+					for (int i = 0; i < recordsPerThread; i++) {
+						if (buffer.offer(createRecord(base + i))) {
+							accepted++;
+						}
+					}
+					return accepted;
+				}));
+			}
+			start.countDown();
+			Set<Long> drained = new HashSet<>();
+			int drainedCount = 0;
+			boolean done = false;
+			while (!done) {
+				done = futures.stream().allMatch(Future::isDone);
+				drainedCount += buffer.drain(record -> drained.add(record.getTimestamp()));
+			}
+			int accepted = 0;
+			for (Future<Integer> future : futures) {
+				accepted += future.get();
+			}
+			// every accepted record must be drained exactly once and every other record counted as dropped.
+			assertEquals(accepted, drainedCount);
+			assertEquals(accepted, drained.size());
+			assertEquals(threadCount * recordsPerThread, accepted + buffer.getDroppedCount());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -1,9 +1,11 @@
 package org.sagebionetworks.repo.manager.audit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.io.IOException;
 import java.util.LinkedList;
@@ -12,6 +14,7 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -66,6 +69,35 @@ public class KinesisAccessRecorderTest {
 		verify(mockAwsKinesisFirehoseLogger).logBatch(KinesisAccessRecorder.ACCESS_RECORD_STREAM, kinesisJsonEntityRecords);
 	}
 	
+	@Test
+	public void testTimerFiredWithNoRecords() {
+		// call under test
+		recorder.timerFired();
+		verifyZeroInteractions(mockAwsKinesisFirehoseLogger);
+	}
+
+	@Test
+	public void testSaveWithFullBuffer() {
+		AccessRecord record = createList(1, 100).get(0);
+		for (int i = 0; i < KinesisAccessRecorder.MAX_BUFFERED_RECORDS; i++) {
+			recorder.save(record);
+		}
+		
+		// call under test
+		recorder.save(record);
+		
+		assertEquals(1L, recorder.getDroppedCount());
+		recorder.timerFired();
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<KinesisJsonEntityRecord<AccessRecord>>> captor = ArgumentCaptor.forClass(List.class);
+		verify(mockAwsKinesisFirehoseLogger).logBatch(any(), captor.capture());
+		assertEquals(KinesisAccessRecorder.MAX_BUFFERED_RECORDS, captor.getValue().size());
+		
+		// the buffer accepts records again once drained.
+		recorder.save(record);
+		assertEquals(1L, recorder.getDroppedCount());
+	}
+	
 	private static List<AccessRecord> createList(int count, long startTimestamp){
 		List<AccessRecord> list = new LinkedList<AccessRecord>();
 		for(int i=0; i<count; i++){
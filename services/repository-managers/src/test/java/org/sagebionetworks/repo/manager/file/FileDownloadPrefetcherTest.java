@@ -0,0 +1,246 @@
+package org.sagebionetworks.repo.manager.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.file.S3FileHandle;
+
+@ExtendWith(MockitoExtension.class)
+public class FileDownloadPrefetcherTest {
+
+	@Mock
+	private ExecutorService mockThreadPool;
+	@Mock
+	private FileDownloadPrefetcher.Downloader mockDownloader;
+	@Mock
+	private File mockFileOne;
+	@Mock
+	private File mockFileTwo;
+	@Mock
+	private File mockFileThree;
+	@Mock
+	private Future<File> mockFuture;
+	@Captor
+	private ArgumentCaptor<Callable<File>> callableCaptor;
+
+	private S3FileHandle one;
+	private S3FileHandle two;
+	private S3FileHandle three;
+	private List<S3FileHandle> handles;
+
+	@BeforeEach
+	public void before() {
+		one = new S3FileHandle().setId("1").setContentSize(10L);
+		two = new S3FileHandle().setId("2").setContentSize(10L);
+		three = new S3FileHandle().setId("3").setContentSize(10L);
+		handles = Arrays.asList(one, two, three);
+	}
+
+	/**
+	 * Run each submitted download on the calling thread.
+	 */
+	@SuppressWarnings("unchecked")
+	void setupThreadPool() {
+		when(mockThreadPool.submit(any(Callable.class))).thenAnswer(invocation -> {
+			Callable<File> callable = invocation.getArgument(0);
+			try {
+				return CompletableFuture.completedFuture(callable.call());
+			} catch (Exception e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		});
+	}
+
+	void setupDownloads() throws IOException {
+		when(mockDownloader.download(one)).thenReturn(mockFileOne);
+		when(mockDownloader.download(two)).thenReturn(mockFileTwo);
+		when(mockDownloader.download(three)).thenReturn(mockFileThree);
+	}
+
+	@Test
+	public void testGetFile() throws IOException {
+		setupThreadPool();
+		setupDownloads();
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader, handles, 2, 100L);
+		// the first two files should be started on creation.
+		assertEquals(2, prefetcher.getPendingCount());
+
+		// call under test
+		assertSame(mockFileOne, prefetcher.getFile(one));
+		assertSame(mockFileTwo, prefetcher.getFile(two));
+		assertSame(mockFileThree, prefetcher.getFile(three));
+
+		assertEquals(0, prefetcher.getPendingCount());
+		verify(mockDownloader).download(one);
+		verify(mockDownloader).download(two);
+		verify(mockDownloader).download(three);
+		verify(mockThreadPool, times(3)).submit(any(Callable.class));
+	}
+
+	@Test
+	public void testGetFileWithMaxBytesAhead() throws IOException {
+		setupThreadPool();
+		// call under test
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader, handles, 3, 15L);
+		// the second file would exceed the byte limit.
+		assertEquals(1, prefetcher.getPendingCount());
+	}
+
+	@Test
+	public void testGetFileWithSingleFileOverMaxBytes() throws IOException {
+		setupThreadPool();
+		one.setContentSize(1000L);
+		// call under test
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader, handles, 3, 15L);
+		// a file over the limit is still downloaded when nothing else is pending.
+		assertEquals(1, prefetcher.getPendingCount());
+	}
+
+	@Test
+	public void testGetFileWithSkippedFile() throws IOException {
+		setupThreadPool();
+		setupDownloads();
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader, handles, 2, 100L);
+
+		// call under test
+		assertSame(mockFileTwo, prefetcher.getFile(two));
+
+		// the first file was skipped by the writer so it must be deleted.
+		verify(mockFileOne).delete();
+		verify(mockFileTwo, never()).delete();
+		assertEquals(1, prefetcher.getPendingCount());
+	}
+
+	@Test
+	public void testGetFileWithUnknownFile() throws IOException {
+		S3FileHandle other = new S3FileHandle().setId("4").setContentSize(10L);
+		when(mockDownloader.download(other)).thenReturn(mockFileOne);
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader,
+				Arrays.asList(), 2, 100L);
+
+		// call under test
+		assertSame(mockFileOne, prefetcher.getFile(other));
+
+		verify(mockThreadPool, never()).submit(any(Callable.class));
+	}
+
+	@Test
+	public void testGetFileWithDownloadFailure() throws IOException {
+		setupThreadPool();
+		IOException exception = new IOException("nope");
+		when(mockDownloader.download(one)).thenThrow(exception);
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader,
+				Arrays.asList(one), 2, 100L);
+
+		IOException result = assertThrows(IOException.class, () -> {
+			// call under test
+			prefetcher.getFile(one);
+		});
+		assertSame(exception, result);
+	}
+
+	@Test
+	public void testClose() throws IOException {
+		setupThreadPool();
+		setupDownloads();
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader, handles, 3, 100L);
+		assertSame(mockFileOne, prefetcher.getFile(one));
+
+		// call under test
+		prefetcher.close();
+
+		assertEquals(0, prefetcher.getPendingCount());
+		verify(mockFileOne, never()).delete();
+		verify(mockFileTwo).delete();
+		verify(mockFileThree).delete();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testCloseWithDownloadInProgress() throws Exception {
+		// the download is still running when the prefetcher is closed.
+		when(mockThreadPool.submit(any(Callable.class))).thenReturn(mockFuture);
+		when(mockDownloader.download(one)).thenReturn(mockFileOne);
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader,
+				Arrays.asList(one), 2, 100L);
+
+		// call under test
+		prefetcher.close();
+
+		assertEquals(0, prefetcher.getPendingCount());
+		verify(mockFuture).cancel(true);
+		verify(mockFileOne, never()).delete();
+
+		// the cancelled download finishes and must delete its own file.
+		verify(mockThreadPool).submit(callableCaptor.capture());
+		assertSame(mockFileOne, callableCaptor.getValue().call());
+		verify(mockFileOne).delete();
+	}
+
+	@Test
+	public void testStop() throws IOException {
+		setupThreadPool();
+		setupDownloads();
+		FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(mockThreadPool, mockDownloader, handles, 2, 100L);
+		assertEquals(2, prefetcher.getPendingCount());
+
+		// call under test
+		prefetcher.stop();
+
+		assertEquals(0, prefetcher.getPendingCount());
+		verify(mockFileOne).delete();
+		verify(mockFileTwo).delete();
+
+		// no further downloads are started ahead once stopped.
+		assertSame(mockFileThree, prefetcher.getFile(three));
+		assertEquals(0, prefetcher.getPendingCount());
+		verify(mockThreadPool, times(2)).submit(any(Callable.class));
+	}
+
+	@Test
+	public void testGetFileWithThreadPool() throws Exception {
+		setupDownloads();
+		ExecutorService threadPool = Executors.newFixedThreadPool(3);
+		try (FileDownloadPrefetcher prefetcher = new FileDownloadPrefetcher(threadPool, mockDownloader, handles, 2,
+				100L)) {
+			// call under test
+			assertSame(mockFileOne, prefetcher.getFile(one));
+			assertSame(mockFileTwo, prefetcher.getFile(two));
+			assertSame(mockFileThree, prefetcher.getFile(three));
+		} finally {
+			threadPool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConstructorWithZeroMaxFiles() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new FileDownloadPrefetcher(mockThreadPool, mockDownloader, handles, 0, 100L);
+		}).getMessage();
+		assertEquals("maxFilesAhead must be greater than zero", message);
+	}
+}
@@ -205,8 +205,6 @@ public class FileHandleAssociationScannerJobManagerUnitTest {
 		when(mockAssociationManager.scanRange(any(), any())).thenReturn(associations);
 		when(mockFileHandleDao.hasStatusBatch(anyList(), any())).thenReturn(false);
 		
-		doNothing().when(mockClock).sleep(anyLong());
-		
 		final long initialTimestamp = 1234L;
 		
 		long batchTimestamp = initialTimestamp;
@@ -236,7 +234,8 @@ public class FileHandleAssociationScannerJobManagerUnitTest {
 		verify(mockAssociationManager).scanRange(scanRangeRequest.getAssociationType(), scanRangeRequest.getIdRange());
 		verify(mockKinesisLogger, times(expectedBatches.size())).logBatch(eq(FileHandleAssociationRecord.STREAM_NAME), recordsCaptor.capture());
 		verify(mockClock, times(expectedBatches.size())).currentTimeMillis();
-		verify(mockClock, times(expectedBatches.size() - 1)).sleep(FileHandleAssociationScannerJobManagerImpl.FLUSH_DELAY_MS);
+		// Kinesis never pushed back, no need to slow down
+		verify(mockClock, never()).sleep(anyLong());
 		verify(mockFileHandleDao, times(expectedBatches.size())).hasStatusBatch(fileIdsCaptor.capture(), eq(FileHandleStatus.UNLINKED));
 		
 		List<List<FileHandleAssociationRecord>> batches = recordsCaptor.getAllValues();
@@ -363,11 +362,68 @@ public class FileHandleAssociationScannerJobManagerUnitTest {
 		
 		verify(mockStackStatusDao, times(2)).isStackReadWrite();
 		verify(mockAssociationManager).scanRange(scanRangeRequest.getAssociationType(), scanRangeRequest.getIdRange());
-		verify(mockKinesisLogger).logBatch(eq(FileHandleAssociationRecord.STREAM_NAME), anyList());
+		verify(mockKinesisLogger, times(FileHandleAssociationScannerJobManagerImpl.MAX_FLUSH_ATTEMPTS)).logBatch(eq(FileHandleAssociationRecord.STREAM_NAME), anyList());
 		verify(mockClock).currentTimeMillis();
+		verify(mockClock).sleep(FileHandleAssociationScannerJobManagerImpl.MIN_FLUSH_DELAY_MS);
+		verify(mockClock).sleep(FileHandleAssociationScannerJobManagerImpl.MIN_FLUSH_DELAY_MS * 2);
 		verifyZeroInteractions(mockStatusDao);
 	}
 	
+	@Test
+	public void processScanRangeRequestWithKinesisExceptionAndRetry() throws InterruptedException, RecoverableMessageException {
+		
+		// 2 batches, the first one is throttled once
+		List<ScannedFileHandleAssociation> associations = IntStream.range(0, FileHandleAssociationScannerJobManagerImpl.KINESIS_BATCH_SIZE + 1).boxed().map(i ->
+			new ScannedFileHandleAssociation(Long.valueOf(i), Long.valueOf(i))
+		).collect(Collectors.toList());
+		
+		AwsKinesisDeliveryException ex = new AwsKinesisDeliveryException("Could not deliver");
+		
+		when(mockStatusDao.exist(anyLong())).thenReturn(true);
+		when(mockStackStatusDao.isStackReadWrite()).thenReturn(true);
+		when(mockAssociationManager.scanRange(any(), any())).thenReturn(associations);
+		when(mockFileHandleDao.hasStatusBatch(anyList(), any())).thenReturn(false);
+		when(mockClock.currentTimeMillis()).thenReturn(123L, 456L);
+		doThrow(ex).doNothing().when(mockKinesisLogger).logBatch(any(), any());
+		
+		// Call under test
+		int result = manager.processScanRangeRequest(scanRangeRequest);
+		
+		assertEquals(associations.size(), result);
+		
+		verify(mockKinesisLogger, times(3)).logBatch(eq(FileHandleAssociationRecord.STREAM_NAME), recordsCaptor.capture());
+		// The same batch is sent again after the failure
+		assertEquals(recordsCaptor.getAllValues().get(0), recordsCaptor.getAllValues().get(1));
+		// The first delay is applied before the retry, the halved delay (below the minimum) is dropped for the next batch
+		verify(mockClock).sleep(FileHandleAssociationScannerJobManagerImpl.MIN_FLUSH_DELAY_MS);
+		verify(mockStatusDao).increaseJobCompletedCount(scanRangeRequest.getJobId(), associations.size(), 0);
+	}
+	
+	@Test
+	public void flushRecordsBatchWithDelay() throws RecoverableMessageException {
+		Set<FileHandleAssociationRecord> records = FileHandleScannerUtils.mapAssociation(associationType, new ScannedFileHandleAssociation(1L, 1L), 123L);
+		
+		// Call under test
+		long delay = manager.flushRecordsBatch(records, 1000L);
+		
+		// A successful delivery halves the delay
+		assertEquals(500L, delay);
+		verify(mockKinesisLogger).logBatch(eq(FileHandleAssociationRecord.STREAM_NAME), anyList());
+	}
+	
+	@Test
+	public void flushRecordsBatchWithMaxDelay() throws RecoverableMessageException, InterruptedException {
+		Set<FileHandleAssociationRecord> records = FileHandleScannerUtils.mapAssociation(associationType, new ScannedFileHandleAssociation(1L, 1L), 123L);
+		
+		doThrow(new AwsKinesisDeliveryException("Could not deliver")).doNothing().when(mockKinesisLogger).logBatch(any(), any());
+		
+		// Call under test
+		long delay = manager.flushRecordsBatch(records, FileHandleAssociationScannerJobManagerImpl.MAX_FLUSH_DELAY_MS);
+		
+		verify(mockClock).sleep(FileHandleAssociationScannerJobManagerImpl.MAX_FLUSH_DELAY_MS);
+		assertEquals(FileHandleAssociationScannerJobManagerImpl.MAX_FLUSH_DELAY_MS / 2, delay);
+	}
+	
 	@Test
 	public void processScanRangeRequestWithNoRequest() {
 
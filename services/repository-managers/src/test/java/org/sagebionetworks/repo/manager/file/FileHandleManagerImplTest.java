@@ -2733,7 +2733,7 @@ public class FileHandleManagerImplTest {
 		fileHandles.put("2", fileHandle);
 		when(mockFileHandleDao.getAllFileHandlesBatch(any())).thenReturn(fileHandles);
 		Long newId = 789L;
-		when(mockIdGenerator.generateNewId(IdType.FILE_IDS)).thenReturn(newId );
+		when(mockIdGenerator.generateNewIds(IdType.FILE_IDS, 1)).thenReturn(List.of(newId));
 
 		Thread.sleep(1000);
 
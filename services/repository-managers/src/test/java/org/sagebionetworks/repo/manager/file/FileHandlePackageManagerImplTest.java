@@ -1,5 +1,6 @@
 package org.sagebionetworks.repo.manager.file;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.google.common.collect.Sets;
 import org.apache.commons.io.IOUtils;
@@ -43,13 +44,17 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -93,6 +98,10 @@ public class FileHandlePackageManagerImplTest {
 	private TransactionalMessenger messenger;
 	@Mock
 	StackConfiguration mockStackConfig;
+	@Mock
+	private ExecutorService mockThreadPool;
+	@Mock
+	private FileDownloadPrefetcher mockPrefetcher;
 	@Captor
 	private ArgumentCaptor<Set<String>> filesInZipCaptor;
 	@Captor
@@ -244,6 +253,28 @@ public class FileHandlePackageManagerImplTest {
 		}
 	}
 
+	@Test
+	public void testDownloadToTempFileWithFailure() throws IOException {
+		String fileHandleId = "123";
+		S3FileHandle s3Handle = new S3FileHandle();
+		s3Handle.setId(fileHandleId);
+		s3Handle.setKey("someKey");
+		s3Handle.setBucketName("someBucket");
+		AmazonClientException exception = new AmazonClientException("nope");
+		when(mockS3client.getObject(any(GetObjectRequest.class), any(File.class))).thenThrow(exception);
+
+		AmazonClientException result = assertThrows(AmazonClientException.class, () -> {
+			// call under test
+			fileHandleSupportSpy.downloadToTempFile(s3Handle);
+		});
+		assertEquals(exception, result);
+
+		ArgumentCaptor<File> fileCaptor = ArgumentCaptor.forClass(File.class);
+		verify(mockS3client).getObject(any(GetObjectRequest.class), fileCaptor.capture());
+		// the temp file of a failed download must be deleted.
+		assertFalse(fileCaptor.getValue().exists());
+	}
+
 	@Test
 	public void testBuildZip() throws IOException {
 		doReturn(mockTempFile).when(fileHandleSupportSpy).createTempFile(any(), any());
@@ -350,9 +381,10 @@ public class FileHandlePackageManagerImplTest {
 	@Test
 	public void testAddFilesToZip() throws IOException {
 		doReturn(mockZipOut).when(fileHandleSupportSpy).createZipOutputStream(any());
+		doReturn(mockPrefetcher).when(fileHandleSupportSpy).createPrefetcher(any(), anyBoolean());
 		when(mockFileHandleAuthorizationManager.canDownLoadFile(any(), any())).thenReturn(authResults);
 		doReturn("one.txt", "two.txt").when(fileHandleSupportSpy).writeOneFileToZip(any(), anyLong(), any(), any(),
-				any(), anyBoolean());
+				any(), any(), anyBoolean());
 		when(mockTempFile.length()).thenReturn(25L,125L);
 
 		// call under test
@@ -366,22 +398,24 @@ public class FileHandlePackageManagerImplTest {
 		assertEquals(expected, summary);
 
 		verify(fileHandleSupportSpy).createZipOutputStream(mockTempFile);
-		verify(fileHandleSupportSpy).writeOneFileToZip(eq(mockZipOut), eq(25L), eq(authResults.get(0)), filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(fileSizesChecked));
-		verify(fileHandleSupportSpy).writeOneFileToZip(eq(mockZipOut), eq(125L), eq(authResults.get(1)), filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(fileSizesChecked));
+		verify(fileHandleSupportSpy).writeOneFileToZip(eq(mockZipOut), eq(25L), eq(authResults.get(0)), filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(mockPrefetcher), eq(fileSizesChecked));
+		verify(fileHandleSupportSpy).writeOneFileToZip(eq(mockZipOut), eq(125L), eq(authResults.get(1)), filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(mockPrefetcher), eq(fileSizesChecked));
 		assertEquals(Sets.newHashSet("11","22"),  filesInZipCaptor.getValue());
 		assertTrue(zipEntryNameProviderCaptor.getValue() instanceof FlatZipEntryNameProvider);
 		verify(mockZipOut).close();
+		verify(mockPrefetcher).close();
 	}
 	
 	@Test
 	public void testAddFilesToZipWithBulkFileException() throws IOException {
 		doReturn(mockZipOut).when(fileHandleSupportSpy).createZipOutputStream(any());
+		doReturn(mockPrefetcher).when(fileHandleSupportSpy).createPrefetcher(any(), anyBoolean());
 		authResults = Arrays.asList(
 				new FileHandleAssociationAuthorizationStatus(associations.get(0), AuthorizationStatus.authorized()));
 		when(mockFileHandleAuthorizationManager.canDownLoadFile(any(), any())).thenReturn(authResults);
 
 		BulkFileException exception = new BulkFileException("not found", FileDownloadCode.NOT_FOUND);
-		doThrow(exception).when(fileHandleSupportSpy).writeOneFileToZip(any(), anyLong(), any(), any(), any(), anyBoolean());
+		doThrow(exception).when(fileHandleSupportSpy).writeOneFileToZip(any(), anyLong(), any(), any(), any(), any(), anyBoolean());
 		when(mockTempFile.length()).thenReturn(25L, 125L);
 
 		// call under test
@@ -394,21 +428,23 @@ public class FileHandlePackageManagerImplTest {
 
 		verify(fileHandleSupportSpy).createZipOutputStream(mockTempFile);
 		verify(fileHandleSupportSpy).writeOneFileToZip(eq(mockZipOut), eq(25L), eq(authResults.get(0)),
-				filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(fileSizesChecked));
+				filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(mockPrefetcher), eq(fileSizesChecked));
 		assertEquals(Collections.emptySet(), filesInZipCaptor.getValue());
 		assertTrue(zipEntryNameProviderCaptor.getValue() instanceof FlatZipEntryNameProvider);
 		verify(mockZipOut).close();
+		verify(mockPrefetcher).close();
 	}
 	
 	@Test
 	public void testAddFilesToZipWithNotFoundException() throws IOException {
 		doReturn(mockZipOut).when(fileHandleSupportSpy).createZipOutputStream(any());
+		doReturn(mockPrefetcher).when(fileHandleSupportSpy).createPrefetcher(any(), anyBoolean());
 		authResults = Arrays.asList(
 				new FileHandleAssociationAuthorizationStatus(associations.get(0), AuthorizationStatus.authorized()));
 		when(mockFileHandleAuthorizationManager.canDownLoadFile(any(), any())).thenReturn(authResults);
 
 		NotFoundException exception = new NotFoundException("not found");
-		doThrow(exception).when(fileHandleSupportSpy).writeOneFileToZip(any(), anyLong(), any(), any(), any(), anyBoolean());
+		doThrow(exception).when(fileHandleSupportSpy).writeOneFileToZip(any(), anyLong(), any(), any(), any(), any(), anyBoolean());
 		when(mockTempFile.length()).thenReturn(25L, 125L);
 
 		// call under test
@@ -421,21 +457,23 @@ public class FileHandlePackageManagerImplTest {
 
 		verify(fileHandleSupportSpy).createZipOutputStream(mockTempFile);
 		verify(fileHandleSupportSpy).writeOneFileToZip(eq(mockZipOut), eq(25L), eq(authResults.get(0)),
-				filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(fileSizesChecked));
+				filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(mockPrefetcher), eq(fileSizesChecked));
 		assertEquals(Collections.emptySet(), filesInZipCaptor.getValue());
 		assertTrue(zipEntryNameProviderCaptor.getValue() instanceof FlatZipEntryNameProvider);
 		verify(mockZipOut).close();
+		verify(mockPrefetcher).close();
 	}
 	
 	@Test
 	public void testAddFilesToZipWithException() throws IOException {
 		doReturn(mockZipOut).when(fileHandleSupportSpy).createZipOutputStream(any());
+		doReturn(mockPrefetcher).when(fileHandleSupportSpy).createPrefetcher(any(), anyBoolean());
 		authResults = Arrays.asList(
 				new FileHandleAssociationAuthorizationStatus(associations.get(0), AuthorizationStatus.authorized()));
 		when(mockFileHandleAuthorizationManager.canDownLoadFile(any(), any())).thenReturn(authResults);
 
 		RuntimeException exception = new RuntimeException("something else");
-		doThrow(exception).when(fileHandleSupportSpy).writeOneFileToZip(any(), anyLong(), any(), any(), any(), anyBoolean());
+		doThrow(exception).when(fileHandleSupportSpy).writeOneFileToZip(any(), anyLong(), any(), any(), any(), any(), anyBoolean());
 		when(mockTempFile.length()).thenReturn(25L, 125L);
 
 		// call under test
@@ -448,10 +486,68 @@ public class FileHandlePackageManagerImplTest {
 
 		verify(fileHandleSupportSpy).createZipOutputStream(mockTempFile);
 		verify(fileHandleSupportSpy).writeOneFileToZip(eq(mockZipOut), eq(25L), eq(authResults.get(0)),
-				filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(fileSizesChecked));
+				filesInZipCaptor.capture(), zipEntryNameProviderCaptor.capture(), eq(mockPrefetcher), eq(fileSizesChecked));
 		assertEquals(Collections.emptySet(), filesInZipCaptor.getValue());
 		assertTrue(zipEntryNameProviderCaptor.getValue() instanceof FlatZipEntryNameProvider);
 		verify(mockZipOut).close();
+		verify(mockPrefetcher).close();
+	}
+	
+	@Test
+	public void testCreatePrefetcher() {
+		S3FileHandle one = new S3FileHandle().setId("11").setContentSize(10L);
+		when(mockFileHandleDao.getAllFileHandlesBatch(any())).thenReturn(Collections.singletonMap("11", one));
+
+		// call under test
+		FileDownloadPrefetcher prefetcher = fileHandleSupportSpy.createPrefetcher(authResults, fileSizesChecked);
+
+		assertEquals(Arrays.asList(one), prefetcher.getFileHandles());
+		// only authorized files should be loaded.
+		verify(mockFileHandleDao).getAllFileHandlesBatch(Sets.newHashSet("11"));
+		verify(mockThreadPool).submit(any(Callable.class));
+	}
+
+	@Test
+	public void testCreatePrefetcherWithExcludedFiles() {
+		authResults = Arrays.asList(
+				new FileHandleAssociationAuthorizationStatus(new FileHandleAssociation().setFileHandleId("11"), AuthorizationStatus.authorized()),
+				new FileHandleAssociationAuthorizationStatus(new FileHandleAssociation().setFileHandleId("22"), AuthorizationStatus.authorized()),
+				new FileHandleAssociationAuthorizationStatus(new FileHandleAssociation().setFileHandleId("33"), AuthorizationStatus.authorized()),
+				new FileHandleAssociationAuthorizationStatus(new FileHandleAssociation().setFileHandleId("11"), AuthorizationStatus.authorized()));
+		S3FileHandle one = new S3FileHandle().setId("11").setContentSize(10L);
+		S3FileHandle tooLarge = new S3FileHandle().setId("22").setContentSize(FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES + 1);
+		ExternalFileHandle external = new ExternalFileHandle().setId("33").setContentSize(10L);
+		when(mockFileHandleDao.getAllFileHandlesBatch(any())).thenReturn(Map.of("11", one, "22", tooLarge, "33", external));
+
+		// call under test
+		FileDownloadPrefetcher prefetcher = fileHandleSupportSpy.createPrefetcher(authResults, fileSizesChecked);
+
+		assertEquals(Arrays.asList(one), prefetcher.getFileHandles());
+		verify(mockFileHandleDao).getAllFileHandlesBatch(Sets.newHashSet("11", "22", "33"));
+	}
+
+	@Test
+	public void testCreatePrefetcherWithSkipFileSizeCheck() {
+		S3FileHandle tooLarge = new S3FileHandle().setId("11").setContentSize(FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES + 1);
+		when(mockFileHandleDao.getAllFileHandlesBatch(any())).thenReturn(Collections.singletonMap("11", tooLarge));
+		fileSizesChecked = true;
+
+		// call under test
+		FileDownloadPrefetcher prefetcher = fileHandleSupportSpy.createPrefetcher(authResults, fileSizesChecked);
+
+		assertEquals(Arrays.asList(tooLarge), prefetcher.getFileHandles());
+	}
+
+	@Test
+	public void testCreatePrefetcherWithNoAuthorizedFiles() {
+		authResults = Arrays.asList(
+				new FileHandleAssociationAuthorizationStatus(associations.get(1), AuthorizationStatus.accessDenied("no")));
+
+		// call under test
+		FileDownloadPrefetcher prefetcher = fileHandleSupportSpy.createPrefetcher(authResults, fileSizesChecked);
+
+		assertEquals(Collections.emptyList(), prefetcher.getFileHandles());
+		verify(mockFileHandleDao, never()).getAllFileHandlesBatch(any());
 	}
 	
 	public static FileDownloadSummary createSummary(FileHandleAssociation association) {
@@ -463,7 +559,7 @@ public class FileHandlePackageManagerImplTest {
 	@Test
 	public void testWriteOneFileToZip() throws IOException {
 		doReturn(resultFileHandle).when(fileHandleSupportSpy).getS3FileHandle(any());
-		doReturn(mockTempFile).when(fileHandleSupportSpy).downloadToTempFile(any());
+		when(mockPrefetcher.getFile(any())).thenReturn(mockTempFile);
 		doNothing().when(fileHandleSupportSpy).addFileToZip(any(), any(), any());
 		long zipFileSize = 100L;
 		FileHandleAssociationAuthorizationStatus fhas = new FileHandleAssociationAuthorizationStatus(
@@ -473,11 +569,11 @@ public class FileHandlePackageManagerImplTest {
 		when(mockZipEntryNameProvider.createZipEntryName(any(), any())).thenReturn(entryName);
 
 		// call under test
-		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		
 		assertEquals(entryName, filename);
 		verify(fileHandleSupportSpy).getS3FileHandle(fhas.getAssociation().getFileHandleId());
-		verify(fileHandleSupportSpy).downloadToTempFile(resultFileHandle);
+		verify(mockPrefetcher).getFile(resultFileHandle);
 		verify(fileHandleSupportSpy).addFileToZip(mockZipOut, mockTempFile, entryName);
 		verify(mockZipEntryNameProvider).createZipEntryName(resultFileHandle.getFileName(), Long.parseLong(resultFileHandle.getId()));
 		verify(mockTempFile).delete();
@@ -492,13 +588,13 @@ public class FileHandlePackageManagerImplTest {
 
 		BulkFileException exception = assertThrows(BulkFileException.class, ()->{
 			// call under test
-			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		});
 		assertEquals(FileDownloadCode.UNAUTHORIZED, exception.getFailureCode());
 		assertEquals("nope", exception.getMessage());
 		
 		verify(fileHandleSupportSpy, never()).getS3FileHandle(any());
-		verify(fileHandleSupportSpy, never()).downloadToTempFile(any());
+		verify(mockPrefetcher, never()).getFile(any());
 		verify(fileHandleSupportSpy, never()).addFileToZip(any(), any(), any());
 		verify(mockZipEntryNameProvider, never()).createZipEntryName(any(), any());
 		verifyNoMoreInteractions(mockTempFile);
@@ -513,13 +609,13 @@ public class FileHandlePackageManagerImplTest {
 
 		BulkFileException exception = assertThrows(BulkFileException.class, ()->{
 			// call under test
-			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		});
 		assertEquals(FileDownloadCode.DUPLICATE, exception.getFailureCode());
 		assertEquals(FILE_ALREADY_ADDED, exception.getMessage());
 		
 		verify(fileHandleSupportSpy, never()).getS3FileHandle(any());
-		verify(fileHandleSupportSpy, never()).downloadToTempFile(any());
+		verify(mockPrefetcher, never()).getFile(any());
 		verify(fileHandleSupportSpy, never()).addFileToZip(any(), any(), any());
 		verify(mockZipEntryNameProvider, never()).createZipEntryName(any(), any());
 		verifyNoMoreInteractions(mockTempFile);
@@ -528,7 +624,7 @@ public class FileHandlePackageManagerImplTest {
 	@Test
 	public void testWriteOneFileToZipWithZipAtMaxSize() throws IOException {
 		doReturn(resultFileHandle).when(fileHandleSupportSpy).getS3FileHandle(any());
-		doReturn(mockTempFile).when(fileHandleSupportSpy).downloadToTempFile(any());
+		when(mockPrefetcher.getFile(any())).thenReturn(mockTempFile);
 		doNothing().when(fileHandleSupportSpy).addFileToZip(any(), any(), any());
 		long zipFileSize = FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES;
 		FileHandleAssociationAuthorizationStatus fhas = new FileHandleAssociationAuthorizationStatus(
@@ -538,11 +634,11 @@ public class FileHandlePackageManagerImplTest {
 		when(mockZipEntryNameProvider.createZipEntryName(any(), any())).thenReturn(entryName);
 
 		// call under test
-		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		
 		assertEquals(entryName, filename);
 		verify(fileHandleSupportSpy).getS3FileHandle(fhas.getAssociation().getFileHandleId());
-		verify(fileHandleSupportSpy).downloadToTempFile(resultFileHandle);
+		verify(mockPrefetcher).getFile(resultFileHandle);
 		verify(fileHandleSupportSpy).addFileToZip(mockZipOut, mockTempFile, entryName);
 		verify(mockZipEntryNameProvider).createZipEntryName(resultFileHandle.getFileName(), Long.parseLong(resultFileHandle.getId()));
 		verify(mockTempFile).delete();
@@ -552,7 +648,7 @@ public class FileHandlePackageManagerImplTest {
 	public void testWriteOneFileToZipWithZipOverMaxMaxSizeAndFileSizeChecked() throws IOException {
 		fileSizesChecked = true;
 		doReturn(resultFileHandle).when(fileHandleSupportSpy).getS3FileHandle(any());
-		doReturn(mockTempFile).when(fileHandleSupportSpy).downloadToTempFile(any());
+		when(mockPrefetcher.getFile(any())).thenReturn(mockTempFile);
 		doNothing().when(fileHandleSupportSpy).addFileToZip(any(), any(), any());
 		long zipFileSize = FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES + 1;
 		FileHandleAssociationAuthorizationStatus fhas = new FileHandleAssociationAuthorizationStatus(
@@ -562,11 +658,11 @@ public class FileHandlePackageManagerImplTest {
 		when(mockZipEntryNameProvider.createZipEntryName(any(), any())).thenReturn(entryName);
 
 		// call under test
-		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		
 		assertEquals(entryName, filename);
 		verify(fileHandleSupportSpy).getS3FileHandle(fhas.getAssociation().getFileHandleId());
-		verify(fileHandleSupportSpy).downloadToTempFile(resultFileHandle);
+		verify(mockPrefetcher).getFile(resultFileHandle);
 		verify(fileHandleSupportSpy).addFileToZip(mockZipOut, mockTempFile, entryName);
 		verify(mockZipEntryNameProvider).createZipEntryName(resultFileHandle.getFileName(), Long.parseLong(resultFileHandle.getId()));
 		verify(mockTempFile).delete();
@@ -581,13 +677,15 @@ public class FileHandlePackageManagerImplTest {
 
 		BulkFileException exception = assertThrows(BulkFileException.class, ()->{
 			// call under test
-			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		});
 		assertEquals(FileDownloadCode.EXCEEDS_SIZE_LIMIT, exception.getFailureCode());
 		assertEquals(RESULT_FILE_HAS_REACHED_THE_MAXIMUM_SIZE, exception.getMessage());
 		
+		// nothing else can be added to the zip so the prefetcher must stop.
+		verify(mockPrefetcher).stop();
 		verify(fileHandleSupportSpy, never()).getS3FileHandle(any());
-		verify(fileHandleSupportSpy, never()).downloadToTempFile(any());
+		verify(mockPrefetcher, never()).getFile(any());
 		verify(fileHandleSupportSpy, never()).addFileToZip(any(), any(), any());
 		verify(mockZipEntryNameProvider, never()).createZipEntryName(any(), any());
 		verifyNoMoreInteractions(mockTempFile);
@@ -597,7 +695,7 @@ public class FileHandlePackageManagerImplTest {
 	public void testWriteOneFileToZipWithFileAtMaxSize() throws IOException {
 		resultFileHandle.setContentSize(FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES);
 		doReturn(resultFileHandle).when(fileHandleSupportSpy).getS3FileHandle(any());
-		doReturn(mockTempFile).when(fileHandleSupportSpy).downloadToTempFile(any());
+		when(mockPrefetcher.getFile(any())).thenReturn(mockTempFile);
 		doNothing().when(fileHandleSupportSpy).addFileToZip(any(), any(), any());
 		long zipFileSize = 100L;
 		FileHandleAssociationAuthorizationStatus fhas = new FileHandleAssociationAuthorizationStatus(
@@ -607,11 +705,11 @@ public class FileHandlePackageManagerImplTest {
 		when(mockZipEntryNameProvider.createZipEntryName(any(), any())).thenReturn(entryName);
 
 		// call under test
-		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		
 		assertEquals(entryName, filename);
 		verify(fileHandleSupportSpy).getS3FileHandle(fhas.getAssociation().getFileHandleId());
-		verify(fileHandleSupportSpy).downloadToTempFile(resultFileHandle);
+		verify(mockPrefetcher).getFile(resultFileHandle);
 		verify(fileHandleSupportSpy).addFileToZip(mockZipOut, mockTempFile, entryName);
 		verify(mockZipEntryNameProvider).createZipEntryName(resultFileHandle.getFileName(), Long.parseLong(resultFileHandle.getId()));
 		verify(mockTempFile).delete();
@@ -628,13 +726,13 @@ public class FileHandlePackageManagerImplTest {
 
 		BulkFileException exception = assertThrows(BulkFileException.class, ()->{
 			// call under test
-			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+			fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		});
 		assertEquals(FileDownloadCode.EXCEEDS_SIZE_LIMIT, exception.getFailureCode());
 		assertEquals(FILE_EXCEEDS_THE_MAXIMUM_SIZE_LIMIT, exception.getMessage());
 		
 		verify(fileHandleSupportSpy).getS3FileHandle(fhas.getAssociation().getFileHandleId());
-		verify(fileHandleSupportSpy, never()).downloadToTempFile(any());
+		verify(mockPrefetcher, never()).getFile(any());
 		verify(fileHandleSupportSpy, never()).addFileToZip(any(), any(), any());
 		verify(mockZipEntryNameProvider, never()).createZipEntryName(any(), any());
 		verifyNoMoreInteractions(mockTempFile);
@@ -645,7 +743,7 @@ public class FileHandlePackageManagerImplTest {
 		fileSizesChecked = true;
 		resultFileHandle.setContentSize(FileConstants.BULK_FILE_DOWNLOAD_MAX_SIZE_BYTES+1);
 		doReturn(resultFileHandle).when(fileHandleSupportSpy).getS3FileHandle(any());
-		doReturn(mockTempFile).when(fileHandleSupportSpy).downloadToTempFile(any());
+		when(mockPrefetcher.getFile(any())).thenReturn(mockTempFile);
 		doNothing().when(fileHandleSupportSpy).addFileToZip(any(), any(), any());
 		long zipFileSize = 100L;
 		FileHandleAssociationAuthorizationStatus fhas = new FileHandleAssociationAuthorizationStatus(
@@ -655,11 +753,11 @@ public class FileHandlePackageManagerImplTest {
 		when(mockZipEntryNameProvider.createZipEntryName(any(), any())).thenReturn(entryName);
 
 		// call under test
-		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, fileSizesChecked);
+		String filename = fileHandleSupportSpy.writeOneFileToZip(mockZipOut, zipFileSize, fhas, fileIdsInZip, mockZipEntryNameProvider, mockPrefetcher, fileSizesChecked);
 		
 		assertEquals(entryName, filename);
 		verify(fileHandleSupportSpy).getS3FileHandle(fhas.getAssociation().getFileHandleId());
-		verify(fileHandleSupportSpy).downloadToTempFile(resultFileHandle);
+		verify(mockPrefetcher).getFile(resultFileHandle);
 		verify(fileHandleSupportSpy).addFileToZip(mockZipOut, mockTempFile, entryName);
 		verify(mockZipEntryNameProvider).createZipEntryName(resultFileHandle.getFileName(), Long.parseLong(resultFileHandle.getId()));
 		verify(mockTempFile).delete();
@@ -3,10 +3,14 @@ package org.sagebionetworks.repo.manager.message;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Date;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.StackConfiguration;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeMessages;
 import org.sagebionetworks.repo.model.message.ChangeType;
 import org.sagebionetworks.repo.model.message.LocalStackMessage;
 import org.sagebionetworks.repo.model.message.TransactionalMessenger;
@@ -108,6 +113,91 @@ public class RepositoryMessagePublisherImplTest {
 		messagePublisher.fireChangeMessage(message);
 	}
 	
+	/**
+	 * Create a change message with the given number and type.
+	 */
+	private static ChangeMessage createChange(long changeNumber, ObjectType type) {
+		ChangeMessage change = new ChangeMessage();
+		change.setChangeNumber(changeNumber);
+		change.setTimestamp(new Date());
+		change.setChangeType(ChangeType.UPDATE);
+		change.setObjectId("" + changeNumber);
+		change.setObjectType(type);
+		return change;
+	}
+	
+	@Test
+	public void testTimerFired() throws JSONObjectAdapterException {
+		when(mockConfig.getShouldMessagesBePublishedToTopic()).thenReturn(true);
+		when(mockConfig.getRepositoryChangeTopic(any())).thenReturn("topic");
+		when(mockAwsSNSClient.createTopic(any(CreateTopicRequest.class))).thenReturn(new CreateTopicResult().withTopicArn("topicArn"));
+		ChangeMessage entityOne = createChange(1L, ObjectType.ENTITY);
+		ChangeMessage table = createChange(2L, ObjectType.TABLE);
+		ChangeMessage entityTwo = createChange(3L, ObjectType.ENTITY);
+		messagePublisher.fireChangeMessage(entityOne);
+		messagePublisher.fireChangeMessage(table);
+		messagePublisher.fireChangeMessage(entityTwo);
+		
+		// Call under test
+		messagePublisher.timerFired();
+		
+		// a single batch is sent for each type.
+		verify(mockTransactionalMessanger).registerMessagesSent(ObjectType.ENTITY, Arrays.asList(entityOne, entityTwo));
+		verify(mockTransactionalMessanger).registerMessagesSent(ObjectType.TABLE, Arrays.asList(table));
+		ChangeMessages expectedEntities = new ChangeMessages();
+		expectedEntities.setList(Arrays.asList(entityOne, entityTwo));
+		verify(mockAwsSNSClient).publish(new PublishRequest("topicArn", EntityFactory.createJSONStringForEntity(expectedEntities)));
+		verify(mockAwsSNSClient, times(2)).publish(any(PublishRequest.class));
+	}
+	
+	@Test
+	public void testTimerFiredWithMoreThanMaxBatchSize() {
+		when(mockConfig.getShouldMessagesBePublishedToTopic()).thenReturn(true);
+		when(mockConfig.getRepositoryChangeTopic(any())).thenReturn("topic");
+		when(mockAwsSNSClient.createTopic(any(CreateTopicRequest.class))).thenReturn(new CreateTopicResult().withTopicArn("topicArn"));
+		int count = ChangeMessageUtils.MAX_NUMBER_OF_CHANGE_MESSAGES_PER_SQS_MESSAGE + 1;
+		for (int i = 0; i < count; i++) {
+			messagePublisher.fireChangeMessage(createChange(i, ObjectType.ENTITY));
+		}
+		
+		// Call under test
+		messagePublisher.timerFired();
+		
+		verify(mockTransactionalMessanger, times(2)).registerMessagesSent(eq(ObjectType.ENTITY), any());
+		verify(mockAwsSNSClient, times(2)).publish(any(PublishRequest.class));
+	}
+	
+	@Test
+	public void testTimerFiredWithFailedBatch() {
+		when(mockConfig.getShouldMessagesBePublishedToTopic()).thenReturn(true);
+		when(mockConfig.getRepositoryChangeTopic(any())).thenReturn("topic");
+		when(mockAwsSNSClient.createTopic(any(CreateTopicRequest.class))).thenReturn(new CreateTopicResult().withTopicArn("topicArn"));
+		ChangeMessage entity = createChange(1L, ObjectType.ENTITY);
+		ChangeMessage table = createChange(2L, ObjectType.TABLE);
+		doThrow(new IllegalStateException("nope")).when(mockTransactionalMessanger).registerMessagesSent(ObjectType.ENTITY, Arrays.asList(entity));
+		messagePublisher.fireChangeMessage(entity);
+		messagePublisher.fireChangeMessage(table);
+		
+		// Call under test
+		messagePublisher.timerFired();
+		
+		// the other batch must still be sent.
+		verify(mockTransactionalMessanger).registerMessagesSent(ObjectType.TABLE, Arrays.asList(table));
+		verify(mockAwsSNSClient).publish(any(PublishRequest.class));
+	}
+	
+	@Test
+	public void testTimerFiredWithPublishingDisabled() {
+		when(mockConfig.getShouldMessagesBePublishedToTopic()).thenReturn(false);
+		messagePublisher.fireChangeMessage(message);
+		
+		// Call under test
+		messagePublisher.timerFired();
+		
+		verifyZeroInteractions(mockTransactionalMessanger);
+		verifyZeroInteractions(mockAwsSNSClient);
+	}
+	
 	@Test
 	public void testFireLocalStackMessage() throws JSONObjectAdapterException {
 		ObjectType type = ObjectType.TABLE_STATUS_EVENT;
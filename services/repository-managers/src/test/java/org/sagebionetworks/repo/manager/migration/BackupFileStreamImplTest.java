@@ -1,13 +1,13 @@
 package org.sagebionetworks.repo.manager.migration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,7 +17,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -38,7 +40,6 @@ import org.sagebionetworks.repo.model.AuthorizationConstants;
 import org.sagebionetworks.repo.model.daemon.BackupAliasType;
 import org.sagebionetworks.repo.model.dbo.MigratableDatabaseObject;
 import org.sagebionetworks.repo.model.dbo.migration.MigratableTableTranslation;
-import org.sagebionetworks.repo.model.dbo.migration.MigrationFileType;
 import org.sagebionetworks.repo.model.dbo.migration.MigrationTypeProvider;
 import org.sagebionetworks.repo.model.dbo.migration.MigrationTypeProviderImpl;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOAccessControlList;
@@ -223,7 +224,7 @@ public class BackupFileStreamImplTest {
 	public void testCreateFileName() {
 		// call under test
 		String name = BackupFileStreamImpl.createFileName(MigrationType.ACCESS_REQUIREMENT, 3);
-		assertEquals("ACCESS_REQUIREMENT.3.json", name);
+		assertEquals("ACCESS_REQUIREMENT.3.jsonl", name);
 	}
 	
 	@Test
@@ -302,43 +303,34 @@ public class BackupFileStreamImplTest {
 	}
 	
 	@Test
-	public void testWriteBatchToZipTableName() throws IOException {
+	public void testWriteBackupFileTableName() throws IOException {
 		backupAliasType = BackupAliasType.TABLE_NAME;
 		// call under test
-		backupFileStream.writeBatchToZip(zipOutputStream, currentBatch, index, currentType, backupAliasType);
-		IOUtils.closeQuietly(zipOutputStream);
-
-		// Read the resuls
+		backupFileStream.writeBackupFile(byteArrayOutputStream, currentBatch, backupAliasType, maximumRowsPerFile);
+		
+		// Read the results
 		ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
 		ZipEntry entry = zipIn.getNextEntry();
 		assertNotNull(entry);
-		String expectedName = BackupFileStreamImpl.createFileName(dboNodeOne.getMigratableTableType(), index);
+		String expectedName = BackupFileStreamImpl.createFileName(dboNodeOne.getMigratableTableType(), 0);
 		assertEquals(expectedName, entry.getName());
-		List<DBONode> resultList = (List<DBONode>) typeProvider
-				.readObjects(dboNodeOne.getBackupClass(), backupAliasType, zipIn, MigrationFileType.JSON).get();
-		assertEquals(currentBatch.size(), resultList.size());
-		assertEquals(currentBatch.get(0), resultList.get(0));
-		assertEquals(currentBatch.get(1), resultList.get(1));
+		List<DBONode> resultList = Lists.newArrayList(typeProvider.readObjectStream(dboNodeOne.getBackupClass(), zipIn));
+		assertEquals(currentBatch, resultList);
 	}
 	
 	@Test
-	public void testWriteBatchToZipTypeName() throws IOException {
-		BackupAliasType backupAliasType = BackupAliasType.MIGRATION_TYPE_NAME;
+	public void testWriteBackupFileWithOneRowPerLine() throws IOException {
 		// call under test
-		backupFileStream.writeBatchToZip(zipOutputStream, currentBatch, index, currentType, backupAliasType);
-		IOUtils.closeQuietly(zipOutputStream);
-		
+		backupFileStream.writeBackupFile(byteArrayOutputStream, credentials, backupAliasType, maximumRowsPerFile);
+
 		// Read the results
 		ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
 		ZipEntry entry = zipIn.getNextEntry();
-		assertNotNull(entry);
-		String expectedName = BackupFileStreamImpl.createFileName(dboNodeOne.getMigratableTableType(), index);
-		assertEquals(expectedName, entry.getName());
-		List<DBONode> resultList = (List<DBONode>) typeProvider
-				.readObjects(dboNodeOne.getBackupClass(), backupAliasType, zipIn, MigrationFileType.JSON).get();
-		assertEquals(currentBatch.size(), resultList.size());
-		assertEquals(currentBatch.get(0), resultList.get(0));
-		assertEquals(currentBatch.get(1), resultList.get(1));
+		assertEquals("CREDENTIAL.0.jsonl", entry.getName());
+		List<String> lines = IOUtils.readLines(zipIn, StandardCharsets.UTF_8);
+		assertEquals(2, lines.size());
+		assertTrue(lines.get(0).contains(""+credentialOne.getPrincipalId()));
+		assertTrue(lines.get(1).contains(""+credentialTwo.getPrincipalId()));
 	}
 	
 	@Test
@@ -349,10 +341,10 @@ public class BackupFileStreamImplTest {
 		ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
 		ZipEntry entry = zipIn.getNextEntry();
 		assertNotNull(entry);
-		assertEquals("NODE.0.json", entry.getName());
+		assertEquals("NODE.0.jsonl", entry.getName());
 		entry = zipIn.getNextEntry();
 		assertNotNull(entry);
-		assertEquals("NODE_REVISION.1.json", entry.getName());
+		assertEquals("NODE_REVISION.1.jsonl", entry.getName());
 		// no more files
 		entry = zipIn.getNextEntry();
 		assertEquals(null, entry);
@@ -366,16 +358,16 @@ public class BackupFileStreamImplTest {
 		ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
 		ZipEntry entry = zipIn.getNextEntry();
 		assertNotNull(entry);
-		assertEquals("NODE.0.json", entry.getName());
+		assertEquals("NODE.0.jsonl", entry.getName());
 		entry = zipIn.getNextEntry();
 		assertNotNull(entry);
-		assertEquals("NODE.1.json", entry.getName());
+		assertEquals("NODE.1.jsonl", entry.getName());
 		entry = zipIn.getNextEntry();
 		assertNotNull(entry);
-		assertEquals("NODE_REVISION.2.json", entry.getName());
+		assertEquals("NODE_REVISION.2.jsonl", entry.getName());
 		entry = zipIn.getNextEntry();
 		assertNotNull(entry);
-		assertEquals("NODE_REVISION.3.json", entry.getName());
+		assertEquals("NODE_REVISION.3.jsonl", entry.getName());
 		// no more files
 		entry = zipIn.getNextEntry();
 		assertEquals(null, entry);
@@ -479,29 +471,26 @@ public class BackupFileStreamImplTest {
 		assertTrue(allResults.isEmpty());
 	}
 	
-	@Test
-	public void testWriteBatchToStreamTableName() throws IOException {
-		BackupAliasType aliasType = BackupAliasType.TABLE_NAME;
-		MigrationType type = MigrationType.CREDENTIAL;
-		StringWriter writer = new StringWriter();
-		// call under test
-		backupFileStream.writeBatchToStream(credentials, type, aliasType, writer);
-		String json = writer.toString();
-		assertTrue(json.contains(""+credentialOne.getPrincipalId()));
-		assertTrue(json.contains(""+credentialTwo.getPrincipalId()));
-	}
-
-	
 	@Test
 	public void testReadFileFromStreamEmptyFile() throws Exception {
 		StringInputStream input = new StringInputStream("");
 		int index = 0;
 		String fileName = BackupFileStreamImpl.createFileName(MigrationType.CREDENTIAL, index);
 		
+		// Call under test
+		Optional<Iterator<MigratableDatabaseObject<?, ?>>> results = backupFileStream.readFileFromStream(input, backupAliasType, fileName);
+		assertFalse(results.get().hasNext());
+	}
+	
+	@Test
+	public void testReadFileFromStreamEmptyLegacyJSONFile() throws Exception {
+		StringInputStream input = new StringInputStream("");
+		String fileName = "CREDENTIAL.0.json";
+		
 		String message = assertThrows(JSONException.class, ()->{
+			// Call under test
 			backupFileStream.readFileFromStream(input, backupAliasType, fileName);
 		}).getMessage();
-		// Call under test
 		assertEquals("A JSONArray text must start with '[' at 0 [character 1 line 1]",message);
 	}
 	
@@ -515,10 +504,9 @@ public class BackupFileStreamImplTest {
 	}
 	
 	@Test
-	public void testReadFileFromStreamNotXML() throws Exception {
-		StringInputStream input = new StringInputStream("This is not xml");
-		int index = 0;
-		String fileName = BackupFileStreamImpl.createFileName(MigrationType.CREDENTIAL, index);
+	public void testReadFileFromStreamNotJSON() throws Exception {
+		StringInputStream input = new StringInputStream("This is not json");
+		String fileName = "CREDENTIAL.0.json";
 		
 		String message  = assertThrows(Exception.class, () -> {
 			// Call under test
@@ -531,22 +519,51 @@ public class BackupFileStreamImplTest {
 	@Test
 	public void testReadFileFromStream() throws Exception {
 		doReturn(new DBOCredential().getTranslator()).when(backupFileStreamSpy).getCachedTranslator(any());
-		BackupAliasType aliasType = BackupAliasType.TABLE_NAME;
-		MigrationType type = MigrationType.CREDENTIAL;
 		StringWriter writer = new StringWriter();
-		backupFileStreamSpy.writeBatchToStream(credentials, type, aliasType, writer);
-		String xml = writer.toString();
+		for (MigratableDatabaseObject<?, ?> credential : credentials) {
+			typeProvider.writeObject(credential, writer);
+		}
 		
-		StringInputStream input = new StringInputStream(xml);
+		StringInputStream input = new StringInputStream(writer.toString());
 		int index = 0;
 		String fileName = BackupFileStreamImpl.createFileName(MigrationType.CREDENTIAL, index);
 		// Call under test
-		Optional<List<MigratableDatabaseObject<?, ?>>> results = backupFileStreamSpy.readFileFromStream(input, backupAliasType, fileName);
-		assertNotNull(results.get());
-		assertEquals(2, results.get().size());
-		assertEquals(credentialTwo, results.get().get(1));
-		// Called once on the write and another on the read.
-		verify(backupFileStreamSpy, times(2)).getCachedTranslator(new DBOCredential());
+		Optional<Iterator<MigratableDatabaseObject<?, ?>>> results = backupFileStreamSpy.readFileFromStream(input, backupAliasType, fileName);
+		assertEquals(credentials, Lists.newArrayList(results.get()));
+		verify(backupFileStreamSpy).getCachedTranslator(new DBOCredential());
+	}
+	
+	@Test
+	public void testReadFileFromStreamReadsOneRowAtATime() throws Exception {
+		StringWriter writer = new StringWriter();
+		typeProvider.writeObject(credentialOne, writer);
+		writer.append("This is not json\n");
+		
+		StringInputStream input = new StringInputStream(writer.toString());
+		String fileName = BackupFileStreamImpl.createFileName(MigrationType.CREDENTIAL, 0);
+		// Call under test
+		Iterator<MigratableDatabaseObject<?, ?>> results = backupFileStream.readFileFromStream(input, backupAliasType, fileName).get();
+		// the first row is returned before the rest of the file is parsed.
+		assertEquals(credentialOne, results.next());
+		assertThrows(JSONException.class, () -> {
+			// call under test
+			results.next();
+		});
+	}
+	
+	@Test
+	public void testReadFileFromStreamLegacyJSONFile() throws Exception {
+		StringWriter writer = new StringWriter();
+		typeProvider.writeObject(credentialOne, writer);
+		typeProvider.writeObject(credentialTwo, writer);
+		// a legacy JSON file holds a single array of all of the objects.
+		String json = "[" + String.join(",", writer.toString().trim().split("\n")) + "]";
+		
+		StringInputStream input = new StringInputStream(json);
+		String fileName = "CREDENTIAL.0.json";
+		// Call under test
+		Optional<Iterator<MigratableDatabaseObject<?, ?>>> results = backupFileStream.readFileFromStream(input, backupAliasType, fileName);
+		assertEquals(credentials, Lists.newArrayList(results.get()));
 	}
 	
 	@Test
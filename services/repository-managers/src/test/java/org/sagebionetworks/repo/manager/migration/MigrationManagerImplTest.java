@@ -29,11 +29,15 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,6 +47,7 @@ import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.aws.SynapseS3Client;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
@@ -123,6 +128,8 @@ public class MigrationManagerImplTest {
 	MigrationTypeListener<DatabaseObject<?>> mockMigrationListener;
 	@Captor
 	ArgumentCaptor<GetObjectRequest> getObjectRequestCaptor;
+	@Spy
+	ExecutorService cachedThreadPool = Executors.newCachedThreadPool();
 	@InjectMocks
 	MigrationManagerImpl manager;
 	
@@ -232,6 +239,11 @@ public class MigrationManagerImplTest {
 				.setMaximumId(100L).setMinimumId(10L).setSecondaryTypes(Arrays.asList(revisionTypeData));
 	}
 	
+	@AfterEach
+	public void after() {
+		cachedThreadPool.shutdownNow();
+	}
+	
 	@Test
 	public void testgetMigrationChecksumForTypeReadWriteMode() throws Exception {
 		when(mockStatusDao.getCurrentStatus()).thenReturn(StatusEnum.READ_WRITE);
@@ -660,6 +672,23 @@ public class MigrationManagerImplTest {
 		verify(mockDao).createOrUpdate(MigrationType.NODE_REVISION, Lists.newArrayList(Lists.newArrayList(revOne, revTwo)));
 	}
 	
+	@Test
+	public void testRestoreStreamWithReadFailure() {
+		IllegalStateException exception = new IllegalStateException("bad file");
+		Iterator<MigratableDatabaseObject<?, ?>> failingIterator = Mockito.mock(Iterator.class);
+		when(failingIterator.hasNext()).thenThrow(exception);
+		Iterable<MigratableDatabaseObject<?, ?>> failingStream = () -> failingIterator;
+		when(mockBackupFileStream.readBackupFile(any(), any())).thenReturn(failingStream);
+		when(mockDao.isMigrationTypeRegistered(MigrationType.NODE.name())).thenReturn(true);
+		
+		IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			manager.restoreStream(mockInputStream, manifest);
+		});
+		assertEquals(exception, thrown);
+		verify(mockDao, never()).createOrUpdate(any(MigrationType.class), anyList());
+	}
+	
 	@Test
 	public void testRestoreStreamPrimaryNotRegistered() {
 		MigrationType primaryType = MigrationType.NODE;
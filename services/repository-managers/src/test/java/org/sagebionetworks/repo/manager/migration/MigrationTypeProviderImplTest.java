@@ -1,19 +1,24 @@
 package org.sagebionetworks.repo.manager.migration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.StringWriter;
-import java.util.Collections;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
 
-import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.model.AuthorizationConstants;
+import org.sagebionetworks.repo.model.daemon.BackupAliasType;
 import org.sagebionetworks.repo.model.dbo.MigratableDatabaseObject;
+import org.sagebionetworks.repo.model.dbo.migration.MigrationFileType;
 import org.sagebionetworks.repo.model.dbo.migration.MigrationTypeProvider;
 import org.sagebionetworks.repo.model.dbo.migration.MigrationTypeProviderImpl;
 import org.sagebionetworks.repo.model.dbo.persistence.DBOAccessControlList;
@@ -55,42 +60,66 @@ public class MigrationTypeProviderImplTest {
 	}
 
 	@Test
-	public void testWriteObjects() {
+	public void testWriteObject() {
 		StringWriter writer = new StringWriter();
 
 		// call under test
-		typeProvider.writeObjects(credentials, writer);
+		assertTrue(typeProvider.writeObject(credentialOne, writer));
+		assertTrue(typeProvider.writeObject(credentialTwo, writer));
+		String[] lines = writer.toString().split("\n");
+		assertEquals(2, lines.length);
 		assertEquals(
-				"[{\"principalId\":1,\"etag\":\"etag\",\"expiresOn\":10011,\"passHash\":\"adminHash\",\"secretKey\":\"adminKey\"},{\"principalId\":456,\"etag\":\"etag2\",\"expiresOn\":20011,\"passHash\":\"hashTwo\",\"secretKey\":\"keyTwo\"}]",
-				new JSONArray(writer.toString()).toString(0));
+				"{\"principalId\":1,\"etag\":\"etag\",\"expiresOn\":10011,\"passHash\":\"adminHash\",\"secretKey\":\"adminKey\"}",
+				new JSONObject(lines[0]).toString());
+		assertEquals(
+				"{\"principalId\":456,\"etag\":\"etag2\",\"expiresOn\":20011,\"passHash\":\"hashTwo\",\"secretKey\":\"keyTwo\"}",
+				new JSONObject(lines[1]).toString());
 	}
 
 	@Test
-	public void testWriteObjectsWithEmptyList() {
+	public void testWriteObjectWithLineBreakInValue() {
+		credentialOne.setSecretKey("one\ntwo");
 		StringWriter writer = new StringWriter();
 
 		// call under test
-		typeProvider.writeObjects(Collections.emptyList(), writer);
+		assertTrue(typeProvider.writeObject(credentialOne, writer));
+		assertEquals(1, writer.toString().split("\n").length);
+	}
+
+	@Test
+	public void testWriteObjectWithEmptyObject() {
+		StringWriter writer = new StringWriter();
+
+		// call under test
+		assertFalse(typeProvider.writeObject(new DBOCredential(), writer));
 		assertEquals("", writer.toString());
 	}
 
 	@Test
-	public void testWriteObjectsWithEmptyObject() {
+	public void testReadObjectStream() {
+		credentialOne.setSecretKey("one\ntwo");
 		StringWriter writer = new StringWriter();
+		typeProvider.writeObject(credentialOne, writer);
+		// blank lines are ignored.
+		writer.append("\n");
+		typeProvider.writeObject(credentialTwo, writer);
 
 		// call under test
-		typeProvider.writeObjects(List.of(new DBOCredential(), credentialOne), writer);
-		assertEquals(
-				"[{\"principalId\":1,\"etag\":\"etag\",\"expiresOn\":10011,\"passHash\":\"adminHash\",\"secretKey\":\"adminKey\"}]",
-				new JSONArray(writer.toString()).toString(0));
+		List<DBOCredential> results = Lists.newArrayList(typeProvider.readObjectStream(DBOCredential.class,
+				new ByteArrayInputStream(writer.toString().getBytes(StandardCharsets.UTF_8))));
+		assertEquals(credentials, results);
 	}
 
 	@Test
-	public void testWriteObjectsWithAllEmptyObject() {
+	public void testReadObjectsWithJSONL() {
 		StringWriter writer = new StringWriter();
+		typeProvider.writeObject(credentialOne, writer);
+		typeProvider.writeObject(credentialTwo, writer);
 
 		// call under test
-		typeProvider.writeObjects(List.of(new DBOCredential(), new DBOCredential()), writer);
-		assertEquals("", writer.toString());
+		List<DBOCredential> results = typeProvider.<DBOCredential>readObjects(DBOCredential.class,
+				BackupAliasType.TABLE_NAME, new ByteArrayInputStream(writer.toString().getBytes(StandardCharsets.UTF_8)),
+				MigrationFileType.JSONL).get();
+		assertEquals(credentials, results);
 	}
 }
@@ -0,0 +1,128 @@
+package org.sagebionetworks.repo.manager.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ReadAheadIteratorTest {
+
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void before() {
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	public void after() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testIterator() {
+		List<Integer> source = IntStream.range(0, 25).boxed().collect(Collectors.toList());
+		List<Integer> results = new ArrayList<>();
+		// call under test
+		try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(executor, source.iterator(), 10, 2)) {
+			iterator.forEachRemaining(results::add);
+			assertFalse(iterator.hasNext());
+		}
+		assertEquals(source, results);
+	}
+
+	@Test
+	public void testIteratorWithEmptySource() {
+		// call under test
+		try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(executor, Collections.emptyIterator(), 10,
+				2)) {
+			assertFalse(iterator.hasNext());
+			assertThrows(NoSuchElementException.class, () -> {
+				// call under test
+				iterator.next();
+			});
+		}
+	}
+
+	@Test
+	public void testIteratorReadsOnSeparateThread() {
+		Thread caller = Thread.currentThread();
+		List<Thread> sourceThreads = Collections.synchronizedList(new ArrayList<>());
+		Iterator<Integer> source = IntStream.range(0, 3).peek((i) -> sourceThreads.add(Thread.currentThread()))
+				.boxed().iterator();
+		// call under test
+		try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(executor, source, 10, 2)) {
+			iterator.forEachRemaining((i) -> {
+			});
+		}
+		assertEquals(3, sourceThreads.size());
+		sourceThreads.forEach((thread) -> assertNotEquals(caller, thread));
+	}
+
+	@Test
+	public void testIteratorWithSourceFailure() {
+		IllegalArgumentException exception = new IllegalArgumentException("bad row");
+		Iterator<Integer> source = IntStream.range(0, 5).peek((i) -> {
+			if (i == 3) {
+				throw exception;
+			}
+		}).boxed().iterator();
+		List<Integer> results = new ArrayList<>();
+		try (ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(executor, source, 1, 10)) {
+			IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
+				// call under test
+				iterator.forEachRemaining(results::add);
+			});
+			assertEquals(exception, thrown);
+		}
+		// chunks read before the failure are still passed to the consumer.
+		assertEquals(List.of(0, 1, 2), results);
+	}
+
+	@Test
+	public void testCloseBeforeEnd() {
+		AtomicInteger readCount = new AtomicInteger();
+		Iterator<Integer> source = IntStream.range(0, 10_000).peek((i) -> readCount.incrementAndGet()).boxed()
+				.iterator();
+		ReadAheadIterator<Integer> iterator = new ReadAheadIterator<>(executor, source, 10, 2);
+		assertEquals(Integer.valueOf(0), iterator.next());
+		// call under test
+		iterator.close();
+		// the read ahead stops once the queue is full.
+		assertTrue(readCount.get() < 10_000, "Read: " + readCount.get());
+	}
+
+	@Test
+	public void testConstructorWithZeroChunkSize() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new ReadAheadIterator<>(executor, Collections.emptyIterator(), 0, 2);
+		}).getMessage();
+		assertEquals("chunkSize must be greater than zero.", message);
+	}
+
+	@Test
+	public void testConstructorWithZeroMaxChunks() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new ReadAheadIterator<>(executor, Collections.emptyIterator(), 10, 0);
+		}).getMessage();
+		assertEquals("maxChunks must be greater than zero.", message);
+	}
+}
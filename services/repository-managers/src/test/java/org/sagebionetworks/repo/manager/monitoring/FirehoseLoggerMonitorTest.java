@@ -0,0 +1,89 @@
+package org.sagebionetworks.repo.manager.monitoring;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.kinesis.AwsKinesisFirehoseLogger;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+
+@ExtendWith(MockitoExtension.class)
+public class FirehoseLoggerMonitorTest {
+
+	@Mock
+	private AwsKinesisFirehoseLogger mockFirehoseLogger;
+
+	@Mock
+	private Consumer mockConsumer;
+
+	@Mock
+	private StackConfiguration mockConfig;
+
+	private FirehoseLoggerMonitor monitor;
+
+	private String stream;
+
+	@BeforeEach
+	public void beforeEach() {
+		when(mockConfig.getStackInstance()).thenReturn("test");
+		monitor = new FirehoseLoggerMonitor(ApplicationType.workers, mockFirehoseLogger, mockConsumer, mockConfig);
+		stream = "fileDownloads";
+	}
+
+	@Test
+	public void testCollectMetrics() {
+		when(mockFirehoseLogger.getAsyncStreamSuffixes()).thenReturn(Set.of(stream));
+		when(mockFirehoseLogger.getQueueDepth(stream)).thenReturn(12, 3);
+		when(mockFirehoseLogger.getLastDeliveryLatencyMs(stream)).thenReturn(250L, 100L);
+		when(mockFirehoseLogger.getOverflowCount(stream)).thenReturn(2L, 5L);
+		when(mockFirehoseLogger.getFailedCount(stream)).thenReturn(4L, 4L);
+
+		// Call under test
+		monitor.collectMetrics();
+
+		verify(mockConsumer).addProfileData(List.of(profileData("queueDepth", 12.0, StandardUnit.Count),
+				profileData("lastDeliveryLatency", 250.0, StandardUnit.Milliseconds),
+				profileData("overflowCount", 2.0, StandardUnit.Count), profileData("failedCount", 4.0, StandardUnit.Count)));
+
+		// The second call only publishes the change of the counts since the first call.
+		monitor.collectMetrics();
+
+		verify(mockConsumer).addProfileData(List.of(profileData("queueDepth", 3.0, StandardUnit.Count),
+				profileData("lastDeliveryLatency", 100.0, StandardUnit.Milliseconds),
+				profileData("overflowCount", 3.0, StandardUnit.Count), profileData("failedCount", 0.0, StandardUnit.Count)));
+	}
+
+	@Test
+	public void testCollectMetricsWithNoStreams() {
+		when(mockFirehoseLogger.getAsyncStreamSuffixes()).thenReturn(Collections.emptySet());
+
+		// Call under test
+		monitor.collectMetrics();
+
+		verify(mockConsumer, never()).addProfileData(anyList());
+	}
+
+	private ProfileData profileData(String name, Double value, StandardUnit unit) {
+		return new ProfileData()
+			.setNamespace("Workers-Firehose-test")
+			.setName(name)
+			.setValue(value)
+			.setUnit(unit.name())
+			.setDimension(Map.of("stream", stream));
+	}
+}
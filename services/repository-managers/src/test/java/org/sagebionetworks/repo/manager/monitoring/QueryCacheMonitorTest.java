@@ -0,0 +1,76 @@
+package org.sagebionetworks.repo.manager.monitoring;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.StackConfiguration;
+import org.sagebionetworks.cloudwatch.Consumer;
+import org.sagebionetworks.cloudwatch.ProfileData;
+import org.sagebionetworks.repo.manager.table.QueryCacheManager;
+import org.sagebionetworks.repo.manager.table.TableQueryManager;
+
+import com.amazonaws.services.cloudwatch.model.StandardUnit;
+import com.google.common.cache.CacheStats;
+
+@ExtendWith(MockitoExtension.class)
+public class QueryCacheMonitorTest {
+
+	@Mock
+	private QueryCacheManager mockQueryCacheManager;
+
+	@Mock
+	private TableQueryManager mockTableQueryManager;
+
+	@Mock
+	private Consumer mockConsumer;
+
+	@Mock
+	private StackConfiguration mockConfig;
+
+	private QueryCacheMonitor monitor;
+
+	@BeforeEach
+	public void beforeEach() {
+		when(mockConfig.getStackInstance()).thenReturn("test");
+		monitor = new QueryCacheMonitor(ApplicationType.repository, mockQueryCacheManager, mockTableQueryManager,
+				mockConsumer, mockConfig);
+	}
+
+	@Test
+	public void testCollectMetrics() {
+		when(mockQueryCacheManager.getLocalCacheStats()).thenReturn(new CacheStats(5, 3, 0, 0, 0, 1),
+				new CacheStats(12, 4, 0, 0, 0, 1));
+		when(mockQueryCacheManager.getCoalescedWaiterCount()).thenReturn(2L, 6L);
+		when(mockTableQueryManager.getTranslationsCacheStats()).thenReturn(new CacheStats(10, 2, 0, 0, 0, 0),
+				new CacheStats(25, 3, 0, 0, 0, 0));
+
+		// Call under test
+		monitor.collectMetrics();
+
+		verify(mockConsumer).addProfileData(List.of(profileData("localHitCount", 5.0), profileData("localMissCount", 3.0),
+				profileData("localEvictionCount", 1.0), profileData("coalescedWaiterCount", 2.0),
+				profileData("translationsHitCount", 10.0), profileData("translationsMissCount", 2.0)));
+
+		// The second call only publishes the change since the first call.
+		monitor.collectMetrics();
+
+		verify(mockConsumer).addProfileData(List.of(profileData("localHitCount", 7.0), profileData("localMissCount", 1.0),
+				profileData("localEvictionCount", 0.0), profileData("coalescedWaiterCount", 4.0),
+				profileData("translationsHitCount", 15.0), profileData("translationsMissCount", 1.0)));
+	}
+
+	private static ProfileData profileData(String name, Double value) {
+		return new ProfileData()
+			.setNamespace("Repository-QueryCache-test")
+			.setName(name)
+			.setValue(value)
+			.setUnit(StandardUnit.Count.name());
+	}
+}
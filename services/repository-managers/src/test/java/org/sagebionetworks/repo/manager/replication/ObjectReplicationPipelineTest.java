@@ -0,0 +1,179 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.table.ObjectDataDTO;
+import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
+
+public class ObjectReplicationPipelineTest {
+
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void before() {
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	public void after() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testRunWithMultipleSubBatches() {
+		Thread caller = Thread.currentThread();
+		List<List<Long>> subBatches = List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+		List<Long> written = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> writers = Collections.synchronizedList(new ArrayList<>());
+		ObjectReplicationPipeline pipeline = new ObjectReplicationPipeline(executor, 2);
+
+		// call under test
+		pipeline.run(subBatches, ObjectReplicationPipelineTest::createDtos, (data) -> {
+			writers.add(Thread.currentThread());
+			data.forEach((dto) -> written.add(dto.getId()));
+		});
+
+		// the sub-batches are written in order on the calling thread.
+		assertEquals(List.of(1L, 2L, 3L, 4L, 5L), written);
+		assertEquals(List.of(caller, caller, caller), writers);
+		assertEquals(5L, pipeline.getReadCount());
+		assertEquals(5L, pipeline.getWriteCount());
+	}
+
+	@Test
+	public void testRunWithSingleSubBatch() {
+		Thread caller = Thread.currentThread();
+		List<Thread> threads = new ArrayList<>();
+		ObjectReplicationPipeline pipeline = new ObjectReplicationPipeline(executor, 2);
+
+		// call under test
+		pipeline.run(List.of(List.of(1L, 2L)), (ids) -> {
+			threads.add(Thread.currentThread());
+			return createDtos(ids);
+		}, (data) -> threads.add(Thread.currentThread()));
+
+		// a single sub-batch does not need another thread.
+		assertEquals(List.of(caller, caller), threads);
+		assertEquals(2L, pipeline.getReadCount());
+		assertEquals(2L, pipeline.getWriteCount());
+	}
+
+	@Test
+	public void testRunWithMaxReadAhead() {
+		List<List<Long>> subBatches = new ArrayList<>();
+		for (long i = 0; i < 20; i++) {
+			subBatches.add(List.of(i));
+		}
+		AtomicInteger notWritten = new AtomicInteger();
+		AtomicInteger maxNotWritten = new AtomicInteger();
+		AtomicInteger writing = new AtomicInteger();
+		AtomicInteger maxWriting = new AtomicInteger();
+		int maxReadAhead = 3;
+		ObjectReplicationPipeline pipeline = new ObjectReplicationPipeline(executor, maxReadAhead);
+
+		// call under test
+		pipeline.run(subBatches, (ids) -> {
+			maxNotWritten.accumulateAndGet(notWritten.incrementAndGet(), Math::max);
+			sleep(5L);
+			return createDtos(ids);
+		}, (data) -> {
+			maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+			sleep(5L);
+			writing.decrementAndGet();
+			notWritten.decrementAndGet();
+		});
+
+		// the sub-batch being written plus the sub-batches read ahead.
+		assertTrue(maxNotWritten.get() <= maxReadAhead + 1, "Observed: " + maxNotWritten.get());
+		// writes never overlap.
+		assertEquals(1, maxWriting.get());
+		assertEquals(20L, pipeline.getWriteCount());
+	}
+
+	@Test
+	public void testRunWithWriteFailure() {
+		List<List<Long>> subBatches = List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+		RecoverableMessageException exception = new RecoverableMessageException("retry");
+		ObjectReplicationPipeline pipeline = new ObjectReplicationPipeline(executor, 1);
+
+		RecoverableMessageException thrown = assertThrows(RecoverableMessageException.class, () -> {
+			// call under test
+			pipeline.run(subBatches, ObjectReplicationPipelineTest::createDtos, (data) -> {
+				if (data.get(0).getId() == 3L) {
+					throw exception;
+				}
+			});
+		});
+		assertEquals(exception, thrown);
+		// the read started before the failure completes, no sub-batch is written after the failure.
+		assertEquals(5L, pipeline.getReadCount());
+		assertEquals(2L, pipeline.getWriteCount());
+	}
+
+	@Test
+	public void testRunWithReadFailure() {
+		List<List<Long>> subBatches = List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+		IllegalStateException exception = new IllegalStateException("nope");
+		List<Long> written = Collections.synchronizedList(new ArrayList<>());
+		ObjectReplicationPipeline pipeline = new ObjectReplicationPipeline(executor, 1);
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			pipeline.run(subBatches, (ids) -> {
+				if (ids.get(0) == 3L) {
+					throw exception;
+				}
+				return createDtos(ids);
+			}, (data) -> data.forEach((dto) -> written.add(dto.getId())));
+		});
+		assertEquals(exception, thrown);
+		assertEquals(List.of(1L, 2L), written);
+	}
+
+	@Test
+	public void testRunWithNoSubBatches() {
+		ObjectReplicationPipeline pipeline = new ObjectReplicationPipeline(executor, 2);
+		// call under test
+		pipeline.run(Collections.emptyList(), ObjectReplicationPipelineTest::createDtos, (data) -> {
+		});
+		assertEquals(0L, pipeline.getReadCount());
+	}
+
+	@Test
+	public void testConstructorWithZeroMaxReadAhead() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new ObjectReplicationPipeline(executor, 0);
+		}).getMessage();
+		assertEquals("maxReadAhead must be greater than zero.", message);
+	}
+
+	private static List<ObjectDataDTO> createDtos(List<Long> ids) {
+		return ids.stream().map((id) -> {
+			ObjectDataDTO dto = new ObjectDataDTO();
+			dto.setId(id);
+			return dto;
+		}).collect(Collectors.toList());
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package org.sagebionetworks.repo.manager.replication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
+import org.sagebionetworks.repo.model.ObjectType;
+import org.sagebionetworks.repo.model.message.ChangeMessage;
+import org.sagebionetworks.repo.model.message.ChangeType;
+
+@ExtendWith(MockitoExtension.class)
+public class RangeReconcileIteratorTest {
+
+	@Mock
+	private BiFunction<Long, Long, Iterator<IdAndChecksum>> mockTruthRangeStreamProvider;
+	@Mock
+	private BiFunction<Long, Long, Iterator<IdAndChecksum>> mockReplicationRangeStreamProvider;
+
+	private long rangeSize = 10L;
+
+	@Test
+	public void testIteratorWithNoDeltas() {
+		List<IdRangeChecksum> truthRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(2L).withChecksum(7L),
+				new IdRangeChecksum().withRangeIndex(1L).withCount(1L).withChecksum(5L)
+		);
+		List<IdRangeChecksum> replicationRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(2L).withChecksum(7L),
+				new IdRangeChecksum().withRangeIndex(1L).withCount(1L).withChecksum(5L)
+		);
+		RangeReconcileIterator iterator = new RangeReconcileIterator(ObjectType.ENTITY, rangeSize,
+				truthRanges.iterator(), replicationRanges.iterator(), mockTruthRangeStreamProvider,
+				mockReplicationRangeStreamProvider);
+
+		// Call under test
+		List<ChangeMessage> results = toList(iterator);
+
+		assertEquals(Collections.emptyList(), results);
+		assertEquals(2L, iterator.getRangeCount());
+		assertEquals(0L, iterator.getMismatchedRangeCount());
+		// Matching ranges are never read ID-by-ID from either side.
+		verifyZeroInteractions(mockTruthRangeStreamProvider);
+		verifyZeroInteractions(mockReplicationRangeStreamProvider);
+	}
+
+	@Test
+	public void testIteratorWithRangeChecksumMismatch() {
+		List<IdRangeChecksum> truthRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(3L),
+				new IdRangeChecksum().withRangeIndex(1L).withCount(2L).withChecksum(11L)
+		);
+		List<IdRangeChecksum> replicationRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(3L),
+				new IdRangeChecksum().withRangeIndex(1L).withCount(2L).withChecksum(12L)
+		);
+		when(mockTruthRangeStreamProvider.apply(any(), any())).thenReturn(List.of(
+				new IdAndChecksum().withId(15L).withChecksum(5L),
+				new IdAndChecksum().withId(16L).withChecksum(6L)
+		).iterator());
+		when(mockReplicationRangeStreamProvider.apply(any(), any())).thenReturn(List.of(
+				new IdAndChecksum().withId(15L).withChecksum(5L),
+				new IdAndChecksum().withId(16L).withChecksum(7L)
+		).iterator());
+		RangeReconcileIterator iterator = new RangeReconcileIterator(ObjectType.ENTITY, rangeSize,
+				truthRanges.iterator(), replicationRanges.iterator(), mockTruthRangeStreamProvider,
+				mockReplicationRangeStreamProvider);
+
+		// Call under test
+		List<ChangeMessage> results = toList(iterator);
+
+		assertEquals(List.of(change(ChangeType.UPDATE, 16L)), results);
+		assertEquals(2L, iterator.getRangeCount());
+		assertEquals(1L, iterator.getMismatchedRangeCount());
+		// Only the range that differs is read ID-by-ID.
+		verify(mockTruthRangeStreamProvider).apply(10L, 20L);
+		verify(mockReplicationRangeStreamProvider).apply(10L, 20L);
+		verifyNoMoreInteractions(mockTruthRangeStreamProvider, mockReplicationRangeStreamProvider);
+	}
+
+	@Test
+	public void testIteratorWithRangeMissingFromReplication() {
+		List<IdRangeChecksum> truthRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(3L),
+				new IdRangeChecksum().withRangeIndex(2L).withCount(2L).withChecksum(11L)
+		);
+		List<IdRangeChecksum> replicationRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(3L)
+		);
+		when(mockTruthRangeStreamProvider.apply(any(), any())).thenReturn(List.of(
+				new IdAndChecksum().withId(25L).withChecksum(5L),
+				new IdAndChecksum().withId(27L).withChecksum(6L)
+		).iterator());
+		RangeReconcileIterator iterator = new RangeReconcileIterator(ObjectType.ENTITY, rangeSize,
+				truthRanges.iterator(), replicationRanges.iterator(), mockTruthRangeStreamProvider,
+				mockReplicationRangeStreamProvider);
+
+		// Call under test
+		List<ChangeMessage> results = toList(iterator);
+
+		assertEquals(List.of(change(ChangeType.CREATE, 25L), change(ChangeType.CREATE, 27L)), results);
+		assertEquals(2L, iterator.getRangeCount());
+		assertEquals(1L, iterator.getMismatchedRangeCount());
+		verify(mockTruthRangeStreamProvider).apply(20L, 30L);
+		verifyNoMoreInteractions(mockTruthRangeStreamProvider);
+		// There is nothing to read from replication for the range.
+		verifyZeroInteractions(mockReplicationRangeStreamProvider);
+	}
+
+	@Test
+	public void testIteratorWithRangeMissingFromTruth() {
+		List<IdRangeChecksum> truthRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(3L),
+				new IdRangeChecksum().withRangeIndex(4L).withCount(1L).withChecksum(5L)
+		);
+		List<IdRangeChecksum> replicationRanges = List.of(
+				new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(3L),
+				new IdRangeChecksum().withRangeIndex(3L).withCount(1L).withChecksum(9L),
+				new IdRangeChecksum().withRangeIndex(4L).withCount(1L).withChecksum(5L)
+		);
+		when(mockReplicationRangeStreamProvider.apply(any(), any()))
+				.thenReturn(List.of(new IdAndChecksum().withId(31L).withChecksum(9L)).iterator());
+		RangeReconcileIterator iterator = new RangeReconcileIterator(ObjectType.ENTITY, rangeSize,
+				truthRanges.iterator(), replicationRanges.iterator(), mockTruthRangeStreamProvider,
+				mockReplicationRangeStreamProvider);
+
+		// Call under test
+		List<ChangeMessage> results = toList(iterator);
+
+		assertEquals(List.of(change(ChangeType.DELETE, 31L)), results);
+		assertEquals(3L, iterator.getRangeCount());
+		assertEquals(1L, iterator.getMismatchedRangeCount());
+		verify(mockReplicationRangeStreamProvider).apply(30L, 40L);
+		verifyNoMoreInteractions(mockReplicationRangeStreamProvider);
+		// There is nothing to read from truth for the range.
+		verifyZeroInteractions(mockTruthRangeStreamProvider);
+	}
+
+	@Test
+	public void testIteratorWithBothEmpty() {
+		RangeReconcileIterator iterator = new RangeReconcileIterator(ObjectType.ENTITY, rangeSize,
+				Collections.emptyIterator(), Collections.emptyIterator(), mockTruthRangeStreamProvider,
+				mockReplicationRangeStreamProvider);
+
+		// Call under test
+		assertFalse(iterator.hasNext());
+		assertThrows(NoSuchElementException.class, () -> {
+			// Call under test
+			iterator.next();
+		});
+	}
+
+	@Test
+	public void testConstructorWithZeroRangeSize() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// Call under test
+			new RangeReconcileIterator(ObjectType.ENTITY, 0L, Collections.emptyIterator(), Collections.emptyIterator(),
+					mockTruthRangeStreamProvider, mockReplicationRangeStreamProvider);
+		}).getMessage();
+		assertEquals("rangeSize must be greater than zero.", message);
+	}
+
+	private static List<ChangeMessage> toList(Iterator<ChangeMessage> iterator) {
+		List<ChangeMessage> results = new ArrayList<>();
+		iterator.forEachRemaining(results::add);
+		return results;
+	}
+
+	private static ChangeMessage change(ChangeType changeType, Long objectId) {
+		return new ChangeMessage().setChangeType(changeType).setObjectType(ObjectType.ENTITY)
+				.setObjectId(objectId.toString());
+	}
+}
@@ -10,6 +10,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -44,6 +45,7 @@ import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFact
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProvider;
 import org.sagebionetworks.repo.manager.table.metadata.ObjectDataProviderFactory;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.jdo.KeyFactory;
@@ -61,6 +63,7 @@ import org.sagebionetworks.workers.util.aws.message.RecoverableMessageException;
 import org.springframework.transaction.TransactionStatus;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @ExtendWith(MockitoExtension.class)
 public class ReplicationManagerTest {
@@ -116,7 +119,7 @@ public class ReplicationManagerTest {
 		when(mockLoggerProvider.getLogger(any())).thenReturn(mockLogger);
 		manager = new ReplicationManagerImpl(mockObjectDataProviderFactory, mockTableManagerSupport,
 				mockReplicationMessageManager, mockIndexConnectionFactory, mockIndexProviderFactory,
-				mockLoggerProvider, mockRandom);
+				mockLoggerProvider, mockRandom, MoreExecutors.newDirectExecutorService());
 		managerSpy = Mockito.spy(manager);
 		ChangeMessage update = new ChangeMessage();
 		update.setChangeType(ChangeType.UPDATE);
@@ -234,6 +237,52 @@ public class ReplicationManagerTest {
 		assertEquals(entityData, actualList);
 	}
 
+	@Test
+	public void testReplicateChangesWithMultipleSubBatches() {
+		List<ChangeMessage> messages = new ArrayList<>();
+		List<Long> ids = new ArrayList<>();
+		for (long i = 0; i < ReplicationManagerImpl.REPLICATION_SUB_BATCH_SIZE * 2 + 1; i++) {
+			messages.add(new ChangeMessage().setChangeType(ChangeType.UPDATE).setObjectType(ObjectType.ENTITY)
+					.setObjectId(Long.toString(i)));
+			ids.add(i);
+		}
+		List<ObjectDataDTO> entityData = createEntityDtos(2);
+
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		when(mockObjectDataProvider.getObjectData(any(), anyInt())).thenAnswer((invocation) -> entityData.iterator());
+
+		// call under test
+		manager.replicate(messages);
+
+		int size = ReplicationManagerImpl.REPLICATION_SUB_BATCH_SIZE;
+		verify(mockObjectDataProvider).getObjectData(ids.subList(0, size), ReplicationManagerImpl.MAX_ANNOTATION_CHARS);
+		verify(mockObjectDataProvider).getObjectData(ids.subList(size, size * 2),
+				ReplicationManagerImpl.MAX_ANNOTATION_CHARS);
+		verify(mockObjectDataProvider).getObjectData(ids.subList(size * 2, size * 2 + 1),
+				ReplicationManagerImpl.MAX_ANNOTATION_CHARS);
+		verify(mockTableIndexManager, times(3)).updateObjectReplication(eq(mainType), iteratorCaptor.capture());
+		for (Iterator<ObjectDataDTO> captured : iteratorCaptor.getAllValues()) {
+			assertEquals(entityData, ImmutableList.copyOf(captured));
+		}
+	}
+
+	@Test
+	public void testReplicateChangesWithOnlyDeletes() {
+		ChangeMessage delete = new ChangeMessage().setChangeType(ChangeType.DELETE).setObjectType(ObjectType.ENTITY)
+				.setObjectId("333");
+
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+
+		// call under test
+		manager.replicate(List.of(delete));
+
+		verify(mockTableIndexManager).deleteObjectData(mainType, List.of(333L));
+		verify(mockObjectDataProvider, never()).getObjectData(any(), anyInt());
+		verify(mockTableIndexManager, never()).updateObjectReplication(any(), any());
+	}
+
 	/**
 	 * Test helper
 	 *
@@ -489,23 +538,94 @@ public class ReplicationManagerTest {
 		assertEquals("idAndVersion is required.", message);
 	}
 
+	@Test
+	public void testCreateTruthRangesWithHierarchicaFilter() {
+
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		List<IdRangeChecksum> ranges = Arrays
+				.asList(new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(11L));
+		when(mockObjectDataProvider.getIdRangeChecksumsForChildren(any(), any(), any(), any())).thenReturn(ranges);
+
+		Long salt = 123L;
+		Long rangeSize = 10L;
+		Set<SubType> subTypes = Set.of(SubType.file);
+		Set<Long> scope = Set.of(99L);
+		ViewFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, subTypes, scope);
+		// call under test
+		List<IdRangeChecksum> result = manager.createTruthRanges(salt, filter, rangeSize);
+		assertEquals(ranges, result);
+
+		verify(mockObjectDataProviderFactory).getObjectDataProvider(ReplicationType.ENTITY);
+		verify(mockObjectDataProvider).getIdRangeChecksumsForChildren(salt, scope, subTypes, rangeSize);
+	}
+
+	@Test
+	public void testCreateTruthRangesWithFlatFilter() {
+
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		List<IdRangeChecksum> ranges = Arrays
+				.asList(new IdRangeChecksum().withRangeIndex(9L).withCount(1L).withChecksum(11L));
+		when(mockObjectDataProvider.getIdRangeChecksumsForObjects(any(), any(), any())).thenReturn(ranges);
+
+		Long salt = 123L;
+		Long rangeSize = 10L;
+		Set<SubType> subTypes = Set.of(SubType.file);
+		Set<IdAndVersion> scope = Set.of(IdAndVersion.parse("99"));
+		ViewFilter filter = new IdAndVersionFilter(ReplicationType.ENTITY, subTypes, scope);
+		// call under test
+		List<IdRangeChecksum> result = manager.createTruthRanges(salt, filter, rangeSize);
+		assertEquals(ranges, result);
+
+		verify(mockObjectDataProviderFactory).getObjectDataProvider(ReplicationType.ENTITY);
+		verify(mockObjectDataProvider).getIdRangeChecksumsForObjects(salt, Set.of(99L), rangeSize);
+	}
+
+	@Test
+	public void testCreateTruthRangesWithUnknownFilter() {
+		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
+		Long salt = 123L;
+		ViewFilter filter = Mockito.mock(ViewFilter.class);
+
+		String message = assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			manager.createTruthRanges(salt, filter, 10L);
+		}).getMessage();
+
+		assertTrue(message.startsWith("Unknown filter types: "));
+	}
+
+	@Test
+	public void testCreateTruthRangesWithNullRangeSize() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Set.of(SubType.file);
+		Set<IdAndVersion> scope = Set.of(IdAndVersion.parse("syn1.2"));
+		IdAndVersionFilter filter = new IdAndVersionFilter(ReplicationType.ENTITY, subTypes, scope);
+
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			manager.createTruthRanges(salt, filter, null);
+		}).getMessage();
+
+		assertEquals("rangeSize is required.", message);
+	}
+
 	@Test
 	public void testCreateTruthStreamWithHierarchicaFilter() {
 
 		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
 		Iterator<IdAndChecksum> it = Arrays.asList(new IdAndChecksum().withId(33L)).iterator();
-		when(mockObjectDataProvider.streamOverIdsAndChecksumsForChildren(any(), any(), any())).thenReturn(it);
+		when(mockObjectDataProvider.streamOverIdsAndChecksumsForChildren(any(), any(), any(), any(), any())).thenReturn(it);
 
 		Long salt = 123L;
 		Set<SubType> subTypes = Set.of(SubType.file);
 		Set<Long> scope = Set.of(99L);
 		ViewFilter filter = new HierarchicaFilter(ReplicationType.ENTITY, subTypes, scope);
 		// call under test
-		Iterator<IdAndChecksum> result = manager.createTruthStream(salt, filter);
+		Iterator<IdAndChecksum> result = manager.createTruthStream(salt, filter, 30L, 40L);
 		assertEquals(result, it);
 
 		verify(mockObjectDataProviderFactory).getObjectDataProvider(ReplicationType.ENTITY);
-		verify(mockObjectDataProvider).streamOverIdsAndChecksumsForChildren(salt, scope, subTypes);
+		verify(mockObjectDataProvider).streamOverIdsAndChecksumsForChildren(salt, scope, subTypes, 30L, 40L);
 	}
 
 	@Test
@@ -513,18 +633,18 @@ public class ReplicationManagerTest {
 
 		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
 		Iterator<IdAndChecksum> it = Arrays.asList(new IdAndChecksum().withId(33L)).iterator();
-		when(mockObjectDataProvider.streamOverIdsAndChecksumsForObjects(any(), any())).thenReturn(it);
+		when(mockObjectDataProvider.streamOverIdsAndChecksumsForObjects(any(), any(), any(), any())).thenReturn(it);
 
 		Long salt = 123L;
 		Set<SubType> subTypes = Set.of(SubType.file);
 		Set<IdAndVersion> scope = Set.of(IdAndVersion.parse("99"));
 		ViewFilter filter = new IdAndVersionFilter(ReplicationType.ENTITY, subTypes, scope);
 		// call under test
-		Iterator<IdAndChecksum> result = manager.createTruthStream(salt, filter);
+		Iterator<IdAndChecksum> result = manager.createTruthStream(salt, filter, 90L, 100L);
 		assertEquals(result, it);
 
 		verify(mockObjectDataProviderFactory).getObjectDataProvider(ReplicationType.ENTITY);
-		verify(mockObjectDataProvider).streamOverIdsAndChecksumsForObjects(salt, Set.of(99L));
+		verify(mockObjectDataProvider).streamOverIdsAndChecksumsForObjects(salt, Set.of(99L), 90L, 100L);
 	}
 
 	@Test
@@ -532,18 +652,18 @@ public class ReplicationManagerTest {
 
 		when(mockObjectDataProviderFactory.getObjectDataProvider(any())).thenReturn(mockObjectDataProvider);
 		Iterator<IdAndChecksum> it = Arrays.asList(new IdAndChecksum().withId(33L)).iterator();
-		when(mockObjectDataProvider.streamOverIdsAndChecksumsForObjects(any(), any())).thenReturn(it);
+		when(mockObjectDataProvider.streamOverIdsAndChecksumsForObjects(any(), any(), any(), any())).thenReturn(it);
 
 		Long salt = 123L;
 		Set<SubType> subTypes = Set.of(SubType.file);
 		Set<IdAndVersion> scope = Set.of(IdAndVersion.parse("syn1.2"));
 		IdAndVersionFilter filter = new IdAndVersionFilter(ReplicationType.ENTITY, subTypes, scope);
 		// call under test
-		Iterator<IdAndChecksum> result = manager.createTruthStream(salt, filter);
+		Iterator<IdAndChecksum> result = manager.createTruthStream(salt, filter, 0L, 10L);
 		assertEquals(result, it);
 
 		verify(mockObjectDataProviderFactory).getObjectDataProvider(ReplicationType.ENTITY);
-		verify(mockObjectDataProvider).streamOverIdsAndChecksumsForObjects(salt, filter.getObjectIds());
+		verify(mockObjectDataProvider).streamOverIdsAndChecksumsForObjects(salt, filter.getObjectIds(), 0L, 10L);
 	}
 
 	@Test
@@ -554,7 +674,7 @@ public class ReplicationManagerTest {
 
 		String message = assertThrows(IllegalStateException.class, () -> {
 			// call under test
-			manager.createTruthStream(salt, filter);
+			manager.createTruthStream(salt, filter, 0L, 10L);
 		}).getMessage();
 
 		assertTrue(message.startsWith("Unknown filter types: "));
@@ -567,7 +687,7 @@ public class ReplicationManagerTest {
 
 		String message = assertThrows(IllegalArgumentException.class, () -> {
 			// call under test
-			manager.createTruthStream(salt, filter);
+			manager.createTruthStream(salt, filter, 0L, 10L);
 		}).getMessage();
 
 		assertEquals("filter is required.", message);
@@ -582,7 +702,7 @@ public class ReplicationManagerTest {
 
 		String message = assertThrows(IllegalArgumentException.class, () -> {
 			// call under test
-			manager.createTruthStream(salt, filter);
+			manager.createTruthStream(salt, filter, 0L, 10L);
 		}).getMessage();
 
 		assertEquals("salt is required.", message);
@@ -593,16 +713,22 @@ public class ReplicationManagerTest {
 		long salt = 1235L;
 		when(mockRandom.nextLong()).thenReturn(salt);
 
+		List<IdRangeChecksum> truthRanges = Arrays
+				.asList(new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(0L));
+		doReturn(truthRanges).when(managerSpy).createTruthRanges(any(), any(), any());
 		Iterator<IdAndChecksum> truthStream = Arrays.asList(new IdAndChecksum().withId(1L).withChecksum(0L)).iterator();
-		doReturn(truthStream).when(managerSpy).createTruthStream(any(), any());
+		doReturn(truthStream).when(managerSpy).createTruthStream(any(), any(), any(), any());
 
 		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
 
 		when(mockFilter.getReplicationType()).thenReturn(ReplicationType.ENTITY);
 
+		List<IdRangeChecksum> replicationRanges = Arrays
+				.asList(new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(11L));
+		when(mockTableIndexManager.getIdRangeChecksums(any(), any(), any())).thenReturn(replicationRanges);
 		Iterator<IdAndChecksum> replicationStream = Arrays.asList(new IdAndChecksum().withId(1L).withChecksum(11L))
 				.iterator();
-		when(mockTableIndexManager.streamOverIdsAndChecksums(any(), any())).thenReturn(replicationStream);
+		when(mockTableIndexManager.streamOverIdsAndChecksums(any(), any(), any(), any())).thenReturn(replicationStream);
 
 		// call under test
 		Iterator<ChangeMessage> result = managerSpy.createReconcileIterator(mockFilter);
@@ -613,9 +739,39 @@ public class ReplicationManagerTest {
 		assertEquals(expecedMessage, result.next());
 		assertFalse(result.hasNext());
 
-		verify(managerSpy).createTruthStream(salt, mockFilter);
+		verify(managerSpy).createTruthRanges(salt, mockFilter, ReplicationManagerImpl.RECONCILE_ID_RANGE_SIZE);
+		verify(managerSpy).createTruthStream(salt, mockFilter, 0L, ReplicationManagerImpl.RECONCILE_ID_RANGE_SIZE);
 		verify(mockIndexConnectionFactory).connectToFirstIndex();
-		verify(mockTableIndexManager).streamOverIdsAndChecksums(salt, mockFilter);
+		verify(mockTableIndexManager).getIdRangeChecksums(salt, mockFilter, ReplicationManagerImpl.RECONCILE_ID_RANGE_SIZE);
+		verify(mockTableIndexManager).streamOverIdsAndChecksums(salt, mockFilter, 0L,
+				ReplicationManagerImpl.RECONCILE_ID_RANGE_SIZE);
+	}
+
+	@Test
+	public void testCreateReconcileIteratorWithMatchingRanges() {
+		long salt = 1235L;
+		when(mockRandom.nextLong()).thenReturn(salt);
+
+		List<IdRangeChecksum> truthRanges = Arrays
+				.asList(new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(11L));
+		doReturn(truthRanges).when(managerSpy).createTruthRanges(any(), any(), any());
+
+		when(mockIndexConnectionFactory.connectToFirstIndex()).thenReturn(mockTableIndexManager);
+
+		when(mockFilter.getReplicationType()).thenReturn(ReplicationType.ENTITY);
+
+		List<IdRangeChecksum> replicationRanges = Arrays
+				.asList(new IdRangeChecksum().withRangeIndex(0L).withCount(1L).withChecksum(11L));
+		when(mockTableIndexManager.getIdRangeChecksums(any(), any(), any())).thenReturn(replicationRanges);
+
+		// call under test
+		Iterator<ChangeMessage> result = managerSpy.createReconcileIterator(mockFilter);
+		assertFalse(result.hasNext());
+
+		verify(managerSpy).createTruthRanges(salt, mockFilter, ReplicationManagerImpl.RECONCILE_ID_RANGE_SIZE);
+		// A matching range must not issue any per-ID query on either side.
+		verify(managerSpy, never()).createTruthStream(any(), any(), any(), any());
+		verify(mockTableIndexManager, never()).streamOverIdsAndChecksums(any(), any(), any(), any());
 	}
 
 	@Test
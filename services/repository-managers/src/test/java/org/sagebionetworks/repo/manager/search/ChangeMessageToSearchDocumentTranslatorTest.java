@@ -5,9 +5,14 @@ import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -156,4 +161,46 @@ public class ChangeMessageToSearchDocumentTranslatorTest{
 		verify(mockRecordLogger).startRecordForChangeMessage(message);
 		verify(mockWikiPageDao).lookupWikiKey(wikiId);
 	}
+	
+	@Test
+	public void testGenerateSearchDocumentsIfNecessary() {
+		String deletedId = "445566";
+		ChangeMessage deleted = new ChangeMessage();
+		deleted.setObjectId(deletedId);
+		deleted.setObjectType(ObjectType.ENTITY);
+		ChangeMessage wiki = new ChangeMessage();
+		wiki.setObjectId(wikiId);
+		wiki.setObjectType(ObjectType.WIKI);
+		ChangeMessage missingWiki = new ChangeMessage();
+		missingWiki.setObjectId("654");
+		missingWiki.setObjectType(ObjectType.WIKI);
+		when(mockWikiPageDao.lookupWikiKey("654")).thenThrow(new NotFoundException(""));
+		when(mockSearchDocumentDriver.formulateSearchDocuments(Arrays.asList(synapseId, deletedId)))
+				.thenReturn(Collections.singletonMap(synapseId, docOne));
+		// call under test
+		List<Document> docs = translator.generateSearchDocumentsIfNecessary(Arrays.asList(message, deleted, wiki, missingWiki));
+		Document expectedDelete = new Document();
+		expectedDelete.setId(deletedId);
+		expectedDelete.setType(DocumentTypeNames.delete);
+		assertEquals(Arrays.asList(docOne, expectedDelete, docOne), docs);
+		verify(mockRecordLogger).startRecordForChangeMessage(message);
+		verify(mockRecordLogger).startRecordForChangeMessage(missingWiki);
+		verify(mocKRecord).withWikiOwner(synapseId);
+		verify(mocKRecord, times(2)).withAction(DocumentAction.CREATE_OR_UPDATE);
+		verify(mocKRecord).withAction(DocumentAction.DELETE);
+		verify(mocKRecord).withAction(DocumentAction.IGNORE);
+		verify(mockSearchDocumentDriver, never()).formulateSearchDocument(anyString());
+	}
+	
+	@Test
+	public void testGenerateSearchDocumentsIfNecessaryWithNoEntities() {
+		when(mockWikiPageDao.lookupWikiKey(wikiId)).thenThrow(new NotFoundException(""));
+		message.setObjectId(wikiId);
+		message.setObjectType(ObjectType.WIKI);
+		// call under test
+		List<Document> docs = translator.generateSearchDocumentsIfNecessary(Arrays.asList(message));
+		assertEquals(Collections.emptyList(), docs);
+		verify(mockSearchDocumentDriver).formulateSearchDocuments(Collections.emptyList());
+		verify(mocKRecord).withAction(DocumentAction.IGNORE);
+	}
 }
@@ -11,10 +11,13 @@ import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.After;
@@ -293,6 +296,34 @@ public class SearchDocumentDriverImplAutowireTest {
 		assertEquals(null, resultText);
 	}
 
+	
+	@Test
+	public void testGetEntityPaths() {
+		String doesNotExist = "syn-123";
+		List<String> ids = Arrays.asList(project.getId(), doesNotExist);
+		// call under test
+		Map<String, EntityPath> paths = searchDocumentDriver.getEntityPaths(ids);
+		assertEquals(1, paths.size());
+		assertEquals(searchDocumentDriver.getEntityPath(project.getId()), paths.get(project.getId()));
+	}
+	
+	@Test
+	public void testFormulateSearchDocuments() {
+		String doesNotExist = "syn-123";
+		Document expected = searchDocumentDriver.formulateSearchDocument(project.getId());
+		// call under test
+		Map<String, Document> documents = searchDocumentDriver.formulateSearchDocuments(Arrays.asList(project.getId(), doesNotExist));
+		assertEquals(1, documents.size());
+		Document result = documents.get(project.getId());
+		assertNotNull(result);
+		// the order of the principals is not defined.
+		Collections.sort(expected.getFields().getAcl());
+		Collections.sort(expected.getFields().getUpdate_acl());
+		Collections.sort(result.getFields().getAcl());
+		Collections.sort(result.getFields().getUpdate_acl());
+		assertEquals(expected, result);
+	}
+
 
 	// http://stackoverflow.com/questions/326390/how-to-create-a-java-string-from-the-contents-of-a-file
 	private static String readFile(File file) throws IOException {
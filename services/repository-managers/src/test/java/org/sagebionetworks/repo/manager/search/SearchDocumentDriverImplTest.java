@@ -4,12 +4,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.sagebionetworks.search.SearchConstants.FIELD_CONSORTIUM;
 import static org.sagebionetworks.search.SearchConstants.FIELD_DIAGNOSIS;
 import static org.sagebionetworks.search.SearchConstants.FIELD_ORGAN;
@@ -18,6 +20,7 @@ import static org.sagebionetworks.search.SearchConstants.FIELD_TISSUE;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
@@ -29,11 +32,14 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.sagebionetworks.repo.model.AccessControlList;
 import org.sagebionetworks.repo.model.EntityType;
 import org.sagebionetworks.repo.model.Node;
+import org.sagebionetworks.repo.model.ObjectType;
 import org.sagebionetworks.repo.model.annotation.v2.Annotations;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsV2TestUtils;
 import org.sagebionetworks.repo.model.annotation.v2.AnnotationsValueType;
 import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.DocumentFields;
+import org.sagebionetworks.repo.model.v2.dao.V2WikiPageDao;
+import org.sagebionetworks.repo.model.v2.wiki.V2WikiPage;
 
 @RunWith(MockitoJUnitRunner.class)
 public class SearchDocumentDriverImplTest {
@@ -49,6 +55,9 @@ public class SearchDocumentDriverImplTest {
 	@Mock
 	private AccessControlList mockAcl;
 
+	@Mock
+	private V2WikiPageDao mockWikiPageDao;
+
 	private Node node;
 
 	private final String annoKey1 = "annoKey1";
@@ -71,7 +80,9 @@ public class SearchDocumentDriverImplTest {
 		annotationsV2 = new Annotations();
 
 		documentFields = new DocumentFields();
-		spySearchDocumentDriver = Mockito.spy(new SearchDocumentDriverImpl());
+		SearchDocumentDriverImpl searchDocumentDriver = new SearchDocumentDriverImpl();
+		searchDocumentDriver.wikiPageDao = mockWikiPageDao;
+		spySearchDocumentDriver = Mockito.spy(searchDocumentDriver);
 
 		annoValuesMap = new HashMap<>();
 
@@ -192,4 +203,29 @@ public class SearchDocumentDriverImplTest {
 		assertEquals(sanitizedString, result.getFields().getDescription());
 	}
 
+	@Test
+	public void getAllWikiPageText_missingMarkdown() throws Exception {
+		V2WikiPage root = new V2WikiPage();
+		root.setTitle("root");
+		root.setMarkdownFileHandleId("1");
+		V2WikiPage child = new V2WikiPage();
+		child.setTitle("child");
+		child.setMarkdownFileHandleId("2");
+
+		Map<Long, List<V2WikiPage>> pagesByOwner = new HashMap<>();
+		pagesByOwner.put(123L, Arrays.asList(root, child));
+		Map<String, String> markdown = new HashMap<>();
+		markdown.put("1", "root markdown");
+
+		when(mockWikiPageDao.getCurrentPagesForOwners(any(), any(), anyLong())).thenReturn(pagesByOwner);
+		when(mockWikiPageDao.getMarkdownByFileHandleId(any())).thenReturn(markdown);
+
+		//method under test
+		Map<Long, String> result = spySearchDocumentDriver.getAllWikiPageText(Arrays.asList(123L));
+
+		assertEquals("\nroot\nroot markdown\nchild", result.get(123L));
+		verify(mockWikiPageDao).getCurrentPagesForOwners(Arrays.asList(123L), ObjectType.ENTITY, SearchDocumentDriverImpl.WIKI_PAGE_LIMIT);
+		verify(mockWikiPageDao).getMarkdownByFileHandleId(Arrays.asList("1", "2"));
+	}
+
 }
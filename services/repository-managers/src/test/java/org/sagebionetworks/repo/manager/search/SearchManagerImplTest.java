@@ -3,9 +3,9 @@ package org.sagebionetworks.repo.manager.search;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -17,10 +17,12 @@ import static org.sagebionetworks.search.SearchConstants.FIELD_PATH;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.junit.Before;
@@ -39,7 +41,6 @@ import org.sagebionetworks.repo.model.search.Document;
 import org.sagebionetworks.repo.model.search.SearchResults;
 import org.sagebionetworks.repo.model.search.query.KeyValue;
 import org.sagebionetworks.repo.model.search.query.SearchQuery;
-import org.sagebionetworks.repo.web.NotFoundException;
 import org.sagebionetworks.search.CloudSearchLogger;
 import org.sagebionetworks.search.SearchDao;
 import org.sagebionetworks.search.SearchUtil;
@@ -100,7 +101,7 @@ public class SearchManagerImplTest {
 		sample.getHits().withHit(hit);
 		when(mockSearchDao.executeSearch(any(SearchRequest.class))).thenReturn(sample);
 		// make sure the path is returned from the document driver
-		when(mockSearchDocumentDriver.getEntityPath("syn123")).thenReturn(new EntityPath());
+		when(mockSearchDocumentDriver.getEntityPaths(Collections.singletonList("syn123"))).thenReturn(Collections.singletonMap("syn123", new EntityPath()));
 
 		SearchQuery query = new SearchQuery();
 		query.setBooleanQuery(new LinkedList<>());
@@ -121,7 +122,7 @@ public class SearchManagerImplTest {
 		assertNotNull(results.getHits().get(0).getPath());
 		// Validate that path was not passed along to the search index as it is not there.
 		verify(mockSearchDao, times(1)).executeSearch(any(SearchRequest.class));
-		verify(mockSearchDocumentDriver,times(1)).getEntityPath("syn123");
+		verify(mockSearchDocumentDriver,times(1)).getEntityPaths(Collections.singletonList("syn123"));
 		verify(mockSearchDocumentDriver,times(1)).getAliases(Collections.singletonList("syn123"));
 	}
 
@@ -148,7 +149,7 @@ public class SearchManagerImplTest {
 		// The path should not be returned unless requested.
 		assertNull(results.getHits().get(0).getPath());
 		verify(mockSearchDao, times(1)).executeSearch(any(SearchRequest.class));
-		verify(mockSearchDocumentDriver,never()).getEntityPath(anyString());
+		verify(mockSearchDocumentDriver,never()).getEntityPaths(any());
 		verify(mockSearchDocumentDriver,times(1)).getAliases(Collections.singletonList("syn123"));
 	}
 
@@ -168,21 +169,18 @@ public class SearchManagerImplTest {
 
 	@Test
 	public void testDocumentChangeMessages(){
-		Document doc2Null = null;
-
 		Document doc3 = new Document();
 		doc3.setId("syn3");
 
-		when(mockTranslator.generateSearchDocumentIfNecessary(any(ChangeMessage.class))).thenReturn(doc1, doc2Null, doc3);
-
 		List<ChangeMessage> messages = Arrays.asList(new ChangeMessage(), new ChangeMessage(), new ChangeMessage());
+		when(mockTranslator.generateSearchDocumentsIfNecessary(messages)).thenReturn(Arrays.asList(doc1, doc3));
+
 		//method under test
 		searchManager.documentChangeMessages(messages);
 
 		verify(mockSearchDao).sendDocuments(iteratorArgumentCaptor.capture());
 		verify(mockRecordLogger).pushAllRecordsAndReset();
 
-		//check that the document iterator now only contains non-null Documents
 		Iterator<Document> generatedIterator = iteratorArgumentCaptor.getValue();
 		List<Document> documentsInIterator = Lists.newArrayList(generatedIterator);
 		assertEquals(2, documentsInIterator.size());
@@ -190,6 +188,36 @@ public class SearchManagerImplTest {
 		assertEquals(doc3, documentsInIterator.get(1));
 	}
 	
+	@Test
+	public void testDocumentChangeMessagesMultipleBatches(){
+		List<ChangeMessage> messages = new ArrayList<>();
+		for (int i = 0; i < SearchManagerImpl.CHANGE_MESSAGE_BATCH_SIZE * 2 + 1; i++) {
+			ChangeMessage message = new ChangeMessage();
+			message.setObjectId("" + i);
+			messages.add(message);
+		}
+		Document doc2 = new Document();
+		doc2.setId("syn2");
+		Document doc3 = new Document();
+		doc3.setId("syn3");
+		when(mockTranslator.generateSearchDocumentsIfNecessary(any())).thenReturn(Arrays.asList(doc1),
+				Collections.emptyList(), Arrays.asList(doc2, doc3));
+
+		//method under test
+		searchManager.documentChangeMessages(messages);
+
+		verify(mockSearchDao).sendDocuments(iteratorArgumentCaptor.capture());
+		// the documents are translated as they are sent.
+		verify(mockTranslator, never()).generateSearchDocumentsIfNecessary(any());
+		List<Document> documentsInIterator = Lists.newArrayList(iteratorArgumentCaptor.getValue());
+		assertEquals(Arrays.asList(doc1, doc2, doc3), documentsInIterator);
+		verify(mockTranslator).generateSearchDocumentsIfNecessary(messages.subList(0, SearchManagerImpl.CHANGE_MESSAGE_BATCH_SIZE));
+		verify(mockTranslator).generateSearchDocumentsIfNecessary(
+				messages.subList(SearchManagerImpl.CHANGE_MESSAGE_BATCH_SIZE, SearchManagerImpl.CHANGE_MESSAGE_BATCH_SIZE * 2));
+		verify(mockTranslator).generateSearchDocumentsIfNecessary(messages.subList(SearchManagerImpl.CHANGE_MESSAGE_BATCH_SIZE * 2, messages.size()));
+		verify(mockRecordLogger).pushAllRecordsAndReset();
+	}
+	
 	@Test
 	public void testDocumentChangeMessagesError(){
 		doThrow(new IllegalArgumentException("Fake failure")).when(mockSearchDao).sendDocuments(any(Iterator.class));
@@ -216,16 +244,24 @@ public class SearchManagerImplTest {
 		org.sagebionetworks.repo.model.search.Hit hit2 = new org.sagebionetworks.repo.model.search.Hit(); hit2.setId(id2); hits.add(hit2);
 		org.sagebionetworks.repo.model.search.Hit hit3 = new org.sagebionetworks.repo.model.search.Hit(); hit3.setId(id3); hits.add(hit3);
 
-		when(mockSearchDocumentDriver.getEntityPath(id1)).thenReturn(new EntityPath());
-		when(mockSearchDocumentDriver.getEntityPath(id2)).thenThrow(new NotFoundException(""));
-		when(mockSearchDocumentDriver.getEntityPath(id3)).thenReturn(new EntityPath());
+		EntityPath path1 = new EntityPath();
+		EntityPath path3 = new EntityPath();
+		Map<String, EntityPath> paths = new HashMap<>();
+		// id2 no longer exists
+		paths.put(id1, path1);
+		paths.put(id3, path3);
+		when(mockSearchDocumentDriver.getEntityPaths(Arrays.asList(id1, id2, id3))).thenReturn(paths);
 		
 		// method under test
 		searchManager.addPathDataToHits(hits);
 		
 		assertEquals(2, hits.size());
 		assertEquals(id1, hits.get(0).getId());
+		assertSame(path1, hits.get(0).getPath());
 		assertEquals(id3, hits.get(1).getId());
+		assertSame(path3, hits.get(1).getPath());
+		// all paths are resolved with a single call
+		verify(mockSearchDocumentDriver).getEntityPaths(any());
 	}
 	
 	@Test
@@ -1,18 +1,34 @@
 package org.sagebionetworks.repo.manager.table;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.jupiter.api.Test;
@@ -31,6 +47,7 @@ import org.sagebionetworks.repo.model.table.RowSet;
 import org.sagebionetworks.repo.model.table.SelectColumn;
 import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
 import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
+import org.sagebionetworks.table.cluster.CachedQueryDto;
 import org.sagebionetworks.table.cluster.CachedQueryRequest;
 import org.sagebionetworks.table.cluster.TableIndexDAO;
 
@@ -61,7 +78,7 @@ public class QueryCacheManagerImplTest {
 				.setParameters(Map.of("limit", 18)).setSelectColumns(List.of(new SelectColumn().setName("foo")))
 				.setSingleTableId("syn123");
 
-		when(mockTableIndexDao.getCachedQueryResults(any())).thenReturn(Optional.empty());
+		when(mockTableIndexDao.getCachedQuery(any())).thenReturn(Optional.empty());
 		String requestJson = objectMapper.writeValueAsString(request);
 		when(mockObjectMapper.writeValueAsString(any())).thenReturn(requestJson);
 		String hash = DigestUtils.sha256Hex(requestJson);
@@ -73,7 +90,7 @@ public class QueryCacheManagerImplTest {
 		RowSet results = manager.getQueryResults(mockTableIndexDao, request);
 
 		assertEquals(toReturn, results);
-		verify(mockTableIndexDao).getCachedQueryResults(hash);
+		verify(mockTableIndexDao).getCachedQuery(hash);
 		verify(manager).executeQueryAndSaveToCache(mockTableIndexDao, request, requestJson, hash, 12);
 		verify(mockObjectMapper).writeValueAsString(request);
 		verifyZeroInteractions(mockPublisher);
@@ -87,32 +104,135 @@ public class QueryCacheManagerImplTest {
 				.setSingleTableId("syn123");
 
 		RowSet toReturn = new RowSet().setTableId("123").setRows(List.of(new Row().setRowId(88L)));
-		String resultJson = EntityFactory.createJSONStringForEntity(toReturn);
+		byte[] encoded = QueryCacheResultsCodec.encode(toReturn);
 
-		when(mockTableIndexDao.getCachedQueryResults(any())).thenReturn(Optional.of(resultJson));
+		when(mockTableIndexDao.getCachedQuery(any())).thenReturn(Optional
+				.of(new CachedQueryDto().setResults(encoded).setExpiresOn(new Timestamp(1000L))));
 		String requestJson = objectMapper.writeValueAsString(request);
 		when(mockObjectMapper.writeValueAsString(any())).thenReturn(requestJson);
 		String hash = DigestUtils.sha256Hex(requestJson);
+		when(mockClock.currentTimeMillis()).thenReturn(1L);
 
 		// call under test
 		RowSet results = manager.getQueryResults(mockTableIndexDao, request);
 
 		assertEquals(toReturn, results);
-		verify(mockTableIndexDao).getCachedQueryResults(hash);
+		verify(mockTableIndexDao).getCachedQuery(hash);
 		verify(manager, never()).executeQueryAndSaveToCache(mockTableIndexDao, request, requestJson, hash, 12);
 		verify(mockObjectMapper).writeValueAsString(request);
 		verify(mockPublisher).fireLocalStackMessage(
 				new QueryCacheHitEvent().setQueryRequestHash(hash).setObjectType(ObjectType.QUERY_CACHE_HIT));
+		verify(manager).putInLocalCache(hash, toReturn, encoded.length, 1000L);
+
+		// The second call should be served from the local cache
+		RowSet secondResults = manager.getQueryResults(mockTableIndexDao, request);
+		assertEquals(toReturn, secondResults);
+		assertNotSame(results, secondResults);
+		verify(mockTableIndexDao, times(1)).getCachedQuery(hash);
+		verify(mockPublisher, times(1)).fireLocalStackMessage(any());
+		assertEquals(1L, manager.getLocalCacheStats().hitCount());
+	}
+
+	@Test
+	public void testGetQueryResultsWithCacheHitAndExpired() throws JsonProcessingException, JSONObjectAdapterException {
+		CachedQueryRequest request = new CachedQueryRequest().setExpiresInSec(12).setOutputSQL("select * from syn123")
+				.setSingleTableId("syn123");
+
+		RowSet toReturn = new RowSet().setTableId("123").setRows(List.of(new Row().setRowId(88L)));
+		byte[] encoded = QueryCacheResultsCodec.encode(toReturn);
+
+		when(mockTableIndexDao.getCachedQuery(any())).thenReturn(Optional
+				.of(new CachedQueryDto().setResults(encoded).setExpiresOn(new Timestamp(1000L))));
+		String requestJson = objectMapper.writeValueAsString(request);
+		when(mockObjectMapper.writeValueAsString(any())).thenReturn(requestJson);
+		String hash = DigestUtils.sha256Hex(requestJson);
+		when(mockClock.currentTimeMillis()).thenReturn(1000L);
+
+		// call under test
+		RowSet results = manager.getQueryResults(mockTableIndexDao, request);
+		assertEquals(toReturn, results);
+		// expired results must not be cached locally
+		results = manager.getQueryResults(mockTableIndexDao, request);
+		assertEquals(toReturn, results);
+
+		verify(mockTableIndexDao, times(2)).getCachedQuery(hash);
+		verify(mockPublisher, times(2)).fireLocalStackMessage(
+				new QueryCacheHitEvent().setQueryRequestHash(hash).setObjectType(ObjectType.QUERY_CACHE_HIT));
+		assertFalse(manager.getFromLocalCache(hash).isPresent());
+	}
+
+	@Test
+	public void testGetQueryResultsWithCacheHitAndJsonResults() throws JsonProcessingException, JSONObjectAdapterException {
+		CachedQueryRequest request = new CachedQueryRequest().setExpiresInSec(12).setOutputSQL("select * from syn123")
+				.setSingleTableId("syn123");
+
+		RowSet toReturn = new RowSet().setTableId("123").setRows(List.of(new Row().setRowId(88L)));
+		// Results cached before the binary format was introduced.
+		byte[] json = EntityFactory.createJSONStringForEntity(toReturn).getBytes(StandardCharsets.UTF_8);
+
+		when(mockTableIndexDao.getCachedQuery(any())).thenReturn(Optional
+				.of(new CachedQueryDto().setResults(json).setExpiresOn(new Timestamp(1000L))));
+		String requestJson = objectMapper.writeValueAsString(request);
+		when(mockObjectMapper.writeValueAsString(any())).thenReturn(requestJson);
+		when(mockClock.currentTimeMillis()).thenReturn(1L);
+
+		// call under test
+		RowSet results = manager.getQueryResults(mockTableIndexDao, request);
+
+		assertEquals(toReturn, results);
+	}
+
+	@Test
+	public void testGetFromLocalCacheWithExpiredEntry() {
+		String hash = "someHash";
+		RowSet rowSet = new RowSet().setTableId("123").setRows(List.of(new Row().setRowId(88L)));
+		when(mockClock.currentTimeMillis()).thenReturn(1L, 1L, 5000L);
+
+		manager.putInLocalCache(hash, rowSet, 10, 5000L);
+		assertEquals(Optional.of(rowSet), manager.getFromLocalCache(hash));
+		// call under test
+		assertEquals(Optional.empty(), manager.getFromLocalCache(hash));
+	}
+
+	@Test
+	public void testGetFromLocalCacheWithMiss() {
+		// call under test
+		assertEquals(Optional.empty(), manager.getFromLocalCache("someHash"));
+		assertEquals(1L, manager.getLocalCacheStats().missCount());
+	}
+
+	@Test
+	public void testGetFromLocalCacheWithCallerModification() {
+		String hash = "someHash";
+		RowSet rowSet = new RowSet().setTableId("123").setRows(List.of(new Row().setRowId(88L).setValues(List.of("a"))));
+		when(mockClock.currentTimeMillis()).thenReturn(1L);
+
+		manager.putInLocalCache(hash, rowSet, 10, 5000L);
+
+		RowSet first = manager.getFromLocalCache(hash).get();
+		first.setEtag("modified");
+		first.getRows().get(0).getValues().set(0, "modified");
+
+		// call under test
+		RowSet second = manager.getFromLocalCache(hash).get();
+		assertEquals(rowSet, second);
+	}
+
+	@Test
+	public void testCopyRowSetWithNulls() {
+		RowSet rowSet = new RowSet();
+		// call under test
+		assertEquals(rowSet, QueryCacheManagerImpl.copyRowSet(rowSet));
 	}
 
 	@Test
-	public void testRowSetToFromJSON() {
+	public void testEncodeDecodeResults() {
 		RowSet toReturn = new RowSet().setTableId("123")
 				.setRows(List.of(new Row().setRowId(88L).setValues(List.of("one", "two"))));
 		// call under test
-		String json = manager.rowSetToJson(toReturn);
+		byte[] encoded = manager.encodeResults(toReturn);
 		// call under test
-		RowSet clone = manager.parseRowSet(json);
+		RowSet clone = manager.decodeResults(encoded);
 		assertEquals(toReturn, clone);
 	}
 
@@ -188,15 +308,173 @@ public class QueryCacheManagerImplTest {
 		when(mockTableIndexDao.query(any())).thenReturn(rowSet);
 		when(mockClock.currentTimeMillis()).thenReturn(1L, 8L);
 		long runtime = 8-1;
-		String resultJson = "resultJson";
-		doReturn(resultJson).when(manager).rowSetToJson(any());
+		byte[] encoded = new byte[] { 1, 2, 3 };
+		doReturn(encoded).when(manager).encodeResults(any());
 		
 		// call under test
 		RowSet result = manager.executeQueryAndSaveToCache(mockTableIndexDao, request, requestJson, hash, expiresInSec);
 		assertEquals(rowSet, result);
 		
 		verify(mockTableIndexDao).query(request);
-		verify(mockTableIndexDao).saveCachedQuery(hash, requestJson, resultJson, runtime, expiresInSec);
-		verify(mockClock, times(2)).currentTimeMillis();
+		verify(mockTableIndexDao).saveCachedQuery(hash, requestJson, encoded, runtime, expiresInSec);
+		verify(manager).putInLocalCache(hash, rowSet, encoded.length, 8L + expiresInSec * 1000L);
+		verify(mockClock, times(3)).currentTimeMillis();
+		assertTrue(manager.getFromLocalCache(hash).isPresent());
+	}
+
+	@Test
+	public void testExecuteQueryAndSaveToCacheOnceWithConcurrentCallers() throws Exception {
+		String hash = "someHash";
+		CachedQueryRequest request = new CachedQueryRequest().setOutputSQL("select * from syn123").setExpiresInSec(12);
+		String requestJson = "request json";
+		RowSet rowSet = new RowSet().setTableId("syn123").setRows(List.of(new Row().setRowId(1L)));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer((invocation) -> {
+			started.countDown();
+			release.await();
+			return rowSet;
+		}).when(manager).executeQueryAndSaveToCache(any(), any(), any(), any(), anyInt());
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<RowSet> first = executor.submit(
+					() -> manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12));
+			started.await();
+			// call under test
+			Future<RowSet> second = executor.submit(
+					() -> manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12));
+			long waitStart = System.currentTimeMillis();
+			while (manager.getCoalescedWaiterCount() < 1L) {
+				assertTrue(System.currentTimeMillis() - waitStart < 10_000L, "Timed out waiting for the second caller");
+				Thread.sleep(10L);
+			}
+			release.countDown();
+
+			assertEquals(rowSet, first.get());
+			assertEquals(rowSet, second.get());
+			assertNotSame(first.get(), second.get());
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(manager, times(1)).executeQueryAndSaveToCache(mockTableIndexDao, request, requestJson, hash, 12);
+		assertEquals(1L, manager.getCoalescedWaiterCount());
+	}
+
+	@Test
+	public void testExecuteQueryAndSaveToCacheOnceWithSequentialCallers() {
+		String hash = "someHash";
+		CachedQueryRequest request = new CachedQueryRequest().setOutputSQL("select * from syn123").setExpiresInSec(12);
+		String requestJson = "request json";
+		doReturn(new RowSet()).when(manager).executeQueryAndSaveToCache(any(), any(), any(), any(), anyInt());
+
+		// call under test
+		manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12);
+		manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12);
+
+		// A completed query is not shared with later callers.
+		verify(manager, times(2)).executeQueryAndSaveToCache(mockTableIndexDao, request, requestJson, hash, 12);
+		assertEquals(0L, manager.getCoalescedWaiterCount());
+	}
+
+	@Test
+	public void testExecuteQueryAndSaveToCacheOnceWithFailure() {
+		String hash = "someHash";
+		CachedQueryRequest request = new CachedQueryRequest().setOutputSQL("select * from syn123").setExpiresInSec(12);
+		String requestJson = "request json";
+		IllegalStateException exception = new IllegalStateException("nope");
+		doThrow(exception).doReturn(new RowSet()).when(manager).executeQueryAndSaveToCache(any(), any(), any(), any(),
+				anyInt());
+
+		assertEquals(exception, assertThrows(IllegalStateException.class, () -> {
+			// call under test
+			manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12);
+		}));
+		// The failed query must not block the next caller.
+		assertEquals(new RowSet(),
+				manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12));
+	}
+
+	@Test
+	public void testExecuteQueryAndSaveToCacheOnceWithErrorAndConcurrentCaller() throws Exception {
+		String hash = "someHash";
+		CachedQueryRequest request = new CachedQueryRequest().setOutputSQL("select * from syn123").setExpiresInSec(12);
+		String requestJson = "request json";
+		StackOverflowError error = new StackOverflowError("nope");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer((invocation) -> {
+			started.countDown();
+			release.await();
+			throw error;
+		}).when(manager).executeQueryAndSaveToCache(any(), any(), any(), any(), anyInt());
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<RowSet> first = executor.submit(
+					() -> manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12));
+			started.await();
+			// call under test
+			Future<RowSet> second = executor.submit(
+					() -> manager.executeQueryAndSaveToCacheOnce(mockTableIndexDao, request, requestJson, hash, 12));
+			long waitStart = System.currentTimeMillis();
+			while (manager.getCoalescedWaiterCount() < 1L) {
+				assertTrue(System.currentTimeMillis() - waitStart < 10_000L, "Timed out waiting for the second caller");
+				Thread.sleep(10L);
+			}
+			release.countDown();
+
+			assertEquals(error, assertThrows(ExecutionException.class, () -> {
+				first.get(10, TimeUnit.SECONDS);
+			}).getCause());
+			// The waiter is released with the error of the query.
+			assertEquals(error, assertThrows(ExecutionException.class, () -> {
+				second.get(10, TimeUnit.SECONDS);
+			}).getCause().getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+		verify(manager, times(1)).executeQueryAndSaveToCache(mockTableIndexDao, request, requestJson, hash, 12);
+	}
+
+	@Test
+	public void testWaitForResults() {
+		RowSet rowSet = new RowSet().setTableId("syn123");
+		CompletableFuture<RowSet> future = CompletableFuture.completedFuture(rowSet);
+
+		// call under test
+		assertEquals(Optional.of(rowSet), QueryCacheManagerImpl.waitForResults(future, 1000L));
+	}
+
+	@Test
+	public void testWaitForResultsWithTimeout() {
+		CompletableFuture<RowSet> future = new CompletableFuture<>();
+
+		// call under test
+		assertEquals(Optional.empty(), QueryCacheManagerImpl.waitForResults(future, 10L));
+	}
+
+	@Test
+	public void testWaitForResultsWithFailure() {
+		IllegalArgumentException exception = new IllegalArgumentException("nope");
+		CompletableFuture<RowSet> future = new CompletableFuture<>();
+		future.completeExceptionally(exception);
+
+		assertEquals(exception, assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			QueryCacheManagerImpl.waitForResults(future, 1000L);
+		}));
+	}
+
+	@Test
+	public void testWaitForResultsWithError() {
+		AssertionError error = new AssertionError("nope");
+		CompletableFuture<RowSet> future = new CompletableFuture<>();
+		future.completeExceptionally(error);
+
+		assertEquals(error, assertThrows(CompletionException.class, () -> {
+			// call under test
+			QueryCacheManagerImpl.waitForResults(future, 1000L);
+		}).getCause());
 	}
 }
@@ -0,0 +1,99 @@
+package org.sagebionetworks.repo.manager.table;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.table.ColumnType;
+import org.sagebionetworks.repo.model.table.Row;
+import org.sagebionetworks.repo.model.table.RowSet;
+import org.sagebionetworks.repo.model.table.SelectColumn;
+import org.sagebionetworks.schema.adapter.JSONObjectAdapterException;
+import org.sagebionetworks.schema.adapter.org.json.EntityFactory;
+
+public class QueryCacheResultsCodecTest {
+
+	@Test
+	public void testEncodeDecode() {
+		RowSet rowSet = new RowSet().setTableId("syn123").setEtag("some-etag")
+				.setHeaders(List.of(new SelectColumn().setName("foo").setColumnType(ColumnType.STRING).setId("11"),
+						new SelectColumn().setName("bar").setColumnType(ColumnType.INTEGER).setId("22"),
+						new SelectColumn().setName("count(*)")))
+				.setRows(List.of(new Row().setRowId(1L).setVersionNumber(2L).setEtag("e1").setValues(Arrays.asList("a", "1", "3")),
+						new Row().setRowId(2L).setValues(Arrays.asList(null, "2")),
+						new Row().setRowId(null).setValues(null),
+						new Row().setValues(List.of()),
+						new Row().setRowId(4L).setValues(Arrays.asList("é中", null, "5"))));
+		rowSet.setConcreteType(RowSet.class.getName());
+
+		// call under test
+		byte[] encoded = QueryCacheResultsCodec.encode(rowSet);
+
+		assertEquals(QueryCacheResultsCodec.FORMAT_VERSION_ONE, encoded[0]);
+		// call under test
+		assertEquals(rowSet, QueryCacheResultsCodec.decode(encoded));
+	}
+
+	@Test
+	public void testEncodeDecodeWithNulls() {
+		RowSet rowSet = new RowSet();
+		// call under test
+		assertEquals(rowSet, QueryCacheResultsCodec.decode(QueryCacheResultsCodec.encode(rowSet)));
+	}
+
+	@Test
+	public void testDecodeWithJson() throws JSONObjectAdapterException {
+		RowSet rowSet = new RowSet().setTableId("syn123")
+				.setHeaders(List.of(new SelectColumn().setName("foo").setColumnType(ColumnType.STRING)))
+				.setRows(List.of(new Row().setRowId(1L).setVersionNumber(2L).setValues(List.of("a"))));
+		byte[] json = EntityFactory.createJSONStringForEntity(rowSet).getBytes(StandardCharsets.UTF_8);
+
+		// call under test
+		assertEquals(rowSet, QueryCacheResultsCodec.decode(json));
+	}
+
+	@Test
+	public void testEncodeWithLargeResults() throws JSONObjectAdapterException {
+		List<Row> rows = new ArrayList<>();
+		for (long i = 0; i < 10_000; i++) {
+			rows.add(new Row().setRowId(i).setVersionNumber(1L).setEtag("etag-" + (i % 10))
+					.setValues(List.of("value-" + i, Long.toString(i * 3), i % 2 == 0 ? "true" : "false")));
+		}
+		RowSet rowSet = new RowSet().setTableId("syn123")
+				.setHeaders(List.of(new SelectColumn().setName("name").setColumnType(ColumnType.STRING),
+						new SelectColumn().setName("size").setColumnType(ColumnType.INTEGER),
+						new SelectColumn().setName("isEven").setColumnType(ColumnType.BOOLEAN)))
+				.setRows(rows);
+		int jsonSize = EntityFactory.createJSONStringForEntity(rowSet).getBytes(StandardCharsets.UTF_8).length;
+
+		// call under test
+		byte[] encoded = QueryCacheResultsCodec.encode(rowSet);
+
+		assertTrue(encoded.length * 4 < jsonSize, "Encoded: " + encoded.length + " JSON: " + jsonSize);
+		assertEquals(rowSet, QueryCacheResultsCodec.decode(encoded));
+	}
+
+	@Test
+	public void testEncodeWithNullRowSet() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			QueryCacheResultsCodec.encode(null);
+		}).getMessage();
+		assertEquals("rowSet is required.", message);
+	}
+
+	@Test
+	public void testDecodeWithEmpty() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			QueryCacheResultsCodec.decode(new byte[0]);
+		}).getMessage();
+		assertEquals("Encoded results cannot be empty.", message);
+	}
+}
@@ -35,6 +35,7 @@ import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.CSVToRowIterator;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableCheckpoint;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshotDao;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableTransactionDao;
@@ -111,6 +112,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -119,6 +121,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyListOf;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -2317,6 +2320,239 @@ public class TableEntityManagerTest {
 		verifyZeroInteractions(mockTableSnapshotDao);
 	}
 	
+	@Test
+	public void testStoreTableCheckpoint() throws Exception {
+		idAndVersion = IdAndVersion.parse("syn123");
+		TableCheckpoint previousCheckpoint = new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(10L)
+			.withBucket("bucket")
+			.withKey("previousKey");
+		long lastChangeNumber = previousCheckpoint.getChangeNumber() + TableEntityManagerImpl.CHECKPOINT_CHANGE_INTERVAL;
+		
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(3, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableExclusiveLock(any(), any(), anyString(), any());
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(2, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(any(), any(), any(ProgressingCallable.class), any(IdAndVersion.class));
+		when(mockTableManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.of(lastChangeNumber));
+		when(mockTableManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenReturn(Optional.of(previousCheckpoint));
+		when(mockColumModelManager.getColumnIdsForTable(any())).thenReturn(newColumnIds);
+		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(true);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(true);
+		when(mockConfig.getTableSnapshotBucketName()).thenReturn("bucket");
+		when(mockTableManagerSupport.streamTableIndexToS3(any(), any(), any())).thenReturn(newColumnIds);
+		
+		// Call under test
+		manager.storeTableCheckpoint(idAndVersion, mockProgressCallback);
+		
+		expectedLockContext = new LockContext(ContextType.TableCheckpoint, idAndVersion);
+		verify(mockTableManagerSupport).tryRunWithTableExclusiveLock(eq(mockProgressCallback), eq(expectedLockContext), eq("TABLE-LOCK-SNAPSHOT-STREAMING-" + idAndVersion), any());
+		verify(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(eq(mockProgressCallback), eq(expectedLockContext), any(ProgressingCallable.class), eq(idAndVersion));
+		verify(mockTableManagerSupport).isIndexSynchronized(idAndVersion, newColumnIds, lastChangeNumber, true);
+		
+		ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+		verify(mockTableManagerSupport).streamTableIndexToS3(eq(idAndVersion), eq("bucket"), keyCaptor.capture());
+		
+		assertTrue(keyCaptor.getValue().startsWith(idAndVersion.toString() + "/checkpoint/"));
+		
+		ArgumentCaptor<TableCheckpoint> checkpointCaptor = ArgumentCaptor.forClass(TableCheckpoint.class);
+		verify(mockTableSnapshotDao).createCheckpoint(checkpointCaptor.capture());
+		
+		TableCheckpoint expectedCheckpoint = new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(lastChangeNumber)
+			.withBucket("bucket")
+			.withKey(keyCaptor.getValue())
+			.withSchema(newColumnIds)
+			.withSearchEnabled(true)
+			.withCreatedOn(checkpointCaptor.getValue().getCreatedOn());
+		
+		assertEquals(expectedCheckpoint, checkpointCaptor.getValue());
+		
+		Date replacedBefore = new Date(checkpointCaptor.getValue().getCreatedOn().getTime() - TableEntityManagerImpl.CHECKPOINT_REPLACEMENT_GRACE_PERIOD_MS);
+		
+		verify(mockTableSnapshotDao).getCheckpointsReplacedBefore(idAndVersion.getId(), replacedBefore);
+		// The previous checkpoint was just replaced and is kept for the grace period
+		verify(mockTableSnapshotDao, never()).deleteCheckpoint(anyLong(), anyLong());
+		verify(mockTableManagerSupport, never()).deleteTableIndexFromS3(any(), any());
+	}
+	
+	@Test
+	public void testStoreTableCheckpointWithReplacedCheckpoints() throws Exception {
+		idAndVersion = IdAndVersion.parse("syn123");
+		TableCheckpoint previousCheckpoint = new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(10L)
+			.withBucket("bucket")
+			.withKey("previousKey");
+		TableCheckpoint firstReplaced = new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(5L)
+			.withBucket("bucket")
+			.withKey("firstKey");
+		TableCheckpoint secondReplaced = new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(8L)
+			.withBucket("bucket")
+			.withKey("secondKey");
+		long lastChangeNumber = previousCheckpoint.getChangeNumber() + TableEntityManagerImpl.CHECKPOINT_CHANGE_INTERVAL;
+		
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(3, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableExclusiveLock(any(), any(), anyString(), any());
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(2, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(any(), any(), any(ProgressingCallable.class), any(IdAndVersion.class));
+		when(mockTableManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.of(lastChangeNumber));
+		when(mockTableManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenReturn(Optional.of(previousCheckpoint));
+		when(mockColumModelManager.getColumnIdsForTable(any())).thenReturn(newColumnIds);
+		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(true);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(true);
+		when(mockConfig.getTableSnapshotBucketName()).thenReturn("bucket");
+		when(mockTableManagerSupport.streamTableIndexToS3(any(), any(), any())).thenReturn(newColumnIds);
+		when(mockTableSnapshotDao.getCheckpointsReplacedBefore(anyLong(), any())).thenReturn(List.of(firstReplaced, secondReplaced));
+		
+		// Call under test
+		manager.storeTableCheckpoint(idAndVersion, mockProgressCallback);
+		
+		verify(mockTableSnapshotDao).deleteCheckpoint(idAndVersion.getId(), 5L);
+		verify(mockTableManagerSupport).deleteTableIndexFromS3("bucket", "firstKey");
+		verify(mockTableSnapshotDao).deleteCheckpoint(idAndVersion.getId(), 8L);
+		verify(mockTableManagerSupport).deleteTableIndexFromS3("bucket", "secondKey");
+		verify(mockTableSnapshotDao, never()).deleteCheckpoint(idAndVersion.getId(), previousCheckpoint.getChangeNumber());
+		verify(mockTableManagerSupport, never()).deleteTableIndexFromS3("bucket", "previousKey");
+	}
+	
+	@Test
+	public void testStoreTableCheckpointWithConcurrentVersionRestore() throws Exception {
+		idAndVersion = IdAndVersion.parse("syn123");
+		IdAndVersion versionId = IdAndVersion.parse("syn123.2");
+		TableCheckpoint previousCheckpoint = new TableCheckpoint()
+			.withTableId(idAndVersion.getId())
+			.withChangeNumber(10L)
+			.withCreatedOn(new Date(System.currentTimeMillis() - 60_000))
+			.withBucket("bucket")
+			.withKey("previousKey");
+		long lastChangeNumber = previousCheckpoint.getChangeNumber() + TableEntityManagerImpl.CHECKPOINT_CHANGE_INTERVAL;
+		
+		List<TableCheckpoint> checkpoints = new ArrayList<>(List.of(previousCheckpoint));
+		
+		// A rebuild of the table version only locks the version, the lookup of its checkpoint is not blocked by the replacement
+		when(mockTableManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenAnswer((InvocationOnMock invocation) -> {
+			long maxChangeNumber = invocation.getArgument(1);
+			return checkpoints.stream().filter(c -> c.getChangeNumber() <= maxChangeNumber).reduce((first, second) -> second);
+		});
+		
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(3, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableExclusiveLock(any(), any(), anyString(), any());
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(2, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(any(), any(), any(ProgressingCallable.class), any(IdAndVersion.class));
+		when(mockTableManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.of(lastChangeNumber));
+		when(mockColumModelManager.getColumnIdsForTable(any())).thenReturn(newColumnIds);
+		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(true);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(true);
+		when(mockConfig.getTableSnapshotBucketName()).thenReturn("bucket");
+		when(mockTableManagerSupport.streamTableIndexToS3(any(), any(), any())).thenReturn(newColumnIds);
+		when(mockTableSnapshotDao.createCheckpoint(any())).thenAnswer((InvocationOnMock invocation) -> {
+			TableCheckpoint checkpoint = invocation.getArgument(0);
+			checkpoints.add(checkpoint);
+			return checkpoint;
+		});
+		// Same as the DAO, a checkpoint is replaced when a checkpoint with a higher change number was created before the given date
+		when(mockTableSnapshotDao.getCheckpointsReplacedBefore(anyLong(), any())).thenAnswer((InvocationOnMock invocation) -> {
+			Date replacedBefore = invocation.getArgument(1);
+			return checkpoints.stream().filter(c -> checkpoints.stream().anyMatch(
+				n -> n.getChangeNumber() > c.getChangeNumber() && n.getCreatedOn().before(replacedBefore)
+			)).collect(Collectors.toList());
+		});
+		
+		// The rebuild of the version picks the previous checkpoint
+		TableCheckpoint restoring = mockTableManagerSupport.getMostRecentTableCheckpoint(versionId, 50L).get();
+		
+		// Call under test, the checkpoint is replaced while the version is restored
+		manager.storeTableCheckpoint(idAndVersion, mockProgressCallback);
+		
+		assertEquals(previousCheckpoint, restoring);
+		assertEquals(2, checkpoints.size());
+		// The checkpoint used by the restore is still available
+		assertEquals(Optional.of(previousCheckpoint), mockTableManagerSupport.getMostRecentTableCheckpoint(versionId, 50L));
+		verify(mockTableSnapshotDao, never()).deleteCheckpoint(anyLong(), anyLong());
+		verify(mockTableManagerSupport, never()).deleteTableIndexFromS3(any(), any());
+	}
+	
+	@Test
+	public void testStoreTableCheckpointWithNotEnoughChanges() throws Exception {
+		idAndVersion = IdAndVersion.parse("syn123");
+		
+		when(mockTableManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.of(TableEntityManagerImpl.CHECKPOINT_CHANGE_INTERVAL - 2));
+		when(mockTableManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenReturn(Optional.empty());
+		
+		// Call under test
+		manager.storeTableCheckpoint(idAndVersion, mockProgressCallback);
+		
+		verify(mockTableManagerSupport).getLastTableChangeNumber(idAndVersion);
+		verify(mockTableManagerSupport).getMostRecentTableCheckpoint(idAndVersion, Long.MAX_VALUE);
+		verifyNoMoreInteractions(mockTableManagerSupport);
+		verifyZeroInteractions(mockTableSnapshotDao);
+	}
+	
+	@Test
+	public void testStoreTableCheckpointWithNoChanges() throws Exception {
+		idAndVersion = IdAndVersion.parse("syn123");
+		
+		when(mockTableManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.empty());
+		
+		// Call under test
+		manager.storeTableCheckpoint(idAndVersion, mockProgressCallback);
+		
+		verify(mockTableManagerSupport).getLastTableChangeNumber(idAndVersion);
+		verifyNoMoreInteractions(mockTableManagerSupport);
+		verifyZeroInteractions(mockTableSnapshotDao);
+	}
+	
+	@Test
+	public void testStoreTableCheckpointWithIndexNotSynchronized() throws Exception {
+		idAndVersion = IdAndVersion.parse("syn123");
+		long lastChangeNumber = TableEntityManagerImpl.CHECKPOINT_CHANGE_INTERVAL;
+		
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(3, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableExclusiveLock(any(), any(), anyString(), any());
+		doAnswer((InvocationOnMock invocation) -> {
+			return invocation.getArgument(2, ProgressingCallable.class).call(mockProgressCallback);
+		}).when(mockTableManagerSupport).tryRunWithTableNonExclusiveLock(any(), any(), any(ProgressingCallable.class), any(IdAndVersion.class));
+		when(mockTableManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.of(lastChangeNumber));
+		when(mockTableManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenReturn(Optional.empty());
+		when(mockColumModelManager.getColumnIdsForTable(any())).thenReturn(newColumnIds);
+		when(mockTableManagerSupport.isTableSearchEnabled(any())).thenReturn(false);
+		when(mockTableManagerSupport.isIndexSynchronized(any(), any(), anyLong(), anyBoolean())).thenReturn(false);
+		
+		// Call under test
+		manager.storeTableCheckpoint(idAndVersion, mockProgressCallback);
+		
+		verify(mockTableManagerSupport).isIndexSynchronized(idAndVersion, newColumnIds, lastChangeNumber, false);
+		verify(mockTableManagerSupport, never()).streamTableIndexToS3(any(), any(), any());
+		verifyZeroInteractions(mockTableSnapshotDao);
+	}
+	
+	@Test
+	public void testStoreTableCheckpointWithVersion() throws Exception {
+		idAndVersion = IdAndVersion.parse("syn123.2");
+		
+		IllegalArgumentException result = assertThrows(IllegalArgumentException.class, () -> {			
+			// Call under test
+			manager.storeTableCheckpoint(idAndVersion, mockProgressCallback);
+		});
+		
+		assertEquals("Checkpoints can only be stored for the current version of a table.", result.getMessage());
+		
+		verifyZeroInteractions(mockTableManagerSupport);
+	}
+	
 	@Test
 	public void testStoreTableSnapshotWithUnexpectedType() throws Exception {
 		idAndVersion = IdAndVersion.parse("syn123.2");
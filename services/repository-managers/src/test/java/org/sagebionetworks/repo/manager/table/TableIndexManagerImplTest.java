@@ -33,6 +33,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
@@ -50,10 +51,13 @@ import org.sagebionetworks.repo.manager.table.change.TableChangeMetaData;
 import org.sagebionetworks.repo.manager.table.metadata.DefaultColumnModel;
 import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProvider;
 import org.sagebionetworks.repo.manager.table.metadata.MetadataIndexProviderFactory;
+import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.NextPageToken;
 import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.InvalidStatusTokenException;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableCheckpoint;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.semaphore.LockContext;
@@ -111,6 +115,7 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 
 @ExtendWith(MockitoExtension.class)
 public class TableIndexManagerImplTest {
@@ -150,6 +155,7 @@ public class TableIndexManagerImplTest {
 
 	private TableIndexManagerImpl manager;
 	private TableIndexManagerImpl managerSpy;
+	private ExecutorService executor;
 
 	private IdAndVersion tableId;
 	private Long versionNumber;
@@ -182,8 +188,9 @@ public class TableIndexManagerImplTest {
 
 		objectType = ViewObjectType.ENTITY;
 		tableId = IdAndVersion.parse("syn123");
+		executor = MoreExecutors.newDirectExecutorService();
 		manager = new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory,
-				mockObjectFieldModelResolverFactory, mockSearchProcessor);
+				mockObjectFieldModelResolverFactory, mockSearchProcessor, executor);
 		managerSpy = Mockito.spy(manager);
 		versionNumber = 99L;
 		schema = Arrays.asList(TableModelTestUtils.createColumn(99L, "aString", ColumnType.STRING),
@@ -239,7 +246,7 @@ public class TableIndexManagerImplTest {
 	public void testNullDao() {
 		assertThrows(IllegalArgumentException.class, () -> {
 			new TableIndexManagerImpl(null, mockManagerSupport, mockMetadataProviderFactory,
-					mockObjectFieldModelResolverFactory, mockSearchProcessor);
+					mockObjectFieldModelResolverFactory, mockSearchProcessor, executor);
 		});
 	}
 
@@ -247,28 +254,35 @@ public class TableIndexManagerImplTest {
 	public void testNullSupport() {
 		assertThrows(IllegalArgumentException.class, () -> {
 			new TableIndexManagerImpl(mockIndexDao, null, mockMetadataProviderFactory,
-					mockObjectFieldModelResolverFactory, mockSearchProcessor);
+					mockObjectFieldModelResolverFactory, mockSearchProcessor, executor);
 		});
 	}
 
 	@Test
 	public void testNullProviderFactory() {
 		assertThrows(IllegalArgumentException.class, () -> {
-			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, null, mockObjectFieldModelResolverFactory, mockSearchProcessor);
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, null, mockObjectFieldModelResolverFactory, mockSearchProcessor, executor);
 		});
 	}
 
 	@Test
 	public void testNullObjectFieldFactory() {
 		assertThrows(IllegalArgumentException.class, () -> {
-			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, null, mockSearchProcessor);
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, null, mockSearchProcessor, executor);
 		});
 	}
 	
 	@Test
 	public void testNullSearchProcessor() {
 		assertThrows(IllegalArgumentException.class, () -> {
-			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, mockObjectFieldModelResolverFactory, null);
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, mockObjectFieldModelResolverFactory, null, executor);
+		});
+	}
+	
+	@Test
+	public void testNullExecutor() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new TableIndexManagerImpl(mockIndexDao, mockManagerSupport, mockMetadataProviderFactory, mockObjectFieldModelResolverFactory, mockSearchProcessor, null);
 		});
 	}
 	
@@ -1163,6 +1177,29 @@ public class TableIndexManagerImplTest {
 		verifyNoMoreInteractions(mockIndexDao);
 	}
 		
+	@Test
+	public void testFilterChangesToApply() throws Exception {
+		List<TableChangeMetaData> list = List.of(setupMockRowChange(0L), setupMockRowChange(1L),
+				setupMockColumnChange(2L), setupMockRowChange(3L));
+		long currentVersion = 0L;
+		long targetChangeNumber = 2L;
+		// call under test
+		List<TableChangeMetaData> results = Lists.newArrayList(
+				TableIndexManagerImpl.filterChangesToApply(list.iterator(), currentVersion, targetChangeNumber));
+		assertEquals(List.of(list.get(1), list.get(2)), results);
+	}
+
+	@Test
+	public void testFilterChangesToApplyWithNoWorkNeeded() throws Exception {
+		List<TableChangeMetaData> list = setupMockChanges();
+		long currentVersion = 1L;
+		long targetChangeNumber = 1L;
+		// call under test
+		List<TableChangeMetaData> results = Lists.newArrayList(
+				TableIndexManagerImpl.filterChangesToApply(list.iterator(), currentVersion, targetChangeNumber));
+		assertEquals(Collections.emptyList(), results);
+	}
+	
 	@Test
 	public void testBuildIndexToChangeNumberWithExclusiveLock() throws Exception {
 		setupExecuteInWriteTransaction();
@@ -1948,6 +1985,29 @@ public class TableIndexManagerImplTest {
 		verify(mockIndexDao).deleteObjectData(type, toDeleteIds);
 	}
 	
+	@Test
+	public void testStreamOverIdsAndChecksumsWithRange() {
+		List<IdAndChecksum> page = List.of(new IdAndChecksum().withId(31L).withChecksum(1L));
+		when(mockIndexDao.getIdAndChecksumsForFilterRange(any(), any(), any(), any(), any(), any())).thenReturn(page);
+		
+		// call under test
+		Iterator<IdAndChecksum> it = manager.streamOverIdsAndChecksums(123L, mockFilter, 30L, 60L);
+		
+		assertEquals(page, Lists.newArrayList(it));
+		verify(mockIndexDao).getIdAndChecksumsForFilterRange(123L, mockFilter, 30L, 60L, Long.valueOf(TableIndexManagerImpl.BATCH_SIZE), 0L);
+	}
+	
+	@Test
+	public void testGetIdRangeChecksums() {
+		List<IdRangeChecksum> ranges = List.of(new IdRangeChecksum().withRangeIndex(1L).withCount(1L).withChecksum(1L));
+		when(mockIndexDao.getIdRangeChecksumsForFilter(any(), any(), any())).thenReturn(ranges);
+		
+		// call under test
+		assertEquals(ranges, manager.getIdRangeChecksums(123L, mockFilter, 30L));
+		
+		verify(mockIndexDao).getIdRangeChecksumsForFilter(123L, mockFilter, 30L);
+	}
+	
 	@Test
 	public void testIsViewSynchronizeLockExpiredWithEmpty() {
 		ReplicationType type = ReplicationType.ENTITY;
@@ -2425,12 +2485,129 @@ public class TableIndexManagerImplTest {
 		assertEquals("Expected a change number for snapshot syn123.12, but found none.", result.getMessage());
 		
 		verify(mockIndexDao).getMaxCurrentCompleteVersionForTable(tableId);
+		verify(mockManagerSupport).getMostRecentTableCheckpoint(tableId, targetChangeNumber);
 		verify(mockManagerSupport).getMostRecentTableSnapshot(tableId);
 		verify(mockManagerSupport).getLastTableChangeNumber(snapshotId);
 		verifyNoMoreInteractions(mockIndexDao);
 		verifyNoMoreInteractions(mockManagerSupport);
 	}
 	
+	@Test
+	public void testAttemptToRestoreTableFromExistingSnapshotWithOlderCheckpoint() {
+		
+		tableId = IdAndVersion.parse("123");
+		IdAndVersion snapshotId = IdAndVersion.parse("123.12");
+		TableSnapshot snapshot = new TableSnapshot()
+			.withBucket("bucket")
+			.withKey("key")
+			.withTableId(snapshotId.getId())
+			.withVersion(snapshotId.getVersion().get());
+		String resetToken = "restToken";
+		long snapshotChangeNumber = 456;
+		long targetChangeNumber = 789;
+		
+		when(mockIndexDao.getMaxCurrentCompleteVersionForTable(any())).thenReturn(-1L);
+		when(mockManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenReturn(Optional.of(new TableCheckpoint()
+			.withTableId(tableId.getId())
+			.withChangeNumber(snapshotChangeNumber)
+		));
+		when(mockManagerSupport.getMostRecentTableSnapshot(any())).thenReturn(Optional.of(snapshot));
+		when(mockManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.of(snapshotChangeNumber));
+		doNothing().when(managerSpy).restoreTableFromSnapshot(any(), any(), anyLong(), any(), any(), anyLong());
+		
+		// Call under test
+		managerSpy.attemptToRestoreTableFromExistingSnapshot(tableId, resetToken, targetChangeNumber);
+		
+		verify(mockManagerSupport).getMostRecentTableCheckpoint(tableId, targetChangeNumber);
+		verify(managerSpy).restoreTableFromSnapshot(tableId, resetToken, targetChangeNumber, snapshot, snapshotId, snapshotChangeNumber);
+		verify(managerSpy, never()).restoreTableFromCheckpoint(any(), any(), anyLong(), any());
+	}
+	
+	@Test
+	public void testAttemptToRestoreTableFromExistingSnapshotWithNewerCheckpoint() {
+		
+		tableId = IdAndVersion.parse("123");
+		IdAndVersion snapshotId = IdAndVersion.parse("123.12");
+		String resetToken = "restToken";
+		long snapshotChangeNumber = 456;
+		long targetChangeNumber = 789;
+		TableCheckpoint checkpoint = new TableCheckpoint()
+			.withTableId(tableId.getId())
+			.withChangeNumber(snapshotChangeNumber + 1);
+		
+		when(mockIndexDao.getMaxCurrentCompleteVersionForTable(any())).thenReturn(-1L);
+		when(mockManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenReturn(Optional.of(checkpoint));
+		when(mockManagerSupport.getMostRecentTableSnapshot(any())).thenReturn(Optional.of(new TableSnapshot()
+			.withBucket("bucket")
+			.withKey("key")
+			.withTableId(snapshotId.getId())
+			.withVersion(snapshotId.getVersion().get())
+		));
+		when(mockManagerSupport.getLastTableChangeNumber(any())).thenReturn(Optional.of(snapshotChangeNumber));
+		doNothing().when(managerSpy).restoreTableFromCheckpoint(any(), any(), anyLong(), any());
+		
+		// Call under test
+		managerSpy.attemptToRestoreTableFromExistingSnapshot(tableId, resetToken, targetChangeNumber);
+		
+		verify(managerSpy).restoreTableFromCheckpoint(tableId, resetToken, targetChangeNumber, checkpoint);
+		verify(managerSpy, never()).restoreTableFromSnapshot(any(), any(), anyLong(), any(), any(), anyLong());
+	}
+	
+	@Test
+	public void testAttemptToRestoreTableFromExistingSnapshotWithCheckpointOnly() {
+		
+		tableId = IdAndVersion.parse("123");
+		String resetToken = "restToken";
+		long targetChangeNumber = 789;
+		TableCheckpoint checkpoint = new TableCheckpoint()
+			.withTableId(tableId.getId())
+			.withChangeNumber(700L);
+		
+		when(mockIndexDao.getMaxCurrentCompleteVersionForTable(any())).thenReturn(-1L);
+		when(mockManagerSupport.getMostRecentTableCheckpoint(any(), anyLong())).thenReturn(Optional.of(checkpoint));
+		when(mockManagerSupport.getMostRecentTableSnapshot(any())).thenReturn(Optional.empty());
+		doNothing().when(managerSpy).restoreTableFromCheckpoint(any(), any(), anyLong(), any());
+		
+		// Call under test
+		managerSpy.attemptToRestoreTableFromExistingSnapshot(tableId, resetToken, targetChangeNumber);
+		
+		verify(managerSpy).restoreTableFromCheckpoint(tableId, resetToken, targetChangeNumber, checkpoint);
+		verify(mockManagerSupport, never()).getLastTableChangeNumber(any());
+	}
+	
+	@Test
+	public void testRestoreTableFromCheckpoint() {
+		
+		tableId = IdAndVersion.parse("123");
+		IndexDescription index = new TableIndexDescription(tableId);
+		String resetToken = "restToken";
+		long targetChangeNumber = 789;
+		TableCheckpoint checkpoint = new TableCheckpoint()
+			.withTableId(tableId.getId())
+			.withChangeNumber(700L)
+			.withBucket("bucket")
+			.withKey("key")
+			.withSchema(List.of("99", "101"))
+			.withSearchEnabled(true);
+		
+		when(mockManagerSupport.getColumnModel(any())).thenReturn(schema.get(0), schema.get(1));
+		doReturn(schema).when(managerSpy).resetTableIndex(any(), any(), anyBoolean());
+		doNothing().when(mockManagerSupport).restoreTableIndexFromS3(any(), any(), any());
+		doNothing().when(managerSpy).buildTableIndexIndices(any(), any());
+		doNothing().when(managerSpy).setIndexVersion(any(), any());
+		
+		// Call under test
+		managerSpy.restoreTableFromCheckpoint(tableId, resetToken, targetChangeNumber, checkpoint);
+		
+		verify(mockManagerSupport).attemptToUpdateTableProgress(tableId, resetToken, "Restoring table syn123 from checkpoint at change 700", 700L, targetChangeNumber);
+		verify(mockManagerSupport).getColumnModel("99");
+		verify(mockManagerSupport).getColumnModel("101");
+		verify(managerSpy).resetTableIndex(index, schema, true);
+		verify(mockManagerSupport).restoreTableIndexFromS3(tableId, "bucket", "key");
+		verify(managerSpy).buildTableIndexIndices(index, schema);
+		verify(managerSpy).setIndexVersion(tableId, 700L);
+	}
+	
 	@Test
 	public void testAttemptToRestoreTableFromExistingSnapshotWithExistingChanges() {
 		
@@ -69,6 +69,7 @@ import org.sagebionetworks.repo.model.dao.table.TableType;
 import org.sagebionetworks.repo.model.dbo.dao.table.MaterializedViewDao;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableExceptionTranslator;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableRowTruthDAO;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableCheckpoint;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshot;
 import org.sagebionetworks.repo.model.dbo.dao.table.TableSnapshotDao;
 import org.sagebionetworks.repo.model.dbo.dao.table.ViewScopeTypeDao;
@@ -1413,6 +1414,30 @@ public class TableManagerSupportTest {
 		verify(mockViewSnapshotDao).getMostRecentTableSnapshot(idAndVersion);
 	}
 	
+	@Test
+	public void testGetMostRecentTableCheckpoint() {
+		TableCheckpoint expected = new TableCheckpoint()
+				.withTableId(idAndVersion.getId())
+				.withChangeNumber(12L);
+		
+		when(mockViewSnapshotDao.getMostRecentCheckpoint(anyLong(), anyLong())).thenReturn(Optional.of(expected));
+		
+		// Call under test
+		Optional<TableCheckpoint> result = manager.getMostRecentTableCheckpoint(idAndVersion, 15L);
+		
+		assertEquals(Optional.of(expected), result);
+		
+		verify(mockViewSnapshotDao).getMostRecentCheckpoint(idAndVersion.getId(), 15L);
+	}
+	
+	@Test
+	public void testDeleteTableIndexFromS3() {
+		// Call under test
+		manager.deleteTableIndexFromS3("bucket", "key");
+		
+		verify(mockS3Client).deleteObject("bucket", "key");
+	}
+	
 	@Test
 	public void testTryRunWithTableNonExclusiveLock() throws Exception {
 		when(mockCallback.getLockTimeoutSeconds()).thenReturn(3L);
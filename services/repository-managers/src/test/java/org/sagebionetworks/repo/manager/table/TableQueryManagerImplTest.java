@@ -341,7 +341,6 @@ public class TableQueryManagerImplTest {
 	
 	@Test
 	public void testQueryPreflightAuthorized() throws Exception {
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -354,6 +353,125 @@ public class TableQueryManagerImplTest {
 		verify(mockTableManagerSupport).validateTableReadAccess(user, indexDescription);
 	}
 
+	@Test
+	public void testQueryPreflightWithCacheHit() throws Exception {
+		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
+		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
+		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
+		when(mockTableManagerSupport.getColumnModel(any())).thenReturn(models.get(0));
+		Long maxBytesPerPage = 10_000_000L;
+
+		QueryTranslations first = manager.queryPreflight(user, new Query().setSql("select i0 from " + tableId),
+				maxBytesPerPage, queryOptions);
+		// call under test
+		QueryTranslations second = manager.queryPreflight(user,
+				new Query().setSql("select i0 from " + tableId).setOffset(10L).setLimit(5L), maxBytesPerPage,
+				queryOptions);
+
+		assertEquals(1L, manager.getTranslationsCacheStats().hitCount());
+		assertEquals(1L, manager.getTranslationsCacheStats().missCount());
+		QueryTranslator firstTranslator = first.getMainQuery().getTranslator();
+		QueryTranslator secondTranslator = second.getMainQuery().getTranslator();
+		assertEquals("SELECT _C0_, ROW_ID, ROW_VERSION FROM T123 LIMIT :b0 OFFSET :b1", firstTranslator.getOutputSQL());
+		assertEquals(firstTranslator.getOutputSQL(), secondTranslator.getOutputSQL());
+		assertEquals(Map.of("b0", firstTranslator.getMaxRowsPerPage(), "b1", 0L), firstTranslator.getParameters());
+		assertEquals(Map.of("b0", 5L, "b1", 10L), secondTranslator.getParameters());
+		// once for each query plus once for the row level filter of the translated query.
+		verify(mockTableManagerSupport, times(3)).getIndexDescription(idAndVersion);
+	}
+
+	@Test
+	public void testQueryPreflightWithSchemaChange() throws Exception {
+		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
+		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
+		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
+		when(mockTableManagerSupport.getColumnModel(any())).thenReturn(models.get(0));
+		Query query = new Query().setSql("select i0 from " + tableId);
+		Long maxBytesPerPage = 10_000_000L;
+		List<ColumnModel> reordered = new ArrayList<>(models);
+		Collections.reverse(reordered);
+
+		manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(reordered);
+		// call under test
+		manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+
+		assertEquals(0L, manager.getTranslationsCacheStats().hitCount());
+		assertEquals(2L, manager.getTranslationsCacheStats().missCount());
+	}
+
+	@Test
+	public void testQueryPreflightWithTableChange() throws Exception {
+		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
+		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(new TableIndexDescription(idAndVersion, 1L));
+		when(mockTableManagerSupport.getColumnModel(any())).thenReturn(models.get(0));
+		Query query = new Query().setSql("select i0 from " + tableId);
+		Long maxBytesPerPage = 10_000_000L;
+
+		manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(new TableIndexDescription(idAndVersion, 2L));
+		// call under test
+		manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+
+		assertEquals(0L, manager.getTranslationsCacheStats().hitCount());
+		assertEquals(2L, manager.getTranslationsCacheStats().missCount());
+	}
+
+	@Test
+	public void testQueryPreflightWithCurrentUser() throws Exception {
+		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
+		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(new TableIndexDescription(idAndVersion));
+		when(mockTableManagerSupport.getColumnModel(any())).thenReturn(models.get(0));
+		Query query = new Query().setSql("select i0 from " + tableId + " where i2 = CURRENT_USER()");
+		Long maxBytesPerPage = 10_000_000L;
+
+		QueryTranslations first = manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+		// call under test
+		QueryTranslations second = manager.queryPreflight(new UserInfo(false, 8L), query, maxBytesPerPage, queryOptions);
+
+		assertEquals(0L, manager.getTranslationsCacheStats().hitCount());
+		assertEquals(2L, manager.getTranslationsCacheStats().missCount());
+		assertEquals("SELECT _C0_, ROW_ID, ROW_VERSION FROM T123 WHERE _C2_ = :b0 LIMIT :b1 OFFSET :b2",
+				first.getMainQuery().getTranslator().getOutputSQL());
+		assertEquals(7L, first.getMainQuery().getTranslator().getParameters().get("b0"));
+		assertEquals(8L, second.getMainQuery().getTranslator().getParameters().get("b0"));
+	}
+
+	@Test
+	public void testQueryPreflightWithRowLevelFilterNotCached() throws Exception {
+		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
+		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
+		when(mockTableManagerSupport.getIndexDescription(any()))
+				.thenReturn(new ViewIndexDescription(idAndVersion, TableType.entityview, -1L));
+		when(mockTableIndexDAO.getDistinctLongValues(any(), any())).thenReturn(benfactors);
+		when(mockTableManagerSupport.getAccessibleBenefactors(any(), any(), any())).thenReturn(subSet);
+		Query query = new Query().setSql("select count(*) from " + tableId);
+		Long maxBytesPerPage = 10_000_000L;
+
+		manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+		// call under test
+		manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+
+		assertEquals(0L, manager.getTranslationsCacheStats().requestCount());
+		// the benefactors the user can see are checked for each query.
+		verify(mockTableManagerSupport, times(2)).getAccessibleBenefactors(user, ObjectType.ENTITY, benfactors);
+	}
+
+	@Test
+	public void testQueryPreflightWithNullMaxBytesPerPageNotCached() throws Exception {
+		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
+		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(new TableIndexDescription(idAndVersion));
+		when(mockTableManagerSupport.getColumnModel(any())).thenReturn(models.get(0));
+		Query query = new Query().setSql("select i0 from " + tableId);
+		Long maxBytesPerPage = null;
+
+		// call under test
+		QueryTranslations result = manager.queryPreflight(user, query, maxBytesPerPage, queryOptions);
+
+		assertEquals(0L, manager.getTranslationsCacheStats().requestCount());
+		assertEquals("SELECT _C0_, ROW_ID, ROW_VERSION FROM T123", result.getMainQuery().getTranslator().getOutputSQL());
+	}
+
 	@Test
 	public void testCreateCombinedSqlSimpleQuery() {
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
@@ -577,7 +695,6 @@ public class TableQueryManagerImplTest {
 	
 	@Test
 	public void testQueryPreflightWithAuthorizationTableEntity() throws Exception{
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -597,7 +714,6 @@ public class TableQueryManagerImplTest {
 	
 	@Test
 	public void testQueryPreflightWithAuthorizationFileView() throws Exception{
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		
@@ -645,7 +761,6 @@ public class TableQueryManagerImplTest {
 		IndexDescription virtualTableIndexDescription = new VirtualTableIndexDescription(virtualTableId, definingSql, mockTableManagerSupport);
 		when(mockTableManagerSupport.getIndexDescription(virtualTableId)).thenReturn(virtualTableIndexDescription);
 		List<ColumnModel> virtualSchema = List.of(new ColumnModel().setName("bar").setColumnType(ColumnType.INTEGER).setId("22"));
-		when(mockTableManagerSupport.getTableSchemaCount(virtualTableId)).thenReturn((long)virtualSchema.size());
 		when(mockTableManagerSupport.getTableSchema(virtualTableId)).thenReturn(virtualSchema);
 		
 		Query query = new Query();
@@ -1113,7 +1228,7 @@ public class TableQueryManagerImplTest {
 	@Test 
 	public void testQuerySinglePageEmptySchema() throws Exception {
 		// Return no columns
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn(0L);
+		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(Collections.emptyList());
 		Query query = new Query();
 		query.setSql("select * from " + tableId + " limit 1");
 		queryOptions = new QueryOptions().withRunQuery(true).withRunCount(false).withReturnFacets(false);
@@ -1131,7 +1246,6 @@ public class TableQueryManagerImplTest {
 	public void testQueryIndexNotAvailable() throws Exception {
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -1157,7 +1271,6 @@ public class TableQueryManagerImplTest {
 			throws Exception {
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -1234,7 +1347,6 @@ public class TableQueryManagerImplTest {
 	public void testQueryBundleFacets() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -1333,7 +1445,6 @@ public class TableQueryManagerImplTest {
 	
 	@Test
 	public void testQueryPreflightSelectStar() throws Exception {
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -1357,7 +1468,6 @@ public class TableQueryManagerImplTest {
 	
 	@Test
 	public void testQueryPreflightOverrideSort() throws Exception {
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -1379,7 +1489,6 @@ public class TableQueryManagerImplTest {
 
 	@Test
 	public void testQueryPreflight_AdditionalQueryFilters() throws Exception {
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -1405,7 +1514,6 @@ public class TableQueryManagerImplTest {
 	
 	@Test
 	public void testQueryPreflight_AdditionalQueryFiltersWithHasLike() throws Exception {
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -1435,7 +1543,6 @@ public class TableQueryManagerImplTest {
 	@Test
 	public void testQueryPreflight_AdditionalQueryFiltersWithHas() throws Exception {
 
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long) models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
 		when(mockTableManagerSupport.getIndexDescription(any())).thenReturn(indexDescription);
@@ -1465,7 +1572,7 @@ public class TableQueryManagerImplTest {
 	@Test
 	public void testQueryPreflightEmptySchema() throws Exception {
 		// Return no columns
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn(0L);
+		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(Collections.emptyList());
 		Query query = new Query();
 		query.setSql("select * from "+tableId);
 		Long maxBytesPerPage = null;
@@ -1492,7 +1599,6 @@ public class TableQueryManagerImplTest {
 	public void testRunQueryDownloadAsStreamDownload() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -1520,7 +1626,6 @@ public class TableQueryManagerImplTest {
 	public void testRunQueryDownloadAsStreamDownloadDefaultValues() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -1555,7 +1660,6 @@ public class TableQueryManagerImplTest {
 	public void testRunQueryDownloadAsStreamDownloadViewIncludeEtag() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		when(mockTableIndexDAO.getDistinctLongValues(idAndVersion, TableConstants.ROW_BENEFACTOR)).thenReturn(benfactors);
@@ -1593,7 +1697,6 @@ public class TableQueryManagerImplTest {
 	public void testRunQueryDownloadAsStreamDownloadTableIncludeEtag() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		
@@ -1630,7 +1733,6 @@ public class TableQueryManagerImplTest {
 	public void testRunQueryDownloadAsStreamDownloadIncludeEtagWithoutRowId() throws Exception {
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -1687,7 +1789,7 @@ public class TableQueryManagerImplTest {
 	@Test
 	public void testRunQueryDownloadAsStreamEmptyDownload() throws NotFoundException, TableUnavailableException, TableFailedException, LockUnavilableException {
 		// Return no columns
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn(0L);
+		when(mockTableManagerSupport.getTableSchema(any())).thenReturn(Collections.emptyList());
 		DownloadFromTableRequest request = new DownloadFromTableRequest();
 		request.setSql("select * from "+tableId);
 		request.setSort(null);
@@ -1935,7 +2037,6 @@ public class TableQueryManagerImplTest {
 	public void testQuerySinglePageWithNextPage() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -2020,7 +2121,6 @@ public class TableQueryManagerImplTest {
 	public void testQuerySinglePageWithEtag() throws Exception {
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -2093,7 +2193,6 @@ public class TableQueryManagerImplTest {
 	public void testQuerySinglePageOverrideLimit() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
@@ -2130,7 +2229,6 @@ public class TableQueryManagerImplTest {
 	public void testQuerySinglePageWithLimit() throws Exception{
 		when(mockTableManagerSupport.getTableStatusOrCreateIfNotExists(idAndVersion)).thenReturn(status);
 		setupNonExclusiveLock();
-		when(mockTableManagerSupport.getTableSchemaCount(any())).thenReturn((long)models.size());
 		when(mockTableManagerSupport.getTableSchema(idAndVersion)).thenReturn(models);
 		when(mockTableConnectionFactory.getConnection(idAndVersion)).thenReturn(mockTableIndexDAO);
 		IndexDescription indexDescription = new TableIndexDescription(idAndVersion);
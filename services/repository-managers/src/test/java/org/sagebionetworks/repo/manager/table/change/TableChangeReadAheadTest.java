@@ -0,0 +1,181 @@
+package org.sagebionetworks.repo.manager.table.change;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.manager.table.change.TableChangeReadAhead.LoadedTableChange;
+import org.sagebionetworks.repo.model.table.TableChangeType;
+import org.sagebionetworks.repo.web.NotFoundException;
+import org.sagebionetworks.table.model.ChangeData;
+import org.sagebionetworks.table.model.SchemaChange;
+import org.sagebionetworks.table.model.SearchChange;
+import org.sagebionetworks.table.model.SparseChangeSet;
+
+@ExtendWith(MockitoExtension.class)
+public class TableChangeReadAheadTest {
+
+	@Mock
+	private TableChangeMetaData mockRowChange;
+	@Mock
+	private TableChangeMetaData mockColumnChange;
+	@Mock
+	private TableChangeMetaData mockSearchChange;
+	@Mock
+	private ChangeData<SparseChangeSet> mockRowData;
+	@Mock
+	private ChangeData<SchemaChange> mockColumnData;
+	@Mock
+	private ChangeData<SearchChange> mockSearchData;
+
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void before() {
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	public void after() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testReadAhead() throws Exception {
+		setupChanges();
+		List<TableChangeMetaData> changes = List.of(mockRowChange, mockColumnChange, mockSearchChange);
+		List<LoadedTableChange> results = new ArrayList<>();
+		try (TableChangeReadAhead readAhead = new TableChangeReadAhead(executor, changes.iterator(), 2)) {
+			while (readAhead.hasNext()) {
+				// call under test
+				results.add(readAhead.next());
+			}
+			assertEquals(3L, readAhead.getLoadedCount());
+		}
+		assertEquals(3, results.size());
+		assertEquals(mockRowChange, results.get(0).getMetadata());
+		assertEquals(mockRowData, results.get(0).getData());
+		assertEquals(mockColumnChange, results.get(1).getMetadata());
+		assertEquals(mockColumnData, results.get(1).getData());
+		assertEquals(mockSearchChange, results.get(2).getMetadata());
+		assertEquals(mockSearchData, results.get(2).getData());
+	}
+
+	@Test
+	public void testReadAheadWithMaxReadAhead() throws Exception {
+		when(mockRowChange.getChangeType()).thenReturn(TableChangeType.ROW);
+		when(mockRowChange.loadChangeData(SparseChangeSet.class)).thenReturn(mockRowData);
+		List<TableChangeMetaData> changes = List.of(mockRowChange, mockColumnChange, mockSearchChange);
+		try (TableChangeReadAhead readAhead = new TableChangeReadAhead(executor, changes.iterator(), 1)) {
+			// call under test
+			LoadedTableChange result = readAhead.next();
+			assertEquals(mockRowData, result.getData());
+		}
+		// only the next change is loaded ahead of the caller.
+		verify(mockSearchChange, never()).getChangeType();
+	}
+
+	@Test
+	public void testReadAheadWithEmpty() throws Exception {
+		try (TableChangeReadAhead readAhead = new TableChangeReadAhead(executor, Collections.emptyIterator(), 2)) {
+			assertFalse(readAhead.hasNext());
+			assertThrows(NoSuchElementException.class, () -> {
+				// call under test
+				readAhead.next();
+			});
+		}
+	}
+
+	@Test
+	public void testReadAheadWithIOException() throws Exception {
+		IOException exception = new IOException("failed");
+		when(mockRowChange.getChangeType()).thenReturn(TableChangeType.ROW);
+		when(mockRowChange.loadChangeData(SparseChangeSet.class)).thenThrow(exception);
+		try (TableChangeReadAhead readAhead = new TableChangeReadAhead(executor, List.of(mockRowChange).iterator(),
+				2)) {
+			IOException thrown = assertThrows(IOException.class, () -> {
+				// call under test
+				readAhead.next();
+			});
+			assertEquals(exception, thrown);
+		}
+	}
+
+	@Test
+	public void testReadAheadWithNotFoundException() throws Exception {
+		NotFoundException exception = new NotFoundException("missing");
+		when(mockRowChange.getChangeType()).thenReturn(TableChangeType.ROW);
+		when(mockRowChange.loadChangeData(SparseChangeSet.class)).thenThrow(exception);
+		try (TableChangeReadAhead readAhead = new TableChangeReadAhead(executor, List.of(mockRowChange).iterator(),
+				2)) {
+			NotFoundException thrown = assertThrows(NotFoundException.class, () -> {
+				// call under test
+				readAhead.next();
+			});
+			assertEquals(exception, thrown);
+		}
+	}
+
+	@Test
+	public void testReadAheadLoadsOnSeparateThread() throws Exception {
+		Thread caller = Thread.currentThread();
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		when(mockRowChange.getChangeType()).thenReturn(TableChangeType.ROW);
+		when(mockRowChange.loadChangeData(SparseChangeSet.class)).then((invocation) -> {
+			threads.add(Thread.currentThread());
+			return mockRowData;
+		});
+		try (TableChangeReadAhead readAhead = new TableChangeReadAhead(executor, List.of(mockRowChange).iterator(),
+				2)) {
+			// call under test
+			readAhead.next();
+		}
+		assertEquals(1, threads.size());
+		assertTrue(threads.get(0) != caller);
+	}
+
+	@Test
+	public void testConstructorWithZeroMaxReadAhead() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new TableChangeReadAhead(executor, Collections.emptyIterator(), 0);
+		}).getMessage();
+		assertEquals("maxReadAhead must be greater than zero.", message);
+	}
+
+	@Test
+	public void testLoadChangeData() throws Exception {
+		setupChanges();
+		// call under test
+		assertEquals(mockRowData, TableChangeReadAhead.loadChangeData(mockRowChange));
+		assertEquals(mockColumnData, TableChangeReadAhead.loadChangeData(mockColumnChange));
+		assertEquals(mockSearchData, TableChangeReadAhead.loadChangeData(mockSearchChange));
+	}
+
+	private void setupChanges() throws Exception {
+		when(mockRowChange.getChangeType()).thenReturn(TableChangeType.ROW);
+		when(mockRowChange.loadChangeData(SparseChangeSet.class)).thenReturn(mockRowData);
+		when(mockColumnChange.getChangeType()).thenReturn(TableChangeType.COLUMN);
+		when(mockColumnChange.loadChangeData(SchemaChange.class)).thenReturn(mockColumnData);
+		when(mockSearchChange.getChangeType()).thenReturn(TableChangeType.SEARCH);
+		when(mockSearchChange.loadChangeData(SearchChange.class)).thenReturn(mockSearchData);
+	}
+}
@@ -21,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.repo.model.IdAndChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.NodeDAO;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.SubType;
@@ -104,6 +105,78 @@ public class EntityObjectProviderTest {
 		verify(mockNodeDao).getIdsAndChecksumsForObjects(eq(salt), eq(scope));
 	}
 
+	@Test
+	public void testStreamOverIdsAndChecksumsWithParentIdsAndRange() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L,2L,3L);
+
+		List<IdAndChecksum> all = buildIdsAndChecksum(4);
+
+		when(mockNodeDao.getIdsAndChecksumsForChildren(any(), any(), any(), any(), any())).thenReturn(all);
+
+		// call under test
+		Iterator<IdAndChecksum> resultsIt = provider.streamOverIdsAndChecksumsForChildren(salt, parentId, subTypes,
+				0L, 10L);
+		List<IdAndChecksum> allResults = new ArrayList<IdAndChecksum>();
+		resultsIt.forEachRemaining(i -> allResults.add(i));
+		assertEquals(all, allResults);
+		
+		verify(mockNodeDao).getIdsAndChecksumsForChildren(salt, parentId, subTypes, 0L, 10L);
+	}
+	
+	@Test
+	public void testStreamOverIdsAndChecksumsWithObjectIdsAndRange() {
+		Long salt = 123L;
+		Set<Long> scope = Sets.newHashSet(1L, 12L, 19L, 20L);
+
+		List<IdAndChecksum> all = buildIdsAndChecksum(2);
+
+		when(mockNodeDao.getIdsAndChecksumsForObjects(any(), any())).thenReturn(all);
+
+		// call under test
+		Iterator<IdAndChecksum> resultsIt = provider.streamOverIdsAndChecksumsForObjects(salt, scope, 10L, 20L);
+		List<IdAndChecksum> allResults = new ArrayList<IdAndChecksum>();
+		resultsIt.forEachRemaining(i -> allResults.add(i));
+		assertEquals(all, allResults);
+		
+		// Only the objects in the range are requested.
+		verify(mockNodeDao).getIdsAndChecksumsForObjects(salt, Sets.newHashSet(12L, 19L));
+	}
+
+	@Test
+	public void testGetIdRangeChecksumsForChildren() {
+		Long salt = 123L;
+		Long rangeSize = 10L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L,2L,3L);
+		List<IdRangeChecksum> expected = List.of(new IdRangeChecksum().withRangeIndex(0L).withCount(4L).withChecksum(10L));
+
+		when(mockNodeDao.getIdRangeChecksumsForChildren(any(), any(), any(), any())).thenReturn(expected);
+
+		// call under test
+		List<IdRangeChecksum> result = provider.getIdRangeChecksumsForChildren(salt, parentId, subTypes, rangeSize);
+		assertEquals(expected, result);
+
+		verify(mockNodeDao).getIdRangeChecksumsForChildren(salt, parentId, subTypes, rangeSize);
+	}
+
+	@Test
+	public void testGetIdRangeChecksumsForObjects() {
+		Long salt = 123L;
+		Long rangeSize = 10L;
+		Set<Long> scope = Sets.newHashSet(1L, 2L, 3L);
+		List<IdRangeChecksum> expected = List.of(new IdRangeChecksum().withRangeIndex(0L).withCount(3L).withChecksum(6L));
+
+		when(mockNodeDao.getIdRangeChecksumsForObjects(any(), any(), any())).thenReturn(expected);
+
+		// call under test
+		List<IdRangeChecksum> result = provider.getIdRangeChecksumsForObjects(salt, scope, rangeSize);
+		assertEquals(expected, result);
+
+		verify(mockNodeDao).getIdRangeChecksumsForObjects(salt, scope, rangeSize);
+	}
+
 	/**
 	 * Helper to create a list of List<IdAndChecksum> of the given size.
 	 * 
@@ -23,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.sagebionetworks.evaluation.dao.EvaluationDAO;
 import org.sagebionetworks.evaluation.dao.SubmissionDAO;
 import org.sagebionetworks.repo.model.IdAndChecksum;
+import org.sagebionetworks.repo.model.IdRangeChecksum;
 import org.sagebionetworks.repo.model.IdAndEtag;
 import org.sagebionetworks.repo.model.table.ObjectDataDTO;
 import org.sagebionetworks.repo.model.table.SubType;
@@ -99,6 +100,66 @@ public class SubmissionObjectProviderTest {
 		assertEquals("All submission views are hierarchical", message);
 	}
 	
+	@Test
+	public void testStreamOverIdsAndChecksumsWithParentIdsAndRange() {
+		Long salt = 123L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L, 2L, 3L);
+
+		List<IdAndChecksum> all = buildIdsAndChecksum(4);
+
+		when(mockSubmissionDao.getIdAndChecksumsPage(any(), any(), any(), any(), any(), any())).thenReturn(all,
+				Collections.emptyList());
+
+		// call under test
+		Iterator<IdAndChecksum> resultsIt = provider.streamOverIdsAndChecksumsForChildren(salt, parentId, subTypes,
+				0L, 10L);
+		List<IdAndChecksum> allResults = new ArrayList<IdAndChecksum>();
+		resultsIt.forEachRemaining(i -> allResults.add(i));
+		assertEquals(all, allResults);
+		
+		long pageSize = SubmissionObjectProvider.PAGE_SIZE;
+		verify(mockSubmissionDao, times(1)).getIdAndChecksumsPage(any(), any(), any(), any(), any(), any());
+		verify(mockSubmissionDao).getIdAndChecksumsPage(eq(salt), eq(parentId), eq(0L), eq(10L), eq(pageSize), eq(0L));
+	}
+	
+	@Test
+	public void teststreamOverIdsAndChecksumsForObjectsWithRange() {
+		Long salt = 123L;
+		Set<Long> ids = Sets.newHashSet(1L, 2L, 3L);
+		String message = assertThrows(UnsupportedOperationException.class, ()->{
+			provider.streamOverIdsAndChecksumsForObjects(salt, ids, 0L, 10L);
+		}).getMessage();
+		assertEquals("All submission views are hierarchical", message);
+	}
+
+	@Test
+	public void testGetIdRangeChecksumsForChildren() {
+		Long salt = 123L;
+		Long rangeSize = 10L;
+		Set<SubType> subTypes = Sets.newHashSet(SubType.file);
+		Set<Long> parentId = Sets.newHashSet(1L, 2L, 3L);
+		List<IdRangeChecksum> expected = List.of(new IdRangeChecksum().withRangeIndex(0L).withCount(4L).withChecksum(10L));
+
+		when(mockSubmissionDao.getIdRangeChecksums(any(), any(), any())).thenReturn(expected);
+
+		// call under test
+		List<IdRangeChecksum> result = provider.getIdRangeChecksumsForChildren(salt, parentId, subTypes, rangeSize);
+		assertEquals(expected, result);
+
+		verify(mockSubmissionDao).getIdRangeChecksums(salt, parentId, rangeSize);
+	}
+
+	@Test
+	public void testGetIdRangeChecksumsForObjects() {
+		Long salt = 123L;
+		Set<Long> ids = Sets.newHashSet(1L, 2L, 3L);
+		String message = assertThrows(UnsupportedOperationException.class, ()->{
+			provider.getIdRangeChecksumsForObjects(salt, ids, 10L);
+		}).getMessage();
+		assertEquals("All submission views are hierarchical", message);
+	}
+	
 	/**
 	 * Helper to create a list of List<IdAndChecksum> of the given size.
 	 * 
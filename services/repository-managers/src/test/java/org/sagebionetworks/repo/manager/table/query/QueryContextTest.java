@@ -3,7 +3,12 @@ package org.sagebionetworks.repo.manager.table.query;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.List;
 import java.util.Set;
@@ -13,14 +18,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.sagebionetworks.repo.model.dbo.dao.table.TableModelTestUtils;
 import org.sagebionetworks.repo.model.entity.IdAndVersion;
 import org.sagebionetworks.repo.model.table.ColumnSingleValueFilterOperator;
 import org.sagebionetworks.repo.model.table.ColumnSingleValueQueryFilter;
+import org.sagebionetworks.repo.model.table.ColumnType;
 import org.sagebionetworks.repo.model.table.FacetColumnRequest;
 import org.sagebionetworks.repo.model.table.FacetColumnValuesRequest;
+import org.sagebionetworks.repo.model.table.FacetType;
 import org.sagebionetworks.repo.model.table.QueryFilter;
 import org.sagebionetworks.repo.model.table.SortDirection;
 import org.sagebionetworks.repo.model.table.SortItem;
+import org.sagebionetworks.table.cluster.CombinedQuery;
 import org.sagebionetworks.table.cluster.SchemaProvider;
 import org.sagebionetworks.table.cluster.description.IndexDescription;
 
@@ -156,4 +165,30 @@ public class QueryContextTest {
 		assertNotNull(context.getAdditionalFilters());
 	}
 	
+	@Test
+	public void testBuildWithoutFilteredQuery() {
+		// call under test
+		builder.build();
+		// the filtered query is only built when it is needed.
+		verify(mockSchemaProvider, never()).getTableSchema(any());
+	}
+	
+	@Test
+	public void testGetFilteredQuery() {
+		when(mockSchemaProvider.getTableSchema(any())).thenReturn(List.of(
+				TableModelTestUtils.createColumn(1L, "one", ColumnType.STRING).setFacetType(FacetType.enumeration),
+				TableModelTestUtils.createColumn(2L, "two", ColumnType.INTEGER),
+				TableModelTestUtils.createColumn(3L, "three", ColumnType.STRING)));
+		QueryContext context = builder.build();
+
+		String expectedSql = CombinedQuery.builder().setQuery(startingSql).setSchemaProvider(mockSchemaProvider)
+				.setAdditionalFilters(additionalFilters).setSelectedFacets(selectedFacets).build().getCombinedSql();
+
+		// call under test
+		CombinedQuery filtered = context.getFilteredQuery();
+		assertEquals(expectedSql, filtered.getCombinedSql());
+		// the combined query is only built once.
+		assertSame(filtered, context.getFilteredQuery());
+	}
+
 }
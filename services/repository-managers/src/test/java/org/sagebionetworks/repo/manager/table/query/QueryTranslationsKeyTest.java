@@ -0,0 +1,114 @@
+package org.sagebionetworks.repo.manager.table.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sagebionetworks.repo.model.table.FacetColumnRequest;
+import org.sagebionetworks.repo.model.table.FacetColumnValuesRequest;
+import org.sagebionetworks.repo.model.table.Query;
+import org.sagebionetworks.repo.model.table.QueryOptions;
+import org.sagebionetworks.repo.model.table.SortDirection;
+import org.sagebionetworks.repo.model.table.SortItem;
+
+public class QueryTranslationsKeyTest {
+
+	private Query query;
+	private QueryOptions options;
+	private String tableHash;
+	private String schemaMD5Hex;
+	private Long userId;
+
+	@BeforeEach
+	public void before() {
+		query = new Query().setSql("select * from syn123")
+				.setSelectedFacets(List.of(new FacetColumnValuesRequest().setColumnName("one").setFacetValues(Set.of("cat"))))
+				.setLimit(10L).setOffset(0L);
+		options = new QueryOptions().withRunQuery(true).withRunCount(true).withReturnFacets(true);
+		tableHash = "hash";
+		schemaMD5Hex = "md5";
+		userId = null;
+	}
+
+	@Test
+	public void testEquals() {
+		// call under test
+		QueryTranslationsKey one = new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId);
+		QueryTranslationsKey two = new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId);
+		assertEquals(one, two);
+		assertEquals(one.hashCode(), two.hashCode());
+	}
+
+	@Test
+	public void testEqualsWithDifferentParts() {
+		QueryTranslationsKey key = new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId);
+
+		// call under test
+		assertNotEquals(key, new QueryTranslationsKey(query, options, "otherHash", schemaMD5Hex, userId));
+		assertNotEquals(key, new QueryTranslationsKey(query, options, tableHash, "otherMD5", userId));
+		assertNotEquals(key, new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, 123L));
+		assertNotEquals(key, new QueryTranslationsKey(query, new QueryOptions().withRunQuery(true), tableHash,
+				schemaMD5Hex, userId));
+		assertNotEquals(key, new QueryTranslationsKey(new Query().setSql("select * from syn456"), options, tableHash,
+				schemaMD5Hex, userId));
+		assertNotEquals(key, new QueryTranslationsKey(
+				query.setSort(List.of(new SortItem().setColumn("one").setDirection(SortDirection.DESC))), options,
+				tableHash, schemaMD5Hex, userId));
+	}
+
+	@Test
+	public void testEqualsWithDifferentPaging() {
+		QueryTranslationsKey key = new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId);
+		query.setLimit(25L).setOffset(50L);
+
+		// call under test
+		assertEquals(key, new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId));
+	}
+
+	@Test
+	public void testEqualsWithOptionsThatDoNotChangeTranslations() {
+		QueryTranslationsKey key = new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId);
+		options.withReturnColumnModels(true).withReturnSelectColumns(true);
+
+		// call under test
+		assertEquals(key, new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId));
+	}
+
+	@Test
+	public void testKeyCopiesLists() {
+		List<FacetColumnRequest> facets = new ArrayList<>(
+				List.of(new FacetColumnValuesRequest().setColumnName("one").setFacetValues(Set.of("cat"))));
+		QueryTranslationsKey key = new QueryTranslationsKey(query.setSelectedFacets(facets), options, tableHash,
+				schemaMD5Hex, userId);
+		QueryTranslationsKey copy = new QueryTranslationsKey(
+				query.setSelectedFacets(new ArrayList<>(facets)), options, tableHash, schemaMD5Hex, userId);
+		// call under test
+		facets.clear();
+		assertEquals(key, copy);
+	}
+
+	@Test
+	public void testWithNullTableHash() {
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new QueryTranslationsKey(query, options, null, schemaMD5Hex, userId);
+		}).getMessage();
+		assertEquals("tableHash is required.", message);
+	}
+
+	@Test
+	public void testWithNullSql() {
+		query.setSql(null);
+		String message = assertThrows(IllegalArgumentException.class, () -> {
+			// call under test
+			new QueryTranslationsKey(query, options, tableHash, schemaMD5Hex, userId);
+		}).getMessage();
+		assertEquals("query.sql is required.", message);
+	}
+}
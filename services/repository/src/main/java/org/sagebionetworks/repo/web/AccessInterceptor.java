@@ -3,9 +3,6 @@ package org.sagebionetworks.repo.web;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -35,10 +32,10 @@ public class AccessInterceptor implements HandlerInterceptor, AccessIdListener{
 	private static final String INSTANCE_PREFIX_TEMPLATE = "%1$09d";
 
 	/**
-	 * This map keeps track of the current record for each thread.
+	 * The record of the request currently handled by each thread. A request is
+	 * handled by a single thread, so no thread ever reads another's record.
 	 */
-	Map<Long, AccessRecord> threadToRecordMap = Collections
-			.synchronizedMap(new HashMap<Long, AccessRecord>());
+	private final ThreadLocal<AccessRecord> currentRecord = new ThreadLocal<AccessRecord>();
 
 	@Autowired
 	AccessRecorder accessRecorder;
@@ -103,7 +100,7 @@ public class AccessInterceptor implements HandlerInterceptor, AccessIdListener{
 		}
 		data.setAuthenticationMethod(request.getHeader(AuthorizationConstants.SYNAPSE_AUTHENTICATION_METHOD_HEADER_NAME));
 		// Bind this record to this thread.
-		threadToRecordMap.put(Thread.currentThread().getId(), data);
+		currentRecord.set(data);
 		return true;
 	}
 	
@@ -122,8 +119,8 @@ public class AccessInterceptor implements HandlerInterceptor, AccessIdListener{
 			HttpServletResponse response, Object handler, Exception exception)
 			throws Exception {
 		// Get the record for this thread
-		AccessRecord data = threadToRecordMap.remove(Thread.currentThread()
-				.getId());
+		AccessRecord data = currentRecord.get();
+		currentRecord.remove();
 		if (data == null)
 			throw new IllegalStateException(
 					"Failed to get the access record for this thread: "
@@ -151,7 +148,7 @@ public class AccessInterceptor implements HandlerInterceptor, AccessIdListener{
 	 * @return
 	 */
 	private AccessRecord getCurrentThreadAccessRecord(){
-		AccessRecord ar = threadToRecordMap.get(Thread.currentThread().getId());
+		AccessRecord ar = currentRecord.get();
 		if(ar == null) 	throw new IllegalStateException(
 				"Failed to get the access record for this thread: "
 						+ Thread.currentThread().getId());
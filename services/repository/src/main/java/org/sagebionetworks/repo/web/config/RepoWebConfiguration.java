@@ -12,7 +12,10 @@ import org.sagebionetworks.repo.manager.config.SimpleTriggerBuilder;
 import org.sagebionetworks.repo.manager.monitoring.ApplicationType;
 import org.sagebionetworks.repo.manager.monitoring.DataSourcePoolMonitor;
 import org.sagebionetworks.repo.manager.monitoring.DiskMonitor;
+import org.sagebionetworks.repo.manager.monitoring.QueryCacheMonitor;
 import org.sagebionetworks.repo.manager.monitoring.TempDiskProviderImpl;
+import org.sagebionetworks.repo.manager.table.QueryCacheManager;
+import org.sagebionetworks.repo.manager.table.TableQueryManager;
 import org.sagebionetworks.repo.web.controller.ObjectTypeSerializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -79,6 +82,18 @@ public class RepoWebConfiguration implements WebMvcConfigurer {
 				.build();
 	}
 	
+	@Bean
+	public SimpleTriggerFactoryBean queryCacheMonitorTrigger(QueryCacheManager queryCacheManager,
+			TableQueryManager tableQueryManager) {
+		return new SimpleTriggerBuilder()
+				.withTargetObject(new QueryCacheMonitor(ApplicationType.repository, queryCacheManager, tableQueryManager,
+						consumer, config))
+				.withTargetMethod("collectMetrics")
+				.withRepeatInterval(60_000)
+				.withStartDelay(2027)
+				.build();
+	}
+	
 	// The following beans are not exposed as they are used in place here
 	
 	private ContentNegotiationManager exceptionContentNegotiationManager() {
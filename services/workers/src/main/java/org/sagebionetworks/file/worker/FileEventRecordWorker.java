@@ -50,14 +50,14 @@ public class FileEventRecordWorker implements TypedMessageDrivenRunner<FileEvent
 
         switch (event.getFileEventType()) {
             case FILE_DOWNLOAD:
-                firehoseLogger.logBatch(FILE_RECORD_DOWNLOAD_STREAM, Collections.singletonList(kinesisJsonEntityRecord));
+                firehoseLogger.logBatchAsync(FILE_RECORD_DOWNLOAD_STREAM, Collections.singletonList(kinesisJsonEntityRecord));
                 // Keep old streams for backward compatibility, for more information see PLFM-7754
-                firehoseLogger.logBatch(FILE_DOWNLOAD_STREAM, Collections.singletonList(statisticsFileEventRecord));
+                firehoseLogger.logBatchAsync(FILE_DOWNLOAD_STREAM, Collections.singletonList(statisticsFileEventRecord));
                 return;
             case FILE_UPLOAD:
-                firehoseLogger.logBatch(FILE_RECORD_UPLOAD_STREAM, Collections.singletonList(kinesisJsonEntityRecord));
+                firehoseLogger.logBatchAsync(FILE_RECORD_UPLOAD_STREAM, Collections.singletonList(kinesisJsonEntityRecord));
                 // Keep old streams for backward compatibility, for more information see PLFM-7754
-                firehoseLogger.logBatch(FILE_UPLOAD_STREAM, Collections.singletonList(statisticsFileEventRecord));
+                firehoseLogger.logBatchAsync(FILE_UPLOAD_STREAM, Collections.singletonList(statisticsFileEventRecord));
                 return;
             default:
                 throw new IllegalArgumentException("Unsupported event type: " + event.getFileEventType().name());
@@ -40,10 +40,6 @@ public class TableSnapshotWorker implements TypedMessageDrivenRunner<TableStatus
 			throws RecoverableMessageException, Exception {
 		
 		final IdAndVersion tableId = KeyFactory.idAndVersion(event.getObjectId(), event.getObjectVersion());
-				
-		if (!tableId.getVersion().isPresent()) {
-			return;
-		}
 		
 		if (!TableState.AVAILABLE.equals(event.getState())) {
 			return;
@@ -54,9 +50,14 @@ public class TableSnapshotWorker implements TypedMessageDrivenRunner<TableStatus
 		}
 		
 		try {
-			LOG.info("Attempting to store snapshot for table " + tableId +"...");
-			tableManager.storeTableSnapshot(tableId, progressCallback);
-			LOG.info("Attempting to store snapshot for table " + tableId +"...DONE");
+			if (tableId.getVersion().isPresent()) {
+				LOG.info("Attempting to store snapshot for table " + tableId +"...");
+				tableManager.storeTableSnapshot(tableId, progressCallback);
+				LOG.info("Attempting to store snapshot for table " + tableId +"...DONE");
+			} else {
+				// The current version of the table is checkpointed once enough changes were applied since the last checkpoint
+				tableManager.storeTableCheckpoint(tableId, progressCallback);
+			}
 		} catch (LockUnavilableException e) {
 			throw new RecoverableMessageException(e);
 		} catch (RecoverableMessageException e) {
@@ -10,10 +10,12 @@ import org.sagebionetworks.asynchronous.workers.concurrent.ConcurrentManager;
 import org.sagebionetworks.asynchronous.workers.concurrent.ConcurrentManagerImpl;
 import org.sagebionetworks.cloudwatch.Consumer;
 import org.sagebionetworks.database.semaphore.CountingSemaphore;
+import org.sagebionetworks.kinesis.AwsKinesisFirehoseLogger;
 import org.sagebionetworks.repo.manager.config.SimpleTriggerBuilder;
 import org.sagebionetworks.repo.manager.monitoring.ApplicationType;
 import org.sagebionetworks.repo.manager.monitoring.DataSourcePoolMonitor;
 import org.sagebionetworks.repo.manager.monitoring.DiskMonitor;
+import org.sagebionetworks.repo.manager.monitoring.FirehoseLoggerMonitor;
 import org.sagebionetworks.repo.manager.monitoring.TempDiskProviderImpl;
 import org.sagebionetworks.repo.manager.webhook.WebhookMetricsCollector;
 import org.sagebionetworks.repo.model.StackStatusDao;
@@ -66,6 +68,16 @@ public class WorkersInfraConfig {
 				.build();
 	}
 	
+	@Bean
+	public SimpleTriggerFactoryBean firehoseLoggerMonitorTrigger(AwsKinesisFirehoseLogger firehoseLogger) {
+		return new SimpleTriggerBuilder()
+				.withTargetObject(new FirehoseLoggerMonitor(ApplicationType.workers, firehoseLogger, consumer, config))
+				.withTargetMethod("collectMetrics")
+				.withRepeatInterval(60_000)
+				.withStartDelay(2027)
+				.build();
+	}
+	
 	@Bean
 	public SimpleTriggerFactoryBean webhookMetricsTrigger(WebhookMetricsCollector metricsCollector) {
 		return new SimpleTriggerBuilder()
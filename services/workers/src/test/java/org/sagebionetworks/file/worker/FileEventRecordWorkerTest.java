@@ -83,7 +83,7 @@ public class FileEventRecordWorkerTest {
         // Call under test
         worker.run(progressCallback, message, event);
 
-        verify(firehoseLogger, times(2)).logBatch(streamNameCaptor.capture(), fileRecordCaptor.capture());
+        verify(firehoseLogger, times(2)).logBatchAsync(streamNameCaptor.capture(), fileRecordCaptor.capture());
         assertEquals(List.of("fileUploadRecords", "fileUploads"), streamNameCaptor.getAllValues());
         KinesisJsonEntityRecord kinesisJsonEntityRecord = (KinesisJsonEntityRecord) fileRecordCaptor.getAllValues().get(0).get(0);
         FileEventRecord actualRecord = (FileEventRecord) kinesisJsonEntityRecord.getPayload();
@@ -107,7 +107,7 @@ public class FileEventRecordWorkerTest {
         // Call under test
         worker.run(progressCallback, message, event);
 
-        verify(firehoseLogger, times(2)).logBatch(streamNameCaptor.capture(), fileRecordCaptor.capture());
+        verify(firehoseLogger, times(2)).logBatchAsync(streamNameCaptor.capture(), fileRecordCaptor.capture());
         assertEquals(List.of("fileDownloadRecords", "fileDownloads"), streamNameCaptor.getAllValues());
         KinesisJsonEntityRecord kinesisJsonEntityRecord = (KinesisJsonEntityRecord) fileRecordCaptor.getAllValues().get(0).get(0);
         FileEventRecord actualRecord = (FileEventRecord) kinesisJsonEntityRecord.getPayload();
@@ -148,7 +148,7 @@ public class FileEventRecordWorkerTest {
         // Call under test
         worker.run(progressCallback, message, event);
 
-        verify(firehoseLogger, times(2)).logBatch(streamNameCaptor.capture(), fileRecordCaptor.capture());
+        verify(firehoseLogger, times(2)).logBatchAsync(streamNameCaptor.capture(), fileRecordCaptor.capture());
         assertEquals(List.of("fileDownloadRecords", "fileDownloads"), streamNameCaptor.getAllValues());
         KinesisJsonEntityRecord kinesisJsonEntityRecord = (KinesisJsonEntityRecord) fileRecordCaptor.getAllValues().get(0).get(0);
         FileEventRecord actualRecord = (FileEventRecord) kinesisJsonEntityRecord.getPayload();
@@ -173,7 +173,7 @@ public class FileEventRecordWorkerTest {
         // Call under test
         worker.run(progressCallback, message, event);
 
-        verify(firehoseLogger, times(2)).logBatch(streamNameCaptor.capture(), fileRecordCaptor.capture());
+        verify(firehoseLogger, times(2)).logBatchAsync(streamNameCaptor.capture(), fileRecordCaptor.capture());
         assertEquals(List.of("fileDownloadRecords", "fileDownloads"), streamNameCaptor.getAllValues());
         KinesisJsonEntityRecord kinesisJsonEntityRecord = (KinesisJsonEntityRecord) fileRecordCaptor.getAllValues().get(0).get(0);
         FileEventRecord actualRecord = (FileEventRecord) kinesisJsonEntityRecord.getPayload();
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
@@ -147,15 +148,41 @@ public class TableSnapshotWorkerTest {
 	@Test
 	public void testRunWithNoVersion() throws RecoverableMessageException, Exception {
 		
+		IdAndVersion idAndVersion = IdAndVersion.parse("123");
+		
 		TableStatusChangeEvent event = new TableStatusChangeEvent()
 			.setObjectId("123")
 			.setState(TableState.AVAILABLE);
 		
+		when(mockTableManagerSupport.getTableType(any())).thenReturn(TableType.table);
+		
 		// Call under test
 		worker.run(mockCallback, mockMessage, event);
 		
-		verifyZeroInteractions(mockTableManager);
-		verifyZeroInteractions(mockTableManagerSupport);
+		verify(mockTableManagerSupport).getTableType(idAndVersion);
+		verify(mockTableManager).storeTableCheckpoint(idAndVersion, mockCallback);
+		verifyNoMoreInteractions(mockTableManager);
+	}
+	
+	@Test
+	public void testRunWithNoVersionAndLockUnavailableException() throws RecoverableMessageException, Exception {
+		
+		LockUnavilableException ex = new LockUnavilableException(LockType.Read, "key", "context");
+		
+		doThrow(ex).when(mockTableManager).storeTableCheckpoint(any(), any());
+		
+		TableStatusChangeEvent event = new TableStatusChangeEvent()
+			.setObjectId("123")
+			.setState(TableState.AVAILABLE);
+		
+		when(mockTableManagerSupport.getTableType(any())).thenReturn(TableType.table);
+		
+		RecoverableMessageException result = assertThrows(RecoverableMessageException.class, () -> {			
+			// Call under test
+			worker.run(mockCallback, mockMessage, event);
+		});
+		
+		assertEquals(ex, result.getCause());
 	}
 	
 	@Test